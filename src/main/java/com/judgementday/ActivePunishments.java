@@ -0,0 +1,169 @@
+package com.judgementday.data;
+
+import com.judgementday.model.Punishment;
+import com.judgementday.model.PunishmentType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of one player's active punishments. Changes build a new snapshot,
+ * which is swapped into the cache atomically, so readers never see a half-applied change.
+ * Ban and mute state is worked out once per snapshot, so checks need no iteration.
+ */
+public final class ActivePunishments {
+
+    public static final ActivePunishments EMPTY = new ActivePunishments(Collections.emptyList());
+
+    private final List<Punishment> punishments;
+    private final Punishment latestBan;
+    private final Punishment latestMute;
+    private final long banExpiry;
+    private final long muteExpiry;
+    private final long earliestExpiry;
+
+    private ActivePunishments(List<Punishment> punishments) {
+        this.punishments = Collections.unmodifiableList(punishments);
+
+        Punishment ban = null;
+        Punishment mute = null;
+        long banUntil = 0L;
+        long muteUntil = 0L;
+        long earliest = Long.MAX_VALUE;
+
+        for (Punishment punishment : punishments) {
+            if (punishment.getType() == PunishmentType.BAN) {
+                ban = later(ban, punishment);
+                banUntil = maxExpiry(banUntil, punishment.getExpiry());
+            } else if (punishment.getType() == PunishmentType.MUTE) {
+                mute = later(mute, punishment);
+                muteUntil = maxExpiry(muteUntil, punishment.getExpiry());
+            }
+
+            if (punishment.getExpiry() != -1) {
+                earliest = Math.min(earliest, punishment.getExpiry());
+            }
+        }
+
+        this.latestBan = ban;
+        this.latestMute = mute;
+        this.banExpiry = banUntil;
+        this.muteExpiry = muteUntil;
+        this.earliestExpiry = earliest;
+    }
+
+    /**
+     * Build a snapshot
+     *
+     * @param punishments The player's active punishments
+     * @return The snapshot
+     */
+    public static ActivePunishments of(Collection<Punishment> punishments) {
+        return punishments.isEmpty() ? EMPTY : new ActivePunishments(new ArrayList<>(punishments));
+    }
+
+    /**
+     * Get a snapshot with a punishment added, replacing any punishment with the same id
+     *
+     * @param punishment The punishment
+     * @return The new snapshot
+     */
+    public ActivePunishments with(Punishment punishment) {
+        List<Punishment> updated = new ArrayList<>(punishments.size() + 1);
+        for (Punishment existing : punishments) {
+            if (existing.getId() != punishment.getId()) {
+                updated.add(existing);
+            }
+        }
+        updated.add(punishment);
+
+        return new ActivePunishments(updated);
+    }
+
+    /**
+     * Get a snapshot without a punishment
+     *
+     * @param id The punishment id
+     * @return The new snapshot, or this one if it did not hold the punishment
+     */
+    public ActivePunishments without(int id) {
+        List<Punishment> updated = new ArrayList<>(punishments.size());
+        for (Punishment existing : punishments) {
+            if (existing.getId() != id) {
+                updated.add(existing);
+            }
+        }
+
+        if (updated.size() == punishments.size()) {
+            return this;
+        }
+        return updated.isEmpty() ? EMPTY : new ActivePunishments(updated);
+    }
+
+    public boolean isBanned(long now) {
+        return latestBan != null && (banExpiry == -1 || banExpiry > now);
+    }
+
+    public boolean isMuted(long now) {
+        return latestMute != null && (muteExpiry == -1 || muteExpiry > now);
+    }
+
+    /**
+     * Get the most recently issued ban
+     *
+     * @return The ban, or null if there is none
+     */
+    public Punishment getLatestBan() {
+        return latestBan;
+    }
+
+    /**
+     * Get the most recently issued mute
+     *
+     * @return The mute, or null if there is none
+     */
+    public Punishment getLatestMute() {
+        return latestMute;
+    }
+
+    /**
+     * Check whether any punishment in the snapshot has run out
+     *
+     * @param now Current time in milliseconds
+     * @return true if some punishment has expired
+     */
+    public boolean hasExpired(long now) {
+        return earliestExpiry < now;
+    }
+
+    /**
+     * Get every punishment in the snapshot, including any that have expired since
+     *
+     * @return An unmodifiable list
+     */
+    public List<Punishment> getPunishments() {
+        return punishments;
+    }
+
+    public boolean isEmpty() {
+        return punishments.isEmpty();
+    }
+
+    public int size() {
+        return punishments.size();
+    }
+
+    private static Punishment later(Punishment current, Punishment candidate) {
+        return current == null || candidate.getTimeIssued() >= current.getTimeIssued() ? candidate : current;
+    }
+
+    private static long maxExpiry(long a, long b) {
+        // -1 means permanent and beats any expiry time
+        if (a == -1 || b == -1) {
+            return -1;
+        }
+        return Math.max(a, b);
+    }
+}
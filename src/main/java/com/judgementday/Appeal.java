@@ -49,19 +49,19 @@ public class Appeal implements ConfigurationSerializable {
     }
 
     public Appeal(Map<String, Object> map) {
-        this.id = (int) map.get("id");
-        this.punishmentId = (int) map.get("punishmentId");
+        this.id = ((Number) map.get("id")).intValue();
+        this.punishmentId = ((Number) map.get("punishmentId")).intValue();
         this.playerUuid = UUID.fromString((String) map.get("playerUuid"));
         this.playerName = (String) map.get("playerName");
         this.reason = (String) map.get("reason");
         this.evidence = (String) map.get("evidence");
-        this.timeCreated = (long) map.get("timeCreated");
+        this.timeCreated = ((Number) map.get("timeCreated")).longValue();
         this.status = AppealStatus.valueOf((String) map.get("status"));
 
         if (map.containsKey("reviewerUuid")) {
             this.reviewerUuid = UUID.fromString((String) map.get("reviewerUuid"));
             this.reviewerName = (String) map.get("reviewerName");
-            this.timeReviewed = (long) map.get("timeReviewed");
+            this.timeReviewed = ((Number) map.get("timeReviewed")).longValue();
             this.reviewComment = (String) map.get("reviewComment");
         }
     }
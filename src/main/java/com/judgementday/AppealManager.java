@@ -4,13 +4,11 @@ import com.judgementday.JudgementDay;
 import com.judgementday.event.AppealCreateEvent;
 import com.judgementday.event.AppealProcessEvent;
 import com.judgementday.model.Appeal;
-import com.judgementday.util.MessageUtil;
+import com.judgementday.util.MainThread;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -62,25 +60,25 @@ public class AppealManager {
                                 }
 
                                 // Create new appeal
-                                int id = plugin.getDataManager().getNextAppealId();
-                                Appeal appeal = new Appeal(id, punishmentId, playerUuid, playerName, reason, evidence);
-
-                                // Call event
-                                AppealCreateEvent event = new AppealCreateEvent(appeal);
-                                Bukkit.getPluginManager().callEvent(event);
-
-                                if (event.isCancelled()) {
-                                    return CompletableFuture.completedFuture(-5);
-                                }
-
-                                // Save appeal
-                                return plugin.getDataManager().addAppeal(appeal)
-                                        .thenApply(v -> {
-                                            // Broadcast to staff
-                                            broadcastAppeal(appeal);
-
-                                            return id;
-                                        });
+                                return plugin.getDataManager().getNextAppealId().thenCompose(id -> {
+                                    Appeal appeal = new Appeal(id, punishmentId, playerUuid, playerName, reason, evidence);
+
+                                    // Call event
+                                    return MainThread.callEvent(plugin, new AppealCreateEvent(appeal)).thenCompose(event -> {
+                                        if (event.isCancelled()) {
+                                            return CompletableFuture.completedFuture(-5);
+                                        }
+
+                                        // Save appeal
+                                        return plugin.getDataManager().addAppeal(appeal)
+                                                .thenApply(v -> {
+                                                    // Broadcast to staff on the main thread
+                                                    MainThread.run(plugin, () -> broadcastAppeal(appeal));
+
+                                                    return id;
+                                                });
+                                    });
+                                });
                             });
                 });
     }
@@ -102,36 +100,36 @@ public class AppealManager {
                     }
 
                     // Call event
-                    AppealProcessEvent event = new AppealProcessEvent(appeal, reviewerUuid, reviewerName,
+                    AppealProcessEvent processEvent = new AppealProcessEvent(appeal, reviewerUuid, reviewerName,
                             comment, true);
-                    Bukkit.getPluginManager().callEvent(event);
-
-                    if (event.isCancelled()) {
-                        return CompletableFuture.completedFuture(false);
-                    }
-
-                    // Approve appeal in database
-                    return plugin.getDataManager().approveAppeal(id, reviewerUuid, reviewerName, comment)
-                            .thenCompose(success -> {
-                                if (success) {
-                                    // Revoke the punishment
-                                    return plugin.getPunishmentManager().revokePunishment(
-                                                    appeal.getPunishmentId(), reviewerUuid, reviewerName)
-                                            .thenApply(revoked -> {
-                                                if (revoked) {
-                                                    // Notify the player
-                                                    notifyAppealResult(appeal, true, reviewerName, comment);
-
-                                                    // Broadcast to staff
-                                                    broadcastAppealApproval(appeal, reviewerName);
-                                                }
-
-                                                return revoked;
-                                            });
-                                }
+                    return MainThread.callEvent(plugin, processEvent).thenCompose(event -> {
+                        if (event.isCancelled()) {
+                            return CompletableFuture.completedFuture(false);
+                        }
+
+                        // Approve appeal in database
+                        return plugin.getDataManager().approveAppeal(id, reviewerUuid, reviewerName, comment)
+                                .thenCompose(success -> {
+                                    if (success) {
+                                        // Revoke the punishment
+                                        return plugin.getPunishmentManager().revokePunishment(
+                                                        appeal.getPunishmentId(), reviewerUuid, reviewerName)
+                                                .thenApply(revoked -> {
+                                                    if (revoked) {
+                                                        // Notify the player and staff on the main thread
+                                                        MainThread.run(plugin, () -> {
+                                                            notifyAppealResult(appeal, true, reviewerName, comment);
+                                                            broadcastAppealApproval(appeal, reviewerName);
+                                                        });
+                                                    }
+
+                                                    return revoked;
+                                                });
+                                    }
 
-                                return CompletableFuture.completedFuture(false);
-                            });
+                                    return CompletableFuture.completedFuture(false);
+                                });
+                    });
                 });
     }
 
@@ -152,27 +150,27 @@ public class AppealManager {
                     }
 
                     // Call event
-                    AppealProcessEvent event = new AppealProcessEvent(appeal, reviewerUuid, reviewerName,
+                    AppealProcessEvent processEvent = new AppealProcessEvent(appeal, reviewerUuid, reviewerName,
                             comment, false);
-                    Bukkit.getPluginManager().callEvent(event);
-
-                    if (event.isCancelled()) {
-                        return CompletableFuture.completedFuture(false);
-                    }
-
-                    // Deny appeal in database
-                    return plugin.getDataManager().denyAppeal(id, reviewerUuid, reviewerName, comment)
-                            .thenApply(success -> {
-                                if (success) {
-                                    // Notify the player
-                                    notifyAppealResult(appeal, false, reviewerName, comment);
-
-                                    // Broadcast to staff
-                                    broadcastAppealDenial(appeal, reviewerName);
-                                }
+                    return MainThread.callEvent(plugin, processEvent).thenCompose(event -> {
+                        if (event.isCancelled()) {
+                            return CompletableFuture.completedFuture(false);
+                        }
+
+                        // Deny appeal in database
+                        return plugin.getDataManager().denyAppeal(id, reviewerUuid, reviewerName, comment)
+                                .thenApply(success -> {
+                                    if (success) {
+                                        // Notify the player and staff on the main thread
+                                        MainThread.run(plugin, () -> {
+                                            notifyAppealResult(appeal, false, reviewerName, comment);
+                                            broadcastAppealDenial(appeal, reviewerName);
+                                        });
+                                    }
 
-                                return success;
-                            });
+                                    return success;
+                                });
+                    });
                 });
     }
 
@@ -270,20 +268,13 @@ public class AppealManager {
      * @param appeal The appeal to broadcast
      */
     private void broadcastAppeal(Appeal appeal) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("player", appeal.getPlayerName());
-        placeholders.put("id", String.valueOf(appeal.getId()));
-        placeholders.put("punishment_id", String.valueOf(appeal.getPunishmentId()));
-
-        String message = plugin.getConfigManager().getPrefix() +
-                plugin.getConfigManager().getMessage("appeal.broadcast");
-        String formattedMessage = MessageUtil.formatMessage(message, placeholders);
-
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.hasPermission("judgementday.appeals")) {
-                player.sendMessage(formattedMessage);
-            }
-        }
+        String formattedMessage = plugin.getConfigManager().getPrefixedTemplate("appeal.broadcast").bind()
+                .with("player", appeal.getPlayerName())
+                .with("id", appeal.getId())
+                .with("punishment_id", appeal.getPunishmentId())
+                .render();
+
+        plugin.getStaffAudience().broadcast(StaffAudience.Channel.APPEALS, formattedMessage);
     }
 
     /**
@@ -293,21 +284,14 @@ public class AppealManager {
      * @param reviewerName The name of the staff member who approved the appeal
      */
     private void broadcastAppealApproval(Appeal appeal, String reviewerName) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("player", appeal.getPlayerName());
-        placeholders.put("reviewer", reviewerName);
-        placeholders.put("id", String.valueOf(appeal.getId()));
-        placeholders.put("punishment_id", String.valueOf(appeal.getPunishmentId()));
-
-        String message = plugin.getConfigManager().getPrefix() +
-                plugin.getConfigManager().getMessage("appeal.approved-broadcast");
-        String formattedMessage = MessageUtil.formatMessage(message, placeholders);
-
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.hasPermission("judgementday.appeals")) {
-                player.sendMessage(formattedMessage);
-            }
-        }
+        String formattedMessage = plugin.getConfigManager().getPrefixedTemplate("appeal.approved-broadcast").bind()
+                .with("player", appeal.getPlayerName())
+                .with("reviewer", reviewerName)
+                .with("id", appeal.getId())
+                .with("punishment_id", appeal.getPunishmentId())
+                .render();
+
+        plugin.getStaffAudience().broadcast(StaffAudience.Channel.APPEALS, formattedMessage);
     }
 
     /**
@@ -317,21 +301,14 @@ public class AppealManager {
      * @param reviewerName The name of the staff member who denied the appeal
      */
     private void broadcastAppealDenial(Appeal appeal, String reviewerName) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("player", appeal.getPlayerName());
-        placeholders.put("reviewer", reviewerName);
-        placeholders.put("id", String.valueOf(appeal.getId()));
-        placeholders.put("punishment_id", String.valueOf(appeal.getPunishmentId()));
-
-        String message = plugin.getConfigManager().getPrefix() +
-                plugin.getConfigManager().getMessage("appeal.denied-broadcast");
-        String formattedMessage = MessageUtil.formatMessage(message, placeholders);
-
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.hasPermission("judgementday.appeals")) {
-                player.sendMessage(formattedMessage);
-            }
-        }
+        String formattedMessage = plugin.getConfigManager().getPrefixedTemplate("appeal.denied-broadcast").bind()
+                .with("player", appeal.getPlayerName())
+                .with("reviewer", reviewerName)
+                .with("id", appeal.getId())
+                .with("punishment_id", appeal.getPunishmentId())
+                .render();
+
+        plugin.getStaffAudience().broadcast(StaffAudience.Channel.APPEALS, formattedMessage);
     }
 
     /**
@@ -348,16 +325,13 @@ public class AppealManager {
             return;
         }
 
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("id", String.valueOf(appeal.getId()));
-        placeholders.put("punishment_id", String.valueOf(appeal.getPunishmentId()));
-        placeholders.put("reviewer", reviewerName);
-        placeholders.put("comment", comment);
-
         String messagePath = approved ? "appeal.approved-notification" : "appeal.denied-notification";
-        String message = plugin.getConfigManager().getPrefix() +
-                plugin.getConfigManager().getMessage(messagePath);
-        String formattedMessage = MessageUtil.formatMessage(message, placeholders);
+        String formattedMessage = plugin.getConfigManager().getPrefixedTemplate(messagePath).bind()
+                .with("id", appeal.getId())
+                .with("punishment_id", appeal.getPunishmentId())
+                .with("reviewer", reviewerName)
+                .with("comment", comment)
+                .render();
 
         player.sendMessage(formattedMessage);
     }
@@ -0,0 +1,171 @@
+package com.judgementday.manager;
+
+import com.judgementday.model.Punishment;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory index of banned players, keyed by UUID, holding the ban that lasts
+ * longest and its pre-rendered kick message. Lookups never touch storage.
+ */
+public class BanIndex {
+
+    /** Stored for players known to have no active ban while the index is not authoritative */
+    private static final Entry NOT_BANNED = new Entry(0, 0L, 0L, null);
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    // Once every active ban has been loaded, a missing entry means "not banned"
+    private volatile boolean authoritative = false;
+
+    public static final class Entry {
+        private final int punishmentId;
+        private final long timeIssued;
+        private final long expiry;
+        private final String kickMessage;
+
+        private Entry(int punishmentId, long timeIssued, long expiry, String kickMessage) {
+            this.punishmentId = punishmentId;
+            this.timeIssued = timeIssued;
+            this.expiry = expiry;
+            this.kickMessage = kickMessage;
+        }
+
+        public boolean isBanned(long now) {
+            return kickMessage != null && (expiry == -1 || expiry > now);
+        }
+
+        public int getPunishmentId() {
+            return punishmentId;
+        }
+
+        public long getExpiry() {
+            return expiry;
+        }
+
+        public String getKickMessage() {
+            return kickMessage;
+        }
+
+        private long effectiveExpiry() {
+            return expiry == -1 ? Long.MAX_VALUE : expiry;
+        }
+    }
+
+    /**
+     * Replace the index contents with every active ban
+     *
+     * @param bans All active bans
+     * @param renderer Renders the kick message for a ban
+     */
+    public void load(Collection<Punishment> bans, Function<Punishment, String> renderer) {
+        entries.clear();
+
+        for (Punishment ban : bans) {
+            put(ban, renderer.apply(ban));
+        }
+
+        authoritative = true;
+    }
+
+    /**
+     * Add a ban to the index. If the player is already banned, the ban that lasts longer wins.
+     *
+     * @param ban The ban
+     * @param kickMessage Pre-rendered kick message
+     */
+    public void put(Punishment ban, String kickMessage) {
+        Entry entry = new Entry(ban.getId(), ban.getTimeIssued(), ban.getExpiry(), kickMessage);
+        entries.merge(ban.getTargetUuid(), entry, BanIndex::longest);
+    }
+
+    /**
+     * Replace a player's entry with the given set of active bans
+     *
+     * @param uuid Player UUID
+     * @param bans The player's active bans
+     * @param renderer Renders the kick message for a ban
+     * @return The new entry for the player
+     */
+    public Entry update(UUID uuid, Collection<Punishment> bans, Function<Punishment, String> renderer) {
+        Punishment longest = null;
+        for (Punishment ban : bans) {
+            if (longest == null || effectiveExpiry(ban) > effectiveExpiry(longest) ||
+                    (effectiveExpiry(ban) == effectiveExpiry(longest) && ban.getTimeIssued() > longest.getTimeIssued())) {
+                longest = ban;
+            }
+        }
+
+        if (longest == null) {
+            setNotBanned(uuid);
+            return NOT_BANNED;
+        }
+
+        Entry entry = new Entry(longest.getId(), longest.getTimeIssued(), longest.getExpiry(), renderer.apply(longest));
+        entries.put(uuid, entry);
+        return entry;
+    }
+
+    /**
+     * Record that a player has no active ban
+     *
+     * @param uuid Player UUID
+     */
+    public void setNotBanned(UUID uuid) {
+        if (authoritative) {
+            entries.remove(uuid);
+        } else {
+            entries.put(uuid, NOT_BANNED);
+        }
+    }
+
+    /**
+     * Look up a player's ban state
+     *
+     * @param uuid Player UUID
+     * @return The player's entry, or null if the index cannot answer for this player
+     */
+    public Entry lookup(UUID uuid) {
+        Entry entry = entries.get(uuid);
+
+        if (entry == null) {
+            return authoritative ? NOT_BANNED : null;
+        }
+
+        // Drop expired bans as they are found
+        if (entry != NOT_BANNED && !entry.isBanned(System.currentTimeMillis())) {
+            if (authoritative) {
+                entries.remove(uuid, entry);
+            } else {
+                entries.replace(uuid, entry, NOT_BANNED);
+            }
+            return NOT_BANNED;
+        }
+
+        return entry;
+    }
+
+    public boolean isAuthoritative() {
+        return authoritative;
+    }
+
+    private static Entry longest(Entry current, Entry added) {
+        if (current.kickMessage == null) {
+            return added;
+        }
+
+        if (added.effectiveExpiry() != current.effectiveExpiry()) {
+            return added.effectiveExpiry() > current.effectiveExpiry() ? added : current;
+        }
+
+        return added.timeIssued >= current.timeIssued ? added : current;
+    }
+
+    private static long effectiveExpiry(Punishment ban) {
+        return ban.getExpiry() == -1 ? Long.MAX_VALUE : ban.getExpiry();
+    }
+}
@@ -0,0 +1,157 @@
+package com.judgementday.command;
+
+import com.judgementday.JudgementDay;
+import com.judgementday.model.PunishmentType;
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+public class BulkPunishCommand implements CommandExecutor, TabCompleter {
+
+    // Stored as the punisher when the console issues a wave, e.g. from an anticheat
+    private static final UUID CONSOLE_UUID = new UUID(0L, 0L);
+
+    private final JudgementDay plugin;
+
+    public BulkPunishCommand(JudgementDay plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        // Check permission
+        if (!sender.hasPermission("judgementday.punish.bulk")) {
+            sender.sendMessage(plugin.getConfigManager().formatMessage("general.no-permission", null));
+            return true;
+        }
+
+        // Check arguments: /bulkpunish <type> <player,player,...> <proof> <reason>
+        if (args.length < 4) {
+            sender.sendMessage(plugin.getConfigManager().formatMessage("command.bulkpunish.usage", null));
+            return true;
+        }
+
+        PunishmentType type = PunishmentType.fromString(args[0]);
+        if (type == null) {
+            sender.sendMessage(plugin.getConfigManager().formatMessage("command.bulkpunish.invalid-type", null));
+            return true;
+        }
+
+        String proofLink = args[2];
+        if (!plugin.getPlayerManager().isValidProofLink(proofLink)) {
+            sender.sendMessage(plugin.getConfigManager().formatMessage("punishment.invalid-proof-link", null));
+            return true;
+        }
+
+        // Check if reason is valid
+        String reason = String.join(" ", Arrays.copyOfRange(args, 3, args.length));
+        List<String> validReasons = plugin.getConfigManager().getPunishmentReasons(type);
+        if (!validReasons.contains(reason) && !sender.hasPermission("judgementday.reason.custom")) {
+            sender.sendMessage(plugin.getConfigManager().formatMessage("command.punish.invalid-reason", null));
+            return true;
+        }
+
+        // Resolve targets, skipping exempt players; offline names are resolved off the main thread
+        Map<String, CompletableFuture<UUID>> lookups = new LinkedHashMap<>();
+        int skipped = 0;
+        for (String targetName : args[1].split(",")) {
+            if (targetName.isEmpty()) {
+                continue;
+            }
+
+            Player target = Bukkit.getPlayer(targetName);
+            if (target == null) {
+                lookups.putIfAbsent(targetName, plugin.getPlayerManager().resolvePlayerUuid(targetName));
+                continue;
+            }
+
+            if (target.equals(sender) ||
+                    target.hasPermission("judgementday.exempt") && !sender.hasPermission("judgementday.punish.exempt")) {
+                skipped++;
+                continue;
+            }
+
+            lookups.putIfAbsent(target.getName(), CompletableFuture.completedFuture(target.getUniqueId()));
+        }
+
+        int skippedOnline = skipped;
+        CommandPipeline pipeline = plugin.getCommandPipeline();
+        pipeline.run("bulkpunish.lookup", sender, CompletableFuture.allOf(lookups.values().toArray(new CompletableFuture<?>[0])), v -> {
+            // Skip unknown and duplicate players
+            Map<UUID, String> targets = new LinkedHashMap<>();
+            int skippedTargets = skippedOnline;
+            for (Map.Entry<String, CompletableFuture<UUID>> lookup : lookups.entrySet()) {
+                UUID targetUuid = lookup.getValue().join();
+                if (targetUuid == null) {
+                    skippedTargets++;
+                    continue;
+                }
+                targets.putIfAbsent(targetUuid, lookup.getKey());
+            }
+
+            if (targets.isEmpty()) {
+                sender.sendMessage(plugin.getConfigManager().formatMessage("general.player-not-found", null));
+                return;
+            }
+
+            // Get punisher info
+            UUID punisherUuid = sender instanceof Player ? ((Player) sender).getUniqueId() : CONSOLE_UUID;
+            String punisherName = sender instanceof Player ? sender.getName() : "Console";
+
+            int skippedTotal = skippedTargets;
+            pipeline.run("bulkpunish", sender,
+                    plugin.getPunishmentManager().punishPlayers(targets, punisherUuid, punisherName, type, reason, proofLink),
+                    punishments -> {
+                        sender.sendMessage(plugin.getConfigManager().getPrefixedTemplate("command.bulkpunish.success").bind()
+                                .with("count", punishments.size())
+                                .with("skipped", skippedTotal + targets.size() - punishments.size())
+                                .render());
+                    });
+        });
+
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        // First argument - punishment type
+        if (args.length == 1) {
+            String partial = args[0].toLowerCase();
+            return Arrays.stream(PunishmentType.values())
+                    .map(type -> type.name().toLowerCase())
+                    .filter(name -> name.startsWith(partial))
+                    .collect(Collectors.toList());
+        }
+
+        // Second argument - comma separated player names, completing the last one
+        if (args.length == 2) {
+            String typed = args[1];
+            int comma = typed.lastIndexOf(',');
+            String prefix = typed.substring(0, comma + 1);
+            List<String> names = plugin.getPlayerManager().completePlayerName(typed.substring(comma + 1));
+            if (!prefix.isEmpty()) {
+                names.replaceAll(name -> prefix + name);
+            }
+            return names;
+        }
+
+        // Fourth argument - reason
+        if (args.length == 4) {
+            PunishmentType type = PunishmentType.fromString(args[0]);
+            if (type == null) {
+                return Collections.emptyList();
+            }
+
+            return plugin.getConfigManager().completePunishmentReason(type, args[3]);
+        }
+
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.judgementday.data;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Read position in the punishment change log, for {@link SqlChangeLogTransport}.
+ *
+ * Auto-increment ids become visible out of order when transactions commit out of order,
+ * so the position only moves past a missing id once it has stayed missing for a while
+ * (a rolled back insert). Rows after a gap are delivered straight away and remembered, so
+ * they are not delivered again when the gap fills, while the missing row is still
+ * delivered once it commits.
+ */
+public class ChangeLogCursor {
+
+    private final long gapTimeoutMillis;
+
+    // Rows after the position that have already been delivered
+    private final NavigableSet<Long> delivered = new TreeSet<>();
+
+    private long position;
+    private long gapSince;
+    private boolean contiguous;
+
+    /**
+     * Create a cursor
+     *
+     * @param position Id of the last row already handled
+     * @param gapTimeoutMillis How long a missing id is waited for
+     */
+    public ChangeLogCursor(long position, long gapTimeoutMillis) {
+        this.position = position;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+    }
+
+    /**
+     * Get the id rows should be read after
+     *
+     * @return The position
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Start a read of the rows after {@link #getPosition()}, which are then passed to
+     * {@link #advance(long, long)} in id order
+     */
+    public void beginRead() {
+        contiguous = true;
+    }
+
+    /**
+     * Account for a row that was read
+     *
+     * @param id Row id
+     * @param now Current time in milliseconds
+     * @return Whether the row has not been delivered before and should be now
+     */
+    public boolean advance(long id, long now) {
+        boolean fresh = id > position && delivered.add(id);
+
+        if (contiguous) {
+            if (id == position + 1) {
+                moveTo(id);
+            } else if (gapSince == 0L) {
+                // A transaction holding the missing id may not have committed yet
+                gapSince = now;
+                contiguous = false;
+            } else if (now - gapSince >= gapTimeoutMillis) {
+                moveTo(id);
+            } else {
+                contiguous = false;
+            }
+        }
+
+        return fresh;
+    }
+
+    private void moveTo(long id) {
+        position = id;
+        gapSince = 0L;
+        delivered.headSet(id, true).clear();
+    }
+}
@@ -1,9 +1,8 @@
 package com.judgementday.listener;
 
 import com.judgementday.JudgementDay;
-import com.judgementday.model.Punishment;
+import com.judgementday.command.CommandPipeline;
 import com.judgementday.model.PunishmentType;
-import com.judgementday.util.MessageUtil;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -11,9 +10,7 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 
 import java.util.Collections;
-import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
 
 public class ChatListener implements Listener {
 
@@ -36,33 +33,12 @@ public class ChatListener implements Listener {
             return;
         }
 
-        // Check if player is muted
-        try {
-            boolean muted = plugin.getPlayerManager().isPlayerMuted(uuid).get();
-
-            if (muted) {
-                event.setCancelled(true);
-
-                // Get active mutes
-                List<Punishment> mutes = plugin.getPlayerManager().getActivePlayerPunishmentsByType(uuid, PunishmentType.MUTE).get();
-
-                if (!mutes.isEmpty()) {
-                    // Get the most recent mute
-                    mutes.sort((m1, m2) -> Long.compare(m2.getTimeIssued(), m1.getTimeIssued()));
-                    Punishment mute = mutes.get(0);
-
-                    // Send mute message
-                    player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                                    plugin.getConfigManager().getMessage("punishment.muted"),
-                            Collections.singletonMap("type", mute.getType().getDisplayName())));
-                    player.sendMessage(plugin.getPunishmentManager().getPunishmentMessage(mute));
-                } else {
-                    player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                            plugin.getConfigManager().getMessage("punishment.muted-generic"), null));
-                }
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            plugin.getLogger().severe("Error checking mute status for " + player.getName() + ": " + e.getMessage());
+        // Check if player is muted - a single map lookup, never blocks
+        String[] muteMessages = plugin.getPlayerManager().getCachedMuteMessages(uuid);
+
+        if (muteMessages != null) {
+            event.setCancelled(true);
+            player.sendMessage(muteMessages);
         }
     }
 
@@ -71,8 +47,7 @@ public class ChatListener implements Listener {
 
         // Validate link
         if (!plugin.getPlayerManager().isValidProofLink(link)) {
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("punishment.invalid-proof-link"), null));
+            player.sendMessage(plugin.getConfigManager().formatMessage("punishment.invalid-proof-link", null));
             return;
         }
 
@@ -80,24 +55,14 @@ public class ChatListener implements Listener {
         String targetPlayer = plugin.getPunishmentManager().removeAwaitingProofLink(uuid);
 
         if (targetPlayer == null) {
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("punishment.error"), null));
+            player.sendMessage(plugin.getConfigManager().formatMessage("punishment.error", null));
             return;
         }
 
         // Get pending punishment data
         if (!plugin.getPunishmentManager().getPendingPunishment(uuid).containsKey("target") ||
                 !plugin.getPunishmentManager().getPendingPunishment(uuid).get("target").equals(targetPlayer)) {
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("punishment.error"), null));
-            return;
-        }
-
-        // Complete the punishment process
-        UUID targetUuid = plugin.getPlayerManager().getPlayerUuid(targetPlayer);
-        if (targetUuid == null) {
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("punishment.invalid-player"), null));
+            player.sendMessage(plugin.getConfigManager().formatMessage("punishment.error", null));
             return;
         }
 
@@ -105,23 +70,29 @@ public class ChatListener implements Listener {
         PunishmentType type = (PunishmentType) plugin.getPunishmentManager().getPendingPunishment(uuid).get("type");
         String reason = (String) plugin.getPunishmentManager().getPendingPunishment(uuid).get("reason");
 
-        // Apply punishment
-        plugin.getPunishmentManager().punishPlayer(
-                        targetUuid, targetPlayer,
-                        uuid, player.getName(),
-                        type, reason, link)
-                .thenAccept(id -> {
-                    if (id > 0) {
-                        player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                                        plugin.getConfigManager().getMessage("punishment.success"),
-                                Collections.singletonMap("id", String.valueOf(id))));
-                    } else {
-                        player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                                plugin.getConfigManager().getMessage("punishment.error"), null));
-                    }
-                });
-
         // Remove pending punishment data
         plugin.getPunishmentManager().removePendingPunishment(uuid);
+
+        // Resolve the target, then apply the punishment - neither blocks the chat thread
+        CommandPipeline pipeline = plugin.getCommandPipeline();
+        pipeline.run("punish.lookup", player, plugin.getPlayerManager().resolvePlayerUuid(targetPlayer), targetUuid -> {
+            if (targetUuid == null) {
+                player.sendMessage(plugin.getConfigManager().formatMessage("punishment.invalid-player", null));
+                return;
+            }
+
+            pipeline.run("punish", player, plugin.getPunishmentManager().punishPlayer(
+                            targetUuid, targetPlayer,
+                            uuid, player.getName(),
+                            type, reason, link),
+                    id -> {
+                        if (id > 0) {
+                            player.sendMessage(plugin.getConfigManager().formatMessage("punishment.success",
+                                    Collections.singletonMap("id", String.valueOf(id))));
+                        } else {
+                            player.sendMessage(plugin.getConfigManager().formatMessage("punishment.error", null));
+                        }
+                    });
+        });
     }
 }
\ No newline at end of file
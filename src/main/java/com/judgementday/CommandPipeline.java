@@ -0,0 +1,177 @@
+package com.judgementday.command;
+
+import com.judgementday.JudgementDay;
+import com.judgementday.util.LogUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Runs the slow parts of commands - storage lookups and name to UUID resolution - off the
+ * main thread. A command hands over the future of its lookup and a handler; the handler is
+ * called back on the main thread once the lookup is done, so it can use the Bukkit API
+ * freely. A lookup that takes longer than the configured timeout is answered with a
+ * message instead, and its late result is dropped. The time each step takes, from the
+ * command until its handler has run, is recorded per step.
+ */
+public class CommandPipeline {
+
+    /**
+     * Latency of one command step
+     */
+    public static final class StepStats {
+        private final String name;
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private StepStats(String name) {
+            this.name = name;
+        }
+
+        private void record(long start) {
+            long elapsed = System.nanoTime() - start;
+            runs.increment();
+            totalNanos.add(elapsed);
+            maxNanos.accumulateAndGet(elapsed, Math::max);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getRunCount() {
+            return runs.sum();
+        }
+
+        public long getFailureCount() {
+            return failures.sum();
+        }
+
+        public long getTimeoutCount() {
+            return timeouts.sum();
+        }
+
+        public long getMaxTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+
+        /**
+         * Get the mean time per run
+         *
+         * @return Mean time in milliseconds, or 0 if never run
+         */
+        public double getMeanTimeMillis() {
+            long count = runs.sum();
+            return count == 0 ? 0.0 : totalNanos.sum() / (double) count / 1000000.0;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + getRunCount() + " runs, " + String.format("%.2f", getMeanTimeMillis()) +
+                    " ms mean, " + getMaxTimeMillis() + " ms max, " + getFailureCount() + " failed, " +
+                    getTimeoutCount() + " timed out";
+        }
+    }
+
+    private final JudgementDay plugin;
+    private final long timeoutTicks;
+    private final Map<String, StepStats> stats = new ConcurrentHashMap<>();
+
+    public CommandPipeline(JudgementDay plugin) {
+        this.plugin = plugin;
+        long timeoutSeconds = plugin.getConfigManager().getMainConfig().getLong("commands.timeout", 10L);
+        this.timeoutTicks = Math.max(1L, timeoutSeconds * 20L);
+    }
+
+    /**
+     * Wait for a lookup without blocking, then handle its result on the main thread. If the
+     * lookup fails or times out, the sender is told instead and the handler is not called.
+     *
+     * @param step Name of the step, for the latency stats (e.g. "revoke.lookup")
+     * @param sender Who ran the command
+     * @param lookup The lookup in progress
+     * @param handler Called on the main thread with the lookup's result
+     */
+    public <T> void run(String step, CommandSender sender, CompletableFuture<T> lookup, Consumer<? super T> handler) {
+        StepStats stepStats = stats.computeIfAbsent(step, StepStats::new);
+        long start = System.nanoTime();
+
+        // Whichever comes first - the result or the timeout - answers the sender. A lookup
+        // that is already done (e.g. a cache hit) is handled straight away.
+        AtomicBoolean answered = new AtomicBoolean();
+        BukkitTask timeout = lookup.isDone() ? null : Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            if (answered.compareAndSet(false, true)) {
+                stepStats.timeouts.increment();
+                stepStats.record(start);
+                LogUtil.warning("Command step " + step + " for " + sender.getName() + " timed out");
+                sendMessage(sender, "general.timeout");
+            }
+        }, timeoutTicks);
+
+        lookup.whenComplete((result, error) -> runOnMainThread(() -> {
+            if (!answered.compareAndSet(false, true)) {
+                return;
+            }
+            if (timeout != null) {
+                timeout.cancel();
+            }
+
+            try {
+                if (error != null) {
+                    stepStats.failures.increment();
+                    LogUtil.severe("Command step " + step + " for " + sender.getName() + " failed",
+                            error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                    sendMessage(sender, "general.error");
+                    return;
+                }
+
+                handler.accept(result);
+            } catch (RuntimeException e) {
+                stepStats.failures.increment();
+                LogUtil.severe("Command step " + step + " for " + sender.getName() + " failed", e);
+                sendMessage(sender, "general.error");
+            } finally {
+                stepStats.record(start);
+            }
+        }));
+    }
+
+    /**
+     * Get the latency of every step run so far
+     *
+     * @return The stats, slowest on average first
+     */
+    public List<StepStats> getStats() {
+        List<StepStats> sorted = new ArrayList<>(stats.values());
+        sorted.sort(Comparator.comparingDouble(StepStats::getMeanTimeMillis).reversed());
+        return sorted;
+    }
+
+    private void runOnMainThread(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    private void sendMessage(CommandSender sender, String key) {
+        sender.sendMessage(plugin.getConfigManager().formatMessage(key, null));
+    }
+}
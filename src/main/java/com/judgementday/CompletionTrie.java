@@ -0,0 +1,191 @@
+package com.judgementday.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prefix tree for tab completion. Words are matched case-insensitively but completed in
+ * the case they were added in. A completion walks down to the node of the typed prefix
+ * and collects at most the requested number of words below it in alphabetical order, so
+ * nothing but the result list is allocated and words not matching are never visited.
+ */
+public class CompletionTrie {
+
+    private static final class Node {
+        // Child characters kept sorted, with their nodes at the same positions
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int childCount;
+
+        // The word ending here, in its original case, or null if none does
+        private String word;
+
+        private Node child(char key) {
+            int index = Arrays.binarySearch(keys, 0, childCount, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node addChild(char key) {
+            int index = Arrays.binarySearch(keys, 0, childCount, key);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            int insertAt = -index - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+
+            Node node = new Node();
+            keys[insertAt] = key;
+            children[insertAt] = node;
+            childCount++;
+            return node;
+        }
+
+        private void removeChild(char key) {
+            int index = Arrays.binarySearch(keys, 0, childCount, key);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(keys, index + 1, keys, index, childCount - index - 1);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            childCount--;
+            children[childCount] = null;
+        }
+    }
+
+    private Node root = new Node();
+    private int size;
+
+    /**
+     * Add a word, replacing the case of an existing word that only differs in case
+     *
+     * @param word The word
+     */
+    public synchronized void add(String word) {
+        String key = word.toLowerCase(Locale.ROOT);
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.addChild(key.charAt(i));
+        }
+
+        if (node.word == null) {
+            size++;
+        }
+        node.word = word;
+    }
+
+    /**
+     * Remove a word, in any case
+     *
+     * @param word The word
+     * @return True if the word was present
+     */
+    public synchronized boolean remove(String word) {
+        String key = word.toLowerCase(Locale.ROOT);
+
+        // Remember the path so nodes left without words can be pruned
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+            if (path[i + 1] == null) {
+                return false;
+            }
+        }
+
+        Node node = path[key.length()];
+        if (node.word == null) {
+            return false;
+        }
+        node.word = null;
+        size--;
+
+        for (int i = key.length(); i > 0 && path[i].word == null && path[i].childCount == 0; i--) {
+            path[i - 1].removeChild(key.charAt(i - 1));
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a word is present, in any case
+     *
+     * @param word The word
+     * @return True if the word is present
+     */
+    public synchronized boolean contains(String word) {
+        Node node = find(word.toLowerCase(Locale.ROOT));
+        return node != null && node.word != null;
+    }
+
+    /**
+     * Find the words starting with a prefix
+     *
+     * @param prefix Start of the word, in any case
+     * @param limit Maximum number of words returned
+     * @return The words in alphabetical order
+     */
+    public List<String> complete(String prefix, int limit) {
+        List<String> words = new ArrayList<>();
+        complete(prefix, limit, words);
+        return words;
+    }
+
+    /**
+     * Add the words starting with a prefix to a list, until the list holds the limit
+     *
+     * @param prefix Start of the word, in any case
+     * @param limit Size the list may grow to
+     * @param words The list to add to
+     */
+    public synchronized void complete(String prefix, int limit, List<String> words) {
+        Node node = find(prefix.toLowerCase(Locale.ROOT));
+        if (node != null) {
+            collect(node, limit, words);
+        }
+    }
+
+    /**
+     * Replace every word
+     *
+     * @param words The new words
+     */
+    public synchronized void replaceAll(Iterable<String> words) {
+        root = new Node();
+        size = 0;
+        for (String word : words) {
+            add(word);
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    private static void collect(Node node, int limit, List<String> words) {
+        if (words.size() >= limit) {
+            return;
+        }
+        if (node.word != null) {
+            words.add(node.word);
+        }
+        for (int i = 0; i < node.childCount && words.size() < limit; i++) {
+            collect(node.children[i], limit, words);
+        }
+    }
+}
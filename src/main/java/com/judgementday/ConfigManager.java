@@ -2,7 +2,9 @@ package com.judgementday.config;
 
 import com.judgementday.JudgementDay;
 import com.judgementday.model.PunishmentType;
+import com.judgementday.util.CompletionTrie;
 import com.judgementday.util.LogUtil;
+import com.judgementday.util.MessageTemplate;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
@@ -27,6 +29,11 @@ public class ConfigManager {
     // Cache for punishment reasons and durations
     private final Map<PunishmentType, List<String>> punishmentReasons = new EnumMap<>(PunishmentType.class);
     private final Map<PunishmentType, Map<String, Map<Integer, Long>>> punishmentDurations = new EnumMap<>(PunishmentType.class);
+    private final Map<PunishmentType, CompletionTrie> reasonCompletions = new EnumMap<>(PunishmentType.class);
+
+    // Compiled messages.yml entries, with and without the prefix; replaced as a whole on reload
+    private volatile Map<String, MessageTemplate> messageTemplates = Collections.emptyMap();
+    private volatile Map<String, MessageTemplate> prefixedTemplates = Collections.emptyMap();
 
     public ConfigManager(JudgementDay plugin) {
         this.plugin = plugin;
@@ -98,6 +105,25 @@ public class ConfigManager {
             messagesConfig.options().copyDefaults(true);
             saveMessagesConfig();
         }
+
+        compileMessageTemplates();
+    }
+
+    private void compileMessageTemplates() {
+        Map<String, MessageTemplate> templates = new HashMap<>();
+        Map<String, MessageTemplate> prefixed = new HashMap<>();
+        String prefix = getPrefix();
+
+        for (String path : messagesConfig.getKeys(true)) {
+            if (messagesConfig.isString(path)) {
+                String message = messagesConfig.getString(path);
+                templates.put(path, MessageTemplate.compile(message));
+                prefixed.put(path, MessageTemplate.compile(prefix + message));
+            }
+        }
+
+        messageTemplates = templates;
+        prefixedTemplates = prefixed;
     }
 
     private void loadPunishmentsConfig() {
@@ -157,6 +183,7 @@ public class ConfigManager {
                 punishmentsConfig.set("reasons." + typeName, reasons);
             }
             punishmentReasons.put(type, reasons);
+            reasonCompletions.computeIfAbsent(type, t -> new CompletionTrie()).replaceAll(reasons);
 
             // Load durations for each reason and level
             Map<String, Map<Integer, Long>> reasonDurations = new HashMap<>();
@@ -228,6 +255,27 @@ public class ConfigManager {
         return punishmentReasons.getOrDefault(type, new ArrayList<>());
     }
 
+    /**
+     * Complete a punishment reason
+     *
+     * @param type Punishment type
+     * @param prefix Start of the reason, in any case
+     * @return The matching reasons in alphabetical order
+     */
+    public List<String> completePunishmentReason(PunishmentType type, String prefix) {
+        CompletionTrie reasons = reasonCompletions.get(type);
+        return reasons != null ? reasons.complete(prefix, getCompletionLimit()) : new ArrayList<>();
+    }
+
+    /**
+     * Get the number of suggestions tab completion offers at most
+     *
+     * @return The limit
+     */
+    public int getCompletionLimit() {
+        return mainConfig.getInt("commands.completion.limit", 50);
+    }
+
     public long getPunishmentDuration(PunishmentType type, String reason, int level) {
         Map<String, Map<Integer, Long>> reasonMap = punishmentDurations.get(type);
         if (reasonMap == null) return 60 * 60 * 1000; // Default 1 hour
@@ -246,13 +294,40 @@ public class ConfigManager {
     }
 
     public String getMessage(String path, Map<String, String> placeholders) {
-        String message = getMessage(path);
+        return getTemplate(path).render(placeholders);
+    }
 
-        for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-            message = message.replace("{" + entry.getKey() + "}", entry.getValue());
-        }
+    /**
+     * Get a compiled message
+     *
+     * @param path Message path in messages.yml
+     * @return The template
+     */
+    public MessageTemplate getTemplate(String path) {
+        MessageTemplate template = messageTemplates.get(path);
+        return template != null ? template : MessageTemplate.compile(getMessage(path));
+    }
+
+    /**
+     * Get a compiled message that starts with the prefix
+     *
+     * @param path Message path in messages.yml
+     * @return The template
+     */
+    public MessageTemplate getPrefixedTemplate(String path) {
+        MessageTemplate template = prefixedTemplates.get(path);
+        return template != null ? template : MessageTemplate.compile(getPrefix() + getMessage(path));
+    }
 
-        return message;
+    /**
+     * Render a message with the prefix, from its compiled template
+     *
+     * @param path Message path in messages.yml
+     * @param placeholders Map of placeholders and their values, or null
+     * @return The rendered message
+     */
+    public String formatMessage(String path, Map<String, String> placeholders) {
+        return getPrefixedTemplate(path).render(placeholders);
     }
 
     public String getPrefix() {
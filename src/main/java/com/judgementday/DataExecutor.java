@@ -0,0 +1,199 @@
+package com.judgementday.data;
+
+import com.judgementday.JudgementDay;
+import com.judgementday.util.LogUtil;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded thread pools used for all blocking storage work (JDBC and file I/O).
+ * Reads and writes run on separate lanes so a backlog of slow writes can never
+ * delay the login and chat lookups.
+ */
+public class DataExecutor {
+
+    public enum Lane {
+        READ,
+        WRITE
+    }
+
+    private final Map<Lane, ThreadPoolExecutor> executors = new EnumMap<>(Lane.class);
+    private final Map<Lane, AtomicLong> rejectedCounts = new EnumMap<>(Lane.class);
+    private final long shutdownTimeoutSeconds;
+
+    public DataExecutor(JudgementDay plugin) {
+        FileConfiguration config = plugin.getConfigManager().getMainConfig();
+
+        int readThreads = Math.max(1, config.getInt("storage.executor.read-threads", 4));
+        int writeThreads = Math.max(1, config.getInt("storage.executor.write-threads", 2));
+        int queueSize = Math.max(1, config.getInt("storage.executor.queue-size", 1000));
+        this.shutdownTimeoutSeconds = config.getLong("storage.executor.shutdown-timeout", 10L);
+
+        executors.put(Lane.READ, createExecutor(Lane.READ, readThreads, queueSize));
+        executors.put(Lane.WRITE, createExecutor(Lane.WRITE, writeThreads, queueSize));
+    }
+
+    private ThreadPoolExecutor createExecutor(Lane lane, int threads, int queueSize) {
+        AtomicLong rejected = new AtomicLong();
+        rejectedCounts.put(lane, rejected);
+
+        String namePrefix = "JudgementDay-IO-" + lane.name().toLowerCase() + "-";
+        AtomicInteger threadCounter = new AtomicInteger(1);
+
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // Reject instead of running on the caller: the caller may be the main or chat thread
+        RejectedExecutionHandler rejectionHandler = (runnable, executor) -> {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("JudgementDay " + lane.name().toLowerCase() +
+                    " queue is full (" + executor.getQueue().size() + " pending tasks)");
+        };
+
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), threadFactory, rejectionHandler);
+    }
+
+    /**
+     * Run a task on the given lane and return its result
+     *
+     * @param lane The lane to run on
+     * @param supplier The task
+     * @return A future that completes with the task result, or exceptionally if the queue is full
+     */
+    public <T> CompletableFuture<T> supply(Lane lane, Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executors.get(lane));
+        } catch (RejectedExecutionException e) {
+            LogUtil.warning(e.getMessage());
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    /**
+     * Run a task on the given lane
+     *
+     * @param lane The lane to run on
+     * @param runnable The task
+     * @return A future that completes when the task finishes, or exceptionally if the queue is full
+     */
+    public CompletableFuture<Void> run(Lane lane, Runnable runnable) {
+        try {
+            return CompletableFuture.runAsync(runnable, executors.get(lane));
+        } catch (RejectedExecutionException e) {
+            LogUtil.warning(e.getMessage());
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    /**
+     * Get the raw executor for a lane, for use with the CompletableFuture *Async methods
+     *
+     * @param lane The lane
+     * @return The executor backing the lane
+     */
+    public Executor getExecutor(Lane lane) {
+        return executors.get(lane);
+    }
+
+    /**
+     * Get the number of tasks waiting in a lane's queue
+     *
+     * @param lane The lane
+     * @return Current queue depth
+     */
+    public int getQueueDepth(Lane lane) {
+        return executors.get(lane).getQueue().size();
+    }
+
+    /**
+     * Get the number of threads currently running a task in a lane
+     *
+     * @param lane The lane
+     * @return Active thread count
+     */
+    public int getActiveCount(Lane lane) {
+        return executors.get(lane).getActiveCount();
+    }
+
+    /**
+     * Get the number of tasks a lane has completed
+     *
+     * @param lane The lane
+     * @return Completed task count
+     */
+    public long getCompletedTaskCount(Lane lane) {
+        return executors.get(lane).getCompletedTaskCount();
+    }
+
+    /**
+     * Get the number of tasks a lane has rejected because its queue was full
+     *
+     * @param lane The lane
+     * @return Rejected task count
+     */
+    public long getRejectedCount(Lane lane) {
+        return rejectedCounts.get(lane).get();
+    }
+
+    /**
+     * Get a one-line summary of every lane, for logging
+     *
+     * @return Summary string
+     */
+    public String getStats() {
+        StringBuilder sb = new StringBuilder();
+
+        for (Lane lane : Lane.values()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+
+            sb.append(lane.name().toLowerCase())
+                    .append("[queued=").append(getQueueDepth(lane))
+                    .append(", active=").append(getActiveCount(lane))
+                    .append(", completed=").append(getCompletedTaskCount(lane))
+                    .append(", rejected=").append(getRejectedCount(lane))
+                    .append("]");
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Stop accepting tasks and wait for queued work (pending writes) to finish
+     */
+    public void shutdown() {
+        for (ThreadPoolExecutor executor : executors.values()) {
+            executor.shutdown();
+        }
+
+        for (Map.Entry<Lane, ThreadPoolExecutor> entry : executors.entrySet()) {
+            try {
+                if (!entry.getValue().awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                    int dropped = entry.getValue().shutdownNow().size();
+                    LogUtil.warning("Timed out waiting for " + entry.getKey().name().toLowerCase() +
+                            " tasks to finish, dropped " + dropped + " queued tasks");
+                }
+            } catch (InterruptedException e) {
+                entry.getValue().shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        LogUtil.debug("Storage executor stopped: " + getStats());
+    }
+}
@@ -1,11 +1,14 @@
 package com.judgementday.data;
 
 import com.judgementday.model.Appeal;
+import com.judgementday.model.PlayerName;
 import com.judgementday.model.Punishment;
 import com.judgementday.model.PunishmentType;
 import com.judgementday.model.Report;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -21,29 +24,42 @@ public interface DataManager {
      */
     void saveAll();
 
+    /**
+     * Release any resources held by the data manager (connections, pools, files)
+     */
+    void close();
+
     /**
      * Get the next available ID for punishments
      *
-     * @return Next punishment ID
+     * @return A future with the next punishment ID, usually already complete
      */
-    int getNextPunishmentId();
+    CompletableFuture<Integer> getNextPunishmentId();
+
+    /**
+     * Get several available IDs for punishments at once
+     *
+     * @param count Number of IDs
+     * @return A future with the punishment IDs
+     */
+    CompletableFuture<List<Integer>> getNextPunishmentIds(int count);
 
     /**
      * Get the next available ID for reports
      *
-     * @return Next report ID
+     * @return A future with the next report ID, usually already complete
      */
-    int getNextReportId();
+    CompletableFuture<Integer> getNextReportId();
 
     /**
      * Get the next available ID for appeals
      *
-     * @return Next appeal ID
+     * @return A future with the next appeal ID, usually already complete
      */
-    int getNextAppealId();
+    CompletableFuture<Integer> getNextAppealId();
 
     /**
-     * Get the punishment level for a player and a specific type/reason
+     * Get the punishment level for a player and a specific type/reason, without reserving it
      *
      * @param uuid Player UUID
      * @param type Punishment type
@@ -52,6 +68,65 @@ public interface DataManager {
      */
     CompletableFuture<Integer> getPunishmentLevel(UUID uuid, PunishmentType type, String reason);
 
+    /**
+     * Reserve the punishment level for a punishment about to be issued, so a concurrent
+     * punishment of the same player gets the next level
+     *
+     * @param uuid Player UUID
+     * @param type Punishment type
+     * @param reason Punishment reason
+     * @return The reserved punishment level (starts at 1)
+     */
+    CompletableFuture<Integer> reservePunishmentLevel(UUID uuid, PunishmentType type, String reason);
+
+    /**
+     * Reserve the punishment levels for several players and a specific type/reason at once
+     *
+     * @param uuids Player UUIDs
+     * @param type Punishment type
+     * @param reason Punishment reason
+     * @return Each player's reserved punishment level (starts at 1)
+     */
+    CompletableFuture<Map<UUID, Integer>> reservePunishmentLevels(Collection<UUID> uuids, PunishmentType type, String reason);
+
+    /**
+     * Give back the reserved level of a punishment that will not be added
+     *
+     * @param punishment The punishment
+     */
+    void releasePunishmentLevel(Punishment punishment);
+
+    /**
+     * Load a player's offense counts ahead of time, e.g. when they log in
+     *
+     * @param uuid Player UUID
+     * @return A future that completes once the counts are loaded
+     */
+    CompletableFuture<Void> loadOffenseCounts(UUID uuid);
+
+    /**
+     * Drop a player's offense counts from memory, e.g. when they log out
+     *
+     * @param uuid Player UUID
+     */
+    void unloadOffenseCounts(UUID uuid);
+
+    /**
+     * Load every name players have been seen with. The first time, the names are filled in
+     * from the stored punishments, reports and appeals.
+     *
+     * @return A future that completes with the names
+     */
+    CompletableFuture<List<PlayerName>> loadPlayerNames();
+
+    /**
+     * Store names players have been seen with, keeping the latest last-seen time of each
+     *
+     * @param names The names to store
+     * @return A future that completes once the names are stored
+     */
+    CompletableFuture<Void> savePlayerNames(List<PlayerName> names);
+
     /**
      * Add a punishment to the database
      *
@@ -60,6 +135,14 @@ public interface DataManager {
      */
     CompletableFuture<Void> addPunishment(Punishment punishment);
 
+    /**
+     * Add several punishments to the database in batches
+     *
+     * @param punishments The punishments to add
+     * @return A future that completes with the punishments that were stored
+     */
+    CompletableFuture<List<Punishment>> addPunishments(List<Punishment> punishments);
+
     /**
      * Revoke a punishment
      *
@@ -86,6 +169,24 @@ public interface DataManager {
      */
     CompletableFuture<List<Punishment>> getPlayerPunishments(UUID uuid);
 
+    /**
+     * Get one page of a player's punishments, newest first
+     *
+     * @param uuid Player UUID
+     * @param cursor Where the page starts, {@link PageCursor#FIRST} for the first page
+     * @param limit Maximum number of punishments on the page
+     * @return A future that completes with the page
+     */
+    CompletableFuture<List<Punishment>> getPlayerPunishmentsPage(UUID uuid, PageCursor cursor, int limit);
+
+    /**
+     * Count a player's punishments
+     *
+     * @param uuid Player UUID
+     * @return A future that completes with the number of punishments
+     */
+    CompletableFuture<Integer> countPlayerPunishments(UUID uuid);
+
     /**
      * Get all active punishments for a player
      *
@@ -103,6 +204,14 @@ public interface DataManager {
      */
     CompletableFuture<List<Punishment>> getActivePlayerPunishmentsByType(UUID uuid, PunishmentType type);
 
+    /**
+     * Get all active punishments of a specific type across every player
+     *
+     * @param type Punishment type
+     * @return A future that completes with a list of active punishments
+     */
+    CompletableFuture<List<Punishment>> getActivePunishments(PunishmentType type);
+
     /**
      * Check if a player is currently banned
      *
@@ -214,6 +323,21 @@ public interface DataManager {
      */
     CompletableFuture<Boolean> denyAppeal(int id, UUID reviewerUuid, String reviewerName, String comment);
 
+    /**
+     * Bring cached state up to date with a punishment issued or revoked by another server
+     *
+     * @param punishment The punishment as currently stored
+     */
+    void applyRemoteChange(Punishment punishment);
+
+    /**
+     * Mark a temporary punishment as no longer active now that its time is up
+     *
+     * @param punishment The expired punishment
+     * @return A future that completes with true if it was still active, false otherwise
+     */
+    CompletableFuture<Boolean> expirePunishment(Punishment punishment);
+
     /**
      * Clean up expired punishments
      */
@@ -1,40 +1,40 @@
 package com.judgementday.data;
 
 import com.judgementday.JudgementDay;
-import com.judgementday.model.Appeal;
+import com.judgementday.data.DataExecutor.Lane;
+import com.judgementday.model.PlayerName;
 import com.judgementday.model.Punishment;
-import com.judgementday.model.PunishmentType;
-import com.judgementday.model.Report;
 import com.judgementday.util.LogUtil;
-import org.bukkit.Bukkit;
+import com.judgementday.util.PhaseTimer;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.nio.ByteBuffer;
 import java.sql.*;
-import java.util.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletionException;
 
-public class DatabaseManager implements DataManager {
+/**
+ * MySQL/MariaDB storage backed by a HikariCP connection pool
+ */
+public class DatabaseManager extends SqlDataManager {
 
-    private final JudgementDay plugin;
     private final String host;
     private final int port;
     private final String database;
     private final String username;
     private final String password;
-    private final String tablePrefix;
-    private Connection connection;
+    private HikariDataSource dataSource;
 
-    private final AtomicInteger punishmentIdCounter = new AtomicInteger(1);
-    private final AtomicInteger reportIdCounter = new AtomicInteger(1);
-    private final AtomicInteger appealIdCounter = new AtomicInteger(1);
-
-    // Cache active punishments for better performance
-    private final Map<UUID, List<Punishment>> activePlayerPunishments = new ConcurrentHashMap<>();
+    private final SqlStatement incrementOffenseCount;
+    private final SqlStatement upsertPlayerName;
 
     public DatabaseManager(JudgementDay plugin) {
-        this.plugin = plugin;
+        super(plugin, plugin.getConfigManager().getMainConfig().getString("storage.mysql.table-prefix", "jd_"));
 
         FileConfiguration config = plugin.getConfigManager().getMainConfig();
         this.host = config.getString("storage.mysql.host", "localhost");
@@ -42,974 +42,442 @@ public class DatabaseManager implements DataManager {
         this.database = config.getString("storage.mysql.database", "minecraft");
         this.username = config.getString("storage.mysql.username", "root");
         this.password = config.getString("storage.mysql.password", "");
-        this.tablePrefix = config.getString("storage.mysql.table-prefix", "jd_");
+
+        this.incrementOffenseCount = statement("offense-counts.increment",
+                "INSERT INTO " + tablePrefix + "offense_counts (player_uuid, type, reason, count) " +
+                        "VALUES (?, ?, ?, 1) ON DUPLICATE KEY UPDATE count = count + 1");
+        // The name is only replaced by a later sighting; assignments run left to right
+        this.upsertPlayerName = statement("player-names.upsert",
+                "INSERT INTO " + tablePrefix + "player_names (player_uuid, name, name_lower, last_seen) " +
+                        "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+                        "name = IF(VALUES(last_seen) >= last_seen, VALUES(name), name), " +
+                        "last_seen = GREATEST(last_seen, VALUES(last_seen))");
     }
 
     @Override
     public void initialize() {
-        // Open connection
+        // Open connection pool
         try {
-            openConnection();
+            PhaseTimer timer = new PhaseTimer();
 
-            // Create tables if they don't exist
-            createTables();
+            openDataSource();
+            timer.mark("connect");
 
-            // Initialize counters
-            initializeCounters();
+            // Create tables if they don't exist, then upgrade ones created by older versions
+            try (Connection connection = getConnection()) {
+                createTables(connection);
+                migrateSchema(connection);
+            }
+            timer.mark("schema");
 
-            // Load active punishments into cache
-            loadActivePunishmentsCache();
+            loadInitialData(timer);
 
         } catch (SQLException e) {
             LogUtil.severe("Failed to initialize database connection", e);
+            close();
             throw new RuntimeException("Failed to initialize database connection", e);
         }
     }
 
-    private void openConnection() throws SQLException {
-        if (connection != null && !connection.isClosed()) {
-            return;
-        }
-
-        synchronized (this) {
-            if (connection != null && !connection.isClosed()) {
-                return;
-            }
-
-            try {
-                Class.forName("com.mysql.jdbc.Driver");
-            } catch (ClassNotFoundException e) {
-                LogUtil.severe("JDBC driver not found", e);
-                throw new SQLException("JDBC driver not found", e);
-            }
-
-            String jdbcUrl = "jdbc:mysql://" + host + ":" + port + "/" + database +
-                    "?useSSL=false&autoReconnect=true&useUnicode=true&characterEncoding=UTF-8";
-
-            connection = DriverManager.getConnection(jdbcUrl, username, password);
-        }
-    }
-
-    private void createTables() throws SQLException {
-        try (Statement statement = connection.createStatement()) {
-            // Punishments table
-            statement.executeUpdate(
-                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "punishments (" +
-                            "id INT PRIMARY KEY AUTO_INCREMENT, " +
-                            "target_uuid VARCHAR(36) NOT NULL, " +
-                            "target_name VARCHAR(16) NOT NULL, " +
-                            "punisher_uuid VARCHAR(36) NOT NULL, " +
-                            "punisher_name VARCHAR(16) NOT NULL, " +
-                            "type VARCHAR(16) NOT NULL, " +
-                            "reason VARCHAR(255) NOT NULL, " +
-                            "time_issued BIGINT NOT NULL, " +
-                            "duration BIGINT NOT NULL, " +
-                            "expiry BIGINT NOT NULL, " +
-                            "active BOOLEAN NOT NULL DEFAULT TRUE, " +
-                            "proof_link TEXT, " +
-                            "level INT NOT NULL DEFAULT 1, " +
-                            "revoker_uuid VARCHAR(36), " +
-                            "revoker_name VARCHAR(16), " +
-                            "time_revoked BIGINT, " +
-                            "INDEX idx_target_uuid (target_uuid), " +
-                            "INDEX idx_active (active), " +
-                            "INDEX idx_type (type))"
-            );
-
-            // Player punishment history table
-            statement.executeUpdate(
-                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "punishment_history (" +
-                            "id INT PRIMARY KEY AUTO_INCREMENT, " +
-                            "player_uuid VARCHAR(36) NOT NULL, " +
-                            "punishment_id INT NOT NULL, " +
-                            "type VARCHAR(16) NOT NULL, " +
-                            "reason VARCHAR(255) NOT NULL, " +
-                            "level INT NOT NULL, " +
-                            "FOREIGN KEY (punishment_id) REFERENCES " + tablePrefix + "punishments(id) ON DELETE CASCADE, " +
-                            "INDEX idx_player_uuid (player_uuid), " +
-                            "INDEX idx_type_reason (type, reason))"
-            );
-
-            // Reports table
-            statement.executeUpdate(
-                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "reports (" +
-                            "id INT PRIMARY KEY AUTO_INCREMENT, " +
-                            "reporter_uuid VARCHAR(36) NOT NULL, " +
-                            "reporter_name VARCHAR(16) NOT NULL, " +
-                            "reported_uuid VARCHAR(36) NOT NULL, " +
-                            "reported_name VARCHAR(16) NOT NULL, " +
-                            "reason TEXT NOT NULL, " +
-                            "time_created BIGINT NOT NULL, " +
-                            "processed BOOLEAN NOT NULL DEFAULT FALSE, " +
-                            "processor_uuid VARCHAR(36), " +
-                            "processor_name VARCHAR(16), " +
-                            "time_processed BIGINT, " +
-                            "result_punishment_id INT, " +
-                            "FOREIGN KEY (result_punishment_id) REFERENCES " + tablePrefix + "punishments(id) ON DELETE SET NULL, " +
-                            "INDEX idx_reported_uuid (reported_uuid), " +
-                            "INDEX idx_processed (processed))"
-            );
-
-            // Appeals table
-            statement.executeUpdate(
-                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "appeals (" +
-                            "id INT PRIMARY KEY AUTO_INCREMENT, " +
-                            "punishment_id INT NOT NULL, " +
-                            "player_uuid VARCHAR(36) NOT NULL, " +
-                            "player_name VARCHAR(16) NOT NULL, " +
-                            "reason TEXT NOT NULL, " +
-                            "evidence TEXT, " +
-                            "time_created BIGINT NOT NULL, " +
-                            "status VARCHAR(16) NOT NULL DEFAULT 'PENDING', " +
-                            "reviewer_uuid VARCHAR(36), " +
-                            "reviewer_name VARCHAR(16), " +
-                            "time_reviewed BIGINT, " +
-                            "review_comment TEXT, " +
-                            "FOREIGN KEY (punishment_id) REFERENCES " + tablePrefix + "punishments(id) ON DELETE CASCADE, " +
-                            "INDEX idx_player_uuid (player_uuid), " +
-                            "INDEX idx_status (status))"
-            );
+    @Override
+    public void close() {
+        if (dataSource != null && !dataSource.isClosed()) {
+            dataSource.close();
         }
     }
 
-    private void initializeCounters() throws SQLException {
-        try (Statement statement = connection.createStatement()) {
-            // Get max punishment ID
-            try (ResultSet rs = statement.executeQuery(
-                    "SELECT COALESCE(MAX(id), 0) + 1 AS next_id FROM " + tablePrefix + "punishments")) {
-                if (rs.next()) {
-                    punishmentIdCounter.set(rs.getInt("next_id"));
-                }
-            }
-
-            // Get max report ID
-            try (ResultSet rs = statement.executeQuery(
-                    "SELECT COALESCE(MAX(id), 0) + 1 AS next_id FROM " + tablePrefix + "reports")) {
-                if (rs.next()) {
-                    reportIdCounter.set(rs.getInt("next_id"));
-                }
-            }
-
-            // Get max appeal ID
-            try (ResultSet rs = statement.executeQuery(
-                    "SELECT COALESCE(MAX(id), 0) + 1 AS next_id FROM " + tablePrefix + "appeals")) {
-                if (rs.next()) {
-                    appealIdCounter.set(rs.getInt("next_id"));
-                }
-            }
+    private void openDataSource() throws SQLException {
+        try {
+            Class.forName("com.mysql.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            LogUtil.severe("JDBC driver not found", e);
+            throw new SQLException("JDBC driver not found", e);
         }
-    }
-
-    private void loadActivePunishmentsCache() throws SQLException {
-        activePlayerPunishments.clear();
-
-        try (PreparedStatement ps = connection.prepareStatement(
-                "SELECT * FROM " + tablePrefix + "punishments " +
-                        "WHERE active = TRUE AND (expiry > ? OR expiry = -1)")) {
 
-            ps.setLong(1, System.currentTimeMillis());
-
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Punishment punishment = extractPunishmentFromResultSet(rs);
-                    UUID targetUuid = punishment.getTargetUuid();
+        FileConfiguration config = plugin.getConfigManager().getMainConfig();
 
-                    activePlayerPunishments.computeIfAbsent(targetUuid, k -> new ArrayList<>())
-                            .add(punishment);
-                }
-            }
-        }
-    }
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName("JudgementDay-MySQL");
+        hikariConfig.setDriverClassName("com.mysql.jdbc.Driver");
+        hikariConfig.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + database +
+                "?useSSL=false&useUnicode=true&characterEncoding=UTF-8" + statementCacheProperties(config));
+        hikariConfig.setUsername(username);
+        hikariConfig.setPassword(password);
 
-    private Punishment extractPunishmentFromResultSet(ResultSet rs) throws SQLException {
-        Map<String, Object> data = new HashMap<>();
-
-        data.put("id", rs.getInt("id"));
-        data.put("targetUuid", rs.getString("target_uuid"));
-        data.put("targetName", rs.getString("target_name"));
-        data.put("punisherUuid", rs.getString("punisher_uuid"));
-        data.put("punisherName", rs.getString("punisher_name"));
-        data.put("type", rs.getString("type"));
-        data.put("reason", rs.getString("reason"));
-        data.put("timeIssued", rs.getLong("time_issued"));
-        data.put("duration", rs.getLong("duration"));
-        data.put("expiry", rs.getLong("expiry"));
-        data.put("active", rs.getBoolean("active"));
-        data.put("proofLink", rs.getString("proof_link"));
-        data.put("level", rs.getInt("level"));
-
-        String revokerUuid = rs.getString("revoker_uuid");
-        if (revokerUuid != null) {
-            data.put("revokerUuid", revokerUuid);
-            data.put("revokerName", rs.getString("revoker_name"));
-            data.put("timeRevoked", rs.getLong("time_revoked"));
-        }
+        // Pool sizing and connection lifetime
+        hikariConfig.setMaximumPoolSize(config.getInt("storage.mysql.pool.maximum-pool-size", 10));
+        hikariConfig.setMinimumIdle(config.getInt("storage.mysql.pool.minimum-idle", 2));
+        hikariConfig.setMaxLifetime(config.getLong("storage.mysql.pool.max-lifetime", 1800000L));
+        hikariConfig.setIdleTimeout(config.getLong("storage.mysql.pool.idle-timeout", 600000L));
+        hikariConfig.setConnectionTimeout(config.getLong("storage.mysql.pool.connection-timeout", 5000L));
 
-        return new Punishment(data);
-    }
+        // Leak detection (0 disables it)
+        hikariConfig.setLeakDetectionThreshold(config.getLong("storage.mysql.pool.leak-detection-threshold", 0L));
 
-    private Report extractReportFromResultSet(ResultSet rs) throws SQLException {
-        Map<String, Object> data = new HashMap<>();
-
-        data.put("id", rs.getInt("id"));
-        data.put("reporterUuid", rs.getString("reporter_uuid"));
-        data.put("reporterName", rs.getString("reporter_name"));
-        data.put("reportedUuid", rs.getString("reported_uuid"));
-        data.put("reportedName", rs.getString("reported_name"));
-        data.put("reason", rs.getString("reason"));
-        data.put("timeCreated", rs.getLong("time_created"));
-        data.put("processed", rs.getBoolean("processed"));
-
-        if (rs.getBoolean("processed")) {
-            data.put("processorUuid", rs.getString("processor_uuid"));
-            data.put("processorName", rs.getString("processor_name"));
-            data.put("timeProcessed", rs.getLong("time_processed"));
-
-            int resultPunishmentId = rs.getInt("result_punishment_id");
-            if (!rs.wasNull()) {
-                data.put("resultPunishmentId", resultPunishmentId);
-            }
+        try {
+            dataSource = new HikariDataSource(hikariConfig);
+        } catch (RuntimeException e) {
+            throw new SQLException("Failed to create connection pool", e);
         }
-
-        return new Report(data);
     }
 
-    private Appeal extractAppealFromResultSet(ResultSet rs) throws SQLException {
-        Map<String, Object> data = new HashMap<>();
-
-        data.put("id", rs.getInt("id"));
-        data.put("punishmentId", rs.getInt("punishment_id"));
-        data.put("playerUuid", rs.getString("player_uuid"));
-        data.put("playerName", rs.getString("player_name"));
-        data.put("reason", rs.getString("reason"));
-        data.put("evidence", rs.getString("evidence"));
-        data.put("timeCreated", rs.getLong("time_created"));
-        data.put("status", rs.getString("status"));
-
-        String reviewerUuid = rs.getString("reviewer_uuid");
-        if (reviewerUuid != null) {
-            data.put("reviewerUuid", reviewerUuid);
-            data.put("reviewerName", rs.getString("reviewer_name"));
-            data.put("timeReviewed", rs.getLong("time_reviewed"));
-            data.put("reviewComment", rs.getString("review_comment"));
+    private static String statementCacheProperties(FileConfiguration config) {
+        if (!config.getBoolean("storage.mysql.statement-cache.enabled", true)) {
+            return "";
         }
 
-        return new Appeal(data);
-    }
-
+        // Each pooled connection keeps the statements it has prepared, keyed by their text, and
+        // closing one returns it to the cache. Server-side statements are parsed by MySQL once
+        // per connection and then only get their parameters sent.
+        return "&cachePrepStmts=true" +
+                "&prepStmtCacheSize=" + config.getInt("storage.mysql.statement-cache.size", 250) +
+                "&prepStmtCacheSqlLimit=" + config.getInt("storage.mysql.statement-cache.sql-limit", 2048) +
+                "&useServerPrepStmts=" + config.getBoolean("storage.mysql.statement-cache.server-side", true);
+    }
+
+    /**
+     * Borrow a connection from the pool. Callers must close it to return it.
+     *
+     * @return A pooled connection
+     * @throws SQLException If no connection could be obtained
+     */
     @Override
-    public void saveAll() {
-        // Nothing to do here - database is saved automatically
+    protected Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
     }
 
     @Override
-    public int getNextPunishmentId() {
-        return punishmentIdCounter.getAndIncrement();
+    protected int getStreamingFetchSize() {
+        // Connector/J only streams rows one at a time with this value; otherwise it buffers everything
+        return Integer.MIN_VALUE;
     }
 
     @Override
-    public int getNextReportId() {
-        return reportIdCounter.getAndIncrement();
+    protected void setUuid(PreparedStatement ps, int index, UUID uuid) throws SQLException {
+        if (uuid == null) {
+            ps.setNull(index, Types.BINARY);
+        } else {
+            ps.setBytes(index, toBytes(uuid));
+        }
     }
 
     @Override
-    public int getNextAppealId() {
-        return appealIdCounter.getAndIncrement();
+    protected String getUuidString(ResultSet rs, String column) throws SQLException {
+        byte[] bytes = rs.getBytes(column);
+        return bytes == null ? null : fromBytes(bytes).toString();
     }
 
-    @Override
-    public CompletableFuture<Integer> getPunishmentLevel(UUID uuid, PunishmentType type, String reason) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT COUNT(*) AS count FROM " + tablePrefix + "punishment_history " +
-                                "WHERE player_uuid = ? AND type = ? AND reason = ?")) {
-
-                    ps.setString(1, uuid.toString());
-                    ps.setString(2, type.name());
-                    ps.setString(3, reason);
-
-                    try (ResultSet rs = ps.executeQuery()) {
-                        if (rs.next()) {
-                            return rs.getInt("count") + 1;
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to get punishment level", e);
-            }
+    private static byte[] toBytes(UUID uuid) {
+        // Same byte order as UNHEX(REPLACE(uuid, '-', '')), which the migration uses
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
 
-            return 1; // Default level if error
-        });
+    private static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
     }
 
     @Override
-    public CompletableFuture<Void> addPunishment(Punishment punishment) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                openConnection();
+    protected <T> CompletableFuture<T> write(SqlWork<T> work) {
+        return executor.supply(Lane.WRITE, () -> {
+            try (Connection connection = getConnection()) {
                 connection.setAutoCommit(false);
 
                 try {
-                    // Insert punishment
-                    try (PreparedStatement ps = connection.prepareStatement(
-                            "INSERT INTO " + tablePrefix + "punishments " +
-                                    "(id, target_uuid, target_name, punisher_uuid, punisher_name, " +
-                                    "type, reason, time_issued, duration, expiry, active, proof_link, level) " +
-                                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
-                            Statement.RETURN_GENERATED_KEYS)) {
-
-                        ps.setInt(1, punishment.getId());
-                        ps.setString(2, punishment.getTargetUuid().toString());
-                        ps.setString(3, punishment.getTargetName());
-                        ps.setString(4, punishment.getPunisherUuid().toString());
-                        ps.setString(5, punishment.getPunisherName());
-                        ps.setString(6, punishment.getType().name());
-                        ps.setString(7, punishment.getReason());
-                        ps.setLong(8, punishment.getTimeIssued());
-                        ps.setLong(9, punishment.getDuration());
-                        ps.setLong(10, punishment.getExpiry());
-                        ps.setBoolean(11, punishment.isActive());
-                        ps.setString(12, punishment.getProofLink());
-                        ps.setInt(13, punishment.getLevel());
-
-                        ps.executeUpdate();
-                    }
-
-                    // Insert history record
-                    try (PreparedStatement ps = connection.prepareStatement(
-                            "INSERT INTO " + tablePrefix + "punishment_history " +
-                                    "(player_uuid, punishment_id, type, reason, level) " +
-                                    "VALUES (?, ?, ?, ?, ?)")) {
-
-                        ps.setString(1, punishment.getTargetUuid().toString());
-                        ps.setInt(2, punishment.getId());
-                        ps.setString(3, punishment.getType().name());
-                        ps.setString(4, punishment.getReason());
-                        ps.setInt(5, punishment.getLevel());
-
-                        ps.executeUpdate();
-                    }
-
+                    T result = work.run(connection);
                     connection.commit();
-
-                    // Add to cache
-                    if (punishment.isActive() && !punishment.isExpired()) {
-                        activePlayerPunishments.computeIfAbsent(punishment.getTargetUuid(), k -> new ArrayList<>())
-                                .add(punishment);
-                    }
-
-                } catch (SQLException e) {
+                    return result;
+                } catch (SQLException | RuntimeException e) {
                     connection.rollback();
                     throw e;
                 } finally {
                     connection.setAutoCommit(true);
                 }
-
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to add punishment", e);
-            }
-        });
-    }
-
-    @Override
-    public CompletableFuture<Boolean> revokePunishment(int id, UUID revokerUuid, String revokerName) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                openConnection();
-
-                // First, check if punishment exists and is active
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT * FROM " + tablePrefix + "punishments WHERE id = ? AND active = TRUE")) {
-
-                    ps.setInt(1, id);
-
-                    try (ResultSet rs = ps.executeQuery()) {
-                        if (!rs.next()) {
-                            return false;
-                        }
-
-                        // Get punishment data
-                        Punishment punishment = extractPunishmentFromResultSet(rs);
-                        punishment.revoke(revokerUuid, revokerName);
-
-                        // Update punishment
-                        try (PreparedStatement updatePs = connection.prepareStatement(
-                                "UPDATE " + tablePrefix + "punishments SET " +
-                                        "active = FALSE, revoker_uuid = ?, revoker_name = ?, time_revoked = ? " +
-                                        "WHERE id = ?")) {
-
-                            updatePs.setString(1, revokerUuid.toString());
-                            updatePs.setString(2, revokerName);
-                            updatePs.setLong(3, System.currentTimeMillis());
-                            updatePs.setInt(4, id);
-
-                            int updated = updatePs.executeUpdate();
-
-                            if (updated > 0) {
-                                // Remove from cache
-                                UUID targetUuid = punishment.getTargetUuid();
-                                if (activePlayerPunishments.containsKey(targetUuid)) {
-                                    activePlayerPunishments.get(targetUuid).removeIf(p -> p.getId() == id);
-                                }
-
-                                return true;
-                            }
-                        }
-                    }
-                }
             } catch (SQLException e) {
-                LogUtil.severe("Failed to revoke punishment", e);
+                throw new CompletionException(e);
             }
-
-            return false;
         });
     }
 
     @Override
-    public CompletableFuture<Punishment> getPunishment(int id) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT * FROM " + tablePrefix + "punishments WHERE id = ?")) {
-
-                    ps.setInt(1, id);
+    protected void incrementOffenseCounts(Connection connection, List<Punishment> punishments) throws SQLException {
+        try (PreparedStatement ps = incrementOffenseCount.prepare(connection)) {
 
-                    try (ResultSet rs = ps.executeQuery()) {
-                        if (rs.next()) {
-                            return extractPunishmentFromResultSet(rs);
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to get punishment", e);
+            for (Punishment punishment : punishments) {
+                setUuid(ps, 1, punishment.getTargetUuid());
+                ps.setString(2, punishment.getType().name());
+                ps.setString(3, punishment.getReason());
+                ps.addBatch();
             }
 
-            return null;
-        });
-    }
-
-    @Override
-    public CompletableFuture<List<Punishment>> getPlayerPunishments(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            List<Punishment> punishments = new ArrayList<>();
-
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT * FROM " + tablePrefix + "punishments WHERE target_uuid = ? ORDER BY time_issued DESC")) {
-
-                    ps.setString(1, uuid.toString());
-
-                    try (ResultSet rs = ps.executeQuery()) {
-                        while (rs.next()) {
-                            punishments.add(extractPunishmentFromResultSet(rs));
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to get player punishments", e);
-            }
-
-            return punishments;
-        });
-    }
-
-    @Override
-    public CompletableFuture<List<Punishment>> getActivePlayerPunishments(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            // Use cache for better performance
-            if (activePlayerPunishments.containsKey(uuid)) {
-                return activePlayerPunishments.get(uuid).stream()
-                        .filter(p -> !p.isExpired())
-                        .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
-            }
-
-            List<Punishment> punishments = new ArrayList<>();
-
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT * FROM " + tablePrefix + "punishments " +
-                                "WHERE target_uuid = ? AND active = TRUE AND (expiry > ? OR expiry = -1)")) {
-
-                    ps.setString(1, uuid.toString());
-                    ps.setLong(2, System.currentTimeMillis());
-
-                    try (ResultSet rs = ps.executeQuery()) {
-                        while (rs.next()) {
-                            punishments.add(extractPunishmentFromResultSet(rs));
-                        }
-                    }
-                }
-
-                // Update cache
-                activePlayerPunishments.put(uuid, new ArrayList<>(punishments));
-
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to get active player punishments", e);
-            }
-
-            return punishments;
-        });
-    }
-
-    @Override
-    public CompletableFuture<List<Punishment>> getActivePlayerPunishmentsByType(UUID uuid, PunishmentType type) {
-        return CompletableFuture.supplyAsync(() -> {
-            // Use cache for better performance
-            if (activePlayerPunishments.containsKey(uuid)) {
-                return activePlayerPunishments.get(uuid).stream()
-                        .filter(p -> p.getType() == type && !p.isExpired())
-                        .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
-            }
-
-            List<Punishment> punishments = new ArrayList<>();
-
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT * FROM " + tablePrefix + "punishments " +
-                                "WHERE target_uuid = ? AND type = ? AND active = TRUE AND (expiry > ? OR expiry = -1)")) {
-
-                    ps.setString(1, uuid.toString());
-                    ps.setString(2, type.name());
-                    ps.setLong(3, System.currentTimeMillis());
-
-                    try (ResultSet rs = ps.executeQuery()) {
-                        while (rs.next()) {
-                            punishments.add(extractPunishmentFromResultSet(rs));
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to get active player punishments by type", e);
-            }
-
-            return punishments;
-        });
-    }
-
-    @Override
-    public CompletableFuture<Boolean> isPlayerBanned(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            // Use cache for better performance
-            if (activePlayerPunishments.containsKey(uuid)) {
-                return activePlayerPunishments.get(uuid).stream()
-                        .anyMatch(p -> p.getType() == PunishmentType.BAN && !p.isExpired());
-            }
-
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT COUNT(*) AS count FROM " + tablePrefix + "punishments " +
-                                "WHERE target_uuid = ? AND type = 'BAN' AND active = TRUE AND (expiry > ? OR expiry = -1)")) {
-
-                    ps.setString(1, uuid.toString());
-                    ps.setLong(2, System.currentTimeMillis());
-
-                    try (ResultSet rs = ps.executeQuery()) {
-                        if (rs.next()) {
-                            return rs.getInt("count") > 0;
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to check if player is banned", e);
-            }
-
-            return false;
-        });
-    }
-
-    @Override
-    public CompletableFuture<Boolean> isPlayerMuted(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            // Use cache for better performance
-            if (activePlayerPunishments.containsKey(uuid)) {
-                return activePlayerPunishments.get(uuid).stream()
-                        .anyMatch(p -> p.getType() == PunishmentType.MUTE && !p.isExpired());
-            }
-
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT COUNT(*) AS count FROM " + tablePrefix + "punishments " +
-                                "WHERE target_uuid = ? AND type = 'MUTE' AND active = TRUE AND (expiry > ? OR expiry = -1)")) {
-
-                    ps.setString(1, uuid.toString());
-                    ps.setLong(2, System.currentTimeMillis());
-
-                    try (ResultSet rs = ps.executeQuery()) {
-                        if (rs.next()) {
-                            return rs.getInt("count") > 0;
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to check if player is muted", e);
-            }
-
-            return false;
-        });
+            incrementOffenseCount.executeBatch(ps);
+        }
     }
 
     @Override
-    public CompletableFuture<List<Report>> getUnprocessedReports() {
-        return CompletableFuture.supplyAsync(() -> {
-            List<Report> reports = new ArrayList<>();
-
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT * FROM " + tablePrefix + "reports WHERE processed = FALSE ORDER BY time_created DESC")) {
+    protected void upsertPlayerNames(Connection connection, List<PlayerName> names) throws SQLException {
+        try (PreparedStatement ps = upsertPlayerName.prepare(connection)) {
 
-                    try (ResultSet rs = ps.executeQuery()) {
-                        while (rs.next()) {
-                            reports.add(extractReportFromResultSet(rs));
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to get unprocessed reports", e);
+            for (PlayerName name : names) {
+                setUuid(ps, 1, name.getUuid());
+                ps.setString(2, name.getName());
+                ps.setString(3, name.getKey());
+                ps.setLong(4, name.getLastSeen());
+                ps.addBatch();
             }
 
-            return reports;
-        });
+            upsertPlayerName.executeBatch(ps);
+        }
     }
 
-    @Override
-    public CompletableFuture<List<Report>> getPlayerReports(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            List<Report> reports = new ArrayList<>();
-
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT * FROM " + tablePrefix + "reports WHERE reported_uuid = ? ORDER BY time_created DESC")) {
-
-                    ps.setString(1, uuid.toString());
+    private void migrateSchema(Connection connection) throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(tablePrefix, Arrays.asList(
+                new SchemaMigrator.Migration(1, "store UUIDs as BINARY(16)", this::migrateBinaryUuids),
+                new SchemaMigrator.Migration(2, "composite indexes for the hot queries", this::migrateCompositeIndexes)
+        ));
 
-                    try (ResultSet rs = ps.executeQuery()) {
-                        while (rs.next()) {
-                            reports.add(extractReportFromResultSet(rs));
-                        }
-                    }
+        // Servers sharing the database may start together; only one migrates at a time
+        String lock = tablePrefix + "schema";
+        try (PreparedStatement ps = connection.prepareStatement("SELECT GET_LOCK(?, 60)")) {
+            ps.setString(1, lock);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for another server to migrate the schema");
                 }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to get player reports", e);
             }
+        }
 
-            return reports;
-        });
-    }
-
-    @Override
-    public CompletableFuture<Void> addReport(Report report) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "INSERT INTO " + tablePrefix + "reports " +
-                                "(id, reporter_uuid, reporter_name, reported_uuid, reported_name, reason, time_created) " +
-                                "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
-
-                    ps.setInt(1, report.getId());
-                    ps.setString(2, report.getReporterUuid().toString());
-                    ps.setString(3, report.getReporterName());
-                    ps.setString(4, report.getReportedUuid().toString());
-                    ps.setString(5, report.getReportedName());
-                    ps.setString(6, report.getReason());
-                    ps.setLong(7, report.getTimeCreated());
-
-                    ps.executeUpdate();
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to add report", e);
+        try {
+            migrator.migrate(connection);
+        } finally {
+            try (PreparedStatement ps = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                ps.setString(1, lock);
+                ps.executeQuery().close();
             }
-        });
+        }
     }
 
-    @Override
-    public CompletableFuture<Boolean> processReport(int id, UUID processorUuid, String processorName, int punishmentId) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "UPDATE " + tablePrefix + "reports SET " +
-                                "processed = TRUE, processor_uuid = ?, processor_name = ?, " +
-                                "time_processed = ?, result_punishment_id = ? " +
-                                "WHERE id = ? AND processed = FALSE")) {
-
-                    ps.setString(1, processorUuid.toString());
-                    ps.setString(2, processorName);
-                    ps.setLong(3, System.currentTimeMillis());
-
-                    if (punishmentId > 0) {
-                        ps.setInt(4, punishmentId);
-                    } else {
-                        ps.setNull(4, Types.INTEGER);
-                    }
-
-                    ps.setInt(5, id);
-
-                    return ps.executeUpdate() > 0;
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to process report", e);
-                return false;
-            }
-        });
+    private void migrateBinaryUuids(Connection connection) throws SQLException {
+        convertUuidColumn(connection, "punishments", "target_uuid", false);
+        convertUuidColumn(connection, "punishments", "punisher_uuid", false);
+        convertUuidColumn(connection, "punishments", "revoker_uuid", true);
+        convertUuidColumn(connection, "punishment_history", "player_uuid", false);
+        convertUuidColumn(connection, "reports", "reporter_uuid", false);
+        convertUuidColumn(connection, "reports", "reported_uuid", false);
+        convertUuidColumn(connection, "reports", "processor_uuid", true);
+        convertUuidColumn(connection, "appeals", "player_uuid", false);
+        convertUuidColumn(connection, "appeals", "reviewer_uuid", true);
+        convertUuidColumn(connection, "offense_counts", "player_uuid", false);
+        convertUuidColumn(connection, "punishment_changes", "target_uuid", false);
     }
 
-    @Override
-    public CompletableFuture<Report> getReport(int id) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT * FROM " + tablePrefix + "reports WHERE id = ?")) {
+    private void convertUuidColumn(Connection connection, String table, String column, boolean nullable) throws SQLException {
+        String type = getColumnType(connection, tablePrefix + table, column);
+        if ("BINARY".equalsIgnoreCase(type)) {
+            return;
+        }
 
-                    ps.setInt(1, id);
+        String name = tablePrefix + table;
+        String definition = nullable ? " NULL" : " NOT NULL";
 
-                    try (ResultSet rs = ps.executeQuery()) {
-                        if (rs.next()) {
-                            return extractReportFromResultSet(rs);
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to get report", e);
+        // Only 36 character UUIDs can be converted, anything else would be truncated into a wrong
+        // UUID, so stop before changing the table. An interrupted run leaves 16 byte values behind.
+        String converted = "VARBINARY".equalsIgnoreCase(type) ? " AND LENGTH(" + column + ") <> 16" : "";
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + name + " WHERE " + column + " IS NOT NULL " +
+                     "AND LENGTH(" + column + ") <> 36" + converted)) {
+            if (rs.next() && rs.getInt(1) > 0) {
+                throw new SQLException("Cannot convert " + name + "." + column + " to binary UUIDs: " + rs.getInt(1) +
+                        " rows do not hold a valid UUID. Fix or remove them and restart the server.");
             }
+        }
 
-            return null;
-        });
-    }
-
-    @Override
-    public CompletableFuture<Void> addAppeal(Appeal appeal) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "INSERT INTO " + tablePrefix + "appeals " +
-                                "(id, punishment_id, player_uuid, player_name, reason, evidence, time_created, status) " +
-                                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
-
-                    ps.setInt(1, appeal.getId());
-                    ps.setInt(2, appeal.getPunishmentId());
-                    ps.setString(3, appeal.getPlayerUuid().toString());
-                    ps.setString(4, appeal.getPlayerName());
-                    ps.setString(5, appeal.getReason());
-                    ps.setString(6, appeal.getEvidence());
-                    ps.setLong(7, appeal.getTimeCreated());
-                    ps.setString(8, appeal.getStatus().name());
-
-                    ps.executeUpdate();
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to add appeal", e);
-            }
-        });
+        try (Statement statement = connection.createStatement()) {
+            // Binary first, so the rewritten values are not checked against a character set.
+            // Indexes on the column are kept through every step.
+            statement.executeUpdate("ALTER TABLE " + name + " MODIFY " + column + " VARBINARY(36)" + definition);
+            statement.executeUpdate("UPDATE " + name + " SET " + column + " = UNHEX(REPLACE(" + column + ", '-', '')) " +
+                    "WHERE LENGTH(" + column + ") = 36");
+            statement.executeUpdate("ALTER TABLE " + name + " MODIFY " + column + " BINARY(16)" + definition);
+        }
     }
 
-    @Override
-    public CompletableFuture<List<Appeal>> getPendingAppeals() {
-        return CompletableFuture.supplyAsync(() -> {
-            List<Appeal> appeals = new ArrayList<>();
-
-            try {
-                openConnection();
+    private void migrateCompositeIndexes(Connection connection) throws SQLException {
+        // Ban and mute checks, history pages and the active punishment load
+        addIndex(connection, "punishments", "idx_target_active", "target_uuid, type, active, expiry");
+        addIndex(connection, "punishments", "idx_target_history", "target_uuid, time_issued, id");
+        addIndex(connection, "punishments", "idx_active_expiry", "active, expiry");
+        dropIndex(connection, "punishments", "idx_target_uuid");
+        dropIndex(connection, "punishments", "idx_active");
+        dropIndex(connection, "punishments", "idx_type");
 
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT * FROM " + tablePrefix + "appeals WHERE status = 'PENDING' ORDER BY time_created DESC")) {
+        // Report and appeal lists, which filter and then sort by creation time
+        addIndex(connection, "reports", "idx_reported_time", "reported_uuid, time_created");
+        addIndex(connection, "reports", "idx_processed_time", "processed, time_created");
+        dropIndex(connection, "reports", "idx_reported_uuid");
+        dropIndex(connection, "reports", "idx_processed");
 
-                    try (ResultSet rs = ps.executeQuery()) {
-                        while (rs.next()) {
-                            appeals.add(extractAppealFromResultSet(rs));
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to get pending appeals", e);
-            }
-
-            return appeals;
-        });
+        addIndex(connection, "appeals", "idx_player_time", "player_uuid, time_created");
+        addIndex(connection, "appeals", "idx_status_time", "status, time_created");
+        dropIndex(connection, "appeals", "idx_player_uuid");
+        dropIndex(connection, "appeals", "idx_status");
     }
 
-    @Override
-    public CompletableFuture<List<Appeal>> getPlayerAppeals(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            List<Appeal> appeals = new ArrayList<>();
-
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT * FROM " + tablePrefix + "appeals WHERE player_uuid = ? ORDER BY time_created DESC")) {
-
-                    ps.setString(1, uuid.toString());
-
-                    try (ResultSet rs = ps.executeQuery()) {
-                        while (rs.next()) {
-                            appeals.add(extractAppealFromResultSet(rs));
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to get player appeals", e);
+    private void addIndex(Connection connection, String table, String index, String columns) throws SQLException {
+        if (!hasIndex(connection, tablePrefix + table, index)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("ALTER TABLE " + tablePrefix + table + " ADD INDEX " + index + " (" + columns + ")");
             }
-
-            return appeals;
-        });
+        }
     }
 
-    @Override
-    public CompletableFuture<Appeal> getAppeal(int id) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT * FROM " + tablePrefix + "appeals WHERE id = ?")) {
-
-                    ps.setInt(1, id);
-
-                    try (ResultSet rs = ps.executeQuery()) {
-                        if (rs.next()) {
-                            return extractAppealFromResultSet(rs);
-                        }
-                    }
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to get appeal", e);
+    private void dropIndex(Connection connection, String table, String index) throws SQLException {
+        if (hasIndex(connection, tablePrefix + table, index)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("ALTER TABLE " + tablePrefix + table + " DROP INDEX " + index);
             }
-
-            return null;
-        });
+        }
     }
 
-    @Override
-    public CompletableFuture<Boolean> approveAppeal(int id, UUID reviewerUuid, String reviewerName, String comment) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "UPDATE " + tablePrefix + "appeals SET " +
-                                "status = 'APPROVED', reviewer_uuid = ?, reviewer_name = ?, " +
-                                "time_reviewed = ?, review_comment = ? " +
-                                "WHERE id = ? AND status = 'PENDING'")) {
-
-                    ps.setString(1, reviewerUuid.toString());
-                    ps.setString(2, reviewerName);
-                    ps.setLong(3, System.currentTimeMillis());
-                    ps.setString(4, comment);
-                    ps.setInt(5, id);
-
-                    return ps.executeUpdate() > 0;
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to approve appeal", e);
-                return false;
-            }
-        });
+    private String getColumnType(Connection connection, String table, String column) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getColumns(connection.getCatalog(), null, table, column)) {
+            return rs.next() ? rs.getString("TYPE_NAME") : null;
+        }
     }
 
-    @Override
-    public CompletableFuture<Boolean> denyAppeal(int id, UUID reviewerUuid, String reviewerName, String comment) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "UPDATE " + tablePrefix + "appeals SET " +
-                                "status = 'DENIED', reviewer_uuid = ?, reviewer_name = ?, " +
-                                "time_reviewed = ?, review_comment = ? " +
-                                "WHERE id = ? AND status = 'PENDING'")) {
-
-                    ps.setString(1, reviewerUuid.toString());
-                    ps.setString(2, reviewerName);
-                    ps.setLong(3, System.currentTimeMillis());
-                    ps.setString(4, comment);
-                    ps.setInt(5, id);
-
-                    return ps.executeUpdate() > 0;
+    private boolean hasIndex(Connection connection, String table, String index) throws SQLException {
+        try (ResultSet rs = connection.getMetaData().getIndexInfo(connection.getCatalog(), null, table, false, false)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
                 }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to deny appeal", e);
-                return false;
             }
-        });
+        }
+        return false;
     }
 
     @Override
-    public void cleanupExpiredPunishments() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                openConnection();
-
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "UPDATE " + tablePrefix + "punishments SET active = FALSE, auto_expired = TRUE " +
-                                "WHERE active = TRUE AND expiry > 0 AND expiry < ?")) {
-
-                    ps.setLong(1, System.currentTimeMillis());
-                    int count = ps.executeUpdate();
-
-                    if (count > 0) {
-                        LogUtil.info("Cleaned up " + count + " expired punishments");
+    protected void createTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // Punishments table
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "punishments (" +
+                            "id INT PRIMARY KEY AUTO_INCREMENT, " +
+                            "target_uuid BINARY(16) NOT NULL, " +
+                            "target_name VARCHAR(16) NOT NULL, " +
+                            "punisher_uuid BINARY(16) NOT NULL, " +
+                            "punisher_name VARCHAR(16) NOT NULL, " +
+                            "type VARCHAR(16) NOT NULL, " +
+                            "reason VARCHAR(255) NOT NULL, " +
+                            "time_issued BIGINT NOT NULL, " +
+                            "duration BIGINT NOT NULL, " +
+                            "expiry BIGINT NOT NULL, " +
+                            "active BOOLEAN NOT NULL DEFAULT TRUE, " +
+                            "proof_link TEXT, " +
+                            "level INT NOT NULL DEFAULT 1, " +
+                            "revoker_uuid BINARY(16), " +
+                            "revoker_name VARCHAR(16), " +
+                            "time_revoked BIGINT, " +
+                            "INDEX idx_target_active (target_uuid, type, active, expiry), " +
+                            "INDEX idx_target_history (target_uuid, time_issued, id), " +
+                            "INDEX idx_active_expiry (active, expiry))"
+            );
 
-                        // Reload active punishments cache
-                        loadActivePunishmentsCache();
-                    }
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to cleanup expired punishments", e);
-            }
-        });
-    }
+            // Player punishment history table
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "punishment_history (" +
+                            "id INT PRIMARY KEY AUTO_INCREMENT, " +
+                            "player_uuid BINARY(16) NOT NULL, " +
+                            "punishment_id INT NOT NULL, " +
+                            "type VARCHAR(16) NOT NULL, " +
+                            "reason VARCHAR(255) NOT NULL, " +
+                            "level INT NOT NULL, " +
+                            "FOREIGN KEY (punishment_id) REFERENCES " + tablePrefix + "punishments(id) ON DELETE CASCADE, " +
+                            "INDEX idx_player_uuid (player_uuid), " +
+                            "INDEX idx_type_reason (type, reason))"
+            );
 
-    @Override
-    public void cleanupOldReports() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            int daysToKeep = plugin.getConfigManager().getMainConfig().getInt("storage.reports-days-to-keep", 30);
-            if (daysToKeep <= 0) return; // Keep forever
+            // Reports table
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "reports (" +
+                            "id INT PRIMARY KEY AUTO_INCREMENT, " +
+                            "reporter_uuid BINARY(16) NOT NULL, " +
+                            "reporter_name VARCHAR(16) NOT NULL, " +
+                            "reported_uuid BINARY(16) NOT NULL, " +
+                            "reported_name VARCHAR(16) NOT NULL, " +
+                            "reason TEXT NOT NULL, " +
+                            "time_created BIGINT NOT NULL, " +
+                            "processed BOOLEAN NOT NULL DEFAULT FALSE, " +
+                            "processor_uuid BINARY(16), " +
+                            "processor_name VARCHAR(16), " +
+                            "time_processed BIGINT, " +
+                            "result_punishment_id INT, " +
+                            "FOREIGN KEY (result_punishment_id) REFERENCES " + tablePrefix + "punishments(id) ON DELETE SET NULL, " +
+                            "INDEX idx_reported_time (reported_uuid, time_created), " +
+                            "INDEX idx_processed_time (processed, time_created))"
+            );
 
-            try {
-                openConnection();
+            // Appeals table
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "appeals (" +
+                            "id INT PRIMARY KEY AUTO_INCREMENT, " +
+                            "punishment_id INT NOT NULL, " +
+                            "player_uuid BINARY(16) NOT NULL, " +
+                            "player_name VARCHAR(16) NOT NULL, " +
+                            "reason TEXT NOT NULL, " +
+                            "evidence TEXT, " +
+                            "time_created BIGINT NOT NULL, " +
+                            "status VARCHAR(16) NOT NULL DEFAULT 'PENDING', " +
+                            "reviewer_uuid BINARY(16), " +
+                            "reviewer_name VARCHAR(16), " +
+                            "time_reviewed BIGINT, " +
+                            "review_comment TEXT, " +
+                            "FOREIGN KEY (punishment_id) REFERENCES " + tablePrefix + "punishments(id) ON DELETE CASCADE, " +
+                            "INDEX idx_player_time (player_uuid, time_created), " +
+                            "INDEX idx_status_time (status, time_created))"
+            );
 
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "DELETE FROM " + tablePrefix + "reports " +
-                                "WHERE processed = TRUE AND time_created < ?")) {
+            // Offense counts per player, type and reason, kept in step with the history
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "offense_counts (" +
+                            "player_uuid BINARY(16) NOT NULL, " +
+                            "type VARCHAR(16) NOT NULL, " +
+                            "reason VARCHAR(255) NOT NULL, " +
+                            "count INT NOT NULL, " +
+                            "PRIMARY KEY (player_uuid, type, reason))"
+            );
 
-                    long cutoffTime = System.currentTimeMillis() - (daysToKeep * 24 * 60 * 60 * 1000L);
-                    ps.setLong(1, cutoffTime);
+            // Every name each player has been seen with, loaded into memory for name lookups
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "player_names (" +
+                            "player_uuid BINARY(16) NOT NULL, " +
+                            "name VARCHAR(16) NOT NULL, " +
+                            "name_lower VARCHAR(16) NOT NULL, " +
+                            "last_seen BIGINT NOT NULL, " +
+                            "PRIMARY KEY (player_uuid, name_lower))"
+            );
 
-                    int count = ps.executeUpdate();
+            // Id sequences, shared by every server using this database
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "sequences (" +
+                            "name VARCHAR(32) PRIMARY KEY, " +
+                            "next_id INT NOT NULL)"
+            );
 
-                    if (count > 0) {
-                        LogUtil.info("Cleaned up " + count + " old reports");
-                    }
-                }
-            } catch (SQLException e) {
-                LogUtil.severe("Failed to cleanup old reports", e);
-            }
-        });
+            // Change log polled by the other servers sharing this database
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "punishment_changes (" +
+                            "id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                            "origin VARCHAR(36) NOT NULL, " +
+                            "kind VARCHAR(16) NOT NULL, " +
+                            "punishment_id INT NOT NULL, " +
+                            "target_uuid BINARY(16) NOT NULL, " +
+                            "time_created BIGINT NOT NULL, " +
+                            "INDEX idx_time_created (time_created))"
+            );
+        }
     }
-}
\ No newline at end of file
+}
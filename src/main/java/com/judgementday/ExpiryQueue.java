@@ -0,0 +1,81 @@
+package com.judgementday.data;
+
+import com.judgementday.model.Punishment;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Temporary punishments ordered by expiry time, so the ones that have run out can be
+ * taken off the front without scanning every active punishment. Permanent punishments
+ * are never queued.
+ */
+public class ExpiryQueue {
+
+    private final NavigableSet<Punishment> queue = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(Punishment::getExpiry).thenComparingInt(Punishment::getId));
+
+    /**
+     * Queue a punishment, unless it is permanent
+     *
+     * @param punishment The punishment
+     */
+    public void add(Punishment punishment) {
+        if (punishment.getExpiry() != -1) {
+            queue.add(punishment);
+        }
+    }
+
+    /**
+     * Queue several punishments
+     *
+     * @param punishments The punishments
+     */
+    public void addAll(List<Punishment> punishments) {
+        for (Punishment punishment : punishments) {
+            add(punishment);
+        }
+    }
+
+    /**
+     * Remove a punishment, e.g. after it has been revoked
+     *
+     * @param punishment The punishment
+     */
+    public void remove(Punishment punishment) {
+        queue.remove(punishment);
+    }
+
+    /**
+     * Remove and return every punishment that expired before the given time
+     *
+     * @param now Current time in milliseconds
+     * @return The expired punishments, earliest first
+     */
+    public List<Punishment> pollExpired(long now) {
+        List<Punishment> expired = new ArrayList<>();
+
+        Punishment first;
+        while ((first = queue.pollFirst()) != null) {
+            if (first.getExpiry() >= now) {
+                // Not due yet - put it back and stop
+                queue.add(first);
+                break;
+            }
+            expired.add(first);
+        }
+
+        return expired;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public void clear() {
+        queue.clear();
+    }
+}
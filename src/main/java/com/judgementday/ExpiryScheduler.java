@@ -0,0 +1,125 @@
+package com.judgementday.manager;
+
+import com.judgementday.JudgementDay;
+import com.judgementday.model.Punishment;
+import com.judgementday.model.PunishmentType;
+import com.judgementday.util.LogUtil;
+import com.judgementday.util.TimingWheel;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lifts temporary punishments at their expiry time instead of waiting for the cleanup task.
+ * Expiries sit in a timing wheel advanced once per server tick on the main thread.
+ */
+public class ExpiryScheduler {
+
+    // One slot per server tick; 64 slots cover 3.2 seconds before the overflow wheels take over
+    private static final long TICK_MILLIS = 50L;
+    private static final int WHEEL_SIZE = 64;
+    private static final long LOAD_TIMEOUT_SECONDS = 10L;
+
+    private final JudgementDay plugin;
+    private final TimingWheel<Punishment> wheel = new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+
+    // Punishments still waiting to expire; the wheel cannot cancel, so revoked ones are dropped here
+    private final Map<Integer, Punishment> pending = new ConcurrentHashMap<>();
+    private BukkitTask task;
+
+    public ExpiryScheduler(JudgementDay plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Schedule every active temporary punishment and start the wheel
+     */
+    public void start() {
+        int scheduled = 0;
+
+        try {
+            for (PunishmentType type : PunishmentType.values()) {
+                for (Punishment punishment : plugin.getDataManager().getActivePunishments(type)
+                        .get(LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    if (schedule(punishment)) {
+                        scheduled++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LogUtil.severe("Failed to schedule punishment expiries, the cleanup task will lift them instead", e);
+        }
+
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        LogUtil.info("Scheduled " + scheduled + " punishment expiries.");
+    }
+
+    /**
+     * Schedule a punishment to be lifted when it expires
+     *
+     * @param punishment The punishment
+     * @return true if it was scheduled, false if it is permanent or inactive
+     */
+    public boolean schedule(Punishment punishment) {
+        if (!punishment.isActive() || punishment.getExpiry() == -1) {
+            return false;
+        }
+
+        pending.put(punishment.getId(), punishment);
+
+        // Already due - lift it on the main thread straight away
+        if (!wheel.schedule(punishment, punishment.getExpiry())) {
+            Bukkit.getScheduler().runTask(plugin, () -> expire(punishment));
+        }
+        return true;
+    }
+
+    /**
+     * Stop tracking a punishment that was lifted some other way, e.g. revoked
+     *
+     * @param punishment The punishment
+     */
+    public void cancel(Punishment punishment) {
+        pending.remove(punishment.getId());
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public void close() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        wheel.clear();
+        pending.clear();
+    }
+
+    private void tick() {
+        List<Punishment> due = new ArrayList<>();
+        wheel.advance(System.currentTimeMillis(), due::add);
+
+        for (Punishment punishment : due) {
+            expire(punishment);
+        }
+    }
+
+    private void expire(Punishment punishment) {
+        // Revoked or already expired since it was scheduled
+        if (!pending.remove(punishment.getId(), punishment)) {
+            return;
+        }
+
+        plugin.getPunishmentManager().expirePunishment(punishment);
+    }
+}
@@ -0,0 +1,299 @@
+package com.judgementday.manager;
+
+import com.judgementday.data.PageCursor;
+import com.judgementday.model.Punishment;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of punishment histories, so staff flipping through /history pages are
+ * served from memory. For each player it holds the pages and count already fetched, or
+ * the whole history if that was loaded. Players are weighed by the number of punishments
+ * held; the least recently used are evicted once the total weight is over the limit, and
+ * every player's entry expires after a fixed time. Callers always get their own copies.
+ */
+public class HistoryCache {
+
+    private static final class Entry {
+        private final long loadedAt;
+        private List<Punishment> all;
+        private final Map<PageCursor, List<Punishment>> pages = new HashMap<>();
+        private int pageSize;
+        private Integer total;
+
+        private Entry(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        private int weight() {
+            int records = all != null ? all.size() : 0;
+            for (List<Punishment> page : pages.values()) {
+                records += page.size();
+            }
+
+            // Empty histories still cost a map entry
+            return Math.max(1, records);
+        }
+    }
+
+    private final long maxWeight;
+    private final long ttlMillis;
+
+    // Access order, so iteration starts at the least recently used entry
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight = 0L;
+
+    // Bumped on every change, so a load that raced a write is not cached
+    private long generation = 0L;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Create a cache
+     *
+     * @param maxWeight Maximum number of punishments held across all histories
+     * @param ttlMillis How long a player's entry is kept after it was created
+     */
+    public HistoryCache(long maxWeight, long ttlMillis) {
+        this.maxWeight = Math.max(1L, maxWeight);
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Get a player's whole history, loading it on a miss
+     *
+     * @param uuid Player UUID
+     * @param loader Loads the history from storage
+     * @return A future with a copy of the history
+     */
+    public CompletableFuture<List<Punishment>> get(UUID uuid, Function<UUID, CompletableFuture<List<Punishment>>> loader) {
+        synchronized (this) {
+            Entry entry = lookup(uuid);
+            if (entry != null && entry.all != null) {
+                hits.incrementAndGet();
+                return CompletableFuture.completedFuture(new ArrayList<>(entry.all));
+            }
+        }
+
+        return load(uuid, () -> loader.apply(uuid), (entry, punishments) -> {
+            entry.all = punishments;
+            entry.total = punishments.size();
+        });
+    }
+
+    /**
+     * Get one page of a player's history, loading it on a miss
+     *
+     * @param uuid Player UUID
+     * @param cursor Where the page starts
+     * @param limit Page size
+     * @param loader Loads the page from storage
+     * @return A future with a copy of the page
+     */
+    public CompletableFuture<List<Punishment>> getPage(UUID uuid, PageCursor cursor, int limit,
+                                                       Supplier<CompletableFuture<List<Punishment>>> loader) {
+        synchronized (this) {
+            Entry entry = lookup(uuid);
+            if (entry != null) {
+                if (entry.all != null) {
+                    hits.incrementAndGet();
+                    return CompletableFuture.completedFuture(slice(entry.all, cursor, limit));
+                }
+
+                List<Punishment> page = entry.pageSize == limit ? entry.pages.get(cursor) : null;
+                if (page != null) {
+                    hits.incrementAndGet();
+                    return CompletableFuture.completedFuture(new ArrayList<>(page));
+                }
+            }
+        }
+
+        return load(uuid, loader, (entry, page) -> {
+            if (entry.pageSize != limit) {
+                entry.pages.clear();
+                entry.pageSize = limit;
+            }
+            entry.pages.put(cursor, page);
+        });
+    }
+
+    /**
+     * Get the number of punishments in a player's history, counting on a miss
+     *
+     * @param uuid Player UUID
+     * @param loader Counts the history in storage
+     * @return A future with the count
+     */
+    public CompletableFuture<Integer> getCount(UUID uuid, Supplier<CompletableFuture<Integer>> loader) {
+        long loadGeneration;
+
+        synchronized (this) {
+            Entry entry = lookup(uuid);
+            if (entry != null && entry.total != null) {
+                hits.incrementAndGet();
+                return CompletableFuture.completedFuture(entry.total);
+            }
+            loadGeneration = generation;
+        }
+
+        misses.incrementAndGet();
+        return loader.get().thenApply(count -> {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    Entry entry = entries.get(uuid);
+                    if (entry == null) {
+                        entry = new Entry(System.currentTimeMillis());
+                        entries.put(uuid, entry);
+                        weight += entry.weight();
+                        evict(uuid);
+                    }
+                    entry.total = count;
+                }
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Update a cached history for a newly issued punishment
+     *
+     * @param punishment The punishment
+     */
+    public synchronized void onPunishmentAdded(Punishment punishment) {
+        generation++;
+
+        Entry entry = entries.get(punishment.getTargetUuid());
+        if (entry == null) {
+            return;
+        }
+
+        // Pages start after a cursor, so the new punishment only changes the first one
+        weight -= entry.weight();
+        entry.pages.remove(PageCursor.FIRST);
+
+        if (entry.all != null) {
+            // Histories are newest first
+            List<Punishment> all = new ArrayList<>(entry.all.size() + 1);
+            all.add(punishment);
+            all.addAll(entry.all);
+            entry.all = all;
+        }
+        if (entry.total != null) {
+            entry.total = entry.total + 1;
+        }
+
+        weight += entry.weight();
+        evict(punishment.getTargetUuid());
+    }
+
+    /**
+     * Drop a player's history, e.g. after one of their punishments was revoked or expired
+     *
+     * @param uuid Player UUID
+     */
+    public synchronized void invalidate(UUID uuid) {
+        generation++;
+        remove(uuid);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        weight = 0L;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    private CompletableFuture<List<Punishment>> load(UUID uuid, Supplier<CompletableFuture<List<Punishment>>> loader,
+                                                     BiConsumer<Entry, List<Punishment>> store) {
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+
+        misses.incrementAndGet();
+        return loader.get().thenApply(punishments -> {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    Entry entry = entries.get(uuid);
+                    if (entry == null) {
+                        entry = new Entry(System.currentTimeMillis());
+                        entries.put(uuid, entry);
+                    } else {
+                        weight -= entry.weight();
+                    }
+
+                    store.accept(entry, new ArrayList<>(punishments));
+                    weight += entry.weight();
+                    evict(uuid);
+                }
+            }
+            return punishments;
+        });
+    }
+
+    private Entry lookup(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt >= ttlMillis) {
+            remove(uuid);
+            return null;
+        }
+        return entry;
+    }
+
+    private static List<Punishment> slice(List<Punishment> all, PageCursor cursor, int limit) {
+        List<Punishment> page = new ArrayList<>(Math.min(limit, all.size()));
+        for (Punishment punishment : all) {
+            if (page.size() >= limit) {
+                break;
+            }
+            if (cursor.precedes(punishment)) {
+                page.add(punishment);
+            }
+        }
+        return page;
+    }
+
+    private void evict(UUID keep) {
+        // Evict least recently used histories, but always keep the one just updated
+        Iterator<Map.Entry<UUID, Entry>> iterator = entries.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            Map.Entry<UUID, Entry> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+
+            weight -= eldest.getValue().weight();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void remove(UUID uuid) {
+        Entry removed = entries.remove(uuid);
+        if (removed != null) {
+            weight -= removed.weight();
+        }
+    }
+}
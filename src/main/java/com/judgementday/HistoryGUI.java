@@ -1,6 +1,9 @@
 package com.judgementday.ui;
 
 import com.judgementday.JudgementDay;
+import com.judgementday.command.CommandPipeline;
+import com.judgementday.data.PageCursor;
+import com.judgementday.manager.PlayerManager;
 import com.judgementday.model.Punishment;
 import com.judgementday.model.PunishmentType;
 import com.judgementday.util.ItemBuilder;
@@ -17,13 +20,39 @@ import org.bukkit.inventory.meta.SkullMeta;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class HistoryGUI {
 
     private static final String HISTORY_TITLE_PREFIX = "§c§lHistory: ";
     private static final int PAGE_SIZE = 45; // Number of items per page
 
+    // Start of every page each staff member has reached, so flipping pages can seek straight to it
+    private static final Map<UUID, HistoryView> views = new ConcurrentHashMap<>();
+
+    private static final class HistoryView {
+        private final UUID targetUuid;
+        private final List<PageCursor> cursors = new ArrayList<>();
+
+        private HistoryView(UUID targetUuid) {
+            this.targetUuid = targetUuid;
+            cursors.add(PageCursor.FIRST);
+        }
+    }
+
+    private static final class HistoryPage {
+        private final int total;
+        private final List<Punishment> punishments;
+
+        private HistoryPage(int total, List<Punishment> punishments) {
+            this.total = total;
+            this.punishments = punishments;
+        }
+    }
+
     /**
      * Open the punishment history GUI for a player
      *
@@ -33,153 +62,183 @@ public class HistoryGUI {
      * @param page Page number (starting from 1)
      */
     public static void openHistoryGUI(JudgementDay plugin, Player viewer, String targetName, int page) {
-        UUID targetUuid = plugin.getPlayerManager().getPlayerUuid(targetName);
-        if (targetUuid == null) {
-            viewer.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("history.player-not-found"), null));
-            return;
+        CommandPipeline pipeline = plugin.getCommandPipeline();
+        pipeline.run("history.lookup", viewer, plugin.getPlayerManager().resolvePlayerUuid(targetName), targetUuid -> {
+            if (targetUuid == null) {
+                viewer.sendMessage(plugin.getConfigManager().formatMessage("history.player-not-found", null));
+                return;
+            }
+
+            openHistoryPage(plugin, viewer, targetName, targetUuid, page);
+        });
+    }
+
+    private static void openHistoryPage(JudgementDay plugin, Player viewer, String targetName, UUID targetUuid, int page) {
+        HistoryView view = views.get(viewer.getUniqueId());
+        if (view == null || !view.targetUuid.equals(targetUuid)) {
+            view = new HistoryView(targetUuid);
+            views.put(viewer.getUniqueId(), view);
         }
 
-        // Get punishments asynchronously
-        plugin.getPlayerManager().getPlayerPunishments(targetUuid).thenAccept(punishments -> {
-            // Handle on main thread
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                if (punishments.isEmpty()) {
-                    viewer.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                            plugin.getConfigManager().getMessage("history.no-punishments"), null));
-                    return;
-                }
+        // Pages are reached one by one from the first, so a page we have no start for falls back to the first
+        int actualPage = page >= 1 && page <= view.cursors.size() ? page : 1;
+        PageCursor cursor = view.cursors.get(actualPage - 1);
+        HistoryView currentView = view;
 
-                // Sort punishments (newest first)
-                punishments.sort((p1, p2) -> Long.compare(p2.getTimeIssued(), p1.getTimeIssued()));
-
-                // Calculate number of pages
-                int totalPages = (punishments.size() + PAGE_SIZE - 1) / PAGE_SIZE;
-                int actualPage = Math.min(Math.max(1, page), totalPages);
-
-                // Create inventory
-                Inventory inventory = Bukkit.createInventory(null, 54,
-                        HISTORY_TITLE_PREFIX + targetName + " (" + actualPage + "/" + totalPages + ")");
-
-                // Calculate start and end index for current page
-                int startIndex = (actualPage - 1) * PAGE_SIZE;
-                int endIndex = Math.min(startIndex + PAGE_SIZE, punishments.size());
-
-                // Add punishments to inventory
-                for (int i = startIndex; i < endIndex; i++) {
-                    Punishment punishment = punishments.get(i);
-
-                    // Choose material based on type
-                    Material material;
-                    ChatColor typeColor;
-
-                    switch (punishment.getType()) {
-                        case WARN:
-                            material = Material.PAPER;
-                            typeColor = ChatColor.YELLOW;
-                            break;
-                        case MUTE:
-                            material = Material.BOOK;
-                            typeColor = ChatColor.GOLD;
-                            break;
-                        case KICK:
-                            material = Material.LEATHER_BOOTS;
-                            typeColor = ChatColor.LIGHT_PURPLE;
-                            break;
-                        case BAN:
-                            material = Material.BARRIER;
-                            typeColor = ChatColor.RED;
-                            break;
-                        default:
-                            material = Material.STONE;
-                            typeColor = ChatColor.WHITE;
-                    }
+        // Fetch only the page shown, plus the count for the page total
+        PlayerManager playerManager = plugin.getPlayerManager();
+        CompletableFuture<Integer> countLookup = playerManager.countPlayerPunishments(targetUuid);
+        CompletableFuture<List<Punishment>> pageLookup = playerManager.getPlayerPunishmentsPage(targetUuid, cursor, PAGE_SIZE);
 
-                    // Create item
-                    ItemBuilder builder = new ItemBuilder(material)
-                            .name(typeColor + punishment.getType().getDisplayName() +
-                                    ChatColor.GRAY + " #" + punishment.getId());
-
-                    // Build lore
-                    List<String> lore = new ArrayList<>();
-                    lore.add(ChatColor.GOLD + "Reason: " + ChatColor.WHITE + punishment.getReason());
-                    lore.add(ChatColor.GOLD + "Staff: " + ChatColor.WHITE + punishment.getPunisherName());
-                    lore.add(ChatColor.GOLD + "Date: " + ChatColor.WHITE +
-                            MessageUtil.formatDate(punishment.getTimeIssued()));
-
-                    // Duration
-                    if (punishment.getDuration() == -1) {
-                        lore.add(ChatColor.GOLD + "Duration: " + ChatColor.WHITE + "Permanent");
-                    } else {
-                        lore.add(ChatColor.GOLD + "Duration: " + ChatColor.WHITE +
-                                MessageUtil.formatDuration(punishment.getDuration()));
-                    }
+        plugin.getCommandPipeline().run("history", viewer, countLookup.thenCombine(pageLookup, HistoryPage::new), result -> {
+            int total = result.total;
+            List<Punishment> punishments = result.punishments;
 
-                    // Revocation info
-                    if (!punishment.isActive()) {
-                        if (punishment.getRevokerName() != null) {
-                            lore.add(" ");
-                            lore.add(ChatColor.RED + "REVOKED");
-                            lore.add(ChatColor.GOLD + "Revoked by: " + ChatColor.WHITE +
-                                    punishment.getRevokerName());
-                            lore.add(ChatColor.GOLD + "Date: " + ChatColor.WHITE +
-                                    MessageUtil.formatDate(punishment.getTimeRevoked()));
-                        } else if (punishment.isExpired()) {
-                            lore.add(" ");
-                            lore.add(ChatColor.RED + "EXPIRED");
-                        }
-                    } else if (punishment.getExpiry() != -1) {
-                        lore.add(ChatColor.GOLD + "Expires: " + ChatColor.WHITE +
-                                MessageUtil.formatDate(punishment.getExpiry()));
-                        lore.add(ChatColor.GOLD + "Time remaining: " + ChatColor.WHITE +
-                                MessageUtil.formatTimeRemaining(punishment.getExpiry()));
-                    }
+            if (punishments.isEmpty()) {
+                viewer.sendMessage(plugin.getConfigManager().formatMessage("history.no-punishments", null));
+                return;
+            }
 
-                    // Proof link
-                    lore.add(" ");
-                    lore.add(ChatColor.GOLD + "Proof: " + ChatColor.AQUA +
-                            MessageUtil.truncate(punishment.getProofLink(), 40));
+            // Calculate number of pages
+            int totalPages = Math.max(actualPage, (total + PAGE_SIZE - 1) / PAGE_SIZE);
 
-                    // Set lore and add to inventory
-                    builder.lore(lore);
-                    inventory.setItem(i - startIndex, builder.build());
+            // Remember where the next page starts
+            if (punishments.size() == PAGE_SIZE) {
+                PageCursor next = PageCursor.after(punishments.get(punishments.size() - 1));
+                if (currentView.cursors.size() > actualPage) {
+                    currentView.cursors.set(actualPage, next);
+                } else {
+                    currentView.cursors.add(next);
                 }
+            }
 
-                // Add player head at the bottom
-                ItemStack skull = new ItemStack(Material.SKULL_ITEM, 1, (short) 3);
-                SkullMeta skullMeta = (SkullMeta) skull.getItemMeta();
-                skullMeta.setOwner(targetName);
-                skullMeta.setDisplayName(ChatColor.RED + targetName + "'s History");
-                skull.setItemMeta(skullMeta);
-                inventory.setItem(49, skull);
-
-                // Add navigation buttons if multiple pages
-                if (totalPages > 1) {
-                    // Previous page button
-                    if (actualPage > 1) {
-                        ItemStack prevButton = new ItemBuilder(Material.ARROW)
-                                .name(ChatColor.GREEN + "Previous Page")
-                                .lore(ChatColor.GRAY + "Go to page " + (actualPage - 1))
-                                .build();
-                        inventory.setItem(45, prevButton);
-                    }
+            // Create inventory
+            Inventory inventory = Bukkit.createInventory(null, 54,
+                    HISTORY_TITLE_PREFIX + targetName + " (" + actualPage + "/" + totalPages + ")");
+
+            // Add punishments to inventory
+            for (int i = 0; i < punishments.size(); i++) {
+                Punishment punishment = punishments.get(i);
+
+                // Choose material based on type
+                Material material;
+                ChatColor typeColor;
+
+                switch (punishment.getType()) {
+                    case WARN:
+                        material = Material.PAPER;
+                        typeColor = ChatColor.YELLOW;
+                        break;
+                    case MUTE:
+                        material = Material.BOOK;
+                        typeColor = ChatColor.GOLD;
+                        break;
+                    case KICK:
+                        material = Material.LEATHER_BOOTS;
+                        typeColor = ChatColor.LIGHT_PURPLE;
+                        break;
+                    case BAN:
+                        material = Material.BARRIER;
+                        typeColor = ChatColor.RED;
+                        break;
+                    default:
+                        material = Material.STONE;
+                        typeColor = ChatColor.WHITE;
+                }
+
+                // Create item
+                ItemBuilder builder = new ItemBuilder(material)
+                        .name(typeColor + punishment.getType().getDisplayName() +
+                                ChatColor.GRAY + " #" + punishment.getId());
+
+                // Build lore
+                List<String> lore = new ArrayList<>();
+                lore.add(ChatColor.GOLD + "Reason: " + ChatColor.WHITE + punishment.getReason());
+                lore.add(ChatColor.GOLD + "Staff: " + ChatColor.WHITE + punishment.getPunisherName());
+                lore.add(ChatColor.GOLD + "Date: " + ChatColor.WHITE +
+                        MessageUtil.formatDate(punishment.getTimeIssued()));
+
+                // Duration
+                if (punishment.getDuration() == -1) {
+                    lore.add(ChatColor.GOLD + "Duration: " + ChatColor.WHITE + "Permanent");
+                } else {
+                    lore.add(ChatColor.GOLD + "Duration: " + ChatColor.WHITE +
+                            MessageUtil.formatDuration(punishment.getDuration()));
+                }
 
-                    // Next page button
-                    if (actualPage < totalPages) {
-                        ItemStack nextButton = new ItemBuilder(Material.ARROW)
-                                .name(ChatColor.GREEN + "Next Page")
-                                .lore(ChatColor.GRAY + "Go to page " + (actualPage + 1))
-                                .build();
-                        inventory.setItem(53, nextButton);
+                // Revocation info
+                if (!punishment.isActive()) {
+                    if (punishment.getRevokerName() != null) {
+                        lore.add(" ");
+                        lore.add(ChatColor.RED + "REVOKED");
+                        lore.add(ChatColor.GOLD + "Revoked by: " + ChatColor.WHITE +
+                                punishment.getRevokerName());
+                        lore.add(ChatColor.GOLD + "Date: " + ChatColor.WHITE +
+                                MessageUtil.formatDate(punishment.getTimeRevoked()));
+                    } else if (punishment.isExpired()) {
+                        lore.add(" ");
+                        lore.add(ChatColor.RED + "EXPIRED");
                     }
+                } else if (punishment.getExpiry() != -1) {
+                    lore.add(ChatColor.GOLD + "Expires: " + ChatColor.WHITE +
+                            MessageUtil.formatDate(punishment.getExpiry()));
+                    lore.add(ChatColor.GOLD + "Time remaining: " + ChatColor.WHITE +
+                            MessageUtil.formatTimeRemaining(punishment.getExpiry()));
                 }
 
-                // Open inventory
-                viewer.openInventory(inventory);
-            });
+                // Proof link
+                lore.add(" ");
+                lore.add(ChatColor.GOLD + "Proof: " + ChatColor.AQUA +
+                        MessageUtil.truncate(punishment.getProofLink(), 40));
+
+                // Set lore and add to inventory
+                builder.lore(lore);
+                inventory.setItem(i, builder.build());
+            }
+
+            // Add player head at the bottom
+            ItemStack skull = new ItemStack(Material.SKULL_ITEM, 1, (short) 3);
+            SkullMeta skullMeta = (SkullMeta) skull.getItemMeta();
+            skullMeta.setOwner(targetName);
+            skullMeta.setDisplayName(ChatColor.RED + targetName + "'s History");
+            skull.setItemMeta(skullMeta);
+            inventory.setItem(49, skull);
+
+            // Add navigation buttons if multiple pages
+            if (totalPages > 1) {
+                // Previous page button
+                if (actualPage > 1) {
+                    ItemStack prevButton = new ItemBuilder(Material.ARROW)
+                            .name(ChatColor.GREEN + "Previous Page")
+                            .lore(ChatColor.GRAY + "Go to page " + (actualPage - 1))
+                            .build();
+                    inventory.setItem(45, prevButton);
+                }
+
+                // Next page button
+                if (actualPage < totalPages && punishments.size() == PAGE_SIZE) {
+                    ItemStack nextButton = new ItemBuilder(Material.ARROW)
+                            .name(ChatColor.GREEN + "Next Page")
+                            .lore(ChatColor.GRAY + "Go to page " + (actualPage + 1))
+                            .build();
+                    inventory.setItem(53, nextButton);
+                }
+            }
+
+            // Open inventory
+            viewer.openInventory(inventory);
         });
     }
 
+    /**
+     * Forget the pages a staff member has visited, e.g. when they log out
+     *
+     * @param viewerUuid Staff member UUID
+     */
+    public static void forgetViewer(UUID viewerUuid) {
+        views.remove(viewerUuid);
+    }
+
     /**
      * Process a click in the history GUI
      *
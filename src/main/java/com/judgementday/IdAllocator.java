@@ -0,0 +1,139 @@
+package com.judgementday.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Hands out ids from blocks reserved in a shared sequence, so servers sharing one database
+ * never collide and most ids cost no round trip. The next block is reserved in the
+ * background once the current one is three quarters used.
+ *
+ * Ids are unique but not gapless: the unused part of a block is skipped on restart.
+ */
+public class IdAllocator {
+
+    /**
+     * Reserves a block of ids in the shared sequence
+     */
+    @FunctionalInterface
+    public interface BlockReserver {
+        /**
+         * @param size Number of ids to reserve
+         * @return A future with the first id of the reserved block
+         */
+        CompletableFuture<Integer> reserve(int size);
+    }
+
+    private final BlockReserver reserver;
+    private final int blockSize;
+
+    private int next = 0;
+    private int end = 0;
+    private CompletableFuture<Integer> pendingBlock;
+
+    public IdAllocator(BlockReserver reserver, int blockSize) {
+        this.reserver = reserver;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    /**
+     * Reserve the first block ahead of the first id, e.g. while the storage starts
+     */
+    public synchronized void prefetch() {
+        if (next >= end && pendingBlock == null) {
+            reserve();
+        }
+    }
+
+    /**
+     * Get the next id. The future is already complete unless the current block is used up
+     * and the next one has not arrived yet; nothing ever blocks waiting for it.
+     *
+     * @return A future with a unique id, failed if the block could not be reserved
+     */
+    public CompletableFuture<Integer> nextId() {
+        CompletableFuture<Integer> block;
+
+        synchronized (this) {
+            if (next < end) {
+                int id = next++;
+
+                if (pendingBlock == null && end - next <= blockSize / 4) {
+                    reserve();
+                }
+
+                return CompletableFuture.completedFuture(id);
+            }
+
+            block = pendingBlock != null ? pendingBlock : reserve();
+        }
+
+        // Whoever sees the block arrive first installs it, then every waiter tries again
+        return block.handle((start, error) -> {
+            synchronized (this) {
+                if (pendingBlock == block) {
+                    pendingBlock = null;
+                    if (error == null) {
+                        next = start;
+                        end = start + blockSize;
+                    }
+                }
+            }
+            return error;
+        }).thenCompose(error -> {
+            if (error != null) {
+                // The next call tries again
+                CompletableFuture<Integer> failed = new CompletableFuture<>();
+                failed.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+                return failed;
+            }
+            return nextId();
+        });
+    }
+
+    /**
+     * Get several ids at once, e.g. for a bulk punishment
+     *
+     * @param count Number of ids
+     * @return A future with the ids, failed if a block could not be reserved
+     */
+    public CompletableFuture<List<Integer>> nextIds(int count) {
+        return collect(new ArrayList<>(count), count);
+    }
+
+    private synchronized CompletableFuture<Integer> reserve() {
+        CompletableFuture<Integer> block = reserver.reserve(blockSize);
+        pendingBlock = block;
+
+        // Forget a failed block straight away, so a failed refill in the background is tried
+        // again rather than failing whichever call finally needs it
+        block.whenComplete((start, error) -> {
+            if (error != null) {
+                synchronized (this) {
+                    if (pendingBlock == block) {
+                        pendingBlock = null;
+                    }
+                }
+            }
+        });
+
+        return block;
+    }
+
+    private CompletableFuture<List<Integer>> collect(List<Integer> ids, int count) {
+        while (ids.size() < count) {
+            CompletableFuture<Integer> id = nextId();
+            if (!id.isDone() || id.isCompletedExceptionally()) {
+                return id.thenCompose(value -> {
+                    ids.add(value);
+                    return collect(ids, count);
+                });
+            }
+            ids.add(id.join());
+        }
+        return CompletableFuture.completedFuture(ids);
+    }
+}
@@ -2,28 +2,49 @@ package com.judgementday;
 
 import com.judgementday.command.*;
 import com.judgementday.config.ConfigManager;
+import com.judgementday.data.DataExecutor;
 import com.judgementday.data.DataManager;
 import com.judgementday.data.DatabaseManager;
+import com.judgementday.data.SqlDataManager;
+import com.judgementday.data.SqlStatement;
+import com.judgementday.data.SqliteDataManager;
 import com.judgementday.data.YamlDataManager;
 import com.judgementday.listener.ChatListener;
 import com.judgementday.listener.LoginListener;
 import com.judgementday.listener.PunishmentListener;
 import com.judgementday.manager.AppealManager;
+import com.judgementday.manager.ExpiryScheduler;
+import com.judgementday.manager.HistoryCache;
 import com.judgementday.manager.PlayerManager;
 import com.judgementday.manager.PunishmentManager;
 import com.judgementday.manager.ReportManager;
+import com.judgementday.manager.StaffAudience;
+import com.judgementday.sync.SyncBus;
 import com.judgementday.util.LogUtil;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 public class JudgementDay extends JavaPlugin {
 
+    /** Statements listed in each periodic timing summary */
+    private static final int STATS_LINES = 10;
+
     private ConfigManager configManager;
+    private DataExecutor dataExecutor;
     private DataManager dataManager;
     private PunishmentManager punishmentManager;
     private ReportManager reportManager;
     private PlayerManager playerManager;
     private AppealManager appealManager;
+    private ExpiryScheduler expiryScheduler;
+    private SyncBus syncBus;
+    private CommandPipeline commandPipeline;
+    private StaffAudience staffAudience;
     private static JudgementDay instance;
 
     @Override
@@ -39,6 +60,9 @@ public class JudgementDay extends JavaPlugin {
         configManager = new ConfigManager(this);
         configManager.loadConfigs();
 
+        // Start the storage thread pools before any data access
+        dataExecutor = new DataExecutor(this);
+
         // Initialize data manager based on config
         setupDataManager();
 
@@ -47,24 +71,94 @@ public class JudgementDay extends JavaPlugin {
         reportManager = new ReportManager(this);
         playerManager = new PlayerManager(this);
         appealManager = new AppealManager(this);
+        expiryScheduler = new ExpiryScheduler(this);
+        staffAudience = new StaffAudience(this);
+
+        // Warm the ban and mute indexes before players can log in
+        playerManager.loadPunishmentIndexes();
+
+        // Resolve offline player names from memory
+        playerManager.loadNameIndex();
+
+        // Lift temporary punishments the moment they expire
+        expiryScheduler.start();
+
+        // Pick up punishments issued on other servers
+        syncBus = new SyncBus(this);
+        syncBus.start();
 
         // Register listeners
         registerListeners();
 
+        // Players already online after a reload never fire a join event
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            playerManager.getNameCompletions().addOnline(player.getName());
+        }
+
+        // Work out who gets staff notifications
+        staffAudience.start();
+
         // Register commands
+        commandPipeline = new CommandPipeline(this);
         registerCommands();
 
         // Schedule auto-cleanup task
         scheduleCleanupTask();
+        scheduleStatsTask();
 
         LogUtil.info("JudgementDay v" + getDescription().getVersion() + " has been enabled!");
     }
 
     @Override
     public void onDisable() {
+        // Stop applying changes from other servers
+        if (syncBus != null) {
+            syncBus.close();
+        }
+
+        if (expiryScheduler != null) {
+            expiryScheduler.close();
+        }
+
+        // Deliver the digests still waiting
+        if (staffAudience != null) {
+            staffAudience.close();
+        }
+
+        if (playerManager != null) {
+            HistoryCache historyCache = playerManager.getHistoryCache();
+            LogUtil.debug("History cache: " + historyCache.getHitCount() + " hits, " + historyCache.getMissCount() +
+                    " misses, " + historyCache.getEvictionCount() + " evictions");
+        }
+
+        if (commandPipeline != null) {
+            for (CommandPipeline.StepStats stats : commandPipeline.getStats()) {
+                LogUtil.debug("Command step " + stats);
+            }
+        }
+
+        if (dataManager instanceof SqlDataManager) {
+            for (SqlStatement statement : ((SqlDataManager) dataManager).getStatements()) {
+                if (statement.getExecutionCount() > 0) {
+                    LogUtil.debug("Statement " + statement);
+                }
+            }
+        }
+
+        // Queue the player names not saved yet
+        if (playerManager != null) {
+            playerManager.shutdown();
+        }
+
+        // Let queued storage work finish before the final save
+        if (dataExecutor != null) {
+            dataExecutor.shutdown();
+        }
+
         // Save all data
         if (dataManager != null) {
             dataManager.saveAll();
+            dataManager.close();
         }
 
         LogUtil.info("JudgementDay has been disabled!");
@@ -76,16 +170,26 @@ public class JudgementDay extends JavaPlugin {
         if (storageType.equalsIgnoreCase("mysql") || storageType.equalsIgnoreCase("mariadb")) {
             try {
                 this.dataManager = new DatabaseManager(this);
+                this.dataManager.initialize();
                 LogUtil.info("Using database storage for JudgementDay data.");
+                return;
             } catch (Exception e) {
                 LogUtil.severe("Failed to initialize database connection. Falling back to YAML storage.", e);
-                this.dataManager = new YamlDataManager(this);
+            }
+        } else if (storageType.equalsIgnoreCase("sqlite")) {
+            try {
+                this.dataManager = new SqliteDataManager(this);
+                this.dataManager.initialize();
+                LogUtil.info("Using SQLite storage for JudgementDay data.");
+                return;
+            } catch (Exception e) {
+                LogUtil.severe("Failed to initialize SQLite database. Falling back to YAML storage.", e);
             }
         } else {
-            this.dataManager = new YamlDataManager(this);
             LogUtil.info("Using YAML storage for JudgementDay data.");
         }
 
+        this.dataManager = new YamlDataManager(this);
         dataManager.initialize();
     }
 
@@ -100,6 +204,7 @@ public class JudgementDay extends JavaPlugin {
         getCommand("warn").setExecutor(new PunishCommand(this, "warn"));
         getCommand("mute").setExecutor(new PunishCommand(this, "mute"));
         getCommand("ban").setExecutor(new PunishCommand(this, "ban"));
+        getCommand("bulkpunish").setExecutor(new BulkPunishCommand(this));
         getCommand("revoke").setExecutor(new RevokeCommand(this));
         getCommand("history").setExecutor(new HistoryCommand(this));
         getCommand("report").setExecutor(new ReportCommand(this));
@@ -107,6 +212,7 @@ public class JudgementDay extends JavaPlugin {
         getCommand("appeal").setExecutor(new AppealCommand(this));
         getCommand("appeals").setExecutor(new AppealsCommand(this));
         getCommand("jdreload").setExecutor(new ReloadCommand(this));
+        getCommand("staffnotify").setExecutor(new StaffNotifyCommand(this));
     }
 
     private void scheduleCleanupTask() {
@@ -120,6 +226,35 @@ public class JudgementDay extends JavaPlugin {
         }
     }
 
+    private void scheduleStatsTask() {
+        int statsInterval = configManager.getMainConfig().getInt("storage.stats-interval", 60);
+        if (statsInterval > 0 && dataManager instanceof SqlDataManager) {
+            Bukkit.getScheduler().runTaskTimerAsynchronously(this, this::logStatementStats,
+                    20 * 60 * statsInterval, 20 * 60 * statsInterval); // Convert minutes to ticks
+        }
+    }
+
+    private void logStatementStats() {
+        List<SqlStatement> statements = new ArrayList<>();
+        for (SqlStatement statement : ((SqlDataManager) dataManager).getStatements()) {
+            if (statement.getExecutionCount() > 0) {
+                statements.add(statement);
+            }
+        }
+        if (statements.isEmpty()) {
+            return;
+        }
+
+        // Statements taking the most time overall first
+        statements.sort(Comparator.comparingLong(SqlStatement::getTotalTimeMillis).reversed());
+
+        int shown = Math.min(STATS_LINES, statements.size());
+        LogUtil.info("Storage statements by total time (" + shown + " of " + statements.size() + "):");
+        for (SqlStatement statement : statements.subList(0, shown)) {
+            LogUtil.info("  " + statement);
+        }
+    }
+
     public static JudgementDay getInstance() {
         return instance;
     }
@@ -128,6 +263,10 @@ public class JudgementDay extends JavaPlugin {
         return configManager;
     }
 
+    public DataExecutor getDataExecutor() {
+        return dataExecutor;
+    }
+
     public DataManager getDataManager() {
         return dataManager;
     }
@@ -144,7 +283,23 @@ public class JudgementDay extends JavaPlugin {
         return playerManager;
     }
 
+    public StaffAudience getStaffAudience() {
+        return staffAudience;
+    }
+
     public AppealManager getAppealManager() {
         return appealManager;
     }
+
+    public ExpiryScheduler getExpiryScheduler() {
+        return expiryScheduler;
+    }
+
+    public SyncBus getSyncBus() {
+        return syncBus;
+    }
+
+    public CommandPipeline getCommandPipeline() {
+        return commandPipeline;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.judgementday.sync;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+/**
+ * In-process transport: every transport on the same channel in this JVM receives the
+ * messages of the others immediately. Stands in for a real transport when testing
+ * several servers in one process.
+ */
+public class LocalSyncTransport implements SyncTransport {
+
+    private static final Map<String, Set<LocalSyncTransport>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String channel;
+    private volatile Consumer<SyncMessage> receiver;
+
+    public LocalSyncTransport(String channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public void start(Consumer<SyncMessage> receiver) {
+        this.receiver = receiver;
+        CHANNELS.computeIfAbsent(channel, k -> new CopyOnWriteArraySet<>()).add(this);
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(SyncMessage message) {
+        Set<LocalSyncTransport> members = CHANNELS.get(channel);
+        if (members != null) {
+            for (LocalSyncTransport member : members) {
+                Consumer<SyncMessage> memberReceiver = member.receiver;
+                if (memberReceiver != null) {
+                    memberReceiver.accept(message);
+                }
+            }
+        }
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void close() {
+        Set<LocalSyncTransport> members = CHANNELS.get(channel);
+        if (members != null) {
+            members.remove(this);
+        }
+        receiver = null;
+    }
+}
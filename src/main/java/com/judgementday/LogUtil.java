@@ -12,7 +12,8 @@ public class LogUtil {
     private static Logger logger;
 
     static {
-        logger = Bukkit.getLogger();
+        // There is no server outside of Bukkit, e.g. in unit tests
+        logger = Bukkit.getServer() != null ? Bukkit.getLogger() : Logger.getLogger("JudgementDay");
     }
 
     /**
@@ -6,11 +6,11 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerLoginEvent;
 
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
 
 public class LoginListener implements Listener {
 
@@ -22,52 +22,31 @@ public class LoginListener implements Listener {
 
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
-        UUID uuid = event.getUniqueId();
-        String name = event.getName();
-
-        try {
-            // Check if player is banned
-            boolean banned = plugin.getPlayerManager().isPlayerBanned(uuid).get();
-
-            if (banned) {
-                // Get ban message
-                String banMessage = plugin.getPlayerManager().getBanMessage(uuid).get();
-
-                if (banMessage != null) {
-                    event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_BANNED, banMessage);
-                } else {
-                    event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_BANNED, "You are banned from this server.");
-                }
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            // If there's an error, allow the player to join but log the error
-            plugin.getLogger().severe("Error checking ban status for " + name + ": " + e.getMessage());
+        // Remember the name for offline lookups; saved with the next batch
+        plugin.getPlayerManager().recordName(event.getUniqueId(), event.getName());
+
+        // Answered from the ban index; storage is consulted at most once on a miss
+        String banMessage = plugin.getPlayerManager().resolveBanMessage(event.getUniqueId());
+
+        if (banMessage != null) {
+            event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_BANNED, banMessage);
+            return;
         }
+
+        // Load offense counts now, so punishing this player needs no query
+        plugin.getDataManager().loadOffenseCounts(event.getUniqueId());
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerLogin(PlayerLoginEvent event) {
         // This event fires if pre-login didn't disallow
-        // This is a fallback check in case something went wrong with async check
+        // Fallback for bans issued between pre-login and login - runs on the main thread,
+        // so it only reads the ban index and never touches storage
         if (event.getResult() == PlayerLoginEvent.Result.ALLOWED) {
-            Player player = event.getPlayer();
-            UUID uuid = player.getUniqueId();
-
-            try {
-                boolean banned = plugin.getPlayerManager().isPlayerBanned(uuid).get();
-
-                if (banned) {
-                    String banMessage = plugin.getPlayerManager().getBanMessage(uuid).get();
+            String banMessage = plugin.getPlayerManager().getCachedBanMessage(event.getPlayer().getUniqueId());
 
-                    if (banMessage != null) {
-                        event.disallow(PlayerLoginEvent.Result.KICK_BANNED, banMessage);
-                    } else {
-                        event.disallow(PlayerLoginEvent.Result.KICK_BANNED, "You are banned from this server.");
-                    }
-                }
-            } catch (InterruptedException | ExecutionException e) {
-                // If there's an error, allow the player to join but log the error
-                plugin.getLogger().severe("Error checking ban status for " + player.getName() + ": " + e.getMessage());
+            if (banMessage != null) {
+                event.disallow(PlayerLoginEvent.Result.KICK_BANNED, banMessage);
             }
         }
     }
@@ -77,14 +56,13 @@ public class LoginListener implements Listener {
         Player player = event.getPlayer();
         UUID uuid = player.getUniqueId();
 
-        // Notify player about active mutes
-        plugin.getPlayerManager().getActivePlayerPunishmentsByType(uuid, com.judgementday.model.PunishmentType.MUTE)
-                .thenAccept(mutes -> {
-                    if (!mutes.isEmpty()) {
-                        // Get the most recent mute
-                        mutes.sort((m1, m2) -> Long.compare(m2.getTimeIssued(), m1.getTimeIssued()));
-                        com.judgementday.model.Punishment mute = mutes.get(0);
+        plugin.getPlayerManager().getNameCompletions().addOnline(player.getName());
+        plugin.getStaffAudience().refresh(player);
 
+        // Notify player about active mutes
+        plugin.getPlayerManager().ensureMuteState(uuid)
+                .thenRun(() -> {
+                    if (plugin.getPlayerManager().getCachedMuteMessages(uuid) != null) {
                         // Send notification to player
                         player.sendMessage(plugin.getConfigManager().getPrefix() +
                                 "You are currently muted. Type /history to see details.");
@@ -113,4 +91,10 @@ public class LoginListener implements Listener {
                     });
         }
     }
-}
\ No newline at end of file
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        // Permissions can differ per world
+        plugin.getStaffAudience().refresh(event.getPlayer());
+    }
+}
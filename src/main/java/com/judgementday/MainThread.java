@@ -0,0 +1,80 @@
+package com.judgementday.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Runs work on the server's main thread from storage callbacks. Events, kicks and most
+ * other Bukkit calls are only safe there, while storage futures complete on whichever
+ * storage thread finished last.
+ */
+public final class MainThread {
+
+    private MainThread() {
+    }
+
+    /**
+     * Run a task on the main thread, straight away if already on it
+     *
+     * @param plugin The plugin scheduling the task
+     * @param task The task
+     * @return A future that completes once the task has run
+     */
+    public static CompletableFuture<Void> run(Plugin plugin, Runnable task) {
+        return supply(plugin, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Compute a value on the main thread, straight away if already on it
+     *
+     * @param plugin The plugin scheduling the task
+     * @param supplier The task
+     * @param <T> Result type
+     * @return A future with the value, or failed if the task failed or could not be scheduled
+     */
+    public static <T> CompletableFuture<T> supply(Plugin plugin, Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                future.complete(supplier.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        };
+
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+            return future;
+        }
+
+        try {
+            Bukkit.getScheduler().runTask(plugin, task);
+        } catch (RuntimeException e) {
+            // Disabled plugins cannot schedule tasks
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Call an event on the main thread, as Bukkit listeners expect
+     *
+     * @param plugin The plugin calling the event
+     * @param event The event to call
+     * @param <T> Event type
+     * @return A future that completes with the event once every listener has run
+     */
+    public static <T extends Event> CompletableFuture<T> callEvent(Plugin plugin, T event) {
+        return supply(plugin, () -> {
+            Bukkit.getPluginManager().callEvent(event);
+            return event;
+        });
+    }
+}
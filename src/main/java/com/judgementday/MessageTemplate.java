@@ -0,0 +1,263 @@
+package com.judgementday.util;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message split once into literal text and {placeholder} segments, with the color codes
+ * of the literal text already translated. Rendering appends the segments in one pass into
+ * a builder reused by the thread, instead of searching the whole message once per
+ * placeholder and translating colors on every call. Placeholder values are inserted as
+ * they are; color codes in them are not translated.
+ *
+ * Placeholders that are not given a value are rendered as written, e.g. "{id}".
+ */
+public final class MessageTemplate {
+
+    // Reused by each thread to render into; only the final string is allocated
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    // Literal text before each placeholder, then the text after the last one
+    private final String[] literals;
+
+    // Placeholder names; placeholder i sits between literals i and i + 1
+    private final String[] placeholders;
+
+    private final String raw;
+
+    private MessageTemplate(String raw, List<String> literals, List<String> placeholders) {
+        this.raw = raw;
+        this.literals = literals.toArray(new String[0]);
+        this.placeholders = placeholders.toArray(new String[0]);
+    }
+
+    /**
+     * Compile a message
+     *
+     * @param message The message, with &amp; color codes and {placeholder} names
+     * @return The compiled template
+     */
+    public static MessageTemplate compile(String message) {
+        String raw = message != null ? message : "";
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        int literalStart = 0;
+        int index = 0;
+        while (index < raw.length()) {
+            int open = raw.indexOf('{', index);
+            if (open < 0) {
+                break;
+            }
+
+            int close = raw.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+
+            String name = raw.substring(open + 1, close);
+            if (!isPlaceholderName(name)) {
+                // Not a placeholder, e.g. a brace in the text - keep it as literal text
+                index = open + 1;
+                continue;
+            }
+
+            literals.add(colorize(raw.substring(literalStart, open)));
+            placeholders.add(name);
+            literalStart = close + 1;
+            index = close + 1;
+        }
+        literals.add(colorize(raw.substring(literalStart)));
+
+        return new MessageTemplate(raw, literals, placeholders);
+    }
+
+    /**
+     * Render the message in one pass over a message that is not kept, e.g. one built at
+     * runtime. Colors of the whole result are translated, as placeholder values may be
+     * part of the text being colored.
+     *
+     * @param message The message
+     * @param values Values by placeholder name, or null
+     * @return The rendered message
+     */
+    public static String format(String message, Map<String, String> values) {
+        if (values == null || values.isEmpty() || message.indexOf('{') < 0) {
+            return colorize(message);
+        }
+
+        StringBuilder builder = builder();
+        int index = 0;
+        while (index < message.length()) {
+            int open = message.indexOf('{', index);
+            int close = open < 0 ? -1 : message.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+
+            String value = values.get(message.substring(open + 1, close));
+            if (value == null) {
+                builder.append(message, index, open + 1);
+                index = open + 1;
+                continue;
+            }
+
+            builder.append(message, index, open).append(value);
+            index = close + 1;
+        }
+        builder.append(message, index, message.length());
+
+        return colorize(builder.toString());
+    }
+
+    /**
+     * Render the message
+     *
+     * @param values Values by placeholder name, or null
+     * @return The rendered message
+     */
+    public String render(Map<String, String> values) {
+        if (placeholders.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder builder = builder();
+        builder.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            String value = values != null ? values.get(placeholders[i]) : null;
+            appendPlaceholder(builder, i, value);
+            builder.append(literals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Start giving the placeholders values, one by one
+     *
+     * @return A binding for this template
+     */
+    public Binding bind() {
+        return new Binding(this);
+    }
+
+    /**
+     * Get the message as written, before compiling
+     *
+     * @return The message
+     */
+    public String getRaw() {
+        return raw;
+    }
+
+    /**
+     * Values for the placeholders of one template. Numbers are appended without being
+     * turned into strings first.
+     */
+    public static final class Binding {
+        // Stored in values for a placeholder given a number
+        private static final Object NUMBER = new Object();
+
+        private final MessageTemplate template;
+        private final Object[] values;
+        private long[] numbers;
+
+        private Binding(MessageTemplate template) {
+            this.template = template;
+            this.values = new Object[template.placeholders.length];
+        }
+
+        /**
+         * Give a placeholder a value. Placeholders the template does not have are ignored.
+         *
+         * @param name Placeholder name
+         * @param value The value
+         * @return This binding
+         */
+        public Binding with(String name, String value) {
+            for (int i = 0; i < values.length; i++) {
+                if (template.placeholders[i].equals(name)) {
+                    values[i] = value;
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Give a placeholder a number. Placeholders the template does not have are ignored.
+         *
+         * @param name Placeholder name
+         * @param value The number
+         * @return This binding
+         */
+        public Binding with(String name, long value) {
+            for (int i = 0; i < values.length; i++) {
+                if (template.placeholders[i].equals(name)) {
+                    if (numbers == null) {
+                        numbers = new long[values.length];
+                    }
+                    numbers[i] = value;
+                    values[i] = NUMBER;
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Render the message with the values given
+         *
+         * @return The rendered message
+         */
+        public String render() {
+            if (values.length == 0) {
+                return template.literals[0];
+            }
+
+            StringBuilder builder = builder();
+            builder.append(template.literals[0]);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == NUMBER) {
+                    builder.append(numbers[i]);
+                } else {
+                    template.appendPlaceholder(builder, i, (String) values[i]);
+                }
+                builder.append(template.literals[i + 1]);
+            }
+            return builder.toString();
+        }
+    }
+
+    private void appendPlaceholder(StringBuilder builder, int index, String value) {
+        if (value != null) {
+            builder.append(value);
+        } else {
+            // No value given - leave the placeholder as written
+            builder.append('{').append(placeholders[index]).append('}');
+        }
+    }
+
+    private static StringBuilder builder() {
+        StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+        return builder;
+    }
+
+    private static boolean isPlaceholderName(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String colorize(String text) {
+        return ChatColor.translateAlternateColorCodes('&', text);
+    }
+}
@@ -36,15 +36,8 @@ public class MessageUtil {
             return "";
         }
 
-        String formatted = message;
-
-        if (placeholders != null) {
-            for (Map.Entry<String, String> entry : placeholders.entrySet()) {
-                formatted = formatted.replace("{" + entry.getKey() + "}", entry.getValue());
-            }
-        }
-
-        return colorize(formatted);
+        // Messages from messages.yml are compiled once instead, see ConfigManager#formatMessage
+        return MessageTemplate.format(message, placeholders);
     }
 
     /**
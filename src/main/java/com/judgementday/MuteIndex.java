@@ -0,0 +1,159 @@
+package com.judgementday.manager;
+
+import com.judgementday.model.Punishment;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory mute state per player, read by the chat thread with a single map lookup.
+ * Each entry holds the latest mute, the time the player stops being muted and the
+ * pre-rendered lines sent when a muted player tries to chat.
+ */
+public class MuteIndex {
+
+    private final Map<UUID, MuteState> states = new ConcurrentHashMap<>();
+
+    // Once every active mute has been loaded, a missing entry means "not muted"
+    private volatile boolean authoritative = false;
+
+    public static final class MuteState {
+        private final int punishmentId;
+        private final long timeIssued;
+        private final long expiry;
+        private final String[] messages;
+
+        private MuteState(int punishmentId, long timeIssued, long expiry, String[] messages) {
+            this.punishmentId = punishmentId;
+            this.timeIssued = timeIssued;
+            this.expiry = expiry;
+            this.messages = messages;
+        }
+
+        public boolean isMuted(long now) {
+            return messages != null && (expiry == -1 || expiry > now);
+        }
+
+        public int getPunishmentId() {
+            return punishmentId;
+        }
+
+        public long getExpiry() {
+            return expiry;
+        }
+
+        public String[] getMessages() {
+            return messages;
+        }
+    }
+
+    /**
+     * Replace the index contents with every active mute
+     *
+     * @param mutes All active mutes
+     * @param renderer Renders the chat lines for a mute
+     */
+    public void load(Collection<Punishment> mutes, Function<Punishment, String[]> renderer) {
+        states.clear();
+
+        for (Punishment mute : mutes) {
+            put(mute, renderer.apply(mute));
+        }
+
+        authoritative = true;
+    }
+
+    /**
+     * Add a mute to the index. The latest mute provides the message, the longest one the expiry.
+     *
+     * @param mute The mute
+     * @param messages Pre-rendered chat lines
+     */
+    public void put(Punishment mute, String[] messages) {
+        MuteState state = new MuteState(mute.getId(), mute.getTimeIssued(), mute.getExpiry(), messages);
+        states.merge(mute.getTargetUuid(), state, MuteIndex::combine);
+    }
+
+    /**
+     * Replace a player's state with the given set of active mutes
+     *
+     * @param uuid Player UUID
+     * @param mutes The player's active mutes
+     * @param renderer Renders the chat lines for a mute
+     */
+    public void update(UUID uuid, Collection<Punishment> mutes, Function<Punishment, String[]> renderer) {
+        Punishment latest = null;
+        long expiry = 0L;
+
+        for (Punishment mute : mutes) {
+            if (latest == null || mute.getTimeIssued() > latest.getTimeIssued()) {
+                latest = mute;
+            }
+            expiry = maxExpiry(expiry, mute.getExpiry());
+        }
+
+        if (latest == null) {
+            states.remove(uuid);
+            return;
+        }
+
+        states.put(uuid, new MuteState(latest.getId(), latest.getTimeIssued(), expiry, renderer.apply(latest)));
+    }
+
+    /**
+     * Check whether the index can answer for a player
+     *
+     * @param uuid Player UUID
+     * @return true if the player's mute state is known
+     */
+    public boolean isKnown(UUID uuid) {
+        MuteState state = states.get(uuid);
+        return state != null || authoritative;
+    }
+
+    /**
+     * Get the chat lines for a muted player
+     *
+     * @param uuid Player UUID
+     * @return The pre-rendered lines, or null if the player is not muted or not known
+     */
+    public String[] getMessages(UUID uuid) {
+        MuteState state = states.get(uuid);
+        if (state == null) {
+            return null;
+        }
+
+        if (!state.isMuted(System.currentTimeMillis())) {
+            // Expired - drop it so the next lookup is a plain miss
+            states.remove(uuid, state);
+            return null;
+        }
+
+        return state.messages;
+    }
+
+    public boolean isAuthoritative() {
+        return authoritative;
+    }
+
+    private static MuteState combine(MuteState current, MuteState added) {
+        if (current.messages == null) {
+            return added;
+        }
+
+        MuteState latest = added.timeIssued >= current.timeIssued ? added : current;
+        long expiry = maxExpiry(current.expiry, added.expiry);
+
+        return new MuteState(latest.punishmentId, latest.timeIssued, expiry, latest.messages);
+    }
+
+    private static long maxExpiry(long a, long b) {
+        if (a == -1 || b == -1) {
+            return -1;
+        }
+        return Math.max(a, b);
+    }
+}
@@ -0,0 +1,101 @@
+package com.judgementday.manager;
+
+import com.judgementday.util.CompletionTrie;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Player names offered by tab completion: everyone online, then the players punished most
+ * recently, so staff can complete offline offenders too. Both sets are kept up to date as
+ * players join and leave and as punishments are issued, instead of being gathered on every
+ * keystroke.
+ */
+public class NameCompletions {
+
+    private final CompletionTrie online = new CompletionTrie();
+    private final CompletionTrie punished = new CompletionTrie();
+
+    // Lower case name to name, oldest punishment first; the oldest names make way for new ones
+    private final Map<String, String> recentlyPunished;
+
+    /**
+     * Create the name completions
+     *
+     * @param maxPunished Number of recently punished names kept
+     */
+    public NameCompletions(int maxPunished) {
+        this.recentlyPunished = new LinkedHashMap<String, String>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                if (size() <= maxPunished) {
+                    return false;
+                }
+                punished.remove(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    public void addOnline(String name) {
+        online.add(name);
+    }
+
+    public void removeOnline(String name) {
+        online.remove(name);
+    }
+
+    /**
+     * Remember a punished player's name, as the most recent one
+     *
+     * @param name Player name
+     */
+    public void addPunished(String name) {
+        synchronized (recentlyPunished) {
+            // Re-insert so the name moves to the end
+            recentlyPunished.remove(name.toLowerCase(Locale.ROOT));
+            recentlyPunished.put(name.toLowerCase(Locale.ROOT), name);
+            punished.add(name);
+        }
+    }
+
+    /**
+     * Complete a player name, online players first
+     *
+     * @param prefix Start of the name, in any case
+     * @param limit Maximum number of names returned
+     * @return The names, each group in alphabetical order
+     */
+    public List<String> complete(String prefix, int limit) {
+        List<String> names = new ArrayList<>();
+        online.complete(prefix, limit, names);
+        if (names.size() >= limit) {
+            return names;
+        }
+
+        int onlineCount = names.size();
+        punished.complete(prefix, limit + onlineCount, names);
+
+        // Drop punished players already listed as online
+        int kept = onlineCount;
+        for (int i = onlineCount; i < names.size() && kept < limit; i++) {
+            String name = names.get(i);
+            if (!online.contains(name)) {
+                names.set(kept++, name);
+            }
+        }
+        names.subList(kept, names.size()).clear();
+        return names;
+    }
+
+    public int getOnlineCount() {
+        return online.size();
+    }
+
+    public int getPunishedCount() {
+        return punished.size();
+    }
+}
@@ -0,0 +1,150 @@
+package com.judgementday.manager;
+
+import com.judgementday.model.PlayerName;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of every player name seen, from logins and from the names on stored
+ * punishments, reports and appeals. Names are matched case-insensitively; a name held by
+ * several players over time resolves to whoever was seen with it last. Lookups never touch
+ * storage - names seen since the last save are queued and written out in batches.
+ */
+public class NameIndex {
+
+    // Lower case name to the latest player seen with it, sorted for prefix searches
+    private final ConcurrentSkipListMap<String, PlayerName> byName = new ConcurrentSkipListMap<>();
+
+    // Every name each player has been seen with, latest first. Lists are replaced, never changed.
+    private final Map<UUID, List<PlayerName>> byUuid = new ConcurrentHashMap<>();
+
+    // Names seen but not saved yet, one per player and name
+    private final Map<String, PlayerName> unsaved = new ConcurrentHashMap<>();
+
+    /**
+     * Fill the index with stored names
+     *
+     * @param names The stored names
+     */
+    public void load(Collection<PlayerName> names) {
+        for (PlayerName name : names) {
+            add(name);
+        }
+    }
+
+    /**
+     * Record a player seen with a name, e.g. on login
+     *
+     * @param uuid Player UUID
+     * @param name Player name
+     * @param time When they were seen
+     */
+    public void record(UUID uuid, String name, long time) {
+        PlayerName seen = new PlayerName(uuid, name, time);
+        add(seen);
+        unsaved.merge(uuid + ":" + seen.getKey(), seen, NameIndex::latest);
+    }
+
+    /**
+     * Look up the player last seen with a name
+     *
+     * @param name Player name, in any case
+     * @return Player UUID, or null if no player was seen with the name
+     */
+    public UUID getUuid(String name) {
+        PlayerName entry = byName.get(name.toLowerCase(Locale.ROOT));
+        return entry != null ? entry.getUuid() : null;
+    }
+
+    /**
+     * Get the name a player was last seen with
+     *
+     * @param uuid Player UUID
+     * @return The name, or null if the player was never seen
+     */
+    public String getName(UUID uuid) {
+        List<PlayerName> names = byUuid.get(uuid);
+        return names != null ? names.get(0).getName() : null;
+    }
+
+    /**
+     * Get every name a player has been seen with
+     *
+     * @param uuid Player UUID
+     * @return The names, latest first
+     */
+    public List<PlayerName> getNameHistory(UUID uuid) {
+        return byUuid.getOrDefault(uuid, Collections.emptyList());
+    }
+
+    /**
+     * Find known names starting with a prefix
+     *
+     * @param prefix Start of the name, in any case
+     * @param limit Maximum number of names returned
+     * @return The names in alphabetical order, in the case they were last seen in
+     */
+    public List<String> findNames(String prefix, int limit) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        ConcurrentNavigableMap<String, PlayerName> matches = byName.subMap(from, true, from + Character.MAX_VALUE, true);
+
+        List<String> names = new ArrayList<>();
+        for (PlayerName entry : matches.values()) {
+            if (names.size() >= limit) {
+                break;
+            }
+            names.add(entry.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Take the names seen since the last call, to be saved
+     *
+     * @return The unsaved names
+     */
+    public List<PlayerName> drainUnsaved() {
+        List<PlayerName> drained = new ArrayList<>();
+        for (Map.Entry<String, PlayerName> entry : unsaved.entrySet()) {
+            // Only removed if not seen again meanwhile; a newer sighting waits for the next save
+            if (unsaved.remove(entry.getKey(), entry.getValue())) {
+                drained.add(entry.getValue());
+            }
+        }
+        return drained;
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    private void add(PlayerName seen) {
+        byUuid.compute(seen.getUuid(), (uuid, names) -> {
+            List<PlayerName> updated = new ArrayList<>();
+            updated.add(seen);
+
+            if (names != null) {
+                for (PlayerName name : names) {
+                    if (!name.getKey().equals(seen.getKey())) {
+                        updated.add(name);
+                    } else if (name.getLastSeen() > seen.getLastSeen()) {
+                        // Keep the later sighting of the same name
+                        updated.set(0, name);
+                    }
+                }
+            }
+
+            updated.sort(Comparator.comparingLong(PlayerName::getLastSeen).reversed());
+            return Collections.unmodifiableList(updated);
+        });
+
+        byName.merge(seen.getKey(), seen, NameIndex::latest);
+    }
+
+    private static PlayerName latest(PlayerName current, PlayerName added) {
+        return added.getLastSeen() >= current.getLastSeen() ? added : current;
+    }
+}
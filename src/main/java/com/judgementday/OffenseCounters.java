@@ -0,0 +1,256 @@
+package com.judgementday.data;
+
+import com.judgementday.model.Punishment;
+import com.judgementday.model.PunishmentType;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Offense counts per player, punishment type and reason, which set the level of the next
+ * punishment. A player's counts are loaded once, in one query, and then kept in step with
+ * the punishments issued, so escalation needs no COUNT over the history. Levels are handed
+ * out with an atomic increment, so two staff punishing the same player at the same moment
+ * get consecutive levels rather than the same one.
+ *
+ * Counts of online players are kept until they quit. Counts loaded for anyone else, e.g. the
+ * targets of a ban wave, are dropped once they have not been used for a while.
+ */
+public class OffenseCounters {
+
+    /** How long counts of a player who is not online are kept after their last use */
+    private static final long IDLE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    /** How often idle counts are looked for */
+    private static final long SWEEP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Function<Collection<UUID>, CompletableFuture<Map<UUID, Map<String, Integer>>>> loader;
+
+    // Counts by player, then by type and reason. The future is shared while a load is running.
+    private final Map<UUID, CompletableFuture<Map<String, AtomicInteger>>> players = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> lastUsed = new ConcurrentHashMap<>();
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lastSweep = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Create the counters
+     *
+     * @param loader Loads the stored counts for several players, keyed by {@link #key}
+     */
+    public OffenseCounters(Function<Collection<UUID>, CompletableFuture<Map<UUID, Map<String, Integer>>>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Build the key counts are stored under
+     *
+     * @param type Punishment type
+     * @param reason Punishment reason
+     * @return The key
+     */
+    public static String key(PunishmentType type, String reason) {
+        return type.name() + ":" + reason;
+    }
+
+    /**
+     * Get the level the next punishment would have, without taking it
+     *
+     * @param uuid Player UUID
+     * @param type Punishment type
+     * @param reason Punishment reason
+     * @return The level (starts at 1)
+     */
+    public CompletableFuture<Integer> getLevel(UUID uuid, PunishmentType type, String reason) {
+        return load(uuid).thenApply(counts -> {
+            AtomicInteger count = counts.get(key(type, reason));
+            return (count != null ? count.get() : 0) + 1;
+        });
+    }
+
+    /**
+     * Take the level for a punishment about to be issued
+     *
+     * @param uuid Player UUID
+     * @param type Punishment type
+     * @param reason Punishment reason
+     * @return The level (starts at 1)
+     */
+    public CompletableFuture<Integer> reserveLevel(UUID uuid, PunishmentType type, String reason) {
+        return load(uuid).thenApply(counts -> counter(counts, type, reason).incrementAndGet());
+    }
+
+    /**
+     * Take the levels for the same punishment about to be issued to several players
+     *
+     * @param uuids Player UUIDs
+     * @param type Punishment type
+     * @param reason Punishment reason
+     * @return Each player's level
+     */
+    public CompletableFuture<Map<UUID, Integer>> reserveLevels(Collection<UUID> uuids, PunishmentType type, String reason) {
+        return loadAll(uuids).thenApply(loaded -> {
+            Map<UUID, Integer> levels = new HashMap<>();
+            for (Map.Entry<UUID, Map<String, AtomicInteger>> entry : loaded.entrySet()) {
+                levels.put(entry.getKey(), counter(entry.getValue(), type, reason).incrementAndGet());
+            }
+            return levels;
+        });
+    }
+
+    /**
+     * Hand back the level of a punishment that was never stored. Only the latest level
+     * can be handed back; if another was taken since, the count keeps a gap instead.
+     *
+     * @param punishment The punishment
+     */
+    public void release(Punishment punishment) {
+        Map<String, AtomicInteger> counts = getLoaded(punishment.getTargetUuid());
+        if (counts == null) {
+            return;
+        }
+
+        AtomicInteger count = counts.get(key(punishment.getType(), punishment.getReason()));
+        if (count != null) {
+            count.compareAndSet(punishment.getLevel(), punishment.getLevel() - 1);
+        }
+    }
+
+    /**
+     * Account for a stored punishment whose level was not taken here, e.g. one issued on
+     * another server
+     *
+     * @param punishment The punishment
+     */
+    public void record(Punishment punishment) {
+        Map<String, AtomicInteger> counts = getLoaded(punishment.getTargetUuid());
+        if (counts != null) {
+            counter(counts, punishment.getType(), punishment.getReason())
+                    .accumulateAndGet(punishment.getLevel(), Math::max);
+        }
+    }
+
+    /**
+     * Load a player's counts ahead of their first punishment, e.g. on login. They are kept
+     * until {@link #evict(UUID)}.
+     *
+     * @param uuid Player UUID
+     * @return A future that completes once the counts are loaded
+     */
+    public CompletableFuture<Void> warm(UUID uuid) {
+        online.add(uuid);
+        return load(uuid).thenApply(counts -> null);
+    }
+
+    public void evict(UUID uuid) {
+        online.remove(uuid);
+        lastUsed.remove(uuid);
+        players.remove(uuid);
+    }
+
+    public void clear() {
+        online.clear();
+        lastUsed.clear();
+        players.clear();
+    }
+
+    private Map<String, AtomicInteger> getLoaded(UUID uuid) {
+        CompletableFuture<Map<String, AtomicInteger>> future = players.get(uuid);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+
+        // A stored punishment counts as use, so the idle time starts once the write is done
+        lastUsed.put(uuid, System.currentTimeMillis());
+        return future.join();
+    }
+
+    /**
+     * Drop the counts of players who are not online and have not been punished for a while.
+     * Any level taken from them has long been stored or handed back, so a later load from
+     * storage picks up where they left off.
+     */
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL_MILLIS || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+
+        for (Map.Entry<UUID, Long> entry : lastUsed.entrySet()) {
+            UUID uuid = entry.getKey();
+            if (now - entry.getValue() < IDLE_MILLIS || online.contains(uuid)) {
+                continue;
+            }
+
+            // Skip players used again since the entry was read, and loads still running
+            if (lastUsed.remove(uuid, entry.getValue())) {
+                players.computeIfPresent(uuid, (k, future) -> future.isDone() ? null : future);
+            }
+        }
+    }
+
+    private static AtomicInteger counter(Map<String, AtomicInteger> counts, PunishmentType type, String reason) {
+        return counts.computeIfAbsent(key(type, reason), k -> new AtomicInteger());
+    }
+
+    private CompletableFuture<Map<String, AtomicInteger>> load(UUID uuid) {
+        return loadAll(Collections.singletonList(uuid)).thenApply(loaded -> loaded.get(uuid));
+    }
+
+    private CompletableFuture<Map<UUID, Map<String, AtomicInteger>>> loadAll(Collection<UUID> uuids) {
+        Map<UUID, CompletableFuture<Map<String, AtomicInteger>>> futures = new LinkedHashMap<>();
+        Map<UUID, CompletableFuture<Map<String, AtomicInteger>>> missing = new LinkedHashMap<>();
+
+        evictIdle();
+
+        long now = System.currentTimeMillis();
+        for (UUID uuid : uuids) {
+            lastUsed.put(uuid, now);
+
+            CompletableFuture<Map<String, AtomicInteger>> created = new CompletableFuture<>();
+            CompletableFuture<Map<String, AtomicInteger>> existing = players.putIfAbsent(uuid, created);
+
+            if (existing == null) {
+                missing.put(uuid, created);
+                futures.put(uuid, created);
+            } else {
+                futures.put(uuid, existing);
+            }
+        }
+
+        // Players not loaded yet are fetched together
+        if (!missing.isEmpty()) {
+            loader.apply(new ArrayList<>(missing.keySet())).whenComplete((stored, error) -> {
+                for (Map.Entry<UUID, CompletableFuture<Map<String, AtomicInteger>>> entry : missing.entrySet()) {
+                    if (error != null) {
+                        // Forget the failed load so the next lookup retries
+                        players.remove(entry.getKey(), entry.getValue());
+                        entry.getValue().completeExceptionally(error);
+                        continue;
+                    }
+
+                    Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+                    Map<String, Integer> playerCounts = stored.get(entry.getKey());
+                    if (playerCounts != null) {
+                        for (Map.Entry<String, Integer> count : playerCounts.entrySet()) {
+                            counts.put(count.getKey(), new AtomicInteger(count.getValue()));
+                        }
+                    }
+                    entry.getValue().complete(counts);
+                }
+            });
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            Map<UUID, Map<String, AtomicInteger>> loaded = new LinkedHashMap<>();
+            for (Map.Entry<UUID, CompletableFuture<Map<String, AtomicInteger>>> entry : futures.entrySet()) {
+                loaded.put(entry.getKey(), entry.getValue().join());
+            }
+            return loaded;
+        });
+    }
+}
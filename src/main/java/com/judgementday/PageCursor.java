@@ -0,0 +1,71 @@
+package com.judgementday.data;
+
+import com.judgementday.model.Punishment;
+
+/**
+ * Position in a punishment history ordered newest first, by time issued and then id.
+ * A page starts right after its cursor, so fetching a page never skips over the rows
+ * before it the way an offset does.
+ */
+public final class PageCursor {
+
+    /**
+     * Cursor before the newest punishment, for the first page
+     */
+    public static final PageCursor FIRST = new PageCursor(Long.MAX_VALUE, Integer.MAX_VALUE);
+
+    private final long timeIssued;
+    private final int id;
+
+    private PageCursor(long timeIssued, int id) {
+        this.timeIssued = timeIssued;
+        this.id = id;
+    }
+
+    /**
+     * Get the cursor for the page following a punishment
+     *
+     * @param last The last punishment on the current page
+     * @return The cursor
+     */
+    public static PageCursor after(Punishment last) {
+        return new PageCursor(last.getTimeIssued(), last.getId());
+    }
+
+    public long getTimeIssued() {
+        return timeIssued;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean isFirst() {
+        return this == FIRST || (timeIssued == Long.MAX_VALUE && id == Integer.MAX_VALUE);
+    }
+
+    /**
+     * Check whether a punishment comes after this cursor, newest first
+     *
+     * @param punishment The punishment
+     * @return true if it belongs on a page starting at this cursor
+     */
+    public boolean precedes(Punishment punishment) {
+        return punishment.getTimeIssued() < timeIssued ||
+                (punishment.getTimeIssued() == timeIssued && punishment.getId() < id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PageCursor)) return false;
+
+        PageCursor other = (PageCursor) o;
+        return timeIssued == other.timeIssued && id == other.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(timeIssued) + id;
+    }
+}
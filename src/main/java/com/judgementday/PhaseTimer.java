@@ -0,0 +1,71 @@
+package com.judgementday.util;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Measures the phases of a multi-step task, such as loading data on startup, for logging.
+ * Sequential phases are ended with {@link #mark(String)}; phases that run concurrently are
+ * timed on their own with {@link #track(String, CompletableFuture)}.
+ */
+public class PhaseTimer {
+
+    private final long start = System.nanoTime();
+    private final StringBuilder phases = new StringBuilder();
+    private long phaseStart = start;
+
+    /**
+     * End the current phase and start the next one
+     *
+     * @param phase Name of the phase that just finished
+     */
+    public synchronized void mark(String phase) {
+        long now = System.nanoTime();
+
+        append(phase, now - phaseStart);
+
+        phaseStart = now;
+    }
+
+    /**
+     * Time a phase running alongside others, from now until its future completes
+     *
+     * @param phase Name of the phase
+     * @param future Future that completes when the phase is done
+     * @param <T> Result type
+     * @return A future with the same result that completes once the phase is recorded
+     */
+    public <T> CompletableFuture<T> track(String phase, CompletableFuture<T> future) {
+        long trackStart = System.nanoTime();
+
+        return future.whenComplete((result, error) -> {
+            synchronized (this) {
+                append(phase, System.nanoTime() - trackStart);
+            }
+        });
+    }
+
+    /**
+     * Get the total time since the timer was created
+     *
+     * @return Elapsed milliseconds
+     */
+    public long getElapsedMillis() {
+        return toMillis(System.nanoTime() - start);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return getElapsedMillis() + " ms (" + phases + ")";
+    }
+
+    private void append(String phase, long nanos) {
+        if (phases.length() > 0) {
+            phases.append(", ");
+        }
+        phases.append(phase).append(' ').append(toMillis(nanos)).append(" ms");
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos / 1000000L;
+    }
+}
@@ -1,26 +1,48 @@
 package com.judgementday.manager;
 
 import com.judgementday.JudgementDay;
+import com.judgementday.data.DataExecutor.Lane;
+import com.judgementday.data.PageCursor;
+import com.judgementday.model.PlayerName;
 import com.judgementday.model.Punishment;
 import com.judgementday.model.PunishmentType;
 import com.judgementday.util.LogUtil;
 import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class PlayerManager {
 
+    private static final long BAN_LOOKUP_TIMEOUT_SECONDS = 5;
+    private static final long NAME_LOAD_TIMEOUT_SECONDS = 30;
+
     private final JudgementDay plugin;
     private final Map<UUID, Map<UUID, Long>> playerCooldowns = new ConcurrentHashMap<>();
+    private final BanIndex banIndex = new BanIndex();
+    private final MuteIndex muteIndex = new MuteIndex();
+    private final HistoryCache historyCache;
+    private final NameIndex nameIndex = new NameIndex();
+    private final NameCompletions nameCompletions;
+    private BukkitTask nameSaveTask;
 
     public PlayerManager(JudgementDay plugin) {
         this.plugin = plugin;
+
+        FileConfiguration config = plugin.getConfigManager().getMainConfig();
+        this.historyCache = new HistoryCache(config.getLong("storage.history-cache.max-records", 10000L),
+                TimeUnit.SECONDS.toMillis(config.getLong("storage.history-cache.ttl", 300L)));
+        this.nameCompletions = new NameCompletions(config.getInt("commands.completion.punished-names", 1000));
     }
 
     /**
@@ -65,13 +87,36 @@ public class PlayerManager {
     }
 
     /**
-     * Get all punishments for a player
+     * Get all punishments for a player, newest first. Served from the history cache when possible.
      *
      * @param uuid Player UUID
      * @return A future that completes with a list of all punishments
      */
     public CompletableFuture<List<Punishment>> getPlayerPunishments(UUID uuid) {
-        return plugin.getDataManager().getPlayerPunishments(uuid);
+        return historyCache.get(uuid, plugin.getDataManager()::getPlayerPunishments);
+    }
+
+    /**
+     * Get one page of a player's punishments, newest first. Served from the history cache when possible.
+     *
+     * @param uuid Player UUID
+     * @param cursor Where the page starts
+     * @param limit Maximum number of punishments on the page
+     * @return A future that completes with the page
+     */
+    public CompletableFuture<List<Punishment>> getPlayerPunishmentsPage(UUID uuid, PageCursor cursor, int limit) {
+        return historyCache.getPage(uuid, cursor, limit,
+                () -> plugin.getDataManager().getPlayerPunishmentsPage(uuid, cursor, limit));
+    }
+
+    /**
+     * Count a player's punishments. Served from the history cache when possible.
+     *
+     * @param uuid Player UUID
+     * @return A future that completes with the number of punishments
+     */
+    public CompletableFuture<Integer> countPlayerPunishments(UUID uuid) {
+        return historyCache.getCount(uuid, () -> plugin.getDataManager().countPlayerPunishments(uuid));
     }
 
     /**
@@ -100,6 +145,195 @@ public class PlayerManager {
                 });
     }
 
+    /**
+     * Load every active ban and mute into the in-memory indexes. Called once on enable.
+     */
+    public void loadPunishmentIndexes() {
+        try {
+            List<Punishment> bans = plugin.getDataManager().getActivePunishments(PunishmentType.BAN)
+                    .get(BAN_LOOKUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            banIndex.load(bans, this::renderKickMessage);
+
+            List<Punishment> mutes = plugin.getDataManager().getActivePunishments(PunishmentType.MUTE)
+                    .get(BAN_LOOKUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            muteIndex.load(mutes, this::renderMuteMessages);
+
+            // Players banned or muted right now can be completed while offline
+            bans.forEach(ban -> nameCompletions.addPunished(ban.getTargetName()));
+            mutes.forEach(mute -> nameCompletions.addPunished(mute.getTargetName()));
+
+            LogUtil.info("Loaded " + bans.size() + " active bans and " + mutes.size() + " active mutes into memory.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LogUtil.severe("Failed to load the punishment indexes, checks will fall back to storage", e);
+        }
+    }
+
+    /**
+     * Get the kick message for a banned player from the ban index, without touching storage
+     *
+     * @param uuid Player UUID
+     * @return The kick message, or null if the player is not banned or the index has no entry
+     */
+    public String getCachedBanMessage(UUID uuid) {
+        BanIndex.Entry entry = banIndex.lookup(uuid);
+        if (entry == null || !entry.isBanned(System.currentTimeMillis())) {
+            return null;
+        }
+
+        return entry.getKickMessage();
+    }
+
+    /**
+     * Get the kick message for a banned player, loading the player's bans from storage
+     * once if the ban index has no entry. Blocks on a miss, so only call it from an async
+     * thread such as the pre-login handler.
+     *
+     * @param uuid Player UUID
+     * @return The kick message, or null if the player is not banned
+     */
+    public String resolveBanMessage(UUID uuid) {
+        BanIndex.Entry entry = banIndex.lookup(uuid);
+
+        if (entry == null) {
+            try {
+                List<Punishment> bans = plugin.getDataManager().getActivePlayerPunishmentsByType(uuid, PunishmentType.BAN)
+                        .get(BAN_LOOKUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                entry = banIndex.update(uuid, bans, this::renderKickMessage);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException | TimeoutException e) {
+                // If there's an error, allow the player to join but log the error
+                LogUtil.severe("Error checking ban status for " + uuid, e);
+                return null;
+            }
+        }
+
+        return entry.isBanned(System.currentTimeMillis()) ? entry.getKickMessage() : null;
+    }
+
+    /**
+     * Reload a player's bans from storage into the ban index. The current entry keeps
+     * answering until the reload replaces it, so a player with another ban stays out.
+     *
+     * @param uuid Player UUID
+     * @return A future that completes when the index has been updated
+     */
+    public CompletableFuture<Void> refreshBan(UUID uuid) {
+        return getActivePlayerPunishmentsByType(uuid, PunishmentType.BAN)
+                .thenAccept(bans -> banIndex.update(uuid, bans, this::renderKickMessage));
+    }
+
+    /**
+     * Get the lines to send a muted player who tries to chat. Reads the mute index only,
+     * so it is safe to call from the chat thread on every message.
+     *
+     * @param uuid Player UUID
+     * @return The pre-rendered mute lines, or null if the player is not muted
+     */
+    public String[] getCachedMuteMessages(UUID uuid) {
+        return muteIndex.getMessages(uuid);
+    }
+
+    /**
+     * Make sure the mute index can answer for a player, loading their mutes if needed
+     *
+     * @param uuid Player UUID
+     * @return A future that completes once the player's mute state is known
+     */
+    public CompletableFuture<Void> ensureMuteState(UUID uuid) {
+        if (muteIndex.isKnown(uuid)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return refreshMute(uuid);
+    }
+
+    /**
+     * Reload a player's mutes from storage into the mute index. The current state keeps
+     * answering until the reload replaces it, so a player with another mute cannot chat
+     * in between.
+     *
+     * @param uuid Player UUID
+     * @return A future that completes when the index has been updated
+     */
+    public CompletableFuture<Void> refreshMute(UUID uuid) {
+        return getActivePlayerPunishmentsByType(uuid, PunishmentType.MUTE)
+                .thenAccept(mutes -> muteIndex.update(uuid, mutes, this::renderMuteMessages));
+    }
+
+    /**
+     * Update in-memory punishment state after a punishment has been stored
+     *
+     * @param punishment The punishment that was added
+     */
+    public void onPunishmentAdded(Punishment punishment) {
+        historyCache.onPunishmentAdded(punishment);
+        nameCompletions.addPunished(punishment.getTargetName());
+
+        if (!punishment.isActive()) {
+            return;
+        }
+
+        plugin.getExpiryScheduler().schedule(punishment);
+
+        if (punishment.getType() == PunishmentType.BAN) {
+            banIndex.put(punishment, renderKickMessage(punishment));
+        } else if (punishment.getType() == PunishmentType.MUTE) {
+            muteIndex.put(punishment, renderMuteMessages(punishment));
+        }
+    }
+
+    /**
+     * Update in-memory punishment state after a punishment has been revoked or has expired
+     *
+     * @param punishment The punishment that was removed
+     * @return A future that completes when the state has been updated
+     */
+    public CompletableFuture<Void> onPunishmentRemoved(Punishment punishment) {
+        plugin.getExpiryScheduler().cancel(punishment);
+        historyCache.invalidate(punishment.getTargetUuid());
+
+        if (punishment.getType() == PunishmentType.BAN) {
+            // The player may still have another ban, so reload rather than clear
+            return refreshBan(punishment.getTargetUuid());
+        }
+
+        if (punishment.getType() == PunishmentType.MUTE) {
+            return refreshMute(punishment.getTargetUuid());
+        }
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    public BanIndex getBanIndex() {
+        return banIndex;
+    }
+
+    public MuteIndex getMuteIndex() {
+        return muteIndex;
+    }
+
+    public HistoryCache getHistoryCache() {
+        return historyCache;
+    }
+
+    private String renderKickMessage(Punishment ban) {
+        String message = plugin.getPunishmentManager().getPunishmentMessage(ban);
+        return message != null ? message : "You are banned from this server.";
+    }
+
+    private String[] renderMuteMessages(Punishment mute) {
+        return new String[] {
+                plugin.getConfigManager().getPrefixedTemplate("punishment.muted").bind()
+                        .with("type", mute.getType().getDisplayName())
+                        .render(),
+                plugin.getPunishmentManager().getPunishmentMessage(mute)
+        };
+    }
+
     /**
      * Get all active mutes for a player
      *
@@ -209,27 +443,135 @@ public class PlayerManager {
     }
 
     /**
-     * Get a player UUID by name
+     * Resolve a player UUID by name without blocking the calling thread
      *
      * @param name Player name
-     * @return Player UUID or null if not found
+     * @return A future with the player UUID, or null if not found
      */
-    public UUID getPlayerUuid(String name) {
+    public CompletableFuture<UUID> resolvePlayerUuid(String name) {
         // First check online players
         Player player = Bukkit.getPlayer(name);
         if (player != null) {
-            return player.getUniqueId();
+            return CompletableFuture.completedFuture(player.getUniqueId());
         }
 
-        // Then check offline players (this can be slow)
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return Bukkit.getOfflinePlayer(name).getUniqueId();
-            } catch (Exception e) {
-                LogUtil.warning("Failed to get UUID for player: " + name);
-                return null;
+        // Then every player seen before, from memory - unknown names are not guessed
+        return CompletableFuture.completedFuture(nameIndex.getUuid(name));
+    }
+
+    /**
+     * Load the name index and start saving new names periodically. Blocks until the names
+     * are loaded, so only call it during startup.
+     */
+    public void loadNameIndex() {
+        try {
+            List<PlayerName> names = plugin.getDataManager().loadPlayerNames()
+                    .get(NAME_LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            nameIndex.load(names);
+
+            LogUtil.info("Loaded " + nameIndex.size() + " player names into memory.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            LogUtil.severe("Failed to load the player name index, only online players can be looked up by name", e);
+        }
+
+        // Players who joined before the index existed are only in the server's own player data
+        plugin.getDataExecutor().run(Lane.READ, this::backfillNames)
+                .exceptionally(e -> {
+                    LogUtil.warning("Failed to add the server's known players to the name index: " + e.getMessage());
+                    return null;
+                });
+
+        long interval = plugin.getConfigManager().getMainConfig().getLong("storage.name-index.save-interval", 10L);
+        if (interval > 0) {
+            nameSaveTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::saveNames,
+                    20 * interval, 20 * interval); // Convert seconds to ticks
+        }
+    }
+
+    /**
+     * Add the players the server knows of that the index has not seen. Reads the server's
+     * player data and name cache only, never the Mojang API.
+     */
+    private void backfillNames() {
+        int added = 0;
+        for (OfflinePlayer offlinePlayer : Bukkit.getOfflinePlayers()) {
+            String name = offlinePlayer.getName();
+            if (name == null || nameIndex.getName(offlinePlayer.getUniqueId()) != null) {
+                continue;
             }
-        }).join();
+
+            nameIndex.record(offlinePlayer.getUniqueId(), name, offlinePlayer.getLastPlayed());
+            added++;
+        }
+
+        if (added > 0) {
+            LogUtil.info("Added " + added + " player names from the server's player data.");
+        }
+    }
+
+    /**
+     * Record the name a player logged in with
+     *
+     * @param uuid Player UUID
+     * @param name Player name
+     */
+    public void recordName(UUID uuid, String name) {
+        nameIndex.record(uuid, name, System.currentTimeMillis());
+    }
+
+    /**
+     * Find the names of players seen before that start with a prefix
+     *
+     * @param prefix Start of the name, in any case
+     * @param limit Maximum number of names returned
+     * @return The names in alphabetical order
+     */
+    public List<String> findPlayerNames(String prefix, int limit) {
+        return nameIndex.findNames(prefix, limit);
+    }
+
+    /**
+     * Complete a player name from the players online and those punished recently
+     *
+     * @param prefix Start of the name, in any case
+     * @return The names, online players first
+     */
+    public List<String> completePlayerName(String prefix) {
+        return nameCompletions.complete(prefix, plugin.getConfigManager().getCompletionLimit());
+    }
+
+    public NameCompletions getNameCompletions() {
+        return nameCompletions;
+    }
+
+    public NameIndex getNameIndex() {
+        return nameIndex;
+    }
+
+    /**
+     * Save the names seen since the last save, in one batch
+     *
+     * @return A future that completes once the names are saved
+     */
+    public CompletableFuture<Void> saveNames() {
+        List<PlayerName> names = nameIndex.drainUnsaved();
+        if (names.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return plugin.getDataManager().savePlayerNames(names);
+    }
+
+    /**
+     * Stop the periodic name saves and queue the names not saved yet
+     */
+    public void shutdown() {
+        if (nameSaveTask != null) {
+            nameSaveTask.cancel();
+            nameSaveTask = null;
+        }
+        saveNames();
     }
 
     /**
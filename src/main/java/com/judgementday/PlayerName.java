@@ -0,0 +1,41 @@
+package com.judgementday.model;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * A name a player has been seen with, and when they were last seen with it
+ */
+public class PlayerName {
+
+    private final UUID uuid;
+    private final String name;
+    private final long lastSeen;
+
+    public PlayerName(UUID uuid, String name, long lastSeen) {
+        this.uuid = uuid;
+        this.name = name;
+        this.lastSeen = lastSeen;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the name in the form it is matched in, as Minecraft names are not case sensitive
+     *
+     * @return The lower case name
+     */
+    public String getKey() {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public long getLastSeen() {
+        return lastSeen;
+    }
+}
@@ -3,7 +3,6 @@ package com.judgementday.command;
 import com.judgementday.JudgementDay;
 import com.judgementday.model.PunishmentType;
 import com.judgementday.ui.PunishmentGUI;
-import com.judgementday.util.MessageUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -12,7 +11,6 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class PunishCommand implements CommandExecutor, TabCompleter {
 
@@ -44,8 +42,7 @@ public class PunishCommand implements CommandExecutor, TabCompleter {
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         // Check if sender is a player
         if (!(sender instanceof Player)) {
-            sender.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("general.player-only"), null));
+            sender.sendMessage(plugin.getConfigManager().formatMessage("general.player-only", null));
             return true;
         }
 
@@ -54,22 +51,19 @@ public class PunishCommand implements CommandExecutor, TabCompleter {
         // Check permission
         if (defaultType != null) {
             if (!player.hasPermission("judgementday." + defaultType.name().toLowerCase())) {
-                player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                        plugin.getConfigManager().getMessage("general.no-permission"), null));
+                player.sendMessage(plugin.getConfigManager().formatMessage("general.no-permission", null));
                 return true;
             }
         } else {
             if (!player.hasPermission("judgementday.punish")) {
-                player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                        plugin.getConfigManager().getMessage("general.no-permission"), null));
+                player.sendMessage(plugin.getConfigManager().formatMessage("general.no-permission", null));
                 return true;
             }
         }
 
         // Check arguments
         if (args.length < 1) {
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("command.punish.usage"), null));
+            player.sendMessage(plugin.getConfigManager().formatMessage("command.punish.usage", null));
             return true;
         }
 
@@ -78,30 +72,46 @@ public class PunishCommand implements CommandExecutor, TabCompleter {
         // Check if target is online
         Player target = Bukkit.getPlayer(targetName);
         if (target == null) {
-            // Check if player exists
-            if (plugin.getPlayerManager().getPlayerUuid(targetName) == null) {
-                player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                        plugin.getConfigManager().getMessage("general.player-not-found"), null));
-                return true;
-            }
-        } else {
-            targetName = target.getName(); // Get correct capitalization
+            // Check if player exists, off the main thread as it may ask the Mojang API
+            String offlineName = targetName;
+            plugin.getCommandPipeline().run("punish.lookup", player, plugin.getPlayerManager().resolvePlayerUuid(targetName),
+                    targetUuid -> {
+                        if (targetUuid == null) {
+                            player.sendMessage(plugin.getConfigManager().formatMessage("general.player-not-found", null));
+                            return;
+                        }
+
+                        startPunishment(player, offlineName, args);
+                    });
+            return true;
         }
 
+        targetName = target.getName(); // Get correct capitalization
+
         // Check if trying to punish self
-        if (target != null && target.equals(player) && !player.hasPermission("judgementday.punish.self")) {
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("command.punish.self"), null));
+        if (target.equals(player) && !player.hasPermission("judgementday.punish.self")) {
+            player.sendMessage(plugin.getConfigManager().formatMessage("command.punish.self", null));
             return true;
         }
 
         // Check if target is exempt
-        if (target != null && target.hasPermission("judgementday.exempt") && !player.hasPermission("judgementday.punish.exempt")) {
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("command.punish.exempt"), null));
+        if (target.hasPermission("judgementday.exempt") && !player.hasPermission("judgementday.punish.exempt")) {
+            player.sendMessage(plugin.getConfigManager().formatMessage("command.punish.exempt", null));
             return true;
         }
 
+        startPunishment(player, targetName, args);
+        return true;
+    }
+
+    /**
+     * Open the punishment GUI or ask for proof, once the target is known to exist
+     *
+     * @param player Staff member
+     * @param targetName Target player name
+     * @param args Command arguments
+     */
+    private void startPunishment(Player player, String targetName, String[] args) {
         // Handle different command formats
         if (defaultType == null) {
             // General punish command - open GUI
@@ -123,9 +133,8 @@ public class PunishCommand implements CommandExecutor, TabCompleter {
                 // Check if reason is valid
                 List<String> validReasons = plugin.getConfigManager().getPunishmentReasons(defaultType);
                 if (!validReasons.contains(reason) && !player.hasPermission("judgementday.reason.custom")) {
-                    player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                            plugin.getConfigManager().getMessage("command.punish.invalid-reason"), null));
-                    return true;
+                    player.sendMessage(plugin.getConfigManager().formatMessage("command.punish.invalid-reason", null));
+                    return;
                 }
 
                 // Set up pending punishment
@@ -136,15 +145,12 @@ public class PunishCommand implements CommandExecutor, TabCompleter {
                 plugin.getPunishmentManager().addPendingPunishment(player.getUniqueId(), pendingPunishment);
 
                 // Request proof link
-                player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                        plugin.getConfigManager().getMessage("punishment.request-proof"), null));
+                player.sendMessage(plugin.getConfigManager().formatMessage("punishment.request-proof", null));
 
                 // Mark player as awaiting proof link
                 plugin.getPunishmentManager().addAwaitingProofLink(player.getUniqueId(), targetName);
             }
         }
-
-        return true;
     }
 
     @Override
@@ -157,19 +163,12 @@ public class PunishCommand implements CommandExecutor, TabCompleter {
 
         // First argument - player name
         if (args.length == 1) {
-            String partial = args[0].toLowerCase();
-            return Bukkit.getOnlinePlayers().stream()
-                    .filter(p -> p.getName().toLowerCase().startsWith(partial))
-                    .map(Player::getName)
-                    .collect(Collectors.toList());
+            return plugin.getPlayerManager().completePlayerName(args[0]);
         }
 
         // Second argument - reason (only for specific punishment types)
         if (args.length == 2 && defaultType != null) {
-            String partial = args[1].toLowerCase();
-            return plugin.getConfigManager().getPunishmentReasons(defaultType).stream()
-                    .filter(reason -> reason.toLowerCase().startsWith(partial))
-                    .collect(Collectors.toList());
+            return plugin.getConfigManager().completePunishmentReason(defaultType, args[1]);
         }
 
         return Collections.emptyList();
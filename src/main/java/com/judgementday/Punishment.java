@@ -43,24 +43,24 @@ public class Punishment implements ConfigurationSerializable {
     }
 
     public Punishment(Map<String, Object> map) {
-        this.id = (int) map.get("id");
+        this.id = ((Number) map.get("id")).intValue();
         this.targetUuid = UUID.fromString((String) map.get("targetUuid"));
         this.targetName = (String) map.get("targetName");
         this.punisherUuid = UUID.fromString((String) map.get("punisherUuid"));
         this.punisherName = (String) map.get("punisherName");
         this.type = PunishmentType.valueOf((String) map.get("type"));
         this.reason = (String) map.get("reason");
-        this.timeIssued = (long) map.get("timeIssued");
-        this.duration = (long) map.get("duration");
-        this.expiry = (long) map.get("expiry");
+        this.timeIssued = ((Number) map.get("timeIssued")).longValue();
+        this.duration = ((Number) map.get("duration")).longValue();
+        this.expiry = ((Number) map.get("expiry")).longValue();
         this.active = (boolean) map.get("active");
         this.proofLink = (String) map.get("proofLink");
-        this.level = (int) map.get("level");
+        this.level = ((Number) map.get("level")).intValue();
 
         if (map.containsKey("revokerUuid")) {
             this.revokerUuid = UUID.fromString((String) map.get("revokerUuid"));
             this.revokerName = (String) map.get("revokerName");
-            this.timeRevoked = (long) map.get("timeRevoked");
+            this.timeRevoked = ((Number) map.get("timeRevoked")).longValue();
         }
     }
 
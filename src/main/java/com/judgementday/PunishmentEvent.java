@@ -7,6 +7,7 @@ import org.bukkit.event.Cancellable;
 import org.bukkit.event.Event;
 import org.bukkit.event.HandlerList;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -46,6 +47,44 @@ public class PunishmentEvent extends Event implements Cancellable {
     }
 }
 
+/**
+ * Event called once when the same punishment is issued to many players at once.
+ * Listeners may cancel the whole batch or remove punishments from the list.
+ */
+public class PunishmentBulkEvent extends Event implements Cancellable {
+
+    private static final HandlerList handlers = new HandlerList();
+    private boolean cancelled = false;
+    private final List<Punishment> punishments;
+
+    public PunishmentBulkEvent(List<Punishment> punishments) {
+        this.punishments = punishments;
+    }
+
+    public List<Punishment> getPunishments() {
+        return punishments;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {
+        this.cancelled = cancel;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+}
+
 /**
  * Event called when a punishment is revoked
  */
@@ -95,6 +134,32 @@ class PunishmentRevokeEvent extends Event implements Cancellable {
     }
 }
 
+/**
+ * Event called when a temporary punishment runs out
+ */
+public class PunishmentExpireEvent extends Event {
+
+    private static final HandlerList handlers = new HandlerList();
+    private final Punishment punishment;
+
+    public PunishmentExpireEvent(Punishment punishment) {
+        this.punishment = punishment;
+    }
+
+    public Punishment getPunishment() {
+        return punishment;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+}
+
 /**
  * Event called when a report is created
  */
@@ -15,6 +15,8 @@ import org.bukkit.inventory.ItemStack;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public class PunishmentGUI {
 
@@ -153,12 +155,16 @@ public class PunishmentGUI {
                 color = ChatColor.WHITE;
         }
 
+        // Resolve the target once, off the main thread, for every reason's level
+        CompletableFuture<UUID> targetUuid = plugin.getPlayerManager().resolvePlayerUuid(targetName);
+
         // Create reason buttons
         for (int i = 0; i < reasons.size(); i++) {
             String reason = reasons.get(i);
+            int slot = i;
 
             // Asynchronously get the punishment level
-            plugin.getDataManager().getPunishmentLevel(plugin.getPlayerManager().getPlayerUuid(targetName), type, reason)
+            targetUuid.thenCompose(uuid -> plugin.getDataManager().getPunishmentLevel(uuid, type, reason))
                     .thenAccept(level -> {
                         // Update on main thread
                         Bukkit.getScheduler().runTask(plugin, () -> {
@@ -178,7 +184,7 @@ public class PunishmentGUI {
 
                             // Add to inventory if player still has it open
                             if (player.getOpenInventory().getTitle().equals(REASON_SELECTOR_TITLE_PREFIX + type.getDisplayName())) {
-                                player.getOpenInventory().getTopInventory().setItem(i, reasonItem);
+                                player.getOpenInventory().getTopInventory().setItem(slot, reasonItem);
                             }
                         });
                     });
@@ -298,8 +304,7 @@ public class PunishmentGUI {
             player.closeInventory();
 
             // Request proof link
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("punishment.request-proof"), null));
+            player.sendMessage(plugin.getConfigManager().formatMessage("punishment.request-proof", null));
 
             // Mark player as awaiting proof link
             plugin.getPunishmentManager().addAwaitingProofLink(player.getUniqueId(),
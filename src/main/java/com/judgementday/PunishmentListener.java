@@ -147,6 +147,15 @@ public class PunishmentListener implements Listener {
         if (plugin.getPunishmentManager().isAwaitingProofLink(uuid)) {
             plugin.getPunishmentManager().removeAwaitingProofLink(uuid);
         }
+
+        // Clean up history page positions
+        HistoryGUI.forgetViewer(uuid);
+
+        // Offense counts are loaded again on the next login
+        plugin.getDataManager().unloadOffenseCounts(uuid);
+
+        plugin.getPlayerManager().getNameCompletions().removeOnline(player.getName());
+        plugin.getStaffAudience().remove(player);
     }
 
     private void sendDiscordNotification(Punishment punishment, boolean revoked) {
@@ -1,10 +1,14 @@
 package com.judgementday.manager;
 
 import com.judgementday.JudgementDay;
+import com.judgementday.event.PunishmentBulkEvent;
 import com.judgementday.event.PunishmentEvent;
+import com.judgementday.event.PunishmentExpireEvent;
 import com.judgementday.event.PunishmentRevokeEvent;
 import com.judgementday.model.Punishment;
 import com.judgementday.model.PunishmentType;
+import com.judgementday.util.MainThread;
+import com.judgementday.util.MessageTemplate;
 import com.judgementday.util.MessageUtil;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -39,36 +43,124 @@ public class PunishmentManager {
                                                    UUID punisherUuid, String punisherName,
                                                    PunishmentType type, String reason,
                                                    String proofLink) {
-        // Get punishment level
-        return plugin.getDataManager().getPunishmentLevel(targetUuid, type, reason)
-                .thenCompose(level -> {
-                    // Get punishment duration
-                    long duration = plugin.getConfigManager().getPunishmentDuration(type, reason, level);
+        // Take the id first; ids are not gapless, so one left unused by a cancelled punishment is harmless
+        return plugin.getDataManager().getNextPunishmentId()
+                .thenCompose(id -> plugin.getDataManager().reservePunishmentLevel(targetUuid, type, reason)
+                        .thenCompose(level -> {
+                            // Get punishment duration
+                            long duration = plugin.getConfigManager().getPunishmentDuration(type, reason, level);
+
+                            // Create punishment
+                            Punishment punishment = new Punishment(id, targetUuid, targetName, punisherUuid, punisherName,
+                                    type, reason, duration, proofLink, level);
+
+                            // Call event
+                            return MainThread.callEvent(plugin, new PunishmentEvent(punishment)).thenCompose(event -> {
+                                if (event.isCancelled()) {
+                                    plugin.getDataManager().releasePunishmentLevel(punishment);
+                                    return CompletableFuture.completedFuture(-1);
+                                }
 
-                    // Create punishment
-                    int id = plugin.getDataManager().getNextPunishmentId();
-                    Punishment punishment = new Punishment(id, targetUuid, targetName, punisherUuid, punisherName,
-                            type, reason, duration, proofLink, level);
+                                // Add punishment to database
+                                return plugin.getDataManager().addPunishment(punishment)
+                                        .thenApply(v -> {
+                                            // Update ban and mute indexes before the target is notified
+                                            plugin.getPlayerManager().onPunishmentAdded(punishment);
 
-                    // Call event
-                    PunishmentEvent event = new PunishmentEvent(punishment);
-                    Bukkit.getPluginManager().callEvent(event);
+                                            // Enforce it on the other servers too
+                                            plugin.getSyncBus().publishIssued(punishment);
+
+                                            // Execute and broadcast punishment on the main thread
+                                            MainThread.run(plugin, () -> {
+                                                executePunishment(punishment);
+                                                broadcastPunishment(punishment);
+                                            });
+
+                                            return id;
+                                        });
+                            });
+                        }));
+    }
+
+    /**
+     * Apply the same punishment to many players at once, e.g. for a ban wave. Levels are
+     * looked up together, the punishments are stored in batches, listeners get a single
+     * {@link PunishmentBulkEvent} and staff get one summary instead of a broadcast each.
+     *
+     * @param targets Target player names by UUID
+     * @param punisherUuid Staff member UUID
+     * @param punisherName Staff member name
+     * @param type Punishment type
+     * @param reason Punishment reason
+     * @param proofLink Link to proof
+     * @return A future that completes with the punishments that were applied
+     */
+    public CompletableFuture<List<Punishment>> punishPlayers(Map<UUID, String> targets,
+                                                            UUID punisherUuid, String punisherName,
+                                                            PunishmentType type, String reason,
+                                                            String proofLink) {
+        if (targets.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
 
-                    if (event.isCancelled()) {
-                        return CompletableFuture.completedFuture(-1);
+        // Take the ids first; ids are not gapless, so ones left unused are harmless
+        CompletableFuture<List<Integer>> idLookup = plugin.getDataManager().getNextPunishmentIds(targets.size());
+
+        // Reserve punishment levels for every target in one go
+        return idLookup.thenCompose(ids -> plugin.getDataManager().reservePunishmentLevels(targets.keySet(), type, reason))
+                .thenCompose(levels -> {
+                    // Create punishments
+                    Iterator<Integer> ids = idLookup.join().iterator(); // Already complete
+                    List<Punishment> punishments = new ArrayList<>(targets.size());
+                    for (Map.Entry<UUID, String> target : targets.entrySet()) {
+                        int level = levels.getOrDefault(target.getKey(), 1);
+                        long duration = plugin.getConfigManager().getPunishmentDuration(type, reason, level);
+                        int id = ids.next();
+
+                        punishments.add(new Punishment(id, target.getKey(), target.getValue(), punisherUuid,
+                                punisherName, type, reason, duration, proofLink, level));
                     }
 
-                    // Add punishment to database
-                    return plugin.getDataManager().addPunishment(punishment)
-                            .thenApply(v -> {
-                                // Execute punishment
-                                executePunishment(punishment);
+                    // Call one event for the whole batch
+                    List<Punishment> created = new ArrayList<>(punishments);
+                    return MainThread.callEvent(plugin, new PunishmentBulkEvent(punishments)).thenCompose(event -> {
+                        // Give back the levels of punishments that will not be added
+                        List<Punishment> toAdd = event.isCancelled() ? Collections.emptyList() : new ArrayList<>(punishments);
+                        created.removeAll(toAdd);
+                        for (Punishment punishment : created) {
+                            plugin.getDataManager().releasePunishmentLevel(punishment);
+                        }
+
+                        if (toAdd.isEmpty()) {
+                            return CompletableFuture.completedFuture(Collections.<Punishment>emptyList());
+                        }
+
+                        // Add punishments to database
+                        return plugin.getDataManager().addPunishments(toAdd);
+                    });
+                })
+                .thenApply(stored -> {
+                    if (stored.isEmpty()) {
+                        return stored;
+                    }
+
+                    // Update ban and mute indexes before the targets are notified
+                    for (Punishment punishment : stored) {
+                        plugin.getPlayerManager().onPunishmentAdded(punishment);
+                    }
 
-                                // Broadcast punishment
-                                broadcastPunishment(punishment);
+                    // Enforce them on the other servers too
+                    plugin.getSyncBus().publishIssued(stored);
 
-                                return id;
-                            });
+                    // Execute punishments and broadcast a summary on the main thread
+                    MainThread.run(plugin, () -> {
+                        for (Punishment punishment : stored) {
+                            executePunishment(punishment);
+                        }
+                        broadcastBulkPunishment(stored, punisherName, type, reason);
+                    });
+
+                    return stored;
                 });
     }
 
@@ -88,27 +180,80 @@ public class PunishmentManager {
                     }
 
                     // Call event
-                    PunishmentRevokeEvent event = new PunishmentRevokeEvent(punishment, revokerUuid, revokerName);
-                    Bukkit.getPluginManager().callEvent(event);
+                    PunishmentRevokeEvent revokeEvent = new PunishmentRevokeEvent(punishment, revokerUuid, revokerName);
+                    return MainThread.callEvent(plugin, revokeEvent).thenCompose(event -> {
+                        if (event.isCancelled()) {
+                            return CompletableFuture.completedFuture(false);
+                        }
+
+                        // Revoke punishment in database
+                        return plugin.getDataManager().revokePunishment(id, revokerUuid, revokerName)
+                                .thenCompose(success -> {
+                                    if (!success) {
+                                        return CompletableFuture.completedFuture(false);
+                                    }
+
+                                    plugin.getSyncBus().publishRevoked(punishment);
+
+                                    // Update ban and mute indexes
+                                    return plugin.getPlayerManager().onPunishmentRemoved(punishment)
+                                            .thenApply(v -> {
+                                                // Broadcast and execute revocation on the main thread
+                                                MainThread.run(plugin, () -> {
+                                                    broadcastRevocation(punishment, revokerName);
+                                                    executeRevocation(punishment);
+                                                });
+
+                                                return true;
+                                            });
+                                });
+                    });
+                });
+    }
 
-                    if (event.isCancelled()) {
-                        return CompletableFuture.completedFuture(false);
-                    }
+    /**
+     * Enforce a punishment issued or revoked on another server. Must be called on the main thread.
+     *
+     * @param punishment The punishment as currently stored
+     * @param revoked Whether the other server revoked it
+     */
+    public void applyRemoteChange(Punishment punishment, boolean revoked) {
+        if (!revoked) {
+            // Revoked again before we heard of it - the revocation message follows
+            if (!punishment.isActive()) {
+                return;
+            }
 
-                    // Revoke punishment in database
-                    return plugin.getDataManager().revokePunishment(id, revokerUuid, revokerName)
-                            .thenApply(success -> {
-                                if (success) {
-                                    // Broadcast revocation
-                                    broadcastRevocation(punishment, revokerName);
+            plugin.getPlayerManager().onPunishmentAdded(punishment);
+            executePunishment(punishment);
+            broadcastPunishment(punishment);
+            return;
+        }
 
-                                    // Execute revocation
-                                    executeRevocation(punishment);
-                                }
+        if (punishment.isActive()) {
+            return;
+        }
 
-                                return success;
-                            });
-                });
+        plugin.getPlayerManager().onPunishmentRemoved(punishment)
+                .thenRun(() -> MainThread.run(plugin, () -> {
+                    broadcastRevocation(punishment, punishment.getRevokerName());
+                    executeRevocation(punishment);
+                }));
+    }
+
+    /**
+     * Lift a temporary punishment whose time is up. Must be called on the main thread.
+     *
+     * @param punishment The expired punishment
+     */
+    public void expirePunishment(Punishment punishment) {
+        // Updates the storage cache straight away, so the index refresh below no longer sees it
+        plugin.getDataManager().expirePunishment(punishment);
+
+        Bukkit.getPluginManager().callEvent(new PunishmentExpireEvent(punishment));
+
+        plugin.getPlayerManager().onPunishmentRemoved(punishment)
+                .thenRun(() -> MainThread.run(plugin, () -> executeExpiry(punishment)));
     }
 
     /**
@@ -177,21 +322,22 @@ public class PunishmentManager {
      * @return The formatted punishment message
      */
     public String getPunishmentMessage(Punishment punishment) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("type", punishment.getType().getDisplayName());
-        placeholders.put("reason", punishment.getReason());
-        placeholders.put("punisher", punishment.getPunisherName());
-        placeholders.put("id", String.valueOf(punishment.getId()));
-        placeholders.put("proof", punishment.getProofLink());
-
-        if (punishment.getDuration() == -1) {
-            placeholders.put("duration", "Permanent");
-            return MessageUtil.formatMessage(plugin.getConfigManager().getMessage("punishment.permanent-message"), placeholders);
+        boolean permanent = punishment.getDuration() == -1;
+        MessageTemplate.Binding message = plugin.getConfigManager()
+                .getTemplate(permanent ? "punishment.permanent-message" : "punishment.temp-message").bind()
+                .with("type", punishment.getType().getDisplayName())
+                .with("reason", punishment.getReason())
+                .with("punisher", punishment.getPunisherName())
+                .with("id", punishment.getId())
+                .with("proof", punishment.getProofLink());
+
+        if (permanent) {
+            message.with("duration", "Permanent");
         } else {
-            placeholders.put("duration", MessageUtil.formatDuration(punishment.getDuration()));
-            placeholders.put("expiry", MessageUtil.formatDate(punishment.getExpiry()));
-            return MessageUtil.formatMessage(plugin.getConfigManager().getMessage("punishment.temp-message"), placeholders);
+            message.with("duration", MessageUtil.formatDuration(punishment.getDuration()))
+                    .with("expiry", MessageUtil.formatDate(punishment.getExpiry()));
         }
+        return message.render();
     }
 
     /**
@@ -212,8 +358,7 @@ public class PunishmentManager {
                 break;
             case MUTE:
             case WARN:
-                target.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                                plugin.getConfigManager().getMessage("punishment.notification"),
+                target.sendMessage(plugin.getConfigManager().formatMessage("punishment.notification",
                         Collections.singletonMap("type", punishment.getType().getDisplayName())));
                 target.sendMessage(getPunishmentMessage(punishment));
                 break;
@@ -236,34 +381,62 @@ public class PunishmentManager {
                 placeholders.put("type", punishment.getType().getDisplayName());
                 placeholders.put("revoker", punishment.getRevokerName());
 
-                target.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                        plugin.getConfigManager().getMessage("punishment.revoked"), placeholders));
+                target.sendMessage(plugin.getConfigManager().formatMessage("punishment.revoked", placeholders));
                 break;
         }
     }
 
+    /**
+     * Tell a player their punishment has expired
+     *
+     * @param punishment The punishment that expired
+     */
+    private void executeExpiry(Punishment punishment) {
+        Player target = Bukkit.getPlayer(punishment.getTargetUuid());
+        if (target == null) return;
+
+        // Bans end while the player is away, and warnings expiring is not news
+        if (punishment.getType() == PunishmentType.MUTE) {
+            target.sendMessage(plugin.getConfigManager().formatMessage("punishment.expired",
+                    Collections.singletonMap("type", punishment.getType().getDisplayName())));
+        }
+    }
+
     /**
      * Broadcast a punishment to staff members
      *
      * @param punishment The punishment to broadcast
      */
     private void broadcastPunishment(Punishment punishment) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("player", punishment.getTargetName());
-        placeholders.put("type", punishment.getType().getDisplayName().toLowerCase());
-        placeholders.put("reason", punishment.getReason());
-        placeholders.put("punisher", punishment.getPunisherName());
-        placeholders.put("id", String.valueOf(punishment.getId()));
-
-        String message = plugin.getConfigManager().getPrefix() +
-                plugin.getConfigManager().getMessage("punishment.broadcast");
-        String formattedMessage = MessageUtil.formatMessage(message, placeholders);
-
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.hasPermission("judgementday.staff")) {
-                player.sendMessage(formattedMessage);
-            }
-        }
+        String formattedMessage = plugin.getConfigManager().getPrefixedTemplate("punishment.broadcast").bind()
+                .with("player", punishment.getTargetName())
+                .with("type", punishment.getType().getDisplayName().toLowerCase())
+                .with("reason", punishment.getReason())
+                .with("punisher", punishment.getPunisherName())
+                .with("id", punishment.getId())
+                .render();
+
+        plugin.getStaffAudience().broadcast(StaffAudience.Channel.STAFF, formattedMessage);
+    }
+
+    /**
+     * Broadcast one summary of a bulk punishment to staff members
+     *
+     * @param punishments The punishments that were applied
+     * @param punisherName The name of the staff member who applied them
+     * @param type Punishment type
+     * @param reason Punishment reason
+     */
+    private void broadcastBulkPunishment(List<Punishment> punishments, String punisherName,
+                                         PunishmentType type, String reason) {
+        String formattedMessage = plugin.getConfigManager().getPrefixedTemplate("punishment.bulk-broadcast").bind()
+                .with("count", punishments.size())
+                .with("type", type.getDisplayName().toLowerCase())
+                .with("reason", reason)
+                .with("punisher", punisherName)
+                .render();
+
+        plugin.getStaffAudience().broadcast(StaffAudience.Channel.STAFF, formattedMessage);
     }
 
     /**
@@ -273,21 +446,14 @@ public class PunishmentManager {
      * @param revokerName The name of the staff member who revoked the punishment
      */
     private void broadcastRevocation(Punishment punishment, String revokerName) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("player", punishment.getTargetName());
-        placeholders.put("type", punishment.getType().getDisplayName().toLowerCase());
-        placeholders.put("reason", punishment.getReason());
-        placeholders.put("revoker", revokerName);
-        placeholders.put("id", String.valueOf(punishment.getId()));
-
-        String message = plugin.getConfigManager().getPrefix() +
-                plugin.getConfigManager().getMessage("punishment.revoke-broadcast");
-        String formattedMessage = MessageUtil.formatMessage(message, placeholders);
-
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.hasPermission("judgementday.staff")) {
-                player.sendMessage(formattedMessage);
-            }
-        }
+        String formattedMessage = plugin.getConfigManager().getPrefixedTemplate("punishment.revoke-broadcast").bind()
+                .with("player", punishment.getTargetName())
+                .with("type", punishment.getType().getDisplayName().toLowerCase())
+                .with("reason", punishment.getReason())
+                .with("revoker", revokerName)
+                .with("id", punishment.getId())
+                .render();
+
+        plugin.getStaffAudience().broadcast(StaffAudience.Channel.STAFF, formattedMessage);
     }
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+package com.judgementday.data;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * In-memory index over one kind of record (punishments, reports or appeals), kept in
+ * step with every write. Records are looked up by id, by the player they belong to, and
+ * by whether they are still open (active, unprocessed or pending), so queries cost
+ * O(result) instead of a scan over every stored record.
+ *
+ * Records must not be modified after they are put in the index; put a new copy instead.
+ */
+public class RecordIndex<T> {
+
+    private final ToIntFunction<T> idFunction;
+    private final Function<T, UUID> ownerFunction;
+    private final Predicate<T> openPredicate;
+    private final Comparator<T> order;
+
+    private final Map<Integer, T> byId = new HashMap<>();
+    private final Map<UUID, NavigableSet<T>> byOwner = new HashMap<>();
+    private final Map<UUID, NavigableSet<T>> openByOwner = new HashMap<>();
+    private final NavigableSet<T> open;
+    private int maxId = 0;
+
+    /**
+     * Create an index
+     *
+     * @param idFunction Gets a record's id
+     * @param ownerFunction Gets the player a record belongs to
+     * @param openPredicate Whether a record is still open
+     * @param order Order records are returned in
+     */
+    public RecordIndex(ToIntFunction<T> idFunction, Function<T, UUID> ownerFunction,
+                       Predicate<T> openPredicate, Comparator<T> order) {
+        this.idFunction = idFunction;
+        this.ownerFunction = ownerFunction;
+        this.openPredicate = openPredicate;
+        // Break ties on id so records with the same timestamp are kept apart
+        this.order = order.thenComparingInt(idFunction);
+        this.open = new TreeSet<>(this.order);
+    }
+
+    /**
+     * Add a record, replacing any record with the same id
+     *
+     * @param record The record
+     */
+    public synchronized void put(T record) {
+        int id = idFunction.applyAsInt(record);
+
+        T previous = byId.put(id, record);
+        if (previous != null) {
+            unlink(previous);
+        }
+
+        UUID owner = ownerFunction.apply(record);
+        byOwner.computeIfAbsent(owner, k -> new TreeSet<>(order)).add(record);
+        if (openPredicate.test(record)) {
+            openByOwner.computeIfAbsent(owner, k -> new TreeSet<>(order)).add(record);
+            open.add(record);
+        }
+
+        maxId = Math.max(maxId, id);
+    }
+
+    /**
+     * Remove a record
+     *
+     * @param id The record id
+     * @return The removed record, or null if there was none
+     */
+    public synchronized T remove(int id) {
+        T previous = byId.remove(id);
+        if (previous != null) {
+            unlink(previous);
+        }
+        return previous;
+    }
+
+    public synchronized T get(int id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Get every record belonging to a player, in index order
+     *
+     * @param owner Player UUID
+     * @return A copy of the player's records
+     */
+    public synchronized List<T> getByOwner(UUID owner) {
+        NavigableSet<T> records = byOwner.get(owner);
+        return records == null ? new ArrayList<>() : new ArrayList<>(records);
+    }
+
+    /**
+     * Get a page of the records belonging to a player, in index order
+     *
+     * @param owner Player UUID
+     * @param after Record the page starts after, or null for the first page
+     * @param limit Maximum number of records
+     * @return A copy of the page
+     */
+    public synchronized List<T> getByOwner(UUID owner, T after, int limit) {
+        NavigableSet<T> records = byOwner.get(owner);
+        if (records == null) {
+            return new ArrayList<>();
+        }
+
+        List<T> page = new ArrayList<>(Math.min(limit, records.size()));
+        for (T record : after == null ? records : records.tailSet(after, false)) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(record);
+        }
+        return page;
+    }
+
+    public synchronized int countByOwner(UUID owner) {
+        NavigableSet<T> records = byOwner.get(owner);
+        return records == null ? 0 : records.size();
+    }
+
+    /**
+     * Get the open records belonging to a player, in index order. Costs O(open records)
+     * rather than O(history), so use it over {@link #getByOwner(UUID)} for active checks.
+     *
+     * @param owner Player UUID
+     * @return A copy of the player's open records
+     */
+    public synchronized List<T> getOpenByOwner(UUID owner) {
+        NavigableSet<T> records = openByOwner.get(owner);
+        return records == null ? new ArrayList<>() : new ArrayList<>(records);
+    }
+
+    /**
+     * Get every open record, in index order
+     *
+     * @return A copy of the open records
+     */
+    public synchronized List<T> getOpen() {
+        return new ArrayList<>(open);
+    }
+
+    /**
+     * Get every record, in no particular order
+     *
+     * @return A copy of all records
+     */
+    public synchronized List<T> getAll() {
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Get the highest id ever put in the index
+     *
+     * @return The highest id, or 0 if the index is empty
+     */
+    public synchronized int getMaxId() {
+        return maxId;
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    public synchronized void clear() {
+        byId.clear();
+        byOwner.clear();
+        openByOwner.clear();
+        open.clear();
+        maxId = 0;
+    }
+
+    private void unlink(T record) {
+        UUID owner = ownerFunction.apply(record);
+        unlink(byOwner, owner, record);
+        unlink(openByOwner, owner, record);
+
+        open.remove(record);
+    }
+
+    private void unlink(Map<UUID, NavigableSet<T>> index, UUID owner, T record) {
+        NavigableSet<T> records = index.get(owner);
+
+        if (records != null) {
+            records.remove(record);
+            if (records.isEmpty()) {
+                index.remove(owner);
+            }
+        }
+    }
+}
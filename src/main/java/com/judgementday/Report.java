@@ -33,21 +33,21 @@ public class Report implements ConfigurationSerializable {
     }
 
     public Report(Map<String, Object> map) {
-        this.id = (int) map.get("id");
+        this.id = ((Number) map.get("id")).intValue();
         this.reporterUuid = UUID.fromString((String) map.get("reporterUuid"));
         this.reporterName = (String) map.get("reporterName");
         this.reportedUuid = UUID.fromString((String) map.get("reportedUuid"));
         this.reportedName = (String) map.get("reportedName");
         this.reason = (String) map.get("reason");
-        this.timeCreated = (long) map.get("timeCreated");
+        this.timeCreated = ((Number) map.get("timeCreated")).longValue();
         this.processed = (boolean) map.get("processed");
 
         if (processed) {
             this.processorUuid = UUID.fromString((String) map.get("processorUuid"));
             this.processorName = (String) map.get("processorName");
-            this.timeProcessed = (long) map.get("timeProcessed");
+            this.timeProcessed = ((Number) map.get("timeProcessed")).longValue();
             if (map.containsKey("resultPunishmentId")) {
-                this.resultPunishmentId = (int) map.get("resultPunishmentId");
+                this.resultPunishmentId = ((Number) map.get("resultPunishmentId")).intValue();
             }
         }
     }
@@ -1,7 +1,7 @@
 package com.judgementday.command;
 
 import com.judgementday.JudgementDay;
-import com.judgementday.util.MessageUtil;
+import com.judgementday.util.CompletionTrie;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -13,10 +13,18 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 public class ReportCommand implements CommandExecutor, TabCompleter {
 
+    private static final CompletionTrie REPORT_REASONS = new CompletionTrie();
+
+    static {
+        REPORT_REASONS.replaceAll(Arrays.asList(
+                "Hacking", "Cheating", "Spamming", "Harassment",
+                "Inappropriate language", "Threats", "Advertising"
+        ));
+    }
+
     private final JudgementDay plugin;
 
     public ReportCommand(JudgementDay plugin) {
@@ -27,8 +35,7 @@ public class ReportCommand implements CommandExecutor, TabCompleter {
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         // Check if sender is a player
         if (!(sender instanceof Player)) {
-            sender.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("general.player-only"), null));
+            sender.sendMessage(plugin.getConfigManager().formatMessage("general.player-only", null));
             return true;
         }
 
@@ -36,15 +43,13 @@ public class ReportCommand implements CommandExecutor, TabCompleter {
 
         // Check permission
         if (!player.hasPermission("judgementday.report")) {
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("general.no-permission"), null));
+            player.sendMessage(plugin.getConfigManager().formatMessage("general.no-permission", null));
             return true;
         }
 
         // Check arguments
         if (args.length < 2) {
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("command.report.usage"), null));
+            player.sendMessage(plugin.getConfigManager().formatMessage("command.report.usage", null));
             return true;
         }
 
@@ -52,42 +57,52 @@ public class ReportCommand implements CommandExecutor, TabCompleter {
 
         // Check if trying to report self
         if (player.getName().equalsIgnoreCase(targetName)) {
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("command.report.self"), null));
+            player.sendMessage(plugin.getConfigManager().formatMessage("command.report.self", null));
             return true;
         }
 
         // Get target UUID
         Player target = Bukkit.getPlayer(targetName);
-        UUID targetUuid;
-
-        if (target != null) {
-            targetName = target.getName(); // Get correct capitalization
-            targetUuid = target.getUniqueId();
+        if (target == null) {
+            // Check if player exists, off the main thread as it may ask the Mojang API
+            plugin.getCommandPipeline().run("report.lookup", player, plugin.getPlayerManager().resolvePlayerUuid(targetName),
+                    targetUuid -> {
+                        if (targetUuid == null) {
+                            player.sendMessage(plugin.getConfigManager().formatMessage("general.player-not-found", null));
+                            return;
+                        }
+
+                        submitReport(player, targetUuid, targetName, args);
+                    });
+            return true;
+        }
 
-            // Check if target is exempt
-            if (target.hasPermission("judgementday.exempt.report")) {
-                player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                        plugin.getConfigManager().getMessage("command.report.exempt"), null));
-                return true;
-            }
-        } else {
-            // Check if player exists
-            targetUuid = plugin.getPlayerManager().getPlayerUuid(targetName);
-            if (targetUuid == null) {
-                player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                        plugin.getConfigManager().getMessage("general.player-not-found"), null));
-                return true;
-            }
+        // Check if target is exempt
+        if (target.hasPermission("judgementday.exempt.report")) {
+            player.sendMessage(plugin.getConfigManager().formatMessage("command.report.exempt", null));
+            return true;
         }
 
+        // The online name has the correct capitalization
+        submitReport(player, target.getUniqueId(), target.getName(), args);
+        return true;
+    }
+
+    /**
+     * Check the cooldown and reason, then create the report
+     *
+     * @param player Reporting player
+     * @param targetUuid Reported player UUID
+     * @param targetName Reported player name
+     * @param args Command arguments
+     */
+    private void submitReport(Player player, UUID targetUuid, String targetName, String[] args) {
         // Check cooldown
         if (!plugin.getPlayerManager().canReport(player.getUniqueId(), targetUuid)) {
             int cooldown = plugin.getPlayerManager().getReportCooldown(player.getUniqueId(), targetUuid);
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                            plugin.getConfigManager().getMessage("command.report.cooldown"),
+            player.sendMessage(plugin.getConfigManager().formatMessage("command.report.cooldown",
                     Collections.singletonMap("time", formatTime(cooldown))));
-            return true;
+            return;
         }
 
         // Get reason
@@ -98,38 +113,32 @@ public class ReportCommand implements CommandExecutor, TabCompleter {
         int maxLength = plugin.getConfigManager().getMainConfig().getInt("reports.max-reason-length", 100);
 
         if (reason.length() < minLength) {
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                            plugin.getConfigManager().getMessage("command.report.reason-too-short"),
+            player.sendMessage(plugin.getConfigManager().formatMessage("command.report.reason-too-short",
                     Collections.singletonMap("min", String.valueOf(minLength))));
-            return true;
+            return;
         }
 
         if (reason.length() > maxLength) {
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                            plugin.getConfigManager().getMessage("command.report.reason-too-long"),
+            player.sendMessage(plugin.getConfigManager().formatMessage("command.report.reason-too-long",
                     Collections.singletonMap("max", String.valueOf(maxLength))));
-            return true;
+            return;
         }
 
         // Create report
-        plugin.getReportManager().createReport(
+        plugin.getCommandPipeline().run("report", player, plugin.getReportManager().createReport(
                 player.getUniqueId(), player.getName(),
                 targetUuid, targetName,
                 reason
-        ).thenAccept(reportId -> {
+        ), reportId -> {
             if (reportId > 0) {
                 // Report created successfully
-                player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                                plugin.getConfigManager().getMessage("command.report.success"),
+                player.sendMessage(plugin.getConfigManager().formatMessage("command.report.success",
                         Collections.singletonMap("player", targetName)));
             } else {
                 // Failed to create report
-                player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                        plugin.getConfigManager().getMessage("command.report.failed"), null));
+                player.sendMessage(plugin.getConfigManager().formatMessage("command.report.failed", null));
             }
         });
-
-        return true;
     }
 
     @Override
@@ -145,25 +154,14 @@ public class ReportCommand implements CommandExecutor, TabCompleter {
         }
 
         if (args.length == 1) {
-            String partial = args[0].toLowerCase();
-            return Bukkit.getOnlinePlayers().stream()
-                    .filter(p -> !p.equals(player)) // Can't report self
-                    .filter(p -> p.getName().toLowerCase().startsWith(partial))
-                    .map(Player::getName)
-                    .collect(Collectors.toList());
+            List<String> names = plugin.getPlayerManager().completePlayerName(args[0]);
+            names.removeIf(name -> name.equalsIgnoreCase(player.getName())); // Can't report self
+            return names;
         }
 
         if (args.length == 2) {
             // Provide common report reasons
-            String partial = args[1].toLowerCase();
-            List<String> reasons = Arrays.asList(
-                    "Hacking", "Cheating", "Spamming", "Harassment",
-                    "Inappropriate language", "Threats", "Advertising"
-            );
-
-            return reasons.stream()
-                    .filter(reason -> reason.toLowerCase().startsWith(partial))
-                    .collect(Collectors.toList());
+            return REPORT_REASONS.complete(args[1], plugin.getConfigManager().getCompletionLimit());
         }
 
         return Collections.emptyList();
@@ -32,8 +32,7 @@ public class ReportGUI {
             // Handle on main thread
             Bukkit.getScheduler().runTask(plugin, () -> {
                 if (reports.isEmpty()) {
-                    staff.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                            plugin.getConfigManager().getMessage("report.no-reports"), null));
+                    staff.sendMessage(plugin.getConfigManager().formatMessage("report.no-reports", null));
                     return;
                 }
 
@@ -177,8 +176,7 @@ public class ReportGUI {
                             } else {
                                 // Report not found or already processed
                                 Bukkit.getScheduler().runTask(plugin, () -> {
-                                    staff.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                                            plugin.getConfigManager().getMessage("report.already-processed"), null));
+                                    staff.sendMessage(plugin.getConfigManager().formatMessage("report.already-processed", null));
                                     // Refresh GUI
                                     openReportsGUI(plugin, staff, currentPage);
                                 });
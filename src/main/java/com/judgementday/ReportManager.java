@@ -2,14 +2,11 @@ package com.judgementday;
 
 import com.judgementday.event.ReportCreateEvent;
 import com.judgementday.event.ReportProcessEvent;
+import com.judgementday.manager.StaffAudience;
 import com.judgementday.model.Report;
-import com.judgementday.util.MessageUtil;
-import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
+import com.judgementday.util.MainThread;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -43,26 +40,26 @@ public class ReportManager {
         // Set cooldown
         plugin.getPlayerManager().setReportCooldown(reporterUuid, reportedUuid);
 
-        // Create report
-        int id = plugin.getDataManager().getNextReportId();
-        Report report = new Report(id, reporterUuid, reporterName, reportedUuid, reportedName, reason);
-
-        // Call event
-        ReportCreateEvent event = new ReportCreateEvent(report);
-        Bukkit.getPluginManager().callEvent(event);
-
-        if (event.isCancelled()) {
-            return CompletableFuture.completedFuture(-1);
-        }
-
-        // Add report to database
-        return plugin.getDataManager().addReport(report)
-                .thenApply(v -> {
-                    // Broadcast report to staff
-                    broadcastReport(report);
-
-                    return id;
-                });
+        return plugin.getDataManager().getNextReportId().thenCompose(id -> {
+            // Create report
+            Report report = new Report(id, reporterUuid, reporterName, reportedUuid, reportedName, reason);
+
+            // Call event
+            return MainThread.callEvent(plugin, new ReportCreateEvent(report)).thenCompose(event -> {
+                if (event.isCancelled()) {
+                    return CompletableFuture.completedFuture(-1);
+                }
+
+                // Add report to database
+                return plugin.getDataManager().addReport(report)
+                        .thenApply(v -> {
+                            // Broadcast report to staff on the main thread
+                            MainThread.run(plugin, () -> broadcastReport(report));
+
+                            return id;
+                        });
+            });
+        });
     }
 
     /**
@@ -82,23 +79,25 @@ public class ReportManager {
                     }
 
                     // Call event
-                    ReportProcessEvent event = new ReportProcessEvent(report, processorUuid, processorName, punishmentId);
-                    Bukkit.getPluginManager().callEvent(event);
-
-                    if (event.isCancelled()) {
-                        return CompletableFuture.completedFuture(false);
-                    }
-
-                    // Process report in database
-                    return plugin.getDataManager().processReport(id, processorUuid, processorName, punishmentId)
-                            .thenApply(success -> {
-                                if (success) {
-                                    // Broadcast processing to staff
-                                    broadcastReportProcessing(report, processorName, punishmentId > 0);
-                                }
-
-                                return success;
-                            });
+                    ReportProcessEvent processEvent = new ReportProcessEvent(report, processorUuid, processorName,
+                            punishmentId);
+                    return MainThread.callEvent(plugin, processEvent).thenCompose(event -> {
+                        if (event.isCancelled()) {
+                            return CompletableFuture.completedFuture(false);
+                        }
+
+                        // Process report in database
+                        return plugin.getDataManager().processReport(id, processorUuid, processorName, punishmentId)
+                                .thenApply(success -> {
+                                    if (success) {
+                                        // Broadcast processing to staff on the main thread
+                                        MainThread.run(plugin,
+                                                () -> broadcastReportProcessing(report, processorName, punishmentId > 0));
+                                    }
+
+                                    return success;
+                                });
+                    });
                 });
     }
 
@@ -137,21 +136,14 @@ public class ReportManager {
      * @param report The report to broadcast
      */
     private void broadcastReport(Report report) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("reporter", report.getReporterName());
-        placeholders.put("reported", report.getReportedName());
-        placeholders.put("reason", report.getReason());
-        placeholders.put("id", String.valueOf(report.getId()));
-
-        String message = plugin.getConfigManager().getPrefix() +
-                plugin.getConfigManager().getMessage("report.broadcast");
-        String formattedMessage = MessageUtil.formatMessage(message, placeholders);
-
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.hasPermission("judgementday.staff")) {
-                player.sendMessage(formattedMessage);
-            }
-        }
+        String formattedMessage = plugin.getConfigManager().getPrefixedTemplate("report.broadcast").bind()
+                .with("reporter", report.getReporterName())
+                .with("reported", report.getReportedName())
+                .with("reason", report.getReason())
+                .with("id", report.getId())
+                .render();
+
+        plugin.getStaffAudience().broadcast(StaffAudience.Channel.REPORTS, formattedMessage);
     }
 
     /**
@@ -162,20 +154,13 @@ public class ReportManager {
      * @param punished Whether the reported player was punished
      */
     private void broadcastReportProcessing(Report report, String processorName, boolean punished) {
-        Map<String, String> placeholders = new HashMap<>();
-        placeholders.put("processor", processorName);
-        placeholders.put("reported", report.getReportedName());
-        placeholders.put("id", String.valueOf(report.getId()));
-
         String messagePath = punished ? "report.processed-punished" : "report.processed-dismissed";
-        String message = plugin.getConfigManager().getPrefix() +
-                plugin.getConfigManager().getMessage(messagePath);
-        String formattedMessage = MessageUtil.formatMessage(message, placeholders);
-
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.hasPermission("judgementday.staff")) {
-                player.sendMessage(formattedMessage);
-            }
-        }
+        String formattedMessage = plugin.getConfigManager().getPrefixedTemplate(messagePath).bind()
+                .with("processor", processorName)
+                .with("reported", report.getReportedName())
+                .with("id", report.getId())
+                .render();
+
+        plugin.getStaffAudience().broadcast(StaffAudience.Channel.REPORTS, formattedMessage);
     }
 }
\ No newline at end of file
@@ -2,7 +2,6 @@ package com.judgementday.command;
 
 import com.judgementday.JudgementDay;
 import com.judgementday.ReportGUI;
-import com.judgementday.util.MessageUtil;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -24,8 +23,7 @@ public class ReportsCommand implements CommandExecutor, TabCompleter {
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         // Check if sender is a player
         if (!(sender instanceof Player)) {
-            sender.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("general.player-only"), null));
+            sender.sendMessage(plugin.getConfigManager().formatMessage("general.player-only", null));
             return true;
         }
 
@@ -33,8 +31,7 @@ public class ReportsCommand implements CommandExecutor, TabCompleter {
 
         // Check permission
         if (!player.hasPermission("judgementday.reports")) {
-            player.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("general.no-permission"), null));
+            player.sendMessage(plugin.getConfigManager().formatMessage("general.no-permission", null));
             return true;
         }
 
@@ -1,7 +1,7 @@
 package com.judgementday.command;
 
 import com.judgementday.JudgementDay;
-import com.judgementday.util.MessageUtil;
+import com.judgementday.util.CompletionTrie;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -9,11 +9,18 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
 import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
 
 public class RevokeCommand implements CommandExecutor, TabCompleter {
 
+    private static final CompletionTrie REVOKE_REASONS = new CompletionTrie();
+
+    static {
+        REVOKE_REASONS.replaceAll(Arrays.asList(
+                "False positive", "Staff error", "Evidence insufficient",
+                "Appeal approved", "Rule change", "Automated expiry"
+        ));
+    }
+
     private final JudgementDay plugin;
 
     public RevokeCommand(JudgementDay plugin) {
@@ -24,15 +31,13 @@ public class RevokeCommand implements CommandExecutor, TabCompleter {
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         // Check permission
         if (!sender.hasPermission("judgementday.revoke")) {
-            sender.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("general.no-permission"), null));
+            sender.sendMessage(plugin.getConfigManager().formatMessage("general.no-permission", null));
             return true;
         }
 
         // Check arguments
         if (args.length < 1) {
-            sender.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("command.revoke.usage"), null));
+            sender.sendMessage(plugin.getConfigManager().formatMessage("command.revoke.usage", null));
             return true;
         }
 
@@ -41,64 +46,47 @@ public class RevokeCommand implements CommandExecutor, TabCompleter {
         try {
             id = Integer.parseInt(args[0]);
         } catch (NumberFormatException e) {
-            sender.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("command.revoke.invalid-id"), null));
-            return true;
-        }
-
-        // Get punishment
-        try {
-            if (plugin.getDataManager().getPunishment(id).get() == null) {
-                sender.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                        plugin.getConfigManager().getMessage("command.revoke.not-found"), null));
-                return true;
-            }
-        } catch (InterruptedException | ExecutionException e) {
-            sender.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                    plugin.getConfigManager().getMessage("general.error"), null));
+            sender.sendMessage(plugin.getConfigManager().formatMessage("command.revoke.invalid-id", null));
             return true;
         }
 
         // Get optional reason
-        String reason = "";
-        if (args.length > 1) {
-            reason = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
-        }
+        String reason = args.length > 1 ? String.join(" ", Arrays.copyOfRange(args, 1, args.length)) : "";
 
         // Get revoker info
         UUID revokerUuid = sender instanceof Player ? ((Player) sender).getUniqueId() : null;
-        String revokerName = sender.getName();
-        if (revokerUuid == null) {
-            revokerName = "Console";
-        }
+        String revokerName = revokerUuid != null ? sender.getName() : "Console";
+
+        // Look up the punishment, then revoke it - both off the main thread
+        CommandPipeline pipeline = plugin.getCommandPipeline();
+        pipeline.run("revoke.lookup", sender, plugin.getDataManager().getPunishment(id), punishment -> {
+            if (punishment == null) {
+                sender.sendMessage(plugin.getConfigManager().formatMessage("command.revoke.not-found", null));
+                return;
+            }
 
-        // Revoke punishment
-        final String finalReason = reason;
-        plugin.getPunishmentManager().revokePunishment(id, revokerUuid, revokerName)
-                .thenAccept(success -> {
-                    if (success) {
-                        // Get punishment details for confirmation message
-                        plugin.getDataManager().getPunishment(id).thenAccept(punishment -> {
-                            Map<String, String> placeholders = new HashMap<>();
-                            placeholders.put("id", String.valueOf(id));
-                            placeholders.put("target", punishment.getTargetName());
-                            placeholders.put("type", punishment.getType().getDisplayName());
-
-                            sender.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                                    plugin.getConfigManager().getMessage("command.revoke.success"), placeholders));
-
-                            // Log the reason if provided
-                            if (!finalReason.isEmpty()) {
-                                plugin.getLogger().info(revokerName + " revoked punishment #" + id +
-                                        " (" + punishment.getType().getDisplayName() + " for " +
-                                        punishment.getTargetName() + ") with reason: " + finalReason);
-                            }
-                        });
-                    } else {
-                        sender.sendMessage(MessageUtil.formatMessage(plugin.getConfigManager().getPrefix() +
-                                plugin.getConfigManager().getMessage("command.revoke.failed"), null));
-                    }
-                });
+            pipeline.run("revoke", sender, plugin.getPunishmentManager().revokePunishment(id, revokerUuid, revokerName),
+                    success -> {
+                        if (!success) {
+                            sender.sendMessage(plugin.getConfigManager().formatMessage("command.revoke.failed", null));
+                            return;
+                        }
+
+                        Map<String, String> placeholders = new HashMap<>();
+                        placeholders.put("id", String.valueOf(id));
+                        placeholders.put("target", punishment.getTargetName());
+                        placeholders.put("type", punishment.getType().getDisplayName());
+
+                        sender.sendMessage(plugin.getConfigManager().formatMessage("command.revoke.success", placeholders));
+
+                        // Log the reason if provided
+                        if (!reason.isEmpty()) {
+                            plugin.getLogger().info(revokerName + " revoked punishment #" + id +
+                                    " (" + punishment.getType().getDisplayName() + " for " +
+                                    punishment.getTargetName() + ") with reason: " + reason);
+                        }
+                    });
+        });
 
         return true;
     }
@@ -117,15 +105,7 @@ public class RevokeCommand implements CommandExecutor, TabCompleter {
 
         if (args.length == 2) {
             // Provide common revocation reasons
-            String partial = args[1].toLowerCase();
-            List<String> reasons = Arrays.asList(
-                    "False positive", "Staff error", "Evidence insufficient",
-                    "Appeal approved", "Rule change", "Automated expiry"
-            );
-
-            return reasons.stream()
-                    .filter(reason -> reason.toLowerCase().startsWith(partial))
-                    .collect(Collectors.toList());
+            return REVOKE_REASONS.complete(args[1], plugin.getConfigManager().getCompletionLimit());
         }
 
         return Collections.emptyList();
@@ -0,0 +1,121 @@
+package com.judgementday.data;
+
+import com.judgementday.data.SqlDataManager.SqlAction;
+import com.judgementday.util.LogUtil;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Upgrades the tables of an existing database in place. Every migration has a version
+ * number; the versions applied are recorded in the schema_version table and the rest run
+ * in order at startup, each in its own transaction. Fresh installs create the tables at
+ * the latest layout and run the migrations too, so each migration must check what is
+ * already there. DDL commits implicitly on MySQL, so that also lets an interrupted
+ * migration run again.
+ */
+public class SchemaMigrator {
+
+    /**
+     * One step of the schema's history
+     */
+    public static final class Migration {
+        private final int version;
+        private final String description;
+        private final SqlAction action;
+
+        /**
+         * Create a migration
+         *
+         * @param version Version the schema is at once this has run
+         * @param description What it changes, for the log
+         * @param action The changes
+         */
+        public Migration(int version, String description, SqlAction action) {
+            this.version = version;
+            this.description = description;
+            this.action = action;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private final String table;
+    private final List<Migration> migrations;
+
+    /**
+     * Create a migrator
+     *
+     * @param tablePrefix Prefix of the plugin's tables
+     * @param migrations Every migration, in any order
+     */
+    public SchemaMigrator(String tablePrefix, List<Migration> migrations) {
+        this.table = tablePrefix + "schema_version";
+        this.migrations = new ArrayList<>(migrations);
+        this.migrations.sort(Comparator.comparingInt(Migration::getVersion));
+    }
+
+    /**
+     * Run the migrations the database has not had yet
+     *
+     * @param connection The connection to use
+     * @return The schema version afterwards
+     * @throws SQLException If a migration failed; the ones before it stay applied
+     */
+    public int migrate(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + table + " (" +
+                    "version INT PRIMARY KEY, " +
+                    "time_applied BIGINT NOT NULL)");
+        }
+
+        int current = getVersion(connection);
+        boolean autoCommit = connection.getAutoCommit();
+
+        for (Migration migration : migrations) {
+            if (migration.version <= current) {
+                continue;
+            }
+
+            LogUtil.info("Migrating database schema to version " + migration.version + ": " + migration.description);
+            connection.setAutoCommit(false);
+
+            try {
+                migration.action.run(connection);
+
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "INSERT INTO " + table + " (version, time_applied) VALUES (?, ?)")) {
+                    ps.setInt(1, migration.version);
+                    ps.setLong(2, System.currentTimeMillis());
+                    ps.executeUpdate();
+                }
+
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+            current = migration.version;
+        }
+
+        return current;
+    }
+
+    private int getVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(version), 0) FROM " + table)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
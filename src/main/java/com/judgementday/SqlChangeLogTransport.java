@@ -0,0 +1,190 @@
+package com.judgementday.data;
+
+import com.judgementday.JudgementDay;
+import com.judgementday.sync.SyncMessage;
+import com.judgementday.sync.SyncTransport;
+import com.judgementday.util.LogUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.*;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Sync transport for servers sharing one database. Published messages are appended to
+ * the punishment_changes table, which every server polls by primary key for rows newer
+ * than the last one it has seen. Rows committed out of id order are handled by
+ * {@link ChangeLogCursor}.
+ */
+public class SqlChangeLogTransport implements SyncTransport {
+
+    private static final int BATCH_SIZE = 500;
+    private static final long GAP_TIMEOUT_MILLIS = 5000L;
+    private static final long PRUNE_INTERVAL_MILLIS = 60000L;
+
+    private final JudgementDay plugin;
+    private final SqlDataManager dataManager;
+    private final String table;
+    private final SqlStatement insertChange;
+    private final SqlStatement selectChanges;
+    private final SqlStatement deleteChanges;
+    private final long pollTicks;
+    private final long retentionMillis;
+
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private volatile Consumer<SyncMessage> receiver;
+    private BukkitTask pollTask;
+
+    // Only touched by the poll in progress
+    private ChangeLogCursor cursor = new ChangeLogCursor(0L, GAP_TIMEOUT_MILLIS);
+    private long lastPrune;
+
+    /**
+     * Create a transport
+     *
+     * @param plugin The plugin
+     * @param dataManager Storage the change log lives in
+     * @param pollTicks Ticks between polls
+     * @param retentionMillis How long change log rows are kept
+     */
+    public SqlChangeLogTransport(JudgementDay plugin, SqlDataManager dataManager, long pollTicks, long retentionMillis) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        this.table = dataManager.tablePrefix + "punishment_changes";
+        this.insertChange = dataManager.statement("change-log.insert",
+                "INSERT INTO " + table + " (origin, kind, punishment_id, target_uuid, time_created) " +
+                        "VALUES (?, ?, ?, ?, ?)");
+        this.selectChanges = dataManager.statement("change-log.select",
+                "SELECT id, origin, kind, punishment_id, target_uuid FROM " + table +
+                        " WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE);
+        this.deleteChanges = dataManager.statement("change-log.prune",
+                "DELETE FROM " + table + " WHERE time_created < ?");
+        this.pollTicks = Math.max(1L, pollTicks);
+        this.retentionMillis = retentionMillis;
+    }
+
+    @Override
+    public void start(Consumer<SyncMessage> receiver) {
+        this.receiver = receiver;
+
+        // Start from the newest row - older changes are already in the database we load from
+        try (Connection connection = dataManager.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) AS last_id FROM " + table)) {
+            if (rs.next()) {
+                cursor = new ChangeLogCursor(rs.getLong("last_id"), GAP_TIMEOUT_MILLIS);
+            }
+        } catch (SQLException e) {
+            LogUtil.severe("Failed to read punishment change log position", e);
+        }
+
+        pollTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::poll, pollTicks, pollTicks);
+    }
+
+    @Override
+    public CompletableFuture<Void> publish(SyncMessage message) {
+        return publishAll(Collections.singletonList(message));
+    }
+
+    @Override
+    public CompletableFuture<Void> publishAll(List<SyncMessage> messages) {
+        if (messages.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // One transaction for the lot, so a ban wave is not hundreds of commits
+        return dataManager.write(connection -> {
+            try (PreparedStatement ps = insertChange.prepare(connection)) {
+
+                long now = System.currentTimeMillis();
+                for (SyncMessage message : messages) {
+                    ps.setString(1, message.getOrigin());
+                    ps.setString(2, message.getKind().name());
+                    ps.setInt(3, message.getPunishmentId());
+                    dataManager.setUuid(ps, 4, message.getTargetUuid());
+                    ps.setLong(5, now);
+                    ps.addBatch();
+                }
+
+                insertChange.executeBatch(ps);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        if (pollTask != null) {
+            pollTask.cancel();
+            pollTask = null;
+        }
+        receiver = null;
+    }
+
+    private void poll() {
+        // Async timer tasks may overlap if the database is slow
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            readChanges();
+            pruneIfDue();
+        } catch (SQLException e) {
+            LogUtil.warning("Failed to poll punishment change log: " + e.getMessage());
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    private void readChanges() throws SQLException {
+        Consumer<SyncMessage> currentReceiver = receiver;
+        if (currentReceiver == null) {
+            return;
+        }
+
+        try (Connection connection = dataManager.getConnection();
+             PreparedStatement ps = selectChanges.prepare(connection)) {
+
+            ps.setLong(1, cursor.getPosition());
+
+            try (SqlStatement.Execution timing = selectChanges.start();
+                 ResultSet rs = timing.executeQuery(ps)) {
+                long now = System.currentTimeMillis();
+                cursor.beginRead();
+
+                while (rs.next()) {
+                    if (cursor.advance(rs.getLong("id"), now)) {
+                        currentReceiver.accept(new SyncMessage(
+                                rs.getString("origin"),
+                                SyncMessage.Kind.valueOf(rs.getString("kind")),
+                                rs.getInt("punishment_id"),
+                                UUID.fromString(dataManager.getUuidString(rs, "target_uuid"))));
+                    }
+                }
+            }
+        }
+    }
+
+    private void pruneIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastPrune < PRUNE_INTERVAL_MILLIS) {
+            return;
+        }
+        lastPrune = now;
+
+        dataManager.write(connection -> {
+            try (PreparedStatement ps = deleteChanges.prepare(connection)) {
+                ps.setLong(1, now - retentionMillis);
+                deleteChanges.executeUpdate(ps);
+            }
+        }).exceptionally(e -> {
+            LogUtil.warning("Failed to prune punishment change log: " + e.getMessage());
+            return null;
+        });
+    }
+}
@@ -0,0 +1,1520 @@
+package com.judgementday.data;
+
+import com.judgementday.JudgementDay;
+import com.judgementday.data.DataExecutor.Lane;
+import com.judgementday.model.Appeal;
+import com.judgementday.model.PlayerName;
+import com.judgementday.model.Punishment;
+import com.judgementday.model.PunishmentType;
+import com.judgementday.model.Report;
+import com.judgementday.util.LogUtil;
+import com.judgementday.util.PhaseTimer;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Storage shared by the SQL backends. Subclasses provide the connections, the schema and
+ * the way writes are run; the queries and the active punishment cache live here.
+ */
+public abstract class SqlDataManager implements DataManager {
+
+    /**
+     * Work run against a connection inside a write transaction
+     */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T run(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Work with no result run against a connection inside a write transaction
+     */
+    @FunctionalInterface
+    public interface SqlAction {
+        void run(Connection connection) throws SQLException;
+    }
+
+    // Ids per UPDATE when deactivating expired punishments
+    private static final int EXPIRY_BATCH_SIZE = 500;
+
+    // Rows per statement batch and per transaction when punishing in bulk
+    private static final int BULK_BATCH_SIZE = 500;
+
+    protected final JudgementDay plugin;
+    protected final DataExecutor executor;
+    protected final String tablePrefix;
+
+    // Ids come in blocks from the sequences table, so servers sharing the database never collide
+    private final IdAllocator punishmentIds;
+    private final IdAllocator reportIds;
+    private final IdAllocator appealIds;
+
+    // Cache active punishments for better performance. Snapshots are immutable and
+    // swapped with compute, so readers never see a change half-applied.
+    private final Map<UUID, ActivePunishments> activePlayerPunishments = new ConcurrentHashMap<>();
+
+    // Temporary punishments in the cache, earliest expiry first
+    private final ExpiryQueue expiryQueue = new ExpiryQueue();
+
+    // Offense counts for escalation, backed by the offense_counts table and written through
+    // in the same transaction as each punishment
+    private final OffenseCounters offenseCounts = new OffenseCounters(this::queryOffenseCounts);
+
+    // Every statement the storage runs, with its timings. Texts are rendered once here,
+    // so the driver's statement cache sees the same string on every call.
+    private final List<SqlStatement> statements = new CopyOnWriteArrayList<>();
+
+    private final SqlStatement insertSequence;
+    private final SqlStatement updateSequenceFloor;
+    private final SqlStatement selectSequenceExists;
+    private final SqlStatement advanceSequence;
+    private final SqlStatement selectSequence;
+    private final SqlStatement selectActivePunishments;
+    private final SqlStatement selectOffenseCounts;
+    private final SqlStatement insertPunishment;
+    private final SqlStatement insertHistory;
+    private final SqlStatement selectActivePunishmentById;
+    private final SqlStatement updateRevoked;
+    private final SqlStatement selectPunishmentById;
+    private final SqlStatement selectPunishmentsByTarget;
+    private final SqlStatement selectPunishmentsPage;
+    private final SqlStatement countPunishments;
+    private final SqlStatement selectActiveByTarget;
+    private final SqlStatement selectActiveByTargetAndType;
+    private final SqlStatement countActiveBans;
+    private final SqlStatement countActiveMutes;
+    private final SqlStatement selectPendingReports;
+    private final SqlStatement selectReportsByTarget;
+    private final SqlStatement insertReport;
+    private final SqlStatement updateReportProcessed;
+    private final SqlStatement selectReportById;
+    private final SqlStatement insertAppeal;
+    private final SqlStatement selectPendingAppeals;
+    private final SqlStatement selectAppealsByPlayer;
+    private final SqlStatement selectAppealById;
+    private final SqlStatement updateAppealReview;
+    private final SqlStatement deactivatePunishment;
+    private final SqlStatement deactivatePunishments;
+    private final SqlStatement deleteProcessedReports;
+    private final SqlStatement selectPlayerNames;
+    private final SqlStatement selectRecordNames;
+
+    protected SqlDataManager(JudgementDay plugin, String tablePrefix) {
+        this.plugin = plugin;
+        this.executor = plugin.getDataExecutor();
+        this.tablePrefix = tablePrefix;
+
+        int blockSize = plugin.getConfigManager().getMainConfig().getInt("storage.id-block-size", 100);
+        this.punishmentIds = new IdAllocator(size -> reserveBlock("punishments", size), blockSize);
+        this.reportIds = new IdAllocator(size -> reserveBlock("reports", size), blockSize);
+        this.appealIds = new IdAllocator(size -> reserveBlock("appeals", size), blockSize);
+
+        this.insertSequence = statement("sequence.insert",
+                "INSERT INTO " + tablePrefix + "sequences (name, next_id) VALUES (?, ?)");
+        this.updateSequenceFloor = statement("sequence.raise",
+                "UPDATE " + tablePrefix + "sequences SET next_id = ? WHERE name = ? AND next_id < ?");
+        this.selectSequenceExists = statement("sequence.exists",
+                "SELECT 1 FROM " + tablePrefix + "sequences WHERE name = ?");
+        this.advanceSequence = statement("sequence.advance",
+                "UPDATE " + tablePrefix + "sequences SET next_id = next_id + ? WHERE name = ?");
+        this.selectSequence = statement("sequence.select",
+                "SELECT next_id FROM " + tablePrefix + "sequences WHERE name = ?");
+        this.selectActivePunishments = statement("punishment.select-active",
+                "SELECT * FROM " + tablePrefix + "punishments WHERE active = TRUE");
+        this.selectOffenseCounts = statement("offense-counts.select",
+                "SELECT player_uuid, type, reason, count FROM " + tablePrefix + "offense_counts " +
+                        "WHERE player_uuid IN (" + SqlStatement.IN_LIST + ")");
+        this.insertPunishment = statement("punishment.insert",
+                "INSERT INTO " + tablePrefix + "punishments " +
+                        "(id, target_uuid, target_name, punisher_uuid, punisher_name, " +
+                        "type, reason, time_issued, duration, expiry, active, proof_link, level) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        this.insertHistory = statement("history.insert",
+                "INSERT INTO " + tablePrefix + "punishment_history " +
+                        "(player_uuid, punishment_id, type, reason, level) " +
+                        "VALUES (?, ?, ?, ?, ?)");
+        this.selectActivePunishmentById = statement("punishment.select-active-by-id",
+                "SELECT * FROM " + tablePrefix + "punishments WHERE id = ? AND active = TRUE");
+        this.updateRevoked = statement("punishment.revoke",
+                "UPDATE " + tablePrefix + "punishments SET " +
+                        "active = FALSE, revoker_uuid = ?, revoker_name = ?, time_revoked = ? " +
+                        "WHERE id = ?");
+        this.selectPunishmentById = statement("punishment.select-by-id",
+                "SELECT * FROM " + tablePrefix + "punishments WHERE id = ?");
+        this.selectPunishmentsByTarget = statement("punishment.select-by-target",
+                "SELECT * FROM " + tablePrefix + "punishments WHERE target_uuid = ? " +
+                        "ORDER BY time_issued DESC, id DESC");
+        this.selectPunishmentsPage = statement("punishment.select-page",
+                "SELECT * FROM " + tablePrefix + "punishments WHERE target_uuid = ? " +
+                        "AND (time_issued < ? OR (time_issued = ? AND id < ?)) " +
+                        "ORDER BY time_issued DESC, id DESC LIMIT ?");
+        this.countPunishments = statement("punishment.count",
+                "SELECT COUNT(*) AS count FROM " + tablePrefix + "punishments WHERE target_uuid = ?");
+        this.selectActiveByTarget = statement("punishment.select-active-by-target",
+                "SELECT * FROM " + tablePrefix + "punishments " +
+                        "WHERE target_uuid = ? AND active = TRUE AND (expiry > ? OR expiry = -1)");
+        this.selectActiveByTargetAndType = statement("punishment.select-active-by-type",
+                "SELECT * FROM " + tablePrefix + "punishments " +
+                        "WHERE target_uuid = ? AND type = ? AND active = TRUE AND (expiry > ? OR expiry = -1)");
+        this.countActiveBans = statement("punishment.count-active-bans",
+                "SELECT COUNT(*) AS count FROM " + tablePrefix + "punishments " +
+                        "WHERE target_uuid = ? AND type = 'BAN' AND active = TRUE AND (expiry > ? OR expiry = -1)");
+        this.countActiveMutes = statement("punishment.count-active-mutes",
+                "SELECT COUNT(*) AS count FROM " + tablePrefix + "punishments " +
+                        "WHERE target_uuid = ? AND type = 'MUTE' AND active = TRUE AND (expiry > ? OR expiry = -1)");
+        this.selectPendingReports = statement("report.select-pending",
+                "SELECT * FROM " + tablePrefix + "reports WHERE processed = FALSE ORDER BY time_created DESC");
+        this.selectReportsByTarget = statement("report.select-by-target",
+                "SELECT * FROM " + tablePrefix + "reports WHERE reported_uuid = ? ORDER BY time_created DESC");
+        this.insertReport = statement("report.insert",
+                "INSERT INTO " + tablePrefix + "reports " +
+                        "(id, reporter_uuid, reporter_name, reported_uuid, reported_name, reason, time_created) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)");
+        this.updateReportProcessed = statement("report.process",
+                "UPDATE " + tablePrefix + "reports SET " +
+                        "processed = TRUE, processor_uuid = ?, processor_name = ?, " +
+                        "time_processed = ?, result_punishment_id = ? " +
+                        "WHERE id = ? AND processed = FALSE");
+        this.selectReportById = statement("report.select-by-id",
+                "SELECT * FROM " + tablePrefix + "reports WHERE id = ?");
+        this.insertAppeal = statement("appeal.insert",
+                "INSERT INTO " + tablePrefix + "appeals " +
+                        "(id, punishment_id, player_uuid, player_name, reason, evidence, time_created, status) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        this.selectPendingAppeals = statement("appeal.select-pending",
+                "SELECT * FROM " + tablePrefix + "appeals WHERE status = 'PENDING' ORDER BY time_created DESC");
+        this.selectAppealsByPlayer = statement("appeal.select-by-player",
+                "SELECT * FROM " + tablePrefix + "appeals WHERE player_uuid = ? ORDER BY time_created DESC");
+        this.selectAppealById = statement("appeal.select-by-id",
+                "SELECT * FROM " + tablePrefix + "appeals WHERE id = ?");
+        this.updateAppealReview = statement("appeal.review",
+                "UPDATE " + tablePrefix + "appeals SET " +
+                        "status = ?, reviewer_uuid = ?, reviewer_name = ?, " +
+                        "time_reviewed = ?, review_comment = ? " +
+                        "WHERE id = ? AND status = 'PENDING'");
+        this.deactivatePunishment = statement("punishment.deactivate",
+                "UPDATE " + tablePrefix + "punishments SET active = FALSE WHERE id = ? AND active = TRUE");
+        this.deactivatePunishments = statement("punishment.deactivate-expired",
+                "UPDATE " + tablePrefix + "punishments SET active = FALSE " +
+                        "WHERE active = TRUE AND id IN (" + SqlStatement.IN_LIST + ")");
+        this.deleteProcessedReports = statement("report.delete-processed",
+                "DELETE FROM " + tablePrefix + "reports " +
+                        "WHERE processed = TRUE AND time_created < ?");
+        this.selectPlayerNames = statement("player-names.select",
+                "SELECT player_uuid, name, last_seen FROM " + tablePrefix + "player_names");
+        this.selectRecordNames = statement("player-names.select-records",
+                "SELECT target_uuid AS player_uuid, target_name AS name, MAX(time_issued) AS last_seen FROM " +
+                        tablePrefix + "punishments GROUP BY target_uuid, target_name " +
+                        "UNION ALL SELECT punisher_uuid, punisher_name, MAX(time_issued) FROM " + tablePrefix + "punishments " +
+                        "WHERE punisher_uuid IS NOT NULL GROUP BY punisher_uuid, punisher_name " +
+                        "UNION ALL SELECT reporter_uuid, reporter_name, MAX(time_created) FROM " + tablePrefix + "reports " +
+                        "GROUP BY reporter_uuid, reporter_name " +
+                        "UNION ALL SELECT reported_uuid, reported_name, MAX(time_created) FROM " + tablePrefix + "reports " +
+                        "GROUP BY reported_uuid, reported_name " +
+                        "UNION ALL SELECT player_uuid, player_name, MAX(time_created) FROM " + tablePrefix + "appeals " +
+                        "GROUP BY player_uuid, player_name");
+    }
+
+    /**
+     * Render a statement once and register it for the timings
+     *
+     * @param name Name shown in the timings
+     * @param sql Statement text, with table names already prefixed
+     * @return The statement
+     */
+    protected SqlStatement statement(String name, String sql) {
+        SqlStatement statement = new SqlStatement(name, sql);
+        statements.add(statement);
+        return statement;
+    }
+
+    /**
+     * Get every statement this storage runs, with its execution timings
+     *
+     * @return The statements, slowest in total first
+     */
+    public List<SqlStatement> getStatements() {
+        List<SqlStatement> sorted = new ArrayList<>(statements);
+        sorted.sort(Comparator.comparingLong(SqlStatement::getTotalTimeMillis).reversed());
+        return sorted;
+    }
+
+    /**
+     * Borrow a connection for reading. Callers must close it to return it.
+     *
+     * @return A connection
+     * @throws SQLException If no connection could be obtained
+     */
+    protected abstract Connection getConnection() throws SQLException;
+
+    /**
+     * Create the tables and indexes if they don't exist
+     *
+     * @param connection The connection to use
+     * @throws SQLException If the schema could not be created
+     */
+    protected abstract void createTables(Connection connection) throws SQLException;
+
+    /**
+     * Add one to the offense count of each punishment's player, type and reason, creating
+     * missing rows. Runs inside the write transaction that inserts the punishments.
+     *
+     * @param connection The connection to use
+     * @param punishments The punishments being added
+     * @throws SQLException If the counts could not be updated
+     */
+    protected abstract void incrementOffenseCounts(Connection connection, List<Punishment> punishments) throws SQLException;
+
+    /**
+     * Insert or update player names, keeping the latest last-seen time of each. Runs inside
+     * a write transaction.
+     *
+     * @param connection The connection to use
+     * @param names The names to store
+     * @throws SQLException If the names could not be stored
+     */
+    protected abstract void upsertPlayerNames(Connection connection, List<PlayerName> names) throws SQLException;
+
+    /**
+     * Run work in a write transaction. The future completes once the transaction has
+     * been committed, or exceptionally if it was rolled back.
+     *
+     * @param work The work to run
+     * @return A future with the work's result
+     */
+    protected abstract <T> CompletableFuture<T> write(SqlWork<T> work);
+
+    /**
+     * Run work with no result in a write transaction
+     *
+     * @param action The work to run
+     * @return A future that completes once the transaction has been committed
+     */
+    protected CompletableFuture<Void> write(SqlAction action) {
+        return write(connection -> {
+            action.run(connection);
+            return null;
+        });
+    }
+
+    /**
+     * Bind a UUID parameter in the form this backend stores UUIDs in
+     *
+     * @param ps The statement
+     * @param index Parameter index
+     * @param uuid The UUID, or null
+     * @throws SQLException If the parameter could not be set
+     */
+    protected void setUuid(PreparedStatement ps, int index, UUID uuid) throws SQLException {
+        if (uuid == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, uuid.toString());
+        }
+    }
+
+    /**
+     * Read a UUID column
+     *
+     * @param rs The result set
+     * @param column Column name
+     * @return The UUID in its string form, or null
+     * @throws SQLException If the column could not be read
+     */
+    protected String getUuidString(ResultSet rs, String column) throws SQLException {
+        return rs.getString(column);
+    }
+
+    /**
+     * Number of rows the driver should fetch per round trip when streaming large results
+     *
+     * @return The fetch size hint
+     */
+    protected int getStreamingFetchSize() {
+        return 1000;
+    }
+
+    /**
+     * Prepare the id sequences and load the active punishment cache. Both run in parallel
+     * on separate connections, so the schema must already exist.
+     *
+     * @param timer Timer the load phases are recorded on
+     * @throws SQLException If either load fails
+     */
+    protected void loadInitialData(PhaseTimer timer) throws SQLException {
+        // The phases run concurrently, so each is timed on its own; the total is the wall time
+        CompletableFuture<Void> sequences = timer.track("sequences", write(this::initializeSequences));
+        CompletableFuture<Void> counts = timer.track("offense counts", write(this::initializeOffenseCounts));
+        CompletableFuture<Void> cache = timer.track("active punishments", loadAsync(this::loadActivePunishmentsCache));
+
+        try {
+            CompletableFuture.allOf(sequences, counts, cache).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw e;
+        }
+
+        // Reserve the first id blocks now, so the first punishment does not wait for one
+        punishmentIds.prefetch();
+        reportIds.prefetch();
+        appealIds.prefetch();
+
+        int active = 0;
+        for (ActivePunishments playerPunishments : activePlayerPunishments.values()) {
+            active += playerPunishments.size();
+        }
+
+        LogUtil.info("Loaded " + active + " active punishments in " + timer);
+    }
+
+    private CompletableFuture<Void> loadAsync(SqlAction action) {
+        return executor.run(Lane.READ, () -> {
+            try (Connection connection = getConnection()) {
+                action.run(connection);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private void initializeSequences(Connection connection) throws SQLException {
+        int punishments;
+        int reports;
+        int appeals;
+
+        // One round trip for all three tables - MAX on the primary key is an index lookup
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT (SELECT COALESCE(MAX(id), 0) FROM " + tablePrefix + "punishments) AS punishments, " +
+                             "(SELECT COALESCE(MAX(id), 0) FROM " + tablePrefix + "reports) AS reports, " +
+                             "(SELECT COALESCE(MAX(id), 0) FROM " + tablePrefix + "appeals) AS appeals")) {
+            if (!rs.next()) {
+                return;
+            }
+            punishments = rs.getInt("punishments");
+            reports = rs.getInt("reports");
+            appeals = rs.getInt("appeals");
+        }
+
+        // The sequences never start below existing rows, e.g. rows written by older versions
+        ensureSequence(connection, "punishments", punishments + 1);
+        ensureSequence(connection, "reports", reports + 1);
+        ensureSequence(connection, "appeals", appeals + 1);
+    }
+
+    private void initializeOffenseCounts(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + tablePrefix + "offense_counts")) {
+                if (rs.next() && rs.getInt(1) > 0) {
+                    return;
+                }
+            }
+
+            // Count the existing history once, when upgrading from a version without the counts
+            statement.executeUpdate(
+                    "INSERT INTO " + tablePrefix + "offense_counts (player_uuid, type, reason, count) " +
+                            "SELECT player_uuid, type, reason, COUNT(*) FROM " + tablePrefix + "punishment_history " +
+                            "GROUP BY player_uuid, type, reason");
+        } catch (SQLException e) {
+            // Another server filled the counts first
+            if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                throw e;
+            }
+        }
+    }
+
+    private void ensureSequence(Connection connection, String name, int floor) throws SQLException {
+        if (raiseSequence(connection, name, floor)) {
+            return;
+        }
+
+        try (PreparedStatement ps = insertSequence.prepare(connection)) {
+            ps.setString(1, name);
+            ps.setInt(2, floor);
+            insertSequence.executeUpdate(ps);
+        } catch (SQLException e) {
+            // Another server created the sequence first
+            if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                throw e;
+            }
+            raiseSequence(connection, name, floor);
+        }
+    }
+
+    private boolean raiseSequence(Connection connection, String name, int floor) throws SQLException {
+        try (PreparedStatement ps = updateSequenceFloor.prepare(connection)) {
+            ps.setInt(1, floor);
+            ps.setString(2, name);
+            ps.setInt(3, floor);
+
+            if (updateSequenceFloor.executeUpdate(ps) > 0) {
+                return true;
+            }
+        }
+
+        try (PreparedStatement ps = selectSequenceExists.prepare(connection)) {
+            ps.setString(1, name);
+
+            try (SqlStatement.Execution timing = selectSequenceExists.start();
+                 ResultSet rs = timing.executeQuery(ps)) {
+                return rs.next();
+            }
+        }
+    }
+
+    private CompletableFuture<Integer> reserveBlock(String name, int size) {
+        return write(connection -> {
+            // The update locks the row until commit, so concurrent servers get disjoint blocks
+            try (PreparedStatement ps = advanceSequence.prepare(connection)) {
+                ps.setInt(1, size);
+                ps.setString(2, name);
+
+                if (advanceSequence.executeUpdate(ps) == 0) {
+                    throw new SQLException("Missing id sequence: " + name);
+                }
+            }
+
+            try (PreparedStatement ps = selectSequence.prepare(connection)) {
+                ps.setString(1, name);
+
+                try (SqlStatement.Execution timing = selectSequence.start();
+                     ResultSet rs = timing.executeQuery(ps)) {
+                    if (!rs.next()) {
+                        throw new SQLException("Missing id sequence: " + name);
+                    }
+                    return rs.getInt("next_id") - size;
+                }
+            }
+        });
+    }
+
+    protected void loadActivePunishmentsCache(Connection connection) throws SQLException {
+        activePlayerPunishments.clear();
+        expiryQueue.clear();
+
+        Map<UUID, List<Punishment>> loaded = new HashMap<>();
+
+        // Rows that expired while the server was down are queued too, so the first cleanup deactivates them
+        try (PreparedStatement ps = selectActivePunishments.prepare(connection)) {
+
+            // Stream the rows rather than buffering the whole result
+            ps.setFetchSize(getStreamingFetchSize());
+
+            try (SqlStatement.Execution timing = selectActivePunishments.start();
+                 ResultSet rs = timing.executeQuery(ps)) {
+                while (rs.next()) {
+                    Punishment punishment = extractPunishmentFromResultSet(rs);
+                    expiryQueue.add(punishment);
+
+                    if (!punishment.isExpired()) {
+                        loaded.computeIfAbsent(punishment.getTargetUuid(), k -> new ArrayList<>()).add(punishment);
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<UUID, List<Punishment>> entry : loaded.entrySet()) {
+            activePlayerPunishments.put(entry.getKey(), ActivePunishments.of(entry.getValue()));
+        }
+    }
+
+    /**
+     * Put the current state of a punishment in the cache, replacing the player's snapshot
+     *
+     * @param punishment The punishment as currently stored
+     */
+    private void updateCache(Punishment punishment) {
+        activePlayerPunishments.compute(punishment.getTargetUuid(), (uuid, cached) -> {
+            ActivePunishments current = cached == null ? ActivePunishments.EMPTY : cached;
+
+            return punishment.isActive() && !punishment.isExpired()
+                    ? current.with(punishment)
+                    : current.without(punishment.getId());
+        });
+
+        if (punishment.isActive()) {
+            expiryQueue.add(punishment);
+        } else {
+            expiryQueue.remove(punishment);
+        }
+    }
+
+    /**
+     * Take a punishment out of the cache, replacing the player's snapshot
+     *
+     * @param punishment The punishment
+     */
+    private void uncache(Punishment punishment) {
+        activePlayerPunishments.computeIfPresent(punishment.getTargetUuid(),
+                (uuid, cached) -> cached.without(punishment.getId()));
+        expiryQueue.remove(punishment);
+    }
+
+    /**
+     * Get the live punishments in a snapshot, skipping any that expired since it was built
+     *
+     * @param cached The snapshot
+     * @param type Type to keep, or null for all types
+     * @return A new list
+     */
+    private static List<Punishment> livePunishments(ActivePunishments cached, PunishmentType type) {
+        List<Punishment> punishments = new ArrayList<>(cached.size());
+        boolean checkExpiry = cached.hasExpired(System.currentTimeMillis());
+
+        for (Punishment punishment : cached.getPunishments()) {
+            if ((type == null || punishment.getType() == type) && !(checkExpiry && punishment.isExpired())) {
+                punishments.add(punishment);
+            }
+        }
+
+        return punishments;
+    }
+
+    protected Punishment extractPunishmentFromResultSet(ResultSet rs) throws SQLException {
+        Map<String, Object> data = new HashMap<>();
+
+        data.put("id", rs.getInt("id"));
+        data.put("targetUuid", getUuidString(rs, "target_uuid"));
+        data.put("targetName", rs.getString("target_name"));
+        data.put("punisherUuid", getUuidString(rs, "punisher_uuid"));
+        data.put("punisherName", rs.getString("punisher_name"));
+        data.put("type", rs.getString("type"));
+        data.put("reason", rs.getString("reason"));
+        data.put("timeIssued", rs.getLong("time_issued"));
+        data.put("duration", rs.getLong("duration"));
+        data.put("expiry", rs.getLong("expiry"));
+        data.put("active", rs.getBoolean("active"));
+        data.put("proofLink", rs.getString("proof_link"));
+        data.put("level", rs.getInt("level"));
+
+        String revokerUuid = getUuidString(rs, "revoker_uuid");
+        if (revokerUuid != null) {
+            data.put("revokerUuid", revokerUuid);
+            data.put("revokerName", rs.getString("revoker_name"));
+            data.put("timeRevoked", rs.getLong("time_revoked"));
+        }
+
+        return new Punishment(data);
+    }
+
+    private Report extractReportFromResultSet(ResultSet rs) throws SQLException {
+        Map<String, Object> data = new HashMap<>();
+
+        data.put("id", rs.getInt("id"));
+        data.put("reporterUuid", getUuidString(rs, "reporter_uuid"));
+        data.put("reporterName", rs.getString("reporter_name"));
+        data.put("reportedUuid", getUuidString(rs, "reported_uuid"));
+        data.put("reportedName", rs.getString("reported_name"));
+        data.put("reason", rs.getString("reason"));
+        data.put("timeCreated", rs.getLong("time_created"));
+        data.put("processed", rs.getBoolean("processed"));
+
+        if (rs.getBoolean("processed")) {
+            data.put("processorUuid", getUuidString(rs, "processor_uuid"));
+            data.put("processorName", rs.getString("processor_name"));
+            data.put("timeProcessed", rs.getLong("time_processed"));
+
+            int resultPunishmentId = rs.getInt("result_punishment_id");
+            if (!rs.wasNull()) {
+                data.put("resultPunishmentId", resultPunishmentId);
+            }
+        }
+
+        return new Report(data);
+    }
+
+    private Appeal extractAppealFromResultSet(ResultSet rs) throws SQLException {
+        Map<String, Object> data = new HashMap<>();
+
+        data.put("id", rs.getInt("id"));
+        data.put("punishmentId", rs.getInt("punishment_id"));
+        data.put("playerUuid", getUuidString(rs, "player_uuid"));
+        data.put("playerName", rs.getString("player_name"));
+        data.put("reason", rs.getString("reason"));
+        data.put("evidence", rs.getString("evidence"));
+        data.put("timeCreated", rs.getLong("time_created"));
+        data.put("status", rs.getString("status"));
+
+        String reviewerUuid = getUuidString(rs, "reviewer_uuid");
+        if (reviewerUuid != null) {
+            data.put("reviewerUuid", reviewerUuid);
+            data.put("reviewerName", rs.getString("reviewer_name"));
+            data.put("timeReviewed", rs.getLong("time_reviewed"));
+            data.put("reviewComment", rs.getString("review_comment"));
+        }
+
+        return new Appeal(data);
+    }
+
+    private static <T> Function<Throwable, T> logFailure(String message, T fallback) {
+        return e -> {
+            LogUtil.severe(message, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            return fallback;
+        };
+    }
+
+    @Override
+    public void saveAll() {
+        // Nothing to do here - database is saved automatically
+    }
+
+    @Override
+    public CompletableFuture<Integer> getNextPunishmentId() {
+        return punishmentIds.nextId();
+    }
+
+    @Override
+    public CompletableFuture<List<Integer>> getNextPunishmentIds(int count) {
+        return punishmentIds.nextIds(count);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getNextReportId() {
+        return reportIds.nextId();
+    }
+
+    @Override
+    public CompletableFuture<Integer> getNextAppealId() {
+        return appealIds.nextId();
+    }
+
+    @Override
+    public CompletableFuture<Integer> getPunishmentLevel(UUID uuid, PunishmentType type, String reason) {
+        return offenseCounts.getLevel(uuid, type, reason)
+                .exceptionally(logFailure("Failed to get punishment level", 1)); // Default level if error
+    }
+
+    @Override
+    public CompletableFuture<Integer> reservePunishmentLevel(UUID uuid, PunishmentType type, String reason) {
+        return offenseCounts.reserveLevel(uuid, type, reason)
+                .exceptionally(logFailure("Failed to get punishment level", 1)); // Default level if error
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, Integer>> reservePunishmentLevels(Collection<UUID> uuids, PunishmentType type, String reason) {
+        // Every player at the default level if error
+        return offenseCounts.reserveLevels(uuids, type, reason)
+                .exceptionally(logFailure("Failed to get punishment levels", Collections.<UUID, Integer>emptyMap()));
+    }
+
+    @Override
+    public void releasePunishmentLevel(Punishment punishment) {
+        offenseCounts.release(punishment);
+    }
+
+    @Override
+    public CompletableFuture<Void> loadOffenseCounts(UUID uuid) {
+        return offenseCounts.warm(uuid).exceptionally(logFailure("Failed to load offense counts", null));
+    }
+
+    @Override
+    public void unloadOffenseCounts(UUID uuid) {
+        offenseCounts.evict(uuid);
+    }
+
+    @Override
+    public CompletableFuture<List<PlayerName>> loadPlayerNames() {
+        return queryPlayerNames(selectPlayerNames).thenCompose(names -> {
+            if (!names.isEmpty()) {
+                return CompletableFuture.completedFuture(names);
+            }
+
+            // First start with the name index - fill it in from the names on stored records
+            return queryPlayerNames(selectRecordNames)
+                    .thenCompose(recordNames -> savePlayerNames(recordNames).thenApply(v -> recordNames));
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> savePlayerNames(List<PlayerName> names) {
+        if (names.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<PlayerName> toSave = new ArrayList<>(names);
+        return write(connection -> {
+            for (int start = 0; start < toSave.size(); start += BULK_BATCH_SIZE) {
+                upsertPlayerNames(connection, toSave.subList(start, Math.min(start + BULK_BATCH_SIZE, toSave.size())));
+            }
+        }).exceptionally(logFailure("Failed to save player names", null));
+    }
+
+    private CompletableFuture<List<PlayerName>> queryPlayerNames(SqlStatement query) {
+        return executor.supply(Lane.READ, () -> {
+            List<PlayerName> names = new ArrayList<>();
+
+            try (Connection connection = getConnection();
+                 PreparedStatement ps = query.prepare(connection)) {
+
+                // Stream the rows rather than buffering the whole result
+                ps.setFetchSize(getStreamingFetchSize());
+
+                try (SqlStatement.Execution timing = query.start();
+                     ResultSet rs = timing.executeQuery(ps)) {
+                    while (rs.next()) {
+                        String uuid = getUuidString(rs, "player_uuid");
+                        String name = rs.getString("name");
+                        if (uuid == null || name == null) {
+                            continue;
+                        }
+
+                        // The console issues punishments under the nil UUID
+                        UUID playerUuid = UUID.fromString(uuid);
+                        if (playerUuid.getMostSignificantBits() == 0L && playerUuid.getLeastSignificantBits() == 0L) {
+                            continue;
+                        }
+
+                        names.add(new PlayerName(playerUuid, name, rs.getLong("last_seen")));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+
+            return names;
+        });
+    }
+
+    private CompletableFuture<Map<UUID, Map<String, Integer>>> queryOffenseCounts(Collection<UUID> uuids) {
+        List<UUID> players = new ArrayList<>(uuids);
+
+        return executor.supply(Lane.READ, () -> {
+            Map<UUID, Map<String, Integer>> counts = new HashMap<>();
+
+            try (Connection connection = getConnection()) {
+                // One query per batch of players instead of one each
+                for (int start = 0; start < players.size(); start += BULK_BATCH_SIZE) {
+                    List<UUID> batch = players.subList(start, Math.min(start + BULK_BATCH_SIZE, players.size()));
+
+                    try (PreparedStatement ps = selectOffenseCounts.prepare(connection, batch.size())) {
+
+                        for (int i = 0; i < batch.size(); i++) {
+                            setUuid(ps, i + 1, batch.get(i));
+                        }
+
+                        try (SqlStatement.Execution timing = selectOffenseCounts.start();
+                             ResultSet rs = timing.executeQuery(ps)) {
+                            while (rs.next()) {
+                                PunishmentType type = PunishmentType.fromString(rs.getString("type"));
+                                if (type == null) {
+                                    continue;
+                                }
+
+                                counts.computeIfAbsent(UUID.fromString(getUuidString(rs, "player_uuid")), k -> new HashMap<>())
+                                        .put(OffenseCounters.key(type, rs.getString("reason")), rs.getInt("count"));
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+
+            return counts;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> addPunishment(Punishment punishment) {
+        return write(connection -> {
+            insertPunishments(connection, Collections.singletonList(punishment));
+        }).thenRun(() -> {
+            // Add to cache once committed
+            updateCache(punishment);
+            offenseCounts.record(punishment);
+        }).exceptionally(e -> {
+            offenseCounts.release(punishment);
+            return SqlDataManager.<Void>logFailure("Failed to add punishment", null).apply(e);
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Punishment>> addPunishments(List<Punishment> punishments) {
+        List<CompletableFuture<List<Punishment>>> chunks = new ArrayList<>();
+
+        // Each chunk commits on its own, so a failure only loses that chunk and
+        // a huge wave does not hold one transaction open
+        for (int start = 0; start < punishments.size(); start += BULK_BATCH_SIZE) {
+            List<Punishment> chunk = new ArrayList<>(
+                    punishments.subList(start, Math.min(start + BULK_BATCH_SIZE, punishments.size())));
+
+            chunks.add(write(connection -> {
+                insertPunishments(connection, chunk);
+                return chunk;
+            }).thenApply(stored -> {
+                // Add to cache once committed
+                for (Punishment punishment : stored) {
+                    updateCache(punishment);
+                    offenseCounts.record(punishment);
+                }
+                return stored;
+            }).exceptionally(e -> {
+                for (Punishment punishment : chunk) {
+                    offenseCounts.release(punishment);
+                }
+                return SqlDataManager.<List<Punishment>>logFailure("Failed to add " + chunk.size() + " punishments",
+                        Collections.emptyList()).apply(e);
+            }));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            List<Punishment> stored = new ArrayList<>(punishments.size());
+            for (CompletableFuture<List<Punishment>> chunk : chunks) {
+                stored.addAll(chunk.join());
+            }
+            return stored;
+        });
+    }
+
+    private void insertPunishments(Connection connection, List<Punishment> punishments) throws SQLException {
+        // Insert punishments
+        try (PreparedStatement ps = insertPunishment.prepare(connection)) {
+
+            for (Punishment punishment : punishments) {
+                ps.setInt(1, punishment.getId());
+                setUuid(ps, 2, punishment.getTargetUuid());
+                ps.setString(3, punishment.getTargetName());
+                setUuid(ps, 4, punishment.getPunisherUuid());
+                ps.setString(5, punishment.getPunisherName());
+                ps.setString(6, punishment.getType().name());
+                ps.setString(7, punishment.getReason());
+                ps.setLong(8, punishment.getTimeIssued());
+                ps.setLong(9, punishment.getDuration());
+                ps.setLong(10, punishment.getExpiry());
+                ps.setBoolean(11, punishment.isActive());
+                ps.setString(12, punishment.getProofLink());
+                ps.setInt(13, punishment.getLevel());
+                ps.addBatch();
+            }
+
+            insertPunishment.executeBatch(ps);
+        }
+
+        // Insert history records
+        try (PreparedStatement ps = insertHistory.prepare(connection)) {
+
+            for (Punishment punishment : punishments) {
+                setUuid(ps, 1, punishment.getTargetUuid());
+                ps.setInt(2, punishment.getId());
+                ps.setString(3, punishment.getType().name());
+                ps.setString(4, punishment.getReason());
+                ps.setInt(5, punishment.getLevel());
+                ps.addBatch();
+            }
+
+            insertHistory.executeBatch(ps);
+        }
+
+        // Keep the offense counts in the same transaction as the history they count
+        incrementOffenseCounts(connection, punishments);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> revokePunishment(int id, UUID revokerUuid, String revokerName) {
+        return write(connection -> {
+            Punishment punishment;
+
+            // First, check if punishment exists and is active
+            try (PreparedStatement ps = selectActivePunishmentById.prepare(connection)) {
+
+                ps.setInt(1, id);
+
+                try (SqlStatement.Execution timing = selectActivePunishmentById.start();
+                     ResultSet rs = timing.executeQuery(ps)) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+
+                    // Get punishment data
+                    punishment = extractPunishmentFromResultSet(rs);
+                    punishment.revoke(revokerUuid, revokerName);
+                }
+            }
+
+            // Update punishment
+            try (PreparedStatement ps = updateRevoked.prepare(connection)) {
+
+                setUuid(ps, 1, revokerUuid);
+                ps.setString(2, revokerName);
+                ps.setLong(3, System.currentTimeMillis());
+                ps.setInt(4, id);
+
+                return updateRevoked.executeUpdate(ps) > 0 ? punishment : null;
+            }
+        }).thenApply(punishment -> {
+            if (punishment == null) {
+                return false;
+            }
+
+            // Remove from cache
+            updateCache(punishment);
+
+            return true;
+        }).exceptionally(logFailure("Failed to revoke punishment", false));
+    }
+
+    @Override
+    public CompletableFuture<Punishment> getPunishment(int id) {
+        return executor.supply(Lane.READ, () -> {
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = selectPunishmentById.prepare(connection)) {
+
+                    ps.setInt(1, id);
+
+                    try (SqlStatement.Execution timing = selectPunishmentById.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        if (rs.next()) {
+                            return extractPunishmentFromResultSet(rs);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to get punishment", e);
+            }
+
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Punishment>> getPlayerPunishments(UUID uuid) {
+        return executor.supply(Lane.READ, () -> {
+            List<Punishment> punishments = new ArrayList<>();
+
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = selectPunishmentsByTarget.prepare(connection)) {
+
+                    setUuid(ps, 1, uuid);
+
+                    try (SqlStatement.Execution timing = selectPunishmentsByTarget.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        while (rs.next()) {
+                            punishments.add(extractPunishmentFromResultSet(rs));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to get player punishments", e);
+            }
+
+            return punishments;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Punishment>> getPlayerPunishmentsPage(UUID uuid, PageCursor cursor, int limit) {
+        return executor.supply(Lane.READ, () -> {
+            List<Punishment> punishments = new ArrayList<>();
+
+            // Keyset pagination - seeks straight to the cursor on (target_uuid, time_issued, id)
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = selectPunishmentsPage.prepare(connection)) {
+
+                    setUuid(ps, 1, uuid);
+                    ps.setLong(2, cursor.getTimeIssued());
+                    ps.setLong(3, cursor.getTimeIssued());
+                    ps.setInt(4, cursor.getId());
+                    ps.setInt(5, limit);
+
+                    try (SqlStatement.Execution timing = selectPunishmentsPage.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        while (rs.next()) {
+                            punishments.add(extractPunishmentFromResultSet(rs));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to get player punishments page", e);
+            }
+
+            return punishments;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> countPlayerPunishments(UUID uuid) {
+        return executor.supply(Lane.READ, () -> {
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = countPunishments.prepare(connection)) {
+
+                    setUuid(ps, 1, uuid);
+
+                    try (SqlStatement.Execution timing = countPunishments.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        if (rs.next()) {
+                            return rs.getInt("count");
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to count player punishments", e);
+            }
+
+            return 0;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Punishment>> getActivePlayerPunishments(UUID uuid) {
+        return executor.supply(Lane.READ, () -> {
+            // Use cache for better performance
+            ActivePunishments cached = activePlayerPunishments.get(uuid);
+            if (cached != null) {
+                return livePunishments(cached, null);
+            }
+
+            List<Punishment> punishments = new ArrayList<>();
+
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = selectActiveByTarget.prepare(connection)) {
+
+                    setUuid(ps, 1, uuid);
+                    ps.setLong(2, System.currentTimeMillis());
+
+                    try (SqlStatement.Execution timing = selectActiveByTarget.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        while (rs.next()) {
+                            punishments.add(extractPunishmentFromResultSet(rs));
+                        }
+                    }
+                }
+
+                // Update cache, unless a write filled it in the meantime
+                activePlayerPunishments.putIfAbsent(uuid, ActivePunishments.of(punishments));
+                expiryQueue.addAll(punishments);
+
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to get active player punishments", e);
+            }
+
+            return punishments;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Punishment>> getActivePlayerPunishmentsByType(UUID uuid, PunishmentType type) {
+        return executor.supply(Lane.READ, () -> {
+            // Use cache for better performance
+            ActivePunishments cached = activePlayerPunishments.get(uuid);
+            if (cached != null) {
+                return livePunishments(cached, type);
+            }
+
+            List<Punishment> punishments = new ArrayList<>();
+
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = selectActiveByTargetAndType.prepare(connection)) {
+
+                    setUuid(ps, 1, uuid);
+                    ps.setString(2, type.name());
+                    ps.setLong(3, System.currentTimeMillis());
+
+                    try (SqlStatement.Execution timing = selectActiveByTargetAndType.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        while (rs.next()) {
+                            punishments.add(extractPunishmentFromResultSet(rs));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to get active player punishments by type", e);
+            }
+
+            return punishments;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Punishment>> getActivePunishments(PunishmentType type) {
+        return executor.supply(Lane.READ, () -> {
+            // The cache holds every active punishment loaded at startup
+            List<Punishment> punishments = new ArrayList<>();
+            for (ActivePunishments playerPunishments : activePlayerPunishments.values()) {
+                punishments.addAll(livePunishments(playerPunishments, type));
+            }
+
+            return punishments;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isPlayerBanned(UUID uuid) {
+        return executor.supply(Lane.READ, () -> {
+            // Use cache for better performance
+            ActivePunishments cached = activePlayerPunishments.get(uuid);
+            if (cached != null) {
+                return cached.isBanned(System.currentTimeMillis());
+            }
+
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = countActiveBans.prepare(connection)) {
+
+                    setUuid(ps, 1, uuid);
+                    ps.setLong(2, System.currentTimeMillis());
+
+                    try (SqlStatement.Execution timing = countActiveBans.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        if (rs.next()) {
+                            return rs.getInt("count") > 0;
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to check if player is banned", e);
+            }
+
+            return false;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isPlayerMuted(UUID uuid) {
+        return executor.supply(Lane.READ, () -> {
+            // Use cache for better performance
+            ActivePunishments cached = activePlayerPunishments.get(uuid);
+            if (cached != null) {
+                return cached.isMuted(System.currentTimeMillis());
+            }
+
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = countActiveMutes.prepare(connection)) {
+
+                    setUuid(ps, 1, uuid);
+                    ps.setLong(2, System.currentTimeMillis());
+
+                    try (SqlStatement.Execution timing = countActiveMutes.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        if (rs.next()) {
+                            return rs.getInt("count") > 0;
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to check if player is muted", e);
+            }
+
+            return false;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Report>> getUnprocessedReports() {
+        return executor.supply(Lane.READ, () -> {
+            List<Report> reports = new ArrayList<>();
+
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = selectPendingReports.prepare(connection)) {
+
+                    try (SqlStatement.Execution timing = selectPendingReports.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        while (rs.next()) {
+                            reports.add(extractReportFromResultSet(rs));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to get unprocessed reports", e);
+            }
+
+            return reports;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Report>> getPlayerReports(UUID uuid) {
+        return executor.supply(Lane.READ, () -> {
+            List<Report> reports = new ArrayList<>();
+
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = selectReportsByTarget.prepare(connection)) {
+
+                    setUuid(ps, 1, uuid);
+
+                    try (SqlStatement.Execution timing = selectReportsByTarget.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        while (rs.next()) {
+                            reports.add(extractReportFromResultSet(rs));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to get player reports", e);
+            }
+
+            return reports;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> addReport(Report report) {
+        return write(connection -> {
+            try (PreparedStatement ps = insertReport.prepare(connection)) {
+
+                ps.setInt(1, report.getId());
+                setUuid(ps, 2, report.getReporterUuid());
+                ps.setString(3, report.getReporterName());
+                setUuid(ps, 4, report.getReportedUuid());
+                ps.setString(5, report.getReportedName());
+                ps.setString(6, report.getReason());
+                ps.setLong(7, report.getTimeCreated());
+
+                insertReport.executeUpdate(ps);
+            }
+        }).exceptionally(logFailure("Failed to add report", null));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> processReport(int id, UUID processorUuid, String processorName, int punishmentId) {
+        return write(connection -> {
+            try (PreparedStatement ps = updateReportProcessed.prepare(connection)) {
+
+                setUuid(ps, 1, processorUuid);
+                ps.setString(2, processorName);
+                ps.setLong(3, System.currentTimeMillis());
+
+                if (punishmentId > 0) {
+                    ps.setInt(4, punishmentId);
+                } else {
+                    ps.setNull(4, Types.INTEGER);
+                }
+
+                ps.setInt(5, id);
+
+                return updateReportProcessed.executeUpdate(ps) > 0;
+            }
+        }).exceptionally(logFailure("Failed to process report", false));
+    }
+
+    @Override
+    public CompletableFuture<Report> getReport(int id) {
+        return executor.supply(Lane.READ, () -> {
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = selectReportById.prepare(connection)) {
+
+                    ps.setInt(1, id);
+
+                    try (SqlStatement.Execution timing = selectReportById.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        if (rs.next()) {
+                            return extractReportFromResultSet(rs);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to get report", e);
+            }
+
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> addAppeal(Appeal appeal) {
+        return write(connection -> {
+            try (PreparedStatement ps = insertAppeal.prepare(connection)) {
+
+                ps.setInt(1, appeal.getId());
+                ps.setInt(2, appeal.getPunishmentId());
+                setUuid(ps, 3, appeal.getPlayerUuid());
+                ps.setString(4, appeal.getPlayerName());
+                ps.setString(5, appeal.getReason());
+                ps.setString(6, appeal.getEvidence());
+                ps.setLong(7, appeal.getTimeCreated());
+                ps.setString(8, appeal.getStatus().name());
+
+                insertAppeal.executeUpdate(ps);
+            }
+        }).exceptionally(logFailure("Failed to add appeal", null));
+    }
+
+    @Override
+    public CompletableFuture<List<Appeal>> getPendingAppeals() {
+        return executor.supply(Lane.READ, () -> {
+            List<Appeal> appeals = new ArrayList<>();
+
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = selectPendingAppeals.prepare(connection)) {
+
+                    try (SqlStatement.Execution timing = selectPendingAppeals.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        while (rs.next()) {
+                            appeals.add(extractAppealFromResultSet(rs));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to get pending appeals", e);
+            }
+
+            return appeals;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Appeal>> getPlayerAppeals(UUID uuid) {
+        return executor.supply(Lane.READ, () -> {
+            List<Appeal> appeals = new ArrayList<>();
+
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = selectAppealsByPlayer.prepare(connection)) {
+
+                    setUuid(ps, 1, uuid);
+
+                    try (SqlStatement.Execution timing = selectAppealsByPlayer.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        while (rs.next()) {
+                            appeals.add(extractAppealFromResultSet(rs));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to get player appeals", e);
+            }
+
+            return appeals;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Appeal> getAppeal(int id) {
+        return executor.supply(Lane.READ, () -> {
+            try (Connection connection = getConnection()) {
+                try (PreparedStatement ps = selectAppealById.prepare(connection)) {
+
+                    ps.setInt(1, id);
+
+                    try (SqlStatement.Execution timing = selectAppealById.start();
+                         ResultSet rs = timing.executeQuery(ps)) {
+                        if (rs.next()) {
+                            return extractAppealFromResultSet(rs);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                LogUtil.severe("Failed to get appeal", e);
+            }
+
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> approveAppeal(int id, UUID reviewerUuid, String reviewerName, String comment) {
+        return reviewAppeal(id, Appeal.AppealStatus.APPROVED, reviewerUuid, reviewerName, comment)
+                .exceptionally(logFailure("Failed to approve appeal", false));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> denyAppeal(int id, UUID reviewerUuid, String reviewerName, String comment) {
+        return reviewAppeal(id, Appeal.AppealStatus.DENIED, reviewerUuid, reviewerName, comment)
+                .exceptionally(logFailure("Failed to deny appeal", false));
+    }
+
+    private CompletableFuture<Boolean> reviewAppeal(int id, Appeal.AppealStatus status, UUID reviewerUuid,
+                                                    String reviewerName, String comment) {
+        return write(connection -> {
+            try (PreparedStatement ps = updateAppealReview.prepare(connection)) {
+
+                ps.setString(1, status.name());
+                setUuid(ps, 2, reviewerUuid);
+                ps.setString(3, reviewerName);
+                ps.setLong(4, System.currentTimeMillis());
+                ps.setString(5, comment);
+                ps.setInt(6, id);
+
+                return updateAppealReview.executeUpdate(ps) > 0;
+            }
+        });
+    }
+
+    @Override
+    public void applyRemoteChange(Punishment punishment) {
+        updateCache(punishment);
+        offenseCounts.record(punishment);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> expirePunishment(Punishment punishment) {
+        // Readers should stop seeing it now, not once the write is through
+        uncache(punishment);
+
+        return write(connection -> {
+            try (PreparedStatement ps = deactivatePunishment.prepare(connection)) {
+
+                ps.setInt(1, punishment.getId());
+                return deactivatePunishment.executeUpdate(ps) > 0;
+            }
+        }).exceptionally(e -> {
+            // Leave it to the cleanup task
+            expiryQueue.add(punishment);
+            return SqlDataManager.<Boolean>logFailure("Failed to expire punishment", false).apply(e);
+        });
+    }
+
+    @Override
+    public void cleanupExpiredPunishments() {
+        List<Punishment> expired = expiryQueue.pollExpired(System.currentTimeMillis());
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        // Drop them from the cache one by one instead of reloading it
+        for (Punishment punishment : expired) {
+            uncache(punishment);
+        }
+
+        write(connection -> {
+            int count = 0;
+
+            for (int start = 0; start < expired.size(); start += EXPIRY_BATCH_SIZE) {
+                List<Punishment> batch = expired.subList(start, Math.min(start + EXPIRY_BATCH_SIZE, expired.size()));
+
+                try (PreparedStatement ps = deactivatePunishments.prepare(connection, batch.size())) {
+
+                    for (int i = 0; i < batch.size(); i++) {
+                        ps.setInt(i + 1, batch.get(i).getId());
+                    }
+                    count += deactivatePunishments.executeUpdate(ps);
+                }
+            }
+
+            return count;
+        }).thenAccept(count -> {
+            if (count > 0) {
+                LogUtil.info("Cleaned up " + count + " expired punishments");
+            }
+        }).exceptionally(e -> {
+            // Queue them again so the next cleanup retries
+            expiryQueue.addAll(expired);
+            return SqlDataManager.<Void>logFailure("Failed to cleanup expired punishments", null).apply(e);
+        });
+    }
+
+    @Override
+    public void cleanupOldReports() {
+        int daysToKeep = plugin.getConfigManager().getMainConfig().getInt("storage.reports-days-to-keep", 30);
+        if (daysToKeep <= 0) return; // Keep forever
+
+        write(connection -> {
+            try (PreparedStatement ps = deleteProcessedReports.prepare(connection)) {
+
+                long cutoffTime = System.currentTimeMillis() - (daysToKeep * 24 * 60 * 60 * 1000L);
+                ps.setLong(1, cutoffTime);
+
+                int count = deleteProcessedReports.executeUpdate(ps);
+
+                if (count > 0) {
+                    LogUtil.info("Cleaned up " + count + " old reports");
+                }
+            }
+        }).exceptionally(logFailure("Failed to cleanup old reports", null));
+    }
+}
@@ -0,0 +1,198 @@
+package com.judgementday.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A query whose text is rendered once, when the storage starts, instead of on every call.
+ * Because the text never changes, the driver's statement cache can hand back the same
+ * prepared statement each time. Executions through it are timed per statement; a query
+ * is timed until its results are closed, so reading the rows counts too.
+ *
+ * A statement containing {@value #IN_LIST} is completed with a list of placeholders when
+ * prepared; the text for each list size is built once and kept.
+ */
+public class SqlStatement {
+
+    /**
+     * Token replaced with the placeholders of an IN list
+     */
+    public static final String IN_LIST = "{in}";
+
+    private final String name;
+    private final String sql;
+
+    // Texts by IN list size, for statements with a list
+    private final Map<Integer, String> expanded = new ConcurrentHashMap<>();
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Create a statement
+     *
+     * @param name Name shown in the timings
+     * @param sql Statement text, with table names already prefixed
+     */
+    public SqlStatement(String name, String sql) {
+        this.name = name;
+        this.sql = sql;
+    }
+
+    /**
+     * Prepare the statement
+     *
+     * @param connection The connection to use
+     * @return The prepared statement
+     * @throws SQLException If the statement could not be prepared
+     */
+    public PreparedStatement prepare(Connection connection) throws SQLException {
+        return connection.prepareStatement(sql);
+    }
+
+    /**
+     * Prepare the statement with an IN list of the given size
+     *
+     * @param connection The connection to use
+     * @param listSize Number of values in the list
+     * @return The prepared statement
+     * @throws SQLException If the statement could not be prepared
+     */
+    public PreparedStatement prepare(Connection connection, int listSize) throws SQLException {
+        return connection.prepareStatement(expanded.computeIfAbsent(listSize,
+                size -> sql.replace(IN_LIST, placeholders(size))));
+    }
+
+    /**
+     * Start timing a query prepared from this statement. Open it in the same try block as
+     * the results, before them, so it is closed once the rows have been read:
+     * <pre>
+     * try (SqlStatement.Execution timing = statement.start();
+     *      ResultSet rs = timing.executeQuery(ps)) {
+     * </pre>
+     *
+     * @return The running execution
+     */
+    public Execution start() {
+        return new Execution(System.nanoTime());
+    }
+
+    /**
+     * Run an update prepared from this statement
+     *
+     * @param ps The prepared statement
+     * @return Number of rows changed
+     * @throws SQLException If the update failed
+     */
+    public int executeUpdate(PreparedStatement ps) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return ps.executeUpdate();
+        } finally {
+            record(start);
+        }
+    }
+
+    /**
+     * Run the batch added to a statement prepared from this one
+     *
+     * @param ps The prepared statement
+     * @return Number of rows changed per batch entry
+     * @throws SQLException If the batch failed
+     */
+    public int[] executeBatch(PreparedStatement ps) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return ps.executeBatch();
+        } finally {
+            record(start);
+        }
+    }
+
+    /**
+     * A query being timed, from {@link #start()} until it is closed
+     */
+    public class Execution implements AutoCloseable {
+
+        private final long start;
+
+        private Execution(long start) {
+            this.start = start;
+        }
+
+        /**
+         * Run the query
+         *
+         * @param ps The prepared statement
+         * @return The results
+         * @throws SQLException If the query failed
+         */
+        public ResultSet executeQuery(PreparedStatement ps) throws SQLException {
+            return ps.executeQuery();
+        }
+
+        @Override
+        public void close() {
+            record(start);
+        }
+    }
+
+    private void record(long start) {
+        long elapsed = System.nanoTime() - start;
+        executions.increment();
+        totalNanos.add(elapsed);
+        maxNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        return placeholders.toString();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public long getExecutionCount() {
+        return executions.sum();
+    }
+
+    public long getTotalTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+    }
+
+    public long getMaxTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+    }
+
+    /**
+     * Get the mean time per execution
+     *
+     * @return Mean time in milliseconds, or 0 if never run
+     */
+    public double getMeanTimeMillis() {
+        long count = executions.sum();
+        return count == 0 ? 0.0 : totalNanos.sum() / (double) count / 1000000.0;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + getExecutionCount() + " runs, " + getTotalTimeMillis() + " ms total, " +
+                String.format("%.2f", getMeanTimeMillis()) + " ms mean, " + getMaxTimeMillis() + " ms max";
+    }
+}
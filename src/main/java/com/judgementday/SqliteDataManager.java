@@ -0,0 +1,340 @@
+package com.judgementday.data;
+
+import com.judgementday.JudgementDay;
+import com.judgementday.data.DataExecutor.Lane;
+import com.judgementday.model.PlayerName;
+import com.judgementday.model.Punishment;
+import com.judgementday.util.LogUtil;
+import com.judgementday.util.PhaseTimer;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Embedded SQLite storage. The database runs in WAL mode, so readers never wait for the
+ * writer: reads use a small pool of connections, while all writes go through a single
+ * {@link SqliteWriter} that commits queued writes together.
+ */
+public class SqliteDataManager extends SqlDataManager {
+
+    private final File databaseFile;
+    private HikariDataSource readPool;
+    private SqliteWriter writer;
+
+    private final SqlStatement insertOffenseCount;
+    private final SqlStatement incrementOffenseCount;
+    private final SqlStatement insertPlayerName;
+    private final SqlStatement updatePlayerName;
+
+    public SqliteDataManager(JudgementDay plugin) {
+        super(plugin, plugin.getConfigManager().getMainConfig().getString("storage.sqlite.table-prefix", "jd_"));
+
+        FileConfiguration config = plugin.getConfigManager().getMainConfig();
+        this.databaseFile = new File(plugin.getDataFolder(), config.getString("storage.sqlite.file", "judgementday.db"));
+
+        this.insertOffenseCount = statement("offense-counts.insert",
+                "INSERT OR IGNORE INTO " + tablePrefix + "offense_counts (player_uuid, type, reason, count) " +
+                        "VALUES (?, ?, ?, 0)");
+        this.incrementOffenseCount = statement("offense-counts.increment",
+                "UPDATE " + tablePrefix + "offense_counts SET count = count + 1 " +
+                        "WHERE player_uuid = ? AND type = ? AND reason = ?");
+        this.insertPlayerName = statement("player-names.insert",
+                "INSERT OR IGNORE INTO " + tablePrefix + "player_names (player_uuid, name, name_lower, last_seen) " +
+                        "VALUES (?, ?, ?, ?)");
+        this.updatePlayerName = statement("player-names.update",
+                "UPDATE " + tablePrefix + "player_names SET name = ?, last_seen = ? " +
+                        "WHERE player_uuid = ? AND name_lower = ? AND last_seen < ?");
+    }
+
+    @Override
+    public void initialize() {
+        try {
+            try {
+                Class.forName("org.sqlite.JDBC");
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("SQLite JDBC driver not found", e);
+            }
+
+            PhaseTimer timer = new PhaseTimer();
+            FileConfiguration config = plugin.getConfigManager().getMainConfig();
+            String jdbcUrl = "jdbc:sqlite:" + databaseFile.getAbsolutePath();
+
+            // Write connection - also creates the schema before the readers open
+            Connection writeConnection = DriverManager.getConnection(jdbcUrl);
+            try {
+                try (Statement statement = writeConnection.createStatement()) {
+                    statement.execute("PRAGMA journal_mode = WAL");
+                    statement.execute("PRAGMA synchronous = NORMAL");
+                    statement.execute("PRAGMA foreign_keys = ON");
+                    statement.execute("PRAGMA busy_timeout = 5000");
+                }
+
+                // Create tables if they don't exist
+                createTables(writeConnection);
+
+                writer = new SqliteWriter(writeConnection, executor.getExecutor(Lane.WRITE),
+                        config.getInt("storage.executor.queue-size", 1000),
+                        config.getInt("storage.sqlite.max-batch-size", 64));
+            } catch (SQLException e) {
+                writeConnection.close();
+                throw e;
+            }
+            writer.start();
+
+            openReadPool(jdbcUrl, config);
+            timer.mark("schema");
+
+            loadInitialData(timer);
+        } catch (SQLException e) {
+            LogUtil.severe("Failed to initialize SQLite database", e);
+            close();
+            throw new RuntimeException("Failed to initialize SQLite database", e);
+        }
+    }
+
+    private void openReadPool(String jdbcUrl, FileConfiguration config) throws SQLException {
+        int readConnections = Math.max(1, config.getInt("storage.sqlite.read-connections", 4));
+
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName("JudgementDay-SQLite");
+        hikariConfig.setDriverClassName("org.sqlite.JDBC");
+        hikariConfig.setJdbcUrl(jdbcUrl);
+        hikariConfig.setMaximumPoolSize(readConnections);
+        hikariConfig.setMinimumIdle(readConnections);
+        hikariConfig.setConnectionTimeout(5000L);
+
+        // Readers never write; busy_timeout covers the brief WAL checkpoint locks
+        hikariConfig.setConnectionInitSql("PRAGMA query_only = ON");
+        hikariConfig.addDataSourceProperty("busy_timeout", "5000");
+
+        try {
+            readPool = new HikariDataSource(hikariConfig);
+        } catch (RuntimeException e) {
+            throw new SQLException("Failed to create SQLite read pool", e);
+        }
+    }
+
+    @Override
+    protected Connection getConnection() throws SQLException {
+        return readPool.getConnection();
+    }
+
+    @Override
+    protected <T> CompletableFuture<T> write(SqlWork<T> work) {
+        return writer.submit(work);
+    }
+
+    @Override
+    public void close() {
+        // Commit queued writes before the readers go away
+        if (writer != null) {
+            writer.shutdown(plugin.getConfigManager().getMainConfig().getLong("storage.executor.shutdown-timeout", 10L));
+            writer = null;
+        }
+
+        if (readPool != null && !readPool.isClosed()) {
+            readPool.close();
+        }
+    }
+
+    @Override
+    protected void incrementOffenseCounts(Connection connection, List<Punishment> punishments) throws SQLException {
+        // Writes are serialized on the writer thread, so creating the row and then
+        // incrementing it cannot race (and needs no upsert support from the driver)
+        try (PreparedStatement insert = insertOffenseCount.prepare(connection);
+             PreparedStatement update = incrementOffenseCount.prepare(connection)) {
+
+            for (Punishment punishment : punishments) {
+                setUuid(insert, 1, punishment.getTargetUuid());
+                insert.setString(2, punishment.getType().name());
+                insert.setString(3, punishment.getReason());
+                insert.addBatch();
+
+                setUuid(update, 1, punishment.getTargetUuid());
+                update.setString(2, punishment.getType().name());
+                update.setString(3, punishment.getReason());
+                update.addBatch();
+            }
+
+            // All inserts before all updates, so every row exists when it is incremented
+            insertOffenseCount.executeBatch(insert);
+            incrementOffenseCount.executeBatch(update);
+        }
+    }
+
+    @Override
+    protected void upsertPlayerNames(Connection connection, List<PlayerName> names) throws SQLException {
+        // Same approach as the offense counts: create missing rows, then move the rest forward
+        try (PreparedStatement insert = insertPlayerName.prepare(connection);
+             PreparedStatement update = updatePlayerName.prepare(connection)) {
+
+            for (PlayerName name : names) {
+                setUuid(insert, 1, name.getUuid());
+                insert.setString(2, name.getName());
+                insert.setString(3, name.getKey());
+                insert.setLong(4, name.getLastSeen());
+                insert.addBatch();
+
+                update.setString(1, name.getName());
+                update.setLong(2, name.getLastSeen());
+                setUuid(update, 3, name.getUuid());
+                update.setString(4, name.getKey());
+                update.setLong(5, name.getLastSeen());
+                update.addBatch();
+            }
+
+            insertPlayerName.executeBatch(insert);
+            updatePlayerName.executeBatch(update);
+        }
+    }
+
+    @Override
+    protected void createTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // Punishments table
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "punishments (" +
+                            "id INTEGER PRIMARY KEY, " +
+                            "target_uuid VARCHAR(36) NOT NULL, " +
+                            "target_name VARCHAR(16) NOT NULL, " +
+                            "punisher_uuid VARCHAR(36) NOT NULL, " +
+                            "punisher_name VARCHAR(16) NOT NULL, " +
+                            "type VARCHAR(16) NOT NULL, " +
+                            "reason VARCHAR(255) NOT NULL, " +
+                            "time_issued BIGINT NOT NULL, " +
+                            "duration BIGINT NOT NULL, " +
+                            "expiry BIGINT NOT NULL, " +
+                            "active BOOLEAN NOT NULL DEFAULT TRUE, " +
+                            "proof_link TEXT, " +
+                            "level INT NOT NULL DEFAULT 1, " +
+                            "revoker_uuid VARCHAR(36), " +
+                            "revoker_name VARCHAR(16), " +
+                            "time_revoked BIGINT)"
+            );
+            createIndex(statement, "punishments", "target_active", "target_uuid, type, active, expiry");
+            createIndex(statement, "punishments", "target_history", "target_uuid, time_issued, id");
+            createIndex(statement, "punishments", "active_expiry", "active, expiry");
+            dropIndex(statement, "punishments", "target_uuid");
+            dropIndex(statement, "punishments", "active");
+            dropIndex(statement, "punishments", "type");
+
+            // Player punishment history table
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "punishment_history (" +
+                            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "player_uuid VARCHAR(36) NOT NULL, " +
+                            "punishment_id INT NOT NULL, " +
+                            "type VARCHAR(16) NOT NULL, " +
+                            "reason VARCHAR(255) NOT NULL, " +
+                            "level INT NOT NULL, " +
+                            "FOREIGN KEY (punishment_id) REFERENCES " + tablePrefix + "punishments(id) ON DELETE CASCADE)"
+            );
+            createIndex(statement, "punishment_history", "player_uuid", "player_uuid");
+            createIndex(statement, "punishment_history", "type_reason", "type, reason");
+
+            // Reports table
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "reports (" +
+                            "id INTEGER PRIMARY KEY, " +
+                            "reporter_uuid VARCHAR(36) NOT NULL, " +
+                            "reporter_name VARCHAR(16) NOT NULL, " +
+                            "reported_uuid VARCHAR(36) NOT NULL, " +
+                            "reported_name VARCHAR(16) NOT NULL, " +
+                            "reason TEXT NOT NULL, " +
+                            "time_created BIGINT NOT NULL, " +
+                            "processed BOOLEAN NOT NULL DEFAULT FALSE, " +
+                            "processor_uuid VARCHAR(36), " +
+                            "processor_name VARCHAR(16), " +
+                            "time_processed BIGINT, " +
+                            "result_punishment_id INT, " +
+                            "FOREIGN KEY (result_punishment_id) REFERENCES " + tablePrefix + "punishments(id) ON DELETE SET NULL)"
+            );
+            createIndex(statement, "reports", "reported_time", "reported_uuid, time_created");
+            createIndex(statement, "reports", "processed_time", "processed, time_created");
+            dropIndex(statement, "reports", "reported_uuid");
+            dropIndex(statement, "reports", "processed");
+
+            // Appeals table
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "appeals (" +
+                            "id INTEGER PRIMARY KEY, " +
+                            "punishment_id INT NOT NULL, " +
+                            "player_uuid VARCHAR(36) NOT NULL, " +
+                            "player_name VARCHAR(16) NOT NULL, " +
+                            "reason TEXT NOT NULL, " +
+                            "evidence TEXT, " +
+                            "time_created BIGINT NOT NULL, " +
+                            "status VARCHAR(16) NOT NULL DEFAULT 'PENDING', " +
+                            "reviewer_uuid VARCHAR(36), " +
+                            "reviewer_name VARCHAR(16), " +
+                            "time_reviewed BIGINT, " +
+                            "review_comment TEXT, " +
+                            "FOREIGN KEY (punishment_id) REFERENCES " + tablePrefix + "punishments(id) ON DELETE CASCADE)"
+            );
+            createIndex(statement, "appeals", "player_time", "player_uuid, time_created");
+            createIndex(statement, "appeals", "status_time", "status, time_created");
+            dropIndex(statement, "appeals", "player_uuid");
+            dropIndex(statement, "appeals", "status");
+
+            // Offense counts per player, type and reason, kept in step with the history
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "offense_counts (" +
+                            "player_uuid VARCHAR(36) NOT NULL, " +
+                            "type VARCHAR(16) NOT NULL, " +
+                            "reason VARCHAR(255) NOT NULL, " +
+                            "count INT NOT NULL, " +
+                            "PRIMARY KEY (player_uuid, type, reason))"
+            );
+
+            // Every name each player has been seen with, loaded into memory for name lookups
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "player_names (" +
+                            "player_uuid VARCHAR(36) NOT NULL, " +
+                            "name VARCHAR(16) NOT NULL, " +
+                            "name_lower VARCHAR(16) NOT NULL, " +
+                            "last_seen BIGINT NOT NULL, " +
+                            "PRIMARY KEY (player_uuid, name_lower))"
+            );
+
+            // Id sequences, shared by every server using this database
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "sequences (" +
+                            "name VARCHAR(32) PRIMARY KEY, " +
+                            "next_id INT NOT NULL)"
+            );
+
+            // Change log polled by the other servers sharing this database
+            // AUTOINCREMENT so ids are never reused once old rows are pruned
+            statement.executeUpdate(
+                    "CREATE TABLE IF NOT EXISTS " + tablePrefix + "punishment_changes (" +
+                            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "origin VARCHAR(36) NOT NULL, " +
+                            "kind VARCHAR(16) NOT NULL, " +
+                            "punishment_id INT NOT NULL, " +
+                            "target_uuid VARCHAR(36) NOT NULL, " +
+                            "time_created BIGINT NOT NULL)"
+            );
+            createIndex(statement, "punishment_changes", "time_created", "time_created");
+        }
+    }
+
+    private void createIndex(Statement statement, String table, String name, String columns) throws SQLException {
+        // SQLite index names are database-wide, so they carry the table name
+        statement.executeUpdate("CREATE INDEX IF NOT EXISTS " + tablePrefix + table + "_idx_" + name +
+                " ON " + tablePrefix + table + " (" + columns + ")");
+    }
+
+    private void dropIndex(Statement statement, String table, String name) throws SQLException {
+        // Single-column indexes made redundant by the composite ones above
+        statement.executeUpdate("DROP INDEX IF EXISTS " + tablePrefix + table + "_idx_" + name);
+    }
+}
@@ -0,0 +1,216 @@
+package com.judgementday.data;
+
+import com.judgementday.data.SqlDataManager.SqlWork;
+import com.judgementday.util.LogUtil;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single writer thread for SQLite. SQLite allows one writer at a time, so every write goes
+ * through one connection; writes queued while a transaction is committing are grouped into
+ * the next transaction, so a burst of punishments costs one fsync instead of one each.
+ * Each write runs inside its own savepoint, so a failing write does not undo the others.
+ *
+ * Futures are completed on another executor once the transaction has committed, never on the
+ * writer thread, so a callback that queues another write cannot run it outside a transaction.
+ * Callbacks should chain further writes with {@code thenCompose} rather than block on them:
+ * a blocked callback holds a completion thread that later writes may need.
+ */
+public class SqliteWriter {
+
+    private static final class PendingWrite<T> {
+        private final SqlWork<T> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private Throwable failure;
+
+        private PendingWrite(SqlWork<T> work) {
+            this.work = work;
+        }
+
+        private void run(Connection connection) throws SQLException {
+            result = work.run(connection);
+        }
+
+        private void fail(Throwable e) {
+            failure = e;
+            complete();
+        }
+
+        private void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+
+    private final Connection connection;
+    private final Executor completionExecutor;
+    private final BlockingQueue<PendingWrite<?>> queue;
+    private final int maxBatchSize;
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    /**
+     * Create a writer. The connection is owned by the writer from now on.
+     *
+     * @param connection The write connection
+     * @param completionExecutor Executor that completes the futures of committed writes
+     * @param queueSize Maximum number of queued writes
+     * @param maxBatchSize Maximum number of writes committed in one transaction
+     * @throws SQLException If the connection could not be switched to manual commits
+     */
+    public SqliteWriter(Connection connection, Executor completionExecutor, int queueSize, int maxBatchSize)
+            throws SQLException {
+        this.connection = connection;
+        this.completionExecutor = completionExecutor;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+
+        connection.setAutoCommit(false);
+
+        this.thread = new Thread(this::runLoop, "JudgementDay-SQLite-writer");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Queue work for the next transaction. Work submitted while a transaction is running,
+     * including from inside another write, goes into the next one.
+     *
+     * @param work The work to run
+     * @return A future that completes once the work has been committed
+     */
+    public <T> CompletableFuture<T> submit(SqlWork<T> work) {
+        PendingWrite<T> write = new PendingWrite<>(work);
+
+        if (!running || !queue.offer(write)) {
+            write.future.completeExceptionally(new RejectedExecutionException(
+                    "JudgementDay SQLite write queue is " + (running ? "full" : "closed")));
+        }
+
+        return write.future;
+    }
+
+    /**
+     * Get the number of writes waiting for the next transaction
+     *
+     * @return Current queue depth
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Stop accepting writes, commit everything already queued and close the connection
+     *
+     * @param timeoutSeconds Maximum time to wait for the queue to drain
+     */
+    public void shutdown(long timeoutSeconds) {
+        running = false;
+
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(timeoutSeconds));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (thread.isAlive()) {
+            LogUtil.warning("Timed out waiting for " + queue.size() + " SQLite writes to finish");
+            thread.interrupt();
+        }
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LogUtil.warning("Failed to close SQLite write connection: " + e.getMessage());
+        }
+    }
+
+    private void runLoop() {
+        List<PendingWrite<?>> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                // Poll rather than take, so a shutdown is noticed while idle
+                PendingWrite<?> first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // Anything left after an interrupted shutdown is lost - tell the callers
+        PendingWrite<?> write;
+        while ((write = queue.poll()) != null) {
+            write.fail(new RejectedExecutionException("JudgementDay SQLite writer stopped"));
+        }
+    }
+
+    private void commit(List<PendingWrite<?>> batch) {
+        try {
+            for (PendingWrite<?> write : batch) {
+                Savepoint savepoint = connection.setSavepoint();
+
+                try {
+                    write.run(connection);
+                    connection.releaseSavepoint(savepoint);
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback(savepoint);
+                    write.failure = e;
+                }
+            }
+
+            connection.commit();
+        } catch (SQLException e) {
+            LogUtil.severe("Failed to commit " + batch.size() + " SQLite writes", e);
+
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {}
+
+            for (PendingWrite<?> write : batch) {
+                write.failure = e;
+            }
+        }
+
+        List<PendingWrite<?>> committed = new ArrayList<>(batch);
+        try {
+            completionExecutor.execute(() -> {
+                for (PendingWrite<?> write : committed) {
+                    write.complete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The executor is full or stopped (shutdown). Leaving the futures pending would hang
+            // their callers, and a write queued from a callback still goes into the next batch.
+            for (PendingWrite<?> write : committed) {
+                write.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.judgementday.manager;
+
+import com.judgementday.JudgementDay;
+import com.judgementday.util.LogUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The online staff members who receive each kind of notification. Membership is worked out
+ * when a player joins or changes world and re-checked periodically to pick up permission
+ * changes, so a broadcast only visits the staff online instead of checking the permission
+ * of every online player. Each staff member can choose per channel to get notifications
+ * straight away, as a periodic digest, or not at all; the choice is kept in
+ * notifications.yml.
+ */
+public class StaffAudience {
+
+    /**
+     * A kind of staff notification
+     */
+    public enum Channel {
+        STAFF("judgementday.staff"),
+        REPORTS("judgementday.staff"),
+        APPEALS("judgementday.appeals");
+
+        private final String permission;
+
+        Channel(String permission) {
+            this.permission = permission;
+        }
+
+        public String getPermission() {
+            return permission;
+        }
+
+        public String getKey() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * Get a channel by name
+         *
+         * @param name Channel name, in any case
+         * @return The channel, or null if there is none by that name
+         */
+        public static Channel fromString(String name) {
+            for (Channel channel : values()) {
+                if (channel.getKey().equalsIgnoreCase(name)) {
+                    return channel;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * How a staff member wants a channel's notifications
+     */
+    public enum Delivery {
+        INSTANT,
+        DIGEST,
+        MUTE;
+
+        public String getKey() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * Get a delivery by name
+         *
+         * @param name Delivery name, in any case
+         * @return The delivery, or null if there is none by that name
+         */
+        public static Delivery fromString(String name) {
+            for (Delivery delivery : values()) {
+                if (delivery.getKey().equalsIgnoreCase(name)) {
+                    return delivery;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final JudgementDay plugin;
+    private final File file;
+
+    // Online members of each channel
+    private final Map<Channel, Map<UUID, Player>> members = new EnumMap<>(Channel.class);
+
+    // Only choices other than instant are kept
+    private final Map<UUID, Map<Channel, Delivery>> preferences = new ConcurrentHashMap<>();
+
+    // Notifications waiting for the next digest
+    private final Map<UUID, Queue<String>> digests = new ConcurrentHashMap<>();
+
+    private BukkitTask refreshTask;
+    private BukkitTask digestTask;
+
+    public StaffAudience(JudgementDay plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "notifications.yml");
+
+        for (Channel channel : Channel.values()) {
+            members.put(channel, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Load the delivery choices, add the players already online and start the periodic
+     * permission checks and digests
+     */
+    public void start() {
+        loadPreferences();
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            refresh(player);
+        }
+
+        FileConfiguration config = plugin.getConfigManager().getMainConfig();
+        long refreshInterval = config.getLong("notifications.audience-refresh", 30L);
+        if (refreshInterval > 0) {
+            refreshTask = Bukkit.getScheduler().runTaskTimer(plugin, this::refreshAll,
+                    20 * refreshInterval, 20 * refreshInterval); // Convert seconds to ticks
+        }
+
+        long digestInterval = Math.max(1L, config.getLong("notifications.digest-interval", 300L));
+        digestTask = Bukkit.getScheduler().runTaskTimer(plugin, this::sendDigests,
+                20 * digestInterval, 20 * digestInterval); // Convert seconds to ticks
+    }
+
+    /**
+     * Stop the periodic tasks and send the digests still waiting
+     */
+    public void close() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+        }
+        if (digestTask != null) {
+            digestTask.cancel();
+        }
+        sendDigests();
+    }
+
+    /**
+     * Work out which channels a player belongs to, e.g. after a permission change
+     *
+     * @param player The player
+     */
+    public void refresh(Player player) {
+        for (Channel channel : Channel.values()) {
+            if (player.hasPermission(channel.getPermission())) {
+                members.get(channel).put(player.getUniqueId(), player);
+            } else {
+                members.get(channel).remove(player.getUniqueId());
+            }
+        }
+    }
+
+    /**
+     * Remove a player who left from every channel
+     *
+     * @param player The player
+     */
+    public void remove(Player player) {
+        UUID uuid = player.getUniqueId();
+        for (Map<UUID, Player> channelMembers : members.values()) {
+            channelMembers.remove(uuid);
+        }
+
+        // Waiting notifications are of no use on the next login
+        digests.remove(uuid);
+    }
+
+    /**
+     * Send a notification to the members of a channel, as each of them prefers
+     *
+     * @param channel The channel
+     * @param message The formatted message
+     */
+    public void broadcast(Channel channel, String message) {
+        for (Player player : members.get(channel).values()) {
+            switch (getDelivery(player.getUniqueId(), channel)) {
+                case INSTANT:
+                    player.sendMessage(message);
+                    break;
+                case DIGEST:
+                    digests.computeIfAbsent(player.getUniqueId(), uuid -> new ConcurrentLinkedQueue<>()).add(message);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Check whether a player is a member of a channel
+     *
+     * @param uuid Player UUID
+     * @param channel The channel
+     * @return True if the player is online and gets the channel's notifications
+     */
+    public boolean isMember(UUID uuid, Channel channel) {
+        return members.get(channel).containsKey(uuid);
+    }
+
+    /**
+     * Get the number of online members of a channel
+     *
+     * @param channel The channel
+     * @return Number of members
+     */
+    public int getMemberCount(Channel channel) {
+        return members.get(channel).size();
+    }
+
+    /**
+     * Get how a staff member wants a channel's notifications
+     *
+     * @param uuid Staff member UUID
+     * @param channel The channel
+     * @return The delivery, instant unless chosen otherwise
+     */
+    public Delivery getDelivery(UUID uuid, Channel channel) {
+        Map<Channel, Delivery> choices = preferences.get(uuid);
+        if (choices == null) {
+            return Delivery.INSTANT;
+        }
+        return choices.getOrDefault(channel, Delivery.INSTANT);
+    }
+
+    /**
+     * Set how a staff member wants a channel's notifications, and save the choice
+     *
+     * @param uuid Staff member UUID
+     * @param channel The channel
+     * @param delivery The delivery
+     */
+    public void setDelivery(UUID uuid, Channel channel, Delivery delivery) {
+        if (delivery == Delivery.INSTANT) {
+            preferences.computeIfPresent(uuid, (id, choices) -> {
+                choices.remove(channel);
+                return choices.isEmpty() ? null : choices;
+            });
+        } else {
+            preferences.computeIfAbsent(uuid, id -> Collections.synchronizedMap(new EnumMap<>(Channel.class)))
+                    .put(channel, delivery);
+        }
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, this::savePreferences);
+    }
+
+    private void refreshAll() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            refresh(player);
+        }
+    }
+
+    private void sendDigests() {
+        int maxLines = plugin.getConfigManager().getMainConfig().getInt("notifications.digest-max-lines", 10);
+
+        for (Map.Entry<UUID, Queue<String>> entry : digests.entrySet()) {
+            Player player = Bukkit.getPlayer(entry.getKey());
+            Queue<String> queue = entry.getValue();
+            if (player == null || queue.isEmpty()) {
+                continue;
+            }
+
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = queue.poll()) != null) {
+                lines.add(line);
+            }
+
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("count", String.valueOf(lines.size()));
+            player.sendMessage(plugin.getConfigManager().formatMessage("notifications.digest-header", placeholders));
+
+            // Latest notifications are the ones listed
+            for (String message : lines.subList(Math.max(0, lines.size() - maxLines), lines.size())) {
+                player.sendMessage(message);
+            }
+
+            if (lines.size() > maxLines) {
+                placeholders.put("count", String.valueOf(lines.size() - maxLines));
+                player.sendMessage(plugin.getConfigManager().formatMessage("notifications.digest-more", placeholders));
+            }
+        }
+    }
+
+    private void loadPreferences() {
+        if (!file.exists()) {
+            return;
+        }
+
+        FileConfiguration config = YamlConfiguration.loadConfiguration(file);
+        ConfigurationSection players = config.getConfigurationSection("players");
+        if (players == null) {
+            return;
+        }
+
+        for (String key : players.getKeys(false)) {
+            try {
+                UUID uuid = UUID.fromString(key);
+                for (Channel channel : Channel.values()) {
+                    Delivery delivery = Delivery.fromString(players.getString(key + "." + channel.getKey(), ""));
+                    if (delivery != null && delivery != Delivery.INSTANT) {
+                        preferences.computeIfAbsent(uuid, id -> Collections.synchronizedMap(new EnumMap<>(Channel.class)))
+                                .put(channel, delivery);
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                LogUtil.warning("Skipping notification preferences with invalid UUID: " + key);
+            }
+        }
+    }
+
+    private synchronized void savePreferences() {
+        FileConfiguration config = new YamlConfiguration();
+        for (Map.Entry<UUID, Map<Channel, Delivery>> entry : preferences.entrySet()) {
+            synchronized (entry.getValue()) {
+                for (Map.Entry<Channel, Delivery> choice : entry.getValue().entrySet()) {
+                    config.set("players." + entry.getKey() + "." + choice.getKey().getKey(), choice.getValue().getKey());
+                }
+            }
+        }
+
+        try {
+            config.save(file);
+        } catch (IOException e) {
+            LogUtil.severe("Could not save notifications.yml", e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.judgementday.command;
+
+import com.judgementday.JudgementDay;
+import com.judgementday.manager.StaffAudience;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+
+public class StaffNotifyCommand implements CommandExecutor, TabCompleter {
+
+    private final JudgementDay plugin;
+
+    public StaffNotifyCommand(JudgementDay plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        // Check if sender is a player
+        if (!(sender instanceof Player)) {
+            sender.sendMessage(plugin.getConfigManager().formatMessage("general.player-only", null));
+            return true;
+        }
+
+        Player player = (Player) sender;
+        StaffAudience audience = plugin.getStaffAudience();
+
+        // Pick up permission changes before answering
+        audience.refresh(player);
+
+        // No arguments - show the current choice for each channel
+        if (args.length == 0) {
+            boolean member = false;
+            for (StaffAudience.Channel channel : StaffAudience.Channel.values()) {
+                if (audience.isMember(player.getUniqueId(), channel)) {
+                    member = true;
+                    sendMessage(player, "notifications.status", channel,
+                            audience.getDelivery(player.getUniqueId(), channel));
+                }
+            }
+
+            if (!member) {
+                sendMessage(player, "general.no-permission", null, null);
+            }
+            return true;
+        }
+
+        StaffAudience.Channel channel = StaffAudience.Channel.fromString(args[0]);
+        StaffAudience.Delivery delivery = args.length > 1 ? StaffAudience.Delivery.fromString(args[1]) : null;
+        if (channel == null || delivery == null) {
+            sendMessage(player, "notifications.usage", null, null);
+            return true;
+        }
+
+        if (!audience.isMember(player.getUniqueId(), channel)) {
+            sendMessage(player, "notifications.not-member", channel, null);
+            return true;
+        }
+
+        audience.setDelivery(player.getUniqueId(), channel, delivery);
+        sendMessage(player, "notifications.updated", channel, delivery);
+
+        return true;
+    }
+
+    private void sendMessage(Player player, String key, StaffAudience.Channel channel, StaffAudience.Delivery delivery) {
+        Map<String, String> placeholders = new HashMap<>();
+        if (channel != null) {
+            placeholders.put("channel", channel.getKey());
+        }
+        if (delivery != null) {
+            placeholders.put("delivery", delivery.getKey());
+        }
+
+        player.sendMessage(plugin.getConfigManager().formatMessage(key, placeholders));
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length == 1) {
+            List<String> channels = new ArrayList<>();
+            for (StaffAudience.Channel channel : StaffAudience.Channel.values()) {
+                if (channel.getKey().startsWith(args[0].toLowerCase(Locale.ROOT))) {
+                    channels.add(channel.getKey());
+                }
+            }
+            return channels;
+        }
+
+        if (args.length == 2) {
+            List<String> deliveries = new ArrayList<>();
+            for (StaffAudience.Delivery delivery : StaffAudience.Delivery.values()) {
+                if (delivery.getKey().startsWith(args[1].toLowerCase(Locale.ROOT))) {
+                    deliveries.add(delivery.getKey());
+                }
+            }
+            return deliveries;
+        }
+
+        return Collections.emptyList();
+    }
+}
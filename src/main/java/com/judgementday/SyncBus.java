@@ -0,0 +1,144 @@
+package com.judgementday.sync;
+
+import com.judgementday.JudgementDay;
+import com.judgementday.data.DataManager;
+import com.judgementday.data.SqlChangeLogTransport;
+import com.judgementday.data.SqlDataManager;
+import com.judgementday.model.Punishment;
+import com.judgementday.util.LogUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Propagates issued and revoked punishments to the other servers sharing this plugin's
+ * storage. Receivers apply each change to their caches and indexes on its own, so a ban on
+ * one server kicks the player everywhere without any server reloading its data.
+ */
+public class SyncBus {
+
+    private final JudgementDay plugin;
+    private final String serverId;
+    private SyncTransport transport;
+
+    public SyncBus(JudgementDay plugin) {
+        this.plugin = plugin;
+
+        String configuredId = plugin.getConfigManager().getMainConfig().getString("sync.server-id", "");
+        this.serverId = configuredId == null || configuredId.isEmpty() ? UUID.randomUUID().toString() : configuredId;
+    }
+
+    /**
+     * Connect to the configured transport, if sync is enabled
+     */
+    public void start() {
+        FileConfiguration config = plugin.getConfigManager().getMainConfig();
+        if (!config.getBoolean("sync.enabled", false)) {
+            return;
+        }
+
+        String type = config.getString("sync.transport", "sql");
+        DataManager dataManager = plugin.getDataManager();
+
+        if (type.equalsIgnoreCase("local")) {
+            transport = new LocalSyncTransport(plugin.getName());
+        } else if (dataManager instanceof SqlDataManager) {
+            transport = new SqlChangeLogTransport(plugin, (SqlDataManager) dataManager,
+                    config.getLong("sync.poll-interval", 5L),
+                    config.getLong("sync.retention", 3600L) * 1000L);
+        } else {
+            LogUtil.warning("Cross-server sync needs mysql or sqlite storage; sync is disabled.");
+            return;
+        }
+
+        transport.start(this::receive);
+        LogUtil.info("Cross-server sync enabled (" + type + " transport, server id " + serverId + ")");
+    }
+
+    /**
+     * Tell the other servers a punishment was issued
+     *
+     * @param punishment The stored punishment
+     */
+    public void publishIssued(Punishment punishment) {
+        publish(SyncMessage.Kind.ISSUED, punishment);
+    }
+
+    /**
+     * Tell the other servers several punishments were issued
+     *
+     * @param punishments The stored punishments
+     */
+    public void publishIssued(List<Punishment> punishments) {
+        SyncTransport current = transport;
+        if (current == null || punishments.isEmpty()) {
+            return;
+        }
+
+        List<SyncMessage> messages = new ArrayList<>(punishments.size());
+        for (Punishment punishment : punishments) {
+            messages.add(new SyncMessage(serverId, SyncMessage.Kind.ISSUED, punishment.getId(), punishment.getTargetUuid()));
+        }
+
+        current.publishAll(messages).exceptionally(e -> {
+            LogUtil.warning("Failed to publish " + punishments.size() + " punishments: " + e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Tell the other servers a punishment was revoked
+     *
+     * @param punishment The revoked punishment
+     */
+    public void publishRevoked(Punishment punishment) {
+        publish(SyncMessage.Kind.REVOKED, punishment);
+    }
+
+    public void close() {
+        if (transport != null) {
+            transport.close();
+            transport = null;
+        }
+    }
+
+    private void publish(SyncMessage.Kind kind, Punishment punishment) {
+        SyncTransport current = transport;
+        if (current == null) {
+            return;
+        }
+
+        current.publish(new SyncMessage(serverId, kind, punishment.getId(), punishment.getTargetUuid()))
+                .exceptionally(e -> {
+                    LogUtil.warning("Failed to publish punishment #" + punishment.getId() + ": " + e.getMessage());
+                    return null;
+                });
+    }
+
+    private void receive(SyncMessage message) {
+        if (serverId.equals(message.getOrigin())) {
+            return;
+        }
+
+        // Read the current row rather than trusting the message, so late or repeated messages are harmless
+        plugin.getDataManager().getPunishment(message.getPunishmentId())
+                .thenAccept(punishment -> {
+                    if (punishment == null) {
+                        return;
+                    }
+
+                    plugin.getDataManager().applyRemoteChange(punishment);
+                    Bukkit.getScheduler().runTask(plugin, () ->
+                            plugin.getPunishmentManager().applyRemoteChange(punishment,
+                                    message.getKind() == SyncMessage.Kind.REVOKED));
+                })
+                .exceptionally(e -> {
+                    LogUtil.warning("Failed to apply punishment #" + message.getPunishmentId() +
+                            " from " + message.getOrigin() + ": " + e.getMessage());
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,44 @@
+package com.judgementday.sync;
+
+import java.util.UUID;
+
+/**
+ * Notice that a punishment was issued or revoked on one server. It carries only the
+ * punishment id; receivers read the current row, so duplicate or reordered notices are
+ * harmless.
+ */
+public class SyncMessage {
+
+    public enum Kind {
+        ISSUED,
+        REVOKED
+    }
+
+    private final String origin;
+    private final Kind kind;
+    private final int punishmentId;
+    private final UUID targetUuid;
+
+    public SyncMessage(String origin, Kind kind, int punishmentId, UUID targetUuid) {
+        this.origin = origin;
+        this.kind = kind;
+        this.punishmentId = punishmentId;
+        this.targetUuid = targetUuid;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getPunishmentId() {
+        return punishmentId;
+    }
+
+    public UUID getTargetUuid() {
+        return targetUuid;
+    }
+}
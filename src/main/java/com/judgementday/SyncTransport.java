@@ -0,0 +1,45 @@
+package com.judgementday.sync;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link SyncMessage}s between servers
+ */
+public interface SyncTransport {
+
+    /**
+     * Start delivering messages. Messages published by this server may be delivered too.
+     *
+     * @param receiver Called for every message, on any thread
+     */
+    void start(Consumer<SyncMessage> receiver);
+
+    /**
+     * Send a message to every server
+     *
+     * @param message The message
+     * @return A future that completes once the message has been sent
+     */
+    CompletableFuture<Void> publish(SyncMessage message);
+
+    /**
+     * Send several messages to every server
+     *
+     * @param messages The messages, in order
+     * @return A future that completes once every message has been sent
+     */
+    default CompletableFuture<Void> publishAll(List<SyncMessage> messages) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[messages.size()];
+        for (int i = 0; i < messages.size(); i++) {
+            futures[i] = publish(messages.get(i));
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Stop delivering messages and release any resources
+     */
+    void close();
+}
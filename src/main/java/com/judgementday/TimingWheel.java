@@ -0,0 +1,143 @@
+package com.judgementday.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Each wheel has a fixed number of slots of one tick each;
+ * items due beyond the wheel's span go to an overflow wheel whose ticks are as long as
+ * the whole inner wheel, created on demand. Scheduling is O(1) and advancing costs one
+ * slot per tick, however many items are waiting or how far ahead they are due.
+ *
+ * Items fire up to one tick early or late; there is no cancellation, so callers check
+ * whether a fired item is still wanted.
+ */
+public class TimingWheel<T> {
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long dueTime;
+
+        private Entry(T item, long dueTime) {
+            this.item = item;
+            this.dueTime = dueTime;
+        }
+    }
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long spanMillis;
+    private final List<Entry<T>>[] slots;
+
+    private long currentTime;
+    private TimingWheel<T> overflow;
+    private int size;
+
+    /**
+     * Create a wheel
+     *
+     * @param tickMillis Length of one slot in milliseconds
+     * @param wheelSize Number of slots
+     * @param startMillis Current time in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = Math.max(1L, tickMillis);
+        this.wheelSize = Math.max(2, wheelSize);
+        this.spanMillis = this.tickMillis * this.wheelSize;
+        this.slots = new List[this.wheelSize];
+        this.currentTime = startMillis - (startMillis % this.tickMillis);
+
+        for (int i = 0; i < this.wheelSize; i++) {
+            slots[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Schedule an item
+     *
+     * @param item The item
+     * @param dueTime Time in milliseconds the item is due
+     * @return false if the item is already due and was not scheduled
+     */
+    public synchronized boolean schedule(T item, long dueTime) {
+        return add(new Entry<>(item, dueTime));
+    }
+
+    /**
+     * Move the wheel forward and hand over every item that has become due
+     *
+     * @param now Current time in milliseconds
+     * @param due Called for each due item, while the wheel is locked
+     */
+    public synchronized void advance(long now, Consumer<T> due) {
+        List<Entry<T>> reached = new ArrayList<>();
+        collect(now, reached);
+
+        // Items from outer wheels move inward; those in the current tick are due
+        for (Entry<T> entry : reached) {
+            if (!add(entry)) {
+                due.accept(entry.item);
+            }
+        }
+    }
+
+    /**
+     * Get the number of scheduled items, including those in overflow wheels
+     *
+     * @return The number of items
+     */
+    public synchronized int size() {
+        return size + (overflow != null ? overflow.size() : 0);
+    }
+
+    public synchronized void clear() {
+        for (List<Entry<T>> slot : slots) {
+            slot.clear();
+        }
+        size = 0;
+        overflow = null;
+    }
+
+    private boolean add(Entry<T> entry) {
+        if (entry.dueTime < currentTime + tickMillis) {
+            return false;
+        }
+
+        if (entry.dueTime < currentTime + spanMillis) {
+            slots[(int) ((entry.dueTime / tickMillis) % wheelSize)].add(entry);
+            size++;
+            return true;
+        }
+
+        if (overflow == null) {
+            overflow = new TimingWheel<>(spanMillis, wheelSize, currentTime);
+        }
+        return overflow.add(entry);
+    }
+
+    private void collect(long now, List<Entry<T>> reached) {
+        long target = now - (now % tickMillis);
+
+        while (currentTime < target) {
+            currentTime += tickMillis;
+
+            List<Entry<T>> slot = slots[(int) ((currentTime / tickMillis) % wheelSize)];
+            if (!slot.isEmpty()) {
+                reached.addAll(slot);
+                size -= slot.size();
+                slot.clear();
+            }
+
+            // Nothing left in this wheel - skip the empty slots up to the target
+            if (size == 0 && currentTime < target) {
+                currentTime = target;
+            }
+        }
+
+        if (overflow != null) {
+            overflow.collect(now, reached);
+        }
+    }
+}
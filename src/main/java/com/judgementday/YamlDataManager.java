@@ -1,31 +1,38 @@
 package com.judgementday.data;
 
 import com.judgementday.JudgementDay;
+import com.judgementday.data.DataExecutor.Lane;
 import com.judgementday.model.Appeal;
+import com.judgementday.model.PlayerName;
 import com.judgementday.model.Punishment;
 import com.judgementday.model.PunishmentType;
 import com.judgementday.model.Report;
 import com.judgementday.util.LogUtil;
+import com.judgementday.util.PhaseTimer;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class YamlDataManager implements DataManager {
 
     private final JudgementDay plugin;
+    private final DataExecutor executor;
     private final File playerDataFile;
     private final File punishmentDataFile;
     private final File reportDataFile;
     private final File appealDataFile;
+    private final YamlJournal journal;
+    private BukkitTask flushTask;
 
     private FileConfiguration playerData;
     private FileConfiguration punishmentData;
@@ -36,30 +43,59 @@ public class YamlDataManager implements DataManager {
     private final AtomicInteger reportIdCounter = new AtomicInteger(1);
     private final AtomicInteger appealIdCounter = new AtomicInteger(1);
 
-    // Cache active punishments for better performance
-    private final Map<UUID, List<Punishment>> activePlayerPunishments = new ConcurrentHashMap<>();
+    // Indexes over the loaded records, newest first (punishments by time issued and id, matching PageCursor)
+    private final RecordIndex<Punishment> punishments = new RecordIndex<>(Punishment::getId, Punishment::getTargetUuid,
+            Punishment::isActive, Comparator.comparingLong(Punishment::getTimeIssued)
+                    .thenComparingInt(Punishment::getId).reversed());
+    private final RecordIndex<Report> reports = new RecordIndex<>(Report::getId, Report::getReportedUuid,
+            report -> !report.isProcessed(), Comparator.comparingLong(Report::getTimeCreated).reversed());
+    private final RecordIndex<Appeal> appeals = new RecordIndex<>(Appeal::getId, Appeal::getPlayerUuid,
+            appeal -> appeal.getStatus() == Appeal.AppealStatus.PENDING,
+            Comparator.comparingLong(Appeal::getTimeCreated).reversed());
+
+    // Offense counts for escalation, counted from the punishment index on first use
+    private final OffenseCounters offenseCounts = new OffenseCounters(this::countOffenses);
 
     public YamlDataManager(JudgementDay plugin) {
         this.plugin = plugin;
+        this.executor = plugin.getDataExecutor();
         this.playerDataFile = new File(plugin.getDataFolder(), "playerdata.yml");
         this.punishmentDataFile = new File(plugin.getDataFolder(), "punishments.yml");
         this.reportDataFile = new File(plugin.getDataFolder(), "reports.yml");
         this.appealDataFile = new File(plugin.getDataFolder(), "appeals.yml");
+
+        FileConfiguration config = plugin.getConfigManager().getMainConfig();
+        YamlSnapshotWriter snapshotWriter = new YamlSnapshotWriter(new File(plugin.getDataFolder(), "backups"),
+                config.getInt("storage.yaml.backups", 3));
+        this.journal = new YamlJournal(new File(plugin.getDataFolder(), "journal.log"), snapshotWriter, executor,
+                config.getLong("storage.yaml.flush-threshold", 262144L),
+                config.getBoolean("storage.yaml.fsync", false));
     }
 
     @Override
     public void initialize() {
+        PhaseTimer timer = new PhaseTimer();
+
         // Create files if they don't exist
         createFiles();
 
         // Load data
         loadData();
+        timer.mark("parse");
+
+        // Replay changes that were not flushed before the last shutdown
+        journal.recover();
+        timer.mark("journal");
 
-        // Initialize counters
-        initializeCounters();
+        // Index every record and initialize counters
+        loadIndexes();
+        timer.mark("index");
 
-        // Load active punishments into cache
-        loadActivePunishmentsCache();
+        // Write changed files out periodically
+        scheduleFlushTask();
+
+        LogUtil.info("Loaded " + punishments.size() + " punishments, " + reports.size() + " reports and " +
+                appeals.size() + " appeals in " + timer);
     }
 
     private void createFiles() {
@@ -86,450 +122,423 @@ public class YamlDataManager implements DataManager {
     }
 
     private void loadData() {
-        playerData = YamlConfiguration.loadConfiguration(playerDataFile);
-        punishmentData = YamlConfiguration.loadConfiguration(punishmentDataFile);
-        reportData = YamlConfiguration.loadConfiguration(reportDataFile);
-        appealData = YamlConfiguration.loadConfiguration(appealDataFile);
-    }
-
-    private void initializeCounters() {
-        // Initialize punishment ID counter
-        if (punishmentData.contains("punishments")) {
-            ConfigurationSection section = punishmentData.getConfigurationSection("punishments");
-            if (section != null) {
-                int maxId = 0;
-                for (String key : section.getKeys(false)) {
-                    try {
-                        int id = Integer.parseInt(key);
-                        if (id > maxId) {
-                            maxId = id;
-                        }
-                    } catch (NumberFormatException ignored) {}
-                }
-                punishmentIdCounter.set(maxId + 1);
-            }
+        // Parse the files in parallel - parsing is most of the startup time
+        CompletableFuture<YamlConfiguration> players = parseAsync(playerDataFile);
+        CompletableFuture<YamlConfiguration> punishmentFile = parseAsync(punishmentDataFile);
+        CompletableFuture<YamlConfiguration> reportFile = parseAsync(reportDataFile);
+        CompletableFuture<YamlConfiguration> appealFile = parseAsync(appealDataFile);
+
+        playerData = players.join();
+        punishmentData = punishmentFile.join();
+        reportData = reportFile.join();
+        appealData = appealFile.join();
+
+        journal.register(playerDataFile, playerData);
+        journal.register(punishmentDataFile, punishmentData);
+        journal.register(reportDataFile, reportData);
+        journal.register(appealDataFile, appealData);
+    }
+
+    private CompletableFuture<YamlConfiguration> parseAsync(File file) {
+        return executor.supply(Lane.READ, () -> YamlConfiguration.loadConfiguration(file));
+    }
+
+    private void scheduleFlushTask() {
+        long interval = plugin.getConfigManager().getMainConfig().getLong("storage.yaml.flush-interval", 5L);
+        if (interval > 0) {
+            flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, journal::requestFlush,
+                    20 * interval, 20 * interval); // Convert seconds to ticks
         }
+    }
 
-        // Initialize report ID counter
-        if (reportData.contains("reports")) {
-            ConfigurationSection section = reportData.getConfigurationSection("reports");
-            if (section != null) {
-                int maxId = 0;
-                for (String key : section.getKeys(false)) {
-                    try {
-                        int id = Integer.parseInt(key);
-                        if (id > maxId) {
-                            maxId = id;
-                        }
-                    } catch (NumberFormatException ignored) {}
-                }
-                reportIdCounter.set(maxId + 1);
-            }
+    private void loadIndexes() {
+        punishments.clear();
+        reports.clear();
+        appeals.clear();
+
+        // The only pass over the YAML structure - every query after this uses the indexes.
+        // Each record type is indexed in parallel, and its counter comes from the same pass.
+        CompletableFuture<Void> punishmentLoad = executor.run(Lane.READ, () -> punishmentIdCounter.set(
+                loadRecords(punishmentData, "punishments", data -> punishments.put(new Punishment(data))) + 1));
+        CompletableFuture<Void> reportLoad = executor.run(Lane.READ, () -> reportIdCounter.set(
+                loadRecords(reportData, "reports", data -> reports.put(new Report(data))) + 1));
+        CompletableFuture<Void> appealLoad = executor.run(Lane.READ, () -> appealIdCounter.set(
+                loadRecords(appealData, "appeals", data -> appeals.put(new Appeal(data))) + 1));
+
+        CompletableFuture.allOf(punishmentLoad, reportLoad, appealLoad).join();
+    }
+
+    /**
+     * Read every record under a root section
+     *
+     * @param data The loaded file
+     * @param root The root section name
+     * @param loader Builds and indexes a record from its values
+     * @return The highest record id found, including records that could not be read
+     */
+    private int loadRecords(FileConfiguration data, String root, Consumer<Map<String, Object>> loader) {
+        ConfigurationSection section = data.getConfigurationSection(root);
+        if (section == null) {
+            return 0;
         }
 
-        // Initialize appeal ID counter
-        if (appealData.contains("appeals")) {
-            ConfigurationSection section = appealData.getConfigurationSection("appeals");
-            if (section != null) {
-                int maxId = 0;
-                for (String key : section.getKeys(false)) {
-                    try {
-                        int id = Integer.parseInt(key);
-                        if (id > maxId) {
-                            maxId = id;
-                        }
-                    } catch (NumberFormatException ignored) {}
-                }
-                appealIdCounter.set(maxId + 1);
+        int maxId = 0;
+
+        for (String key : section.getKeys(false)) {
+            ConfigurationSection recordSection = section.getConfigurationSection(key);
+            if (recordSection == null) {
+                continue;
             }
-        }
-    }
 
-    private void loadActivePunishmentsCache() {
-        activePlayerPunishments.clear();
-
-        if (punishmentData.contains("punishments")) {
-            ConfigurationSection punishmentsSection = punishmentData.getConfigurationSection("punishments");
-            if (punishmentsSection != null) {
-                for (String key : punishmentsSection.getKeys(false)) {
-                    ConfigurationSection punishmentSection = punishmentsSection.getConfigurationSection(key);
-                    if (punishmentSection != null) {
-                        boolean active = punishmentSection.getBoolean("active");
-                        if (active) {
-                            long expiry = punishmentSection.getLong("expiry");
-                            // Skip if expired
-                            if (expiry != -1 && expiry < System.currentTimeMillis()) {
-                                continue;
-                            }
-
-                            Map<String, Object> map = new HashMap<>();
-                            for (String subKey : punishmentSection.getKeys(false)) {
-                                map.put(subKey, punishmentSection.get(subKey));
-                            }
-                            map.put("id", Integer.parseInt(key));
-
-                            Punishment punishment = new Punishment(map);
-                            UUID targetUuid = punishment.getTargetUuid();
-
-                            activePlayerPunishments.computeIfAbsent(targetUuid, k -> new ArrayList<>())
-                                    .add(punishment);
-                        }
-                    }
-                }
+            try {
+                int id = Integer.parseInt(key);
+                maxId = Math.max(maxId, id);
+
+                // getValues returns a fresh map, so it can be handed to the model as is
+                Map<String, Object> map = recordSection.getValues(false);
+                map.put("id", id);
+                loader.accept(map);
+            } catch (RuntimeException e) {
+                LogUtil.warning("Skipping unreadable entry " + root + "." + key + ": " + e.getMessage());
             }
         }
+
+        return maxId;
     }
 
     @Override
     public void saveAll() {
-        try {
-            playerData.save(playerDataFile);
-            punishmentData.save(punishmentDataFile);
-            reportData.save(reportDataFile);
-            appealData.save(appealDataFile);
-        } catch (IOException e) {
-            LogUtil.severe("Failed to save data files", e);
+        // Only files with unflushed changes are written
+        journal.flush();
+    }
+
+    @Override
+    public void close() {
+        if (flushTask != null) {
+            flushTask.cancel();
         }
+
+        journal.close();
     }
 
     @Override
-    public int getNextPunishmentId() {
-        return punishmentIdCounter.getAndIncrement();
+    public CompletableFuture<Integer> getNextPunishmentId() {
+        return CompletableFuture.completedFuture(punishmentIdCounter.getAndIncrement());
     }
 
     @Override
-    public int getNextReportId() {
-        return reportIdCounter.getAndIncrement();
+    public CompletableFuture<List<Integer>> getNextPunishmentIds(int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(punishmentIdCounter.getAndIncrement());
+        }
+        return CompletableFuture.completedFuture(ids);
     }
 
     @Override
-    public int getNextAppealId() {
-        return appealIdCounter.getAndIncrement();
+    public CompletableFuture<Integer> getNextReportId() {
+        return CompletableFuture.completedFuture(reportIdCounter.getAndIncrement());
+    }
+
+    @Override
+    public CompletableFuture<Integer> getNextAppealId() {
+        return CompletableFuture.completedFuture(appealIdCounter.getAndIncrement());
     }
 
     @Override
     public CompletableFuture<Integer> getPunishmentLevel(UUID uuid, PunishmentType type, String reason) {
-        return CompletableFuture.supplyAsync(() -> {
-            String path = "players." + uuid.toString() + ".history." + type.name().toLowerCase() + "." + reason;
+        return offenseCounts.getLevel(uuid, type, reason);
+    }
 
-            if (!playerData.contains(path)) {
-                return 1;
-            }
+    @Override
+    public CompletableFuture<Integer> reservePunishmentLevel(UUID uuid, PunishmentType type, String reason) {
+        return offenseCounts.reserveLevel(uuid, type, reason);
+    }
 
-            List<?> history = playerData.getList(path);
-            return history == null ? 1 : history.size() + 1;
-        });
+    @Override
+    public CompletableFuture<Map<UUID, Integer>> reservePunishmentLevels(Collection<UUID> uuids, PunishmentType type, String reason) {
+        return offenseCounts.reserveLevels(uuids, type, reason);
     }
 
     @Override
-    public CompletableFuture<Void> addPunishment(Punishment punishment) {
-        return CompletableFuture.runAsync(() -> {
-            int id = punishment.getId();
-            UUID targetUuid = punishment.getTargetUuid();
+    public void releasePunishmentLevel(Punishment punishment) {
+        offenseCounts.release(punishment);
+    }
 
-            // Add to global punishments
-            punishmentData.set("punishments." + id, punishment.serialize());
+    @Override
+    public CompletableFuture<Void> loadOffenseCounts(UUID uuid) {
+        return offenseCounts.warm(uuid);
+    }
 
-            // Add to player's history
-            String historyPath = "players." + targetUuid.toString() + ".history." +
-                    punishment.getType().name().toLowerCase() + "." + punishment.getReason();
+    @Override
+    public void unloadOffenseCounts(UUID uuid) {
+        offenseCounts.evict(uuid);
+    }
 
-            List<Map<String, Object>> history = new ArrayList<>();
-            if (playerData.contains(historyPath)) {
-                history = (List<Map<String, Object>>) playerData.getList(historyPath, new ArrayList<>());
-            }
+    @Override
+    public CompletableFuture<List<PlayerName>> loadPlayerNames() {
+        // Read under the journal lock, so a name being saved on the write lane is not half seen
+        return executor.supply(Lane.READ, () -> journal.read(playerDataFile, data -> {
+            List<PlayerName> names = new ArrayList<>();
+
+            ConfigurationSection players = data.getConfigurationSection("players");
+            if (players != null) {
+                for (String uuid : players.getKeys(false)) {
+                    ConfigurationSection playerNames = players.getConfigurationSection(uuid + ".names");
+                    if (playerNames == null) {
+                        continue;
+                    }
 
-            history.add(punishment.serialize());
-            playerData.set(historyPath, history);
+                    try {
+                        UUID playerUuid = UUID.fromString(uuid);
+                        for (String key : playerNames.getKeys(false)) {
+                            names.add(new PlayerName(playerUuid, playerNames.getString(key + ".name", key),
+                                    playerNames.getLong(key + ".last-seen")));
+                        }
+                    } catch (IllegalArgumentException e) {
+                        LogUtil.warning("Skipping names of unreadable player " + uuid + ": " + e.getMessage());
+                    }
+                }
+            }
 
-            // Add to active punishments if applicable
-            if (punishment.isActive() && !punishment.isExpired()) {
-                // Add to cache
-                activePlayerPunishments.computeIfAbsent(targetUuid, k -> new ArrayList<>())
-                        .add(punishment);
+            return names;
+        })).thenCompose(names -> {
+            if (!names.isEmpty()) {
+                return CompletableFuture.completedFuture(names);
             }
 
-            // Save data
-            saveAll();
+            // First start with the name index - fill it in from the names on stored records
+            List<PlayerName> recordNames = collectRecordNames();
+            return savePlayerNames(recordNames).thenApply(v -> recordNames);
         });
     }
 
-    @Override
-    public CompletableFuture<Boolean> revokePunishment(int id, UUID revokerUuid, String revokerName) {
-        return CompletableFuture.supplyAsync(() -> {
-            String path = "punishments." + id;
+    private List<PlayerName> collectRecordNames() {
+        List<PlayerName> names = new ArrayList<>();
 
-            if (!punishmentData.contains(path)) {
-                return false;
-            }
+        for (Punishment punishment : punishments.getAll()) {
+            names.add(new PlayerName(punishment.getTargetUuid(), punishment.getTargetName(), punishment.getTimeIssued()));
 
-            ConfigurationSection punishmentSection = punishmentData.getConfigurationSection(path);
-            if (punishmentSection == null || !punishmentSection.getBoolean("active")) {
-                return false;
+            // The console issues punishments under the nil UUID
+            UUID punisherUuid = punishment.getPunisherUuid();
+            if (punisherUuid != null && (punisherUuid.getMostSignificantBits() != 0L || punisherUuid.getLeastSignificantBits() != 0L)) {
+                names.add(new PlayerName(punisherUuid, punishment.getPunisherName(), punishment.getTimeIssued()));
             }
+        }
 
-            // Get punishment data
-            Map<String, Object> data = new HashMap<>();
-            for (String key : punishmentSection.getKeys(false)) {
-                data.put(key, punishmentSection.get(key));
-            }
-            data.put("id", id);
+        for (Report report : reports.getAll()) {
+            names.add(new PlayerName(report.getReporterUuid(), report.getReporterName(), report.getTimeCreated()));
+            names.add(new PlayerName(report.getReportedUuid(), report.getReportedName(), report.getTimeCreated()));
+        }
 
-            Punishment punishment = new Punishment(data);
-            punishment.revoke(revokerUuid, revokerName);
+        for (Appeal appeal : appeals.getAll()) {
+            names.add(new PlayerName(appeal.getPlayerUuid(), appeal.getPlayerName(), appeal.getTimeCreated()));
+        }
 
-            // Update punishment data
-            punishmentData.set(path, punishment.serialize());
+        return names;
+    }
+
+    @Override
+    public CompletableFuture<Void> savePlayerNames(List<PlayerName> names) {
+        List<PlayerName> toSave = new ArrayList<>(names);
+        return executor.run(Lane.WRITE, () -> {
+            for (PlayerName name : toSave) {
+                String path = "players." + name.getUuid() + ".names." + name.getKey();
+
+                // Keep the latest sighting of each name, checked and set in one step
+                journal.updateSection(playerDataFile, path, stored -> {
+                    if (stored != null && stored.getLong("last-seen", -1L) >= name.getLastSeen()) {
+                        return Collections.emptyMap();
+                    }
 
-            // Remove from active punishments cache
-            UUID targetUuid = punishment.getTargetUuid();
-            if (activePlayerPunishments.containsKey(targetUuid)) {
-                activePlayerPunishments.get(targetUuid).removeIf(p -> p.getId() == id);
+                    Map<String, Object> changes = new LinkedHashMap<>();
+                    changes.put("name", name.getName());
+                    changes.put("last-seen", name.getLastSeen());
+                    return changes;
+                });
             }
+        });
+    }
 
-            // Save data
-            saveAll();
+    private CompletableFuture<Map<UUID, Map<String, Integer>>> countOffenses(Collection<UUID> uuids) {
+        return executor.supply(Lane.READ, () -> {
+            Map<UUID, Map<String, Integer>> counts = new HashMap<>();
+            for (UUID uuid : uuids) {
+                Map<String, Integer> playerCounts = new HashMap<>();
+                for (Punishment punishment : punishments.getByOwner(uuid)) {
+                    playerCounts.merge(OffenseCounters.key(punishment.getType(), punishment.getReason()), 1, Integer::sum);
+                }
+                counts.put(uuid, playerCounts);
+            }
 
-            return true;
+            return counts;
         });
     }
 
     @Override
-    public CompletableFuture<Punishment> getPunishment(int id) {
-        return CompletableFuture.supplyAsync(() -> {
-            String path = "punishments." + id;
+    public CompletableFuture<Void> addPunishment(Punishment punishment) {
+        return executor.run(Lane.WRITE, () -> storePunishment(punishment));
+    }
 
-            if (!punishmentData.contains(path)) {
-                return null;
+    @Override
+    public CompletableFuture<List<Punishment>> addPunishments(List<Punishment> added) {
+        List<Punishment> toStore = new ArrayList<>(added);
+        return executor.supply(Lane.WRITE, () -> {
+            for (Punishment punishment : toStore) {
+                storePunishment(punishment);
             }
+            return toStore;
+        });
+    }
 
-            ConfigurationSection section = punishmentData.getConfigurationSection(path);
-            if (section == null) {
-                return null;
-            }
+    @SuppressWarnings("unchecked")
+    private void storePunishment(Punishment punishment) {
+        int id = punishment.getId();
+        UUID targetUuid = punishment.getTargetUuid();
 
-            Map<String, Object> data = new HashMap<>();
-            for (String key : section.getKeys(false)) {
-                data.put(key, section.get(key));
-            }
-            data.put("id", id);
+        // Add to global punishments
+        journal.set(punishmentDataFile, "punishments." + id, punishment.serialize());
+
+        // Add to player's history
+        String historyPath = "players." + targetUuid.toString() + ".history." +
+                punishment.getType().name().toLowerCase() + "." + punishment.getReason();
 
-            return new Punishment(data);
+        Map<String, Object> entry = punishment.serialize();
+        journal.update(playerDataFile, historyPath, current -> {
+            // Append to a copy; the stored list may be in the middle of being saved
+            List<Object> history = current instanceof List ? new ArrayList<>((List<Object>) current) : new ArrayList<>();
+            history.add(entry);
+            return history;
         });
+
+        // Add to index
+        punishments.put(punishment);
+        offenseCounts.record(punishment);
     }
 
     @Override
-    public CompletableFuture<List<Punishment>> getPlayerPunishments(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            List<Punishment> punishments = new ArrayList<>();
-
-            // Check all punishment types
-            for (PunishmentType type : PunishmentType.values()) {
-                String typeName = type.name().toLowerCase();
-                String historyPath = "players." + uuid.toString() + ".history." + typeName;
-
-                if (playerData.contains(historyPath)) {
-                    ConfigurationSection typeSection = playerData.getConfigurationSection(historyPath);
-                    if (typeSection != null) {
-                        for (String reason : typeSection.getKeys(false)) {
-                            List<Map<?, ?>> reasonPunishments = playerData.getMapList(historyPath + "." + reason);
-
-                            for (Map<?, ?> punishmentMap : reasonPunishments) {
-                                Map<String, Object> data = new HashMap<>();
-                                for (Map.Entry<?, ?> entry : punishmentMap.entrySet()) {
-                                    data.put(entry.getKey().toString(), entry.getValue());
-                                }
-
-                                punishments.add(new Punishment(data));
-                            }
-                        }
-                    }
-                }
+    public CompletableFuture<Boolean> revokePunishment(int id, UUID revokerUuid, String revokerName) {
+        return executor.supply(Lane.WRITE, () -> {
+            Punishment current = punishments.get(id);
+            if (current == null || !current.isActive()) {
+                return false;
             }
 
-            // Sort by time issued (newest first)
-            punishments.sort((p1, p2) -> Long.compare(p2.getTimeIssued(), p1.getTimeIssued()));
+            // Revoke a copy - indexed records are never modified
+            Punishment punishment = new Punishment(current.serialize());
+            punishment.revoke(revokerUuid, revokerName);
 
-            return punishments;
+            // Update punishment data
+            journal.set(punishmentDataFile, "punishments." + id, punishment.serialize());
+            punishments.put(punishment);
+
+            return true;
         });
     }
 
     @Override
-    public CompletableFuture<List<Punishment>> getActivePlayerPunishments(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            // Use cache for better performance
-            if (activePlayerPunishments.containsKey(uuid)) {
-                return activePlayerPunishments.get(uuid).stream()
-                        .filter(p -> !p.isExpired())
-                        .collect(Collectors.toList());
-            }
+    public CompletableFuture<Punishment> getPunishment(int id) {
+        return executor.supply(Lane.READ, () -> punishments.get(id));
+    }
 
-            return new ArrayList<>();
-        });
+    @Override
+    public CompletableFuture<List<Punishment>> getPlayerPunishments(UUID uuid) {
+        // Already sorted by time issued (newest first)
+        return executor.supply(Lane.READ, () -> punishments.getByOwner(uuid));
     }
 
     @Override
-    public CompletableFuture<List<Punishment>> getActivePlayerPunishmentsByType(UUID uuid, PunishmentType type) {
-        return CompletableFuture.supplyAsync(() -> {
-            // Use cache for better performance
-            if (activePlayerPunishments.containsKey(uuid)) {
-                return activePlayerPunishments.get(uuid).stream()
-                        .filter(p -> p.getType() == type && !p.isExpired())
-                        .collect(Collectors.toList());
+    public CompletableFuture<List<Punishment>> getPlayerPunishmentsPage(UUID uuid, PageCursor cursor, int limit) {
+        return executor.supply(Lane.READ, () -> {
+            if (cursor.isFirst()) {
+                return punishments.getByOwner(uuid, null, limit);
+            }
+
+            // The cursor is the last punishment of the previous page, which is still indexed
+            Punishment last = punishments.get(cursor.getId());
+            if (last != null) {
+                return punishments.getByOwner(uuid, last, limit);
             }
 
-            return new ArrayList<>();
+            return punishments.getByOwner(uuid).stream()
+                    .filter(cursor::precedes)
+                    .limit(limit)
+                    .collect(Collectors.toList());
         });
     }
 
     @Override
-    public CompletableFuture<Boolean> isPlayerBanned(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            // Use cache for better performance
-            if (activePlayerPunishments.containsKey(uuid)) {
-                return activePlayerPunishments.get(uuid).stream()
-                        .anyMatch(p -> p.getType() == PunishmentType.BAN && !p.isExpired());
-            }
+    public CompletableFuture<Integer> countPlayerPunishments(UUID uuid) {
+        return executor.supply(Lane.READ, () -> punishments.countByOwner(uuid));
+    }
 
-            return false;
-        });
+    @Override
+    public CompletableFuture<List<Punishment>> getActivePlayerPunishments(UUID uuid) {
+        return executor.supply(Lane.READ, () -> punishments.getOpenByOwner(uuid).stream()
+                .filter(p -> !p.isExpired())
+                .collect(Collectors.toList()));
     }
 
     @Override
-    public CompletableFuture<Boolean> isPlayerMuted(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            // Use cache for better performance
-            if (activePlayerPunishments.containsKey(uuid)) {
-                return activePlayerPunishments.get(uuid).stream()
-                        .anyMatch(p -> p.getType() == PunishmentType.MUTE && !p.isExpired());
-            }
+    public CompletableFuture<List<Punishment>> getActivePlayerPunishmentsByType(UUID uuid, PunishmentType type) {
+        return executor.supply(Lane.READ, () -> punishments.getOpenByOwner(uuid).stream()
+                .filter(p -> p.getType() == type && !p.isExpired())
+                .collect(Collectors.toList()));
+    }
 
-            return false;
-        });
+    @Override
+    public CompletableFuture<List<Punishment>> getActivePunishments(PunishmentType type) {
+        return executor.supply(Lane.READ, () -> punishments.getOpen().stream()
+                .filter(p -> p.getType() == type && !p.isExpired())
+                .collect(Collectors.toList()));
     }
 
     @Override
-    public CompletableFuture<List<Report>> getUnprocessedReports() {
-        return CompletableFuture.supplyAsync(() -> {
-            List<Report> reports = new ArrayList<>();
-
-            if (reportData.contains("reports")) {
-                ConfigurationSection reportsSection = reportData.getConfigurationSection("reports");
-                if (reportsSection != null) {
-                    for (String key : reportsSection.getKeys(false)) {
-                        ConfigurationSection reportSection = reportsSection.getConfigurationSection(key);
-                        if (reportSection != null && !reportSection.getBoolean("processed", false)) {
-                            try {
-                                int id = Integer.parseInt(key);
-
-                                Map<String, Object> data = new HashMap<>();
-                                for (String subKey : reportSection.getKeys(false)) {
-                                    data.put(subKey, reportSection.get(subKey));
-                                }
-                                data.put("id", id);
-
-                                reports.add(new Report(data));
-                            } catch (NumberFormatException ignored) {}
-                        }
-                    }
-                }
-            }
+    public CompletableFuture<Boolean> isPlayerBanned(UUID uuid) {
+        return executor.supply(Lane.READ, () -> punishments.getOpenByOwner(uuid).stream()
+                .anyMatch(p -> p.getType() == PunishmentType.BAN && !p.isExpired()));
+    }
 
-            // Sort by creation time (newest first)
-            reports.sort((r1, r2) -> Long.compare(r2.getTimeCreated(), r1.getTimeCreated()));
+    @Override
+    public CompletableFuture<Boolean> isPlayerMuted(UUID uuid) {
+        return executor.supply(Lane.READ, () -> punishments.getOpenByOwner(uuid).stream()
+                .anyMatch(p -> p.getType() == PunishmentType.MUTE && !p.isExpired()));
+    }
 
-            return reports;
-        });
+    @Override
+    public CompletableFuture<List<Report>> getUnprocessedReports() {
+        // Sorted by creation time (newest first)
+        return executor.supply(Lane.READ, reports::getOpen);
     }
 
     @Override
     public CompletableFuture<List<Report>> getPlayerReports(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            List<Report> reports = new ArrayList<>();
-
-            if (reportData.contains("reports")) {
-                ConfigurationSection reportsSection = reportData.getConfigurationSection("reports");
-                if (reportsSection != null) {
-                    for (String key : reportsSection.getKeys(false)) {
-                        ConfigurationSection reportSection = reportsSection.getConfigurationSection(key);
-                        if (reportSection != null) {
-                            String reportedUuid = reportSection.getString("reportedUuid");
-                            if (uuid.toString().equals(reportedUuid)) {
-                                try {
-                                    int id = Integer.parseInt(key);
-
-                                    Map<String, Object> data = new HashMap<>();
-                                    for (String subKey : reportSection.getKeys(false)) {
-                                        data.put(subKey, reportSection.get(subKey));
-                                    }
-                                    data.put("id", id);
-
-                                    reports.add(new Report(data));
-                                } catch (NumberFormatException ignored) {}
-                            }
-                        }
-                    }
-                }
-            }
-
-            // Sort by creation time (newest first)
-            reports.sort((r1, r2) -> Long.compare(r2.getTimeCreated(), r1.getTimeCreated()));
-
-            return reports;
-        });
+        return executor.supply(Lane.READ, () -> reports.getByOwner(uuid));
     }
 
     @Override
     public CompletableFuture<Void> addReport(Report report) {
-        return CompletableFuture.runAsync(() -> {
-            int id = report.getId();
-
+        return executor.run(Lane.WRITE, () -> {
             // Add to reports
-            reportData.set("reports." + id, report.serialize());
-
-            // Save data
-            try {
-                reportData.save(reportDataFile);
-            } catch (IOException e) {
-                LogUtil.severe("Failed to save report data", e);
-            }
+            journal.set(reportDataFile, "reports." + report.getId(), report.serialize());
+            reports.put(report);
         });
     }
 
     @Override
     public CompletableFuture<Boolean> processReport(int id, UUID processorUuid, String processorName, int punishmentId) {
-        return CompletableFuture.supplyAsync(() -> {
-            String path = "reports." + id;
-
-            if (!reportData.contains(path)) {
+        return executor.supply(Lane.WRITE, () -> {
+            Report current = reports.get(id);
+            if (current == null || current.isProcessed()) {
                 return false;
             }
 
-            ConfigurationSection reportSection = reportData.getConfigurationSection(path);
-            if (reportSection == null || reportSection.getBoolean("processed", false)) {
-                return false;
-            }
-
-            // Get report data
-            Map<String, Object> data = new HashMap<>();
-            for (String key : reportSection.getKeys(false)) {
-                data.put(key, reportSection.get(key));
-            }
-            data.put("id", id);
-
-            Report report = new Report(data);
+            Report report = new Report(current.serialize());
             report.markProcessed(processorUuid, processorName, punishmentId);
 
             // Update report data
-            reportData.set(path, report.serialize());
-
-            // Save data
-            try {
-                reportData.save(reportDataFile);
-            } catch (IOException e) {
-                LogUtil.severe("Failed to save report data", e);
-                return false;
-            }
+            journal.set(reportDataFile, "reports." + id, report.serialize());
+            reports.put(report);
 
             return true;
         });
@@ -537,174 +546,48 @@ public class YamlDataManager implements DataManager {
 
     @Override
     public CompletableFuture<Report> getReport(int id) {
-        return CompletableFuture.supplyAsync(() -> {
-            String path = "reports." + id;
-
-            if (!reportData.contains(path)) {
-                return null;
-            }
-
-            ConfigurationSection section = reportData.getConfigurationSection(path);
-            if (section == null) {
-                return null;
-            }
-
-            Map<String, Object> data = new HashMap<>();
-            for (String key : section.getKeys(false)) {
-                data.put(key, section.get(key));
-            }
-            data.put("id", id);
-
-            return new Report(data);
-        });
+        return executor.supply(Lane.READ, () -> reports.get(id));
     }
 
     @Override
     public CompletableFuture<Void> addAppeal(Appeal appeal) {
-        return CompletableFuture.runAsync(() -> {
-            int id = appeal.getId();
-
+        return executor.run(Lane.WRITE, () -> {
             // Add to appeals
-            appealData.set("appeals." + id, appeal.serialize());
-
-            // Save data
-            try {
-                appealData.save(appealDataFile);
-            } catch (IOException e) {
-                LogUtil.severe("Failed to save appeal data", e);
-            }
+            journal.set(appealDataFile, "appeals." + appeal.getId(), appeal.serialize());
+            appeals.put(appeal);
         });
     }
 
     @Override
     public CompletableFuture<List<Appeal>> getPendingAppeals() {
-        return CompletableFuture.supplyAsync(() -> {
-            List<Appeal> appeals = new ArrayList<>();
-
-            if (appealData.contains("appeals")) {
-                ConfigurationSection appealsSection = appealData.getConfigurationSection("appeals");
-                if (appealsSection != null) {
-                    for (String key : appealsSection.getKeys(false)) {
-                        ConfigurationSection appealSection = appealsSection.getConfigurationSection(key);
-                        if (appealSection != null && appealSection.getString("status", "").equals(Appeal.AppealStatus.PENDING.name())) {
-                            try {
-                                int id = Integer.parseInt(key);
-
-                                Map<String, Object> data = new HashMap<>();
-                                for (String subKey : appealSection.getKeys(false)) {
-                                    data.put(subKey, appealSection.get(subKey));
-                                }
-                                data.put("id", id);
-
-                                appeals.add(new Appeal(data));
-                            } catch (NumberFormatException ignored) {}
-                        }
-                    }
-                }
-            }
-
-            // Sort by creation time (newest first)
-            appeals.sort((a1, a2) -> Long.compare(a2.getTimeCreated(), a1.getTimeCreated()));
-
-            return appeals;
-        });
+        // Sorted by creation time (newest first)
+        return executor.supply(Lane.READ, appeals::getOpen);
     }
 
     @Override
     public CompletableFuture<List<Appeal>> getPlayerAppeals(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            List<Appeal> appeals = new ArrayList<>();
-
-            if (appealData.contains("appeals")) {
-                ConfigurationSection appealsSection = appealData.getConfigurationSection("appeals");
-                if (appealsSection != null) {
-                    for (String key : appealsSection.getKeys(false)) {
-                        ConfigurationSection appealSection = appealsSection.getConfigurationSection(key);
-                        if (appealSection != null) {
-                            String playerUuid = appealSection.getString("playerUuid");
-                            if (uuid.toString().equals(playerUuid)) {
-                                try {
-                                    int id = Integer.parseInt(key);
-
-                                    Map<String, Object> data = new HashMap<>();
-                                    for (String subKey : appealSection.getKeys(false)) {
-                                        data.put(subKey, appealSection.get(subKey));
-                                    }
-                                    data.put("id", id);
-
-                                    appeals.add(new Appeal(data));
-                                } catch (NumberFormatException ignored) {}
-                            }
-                        }
-                    }
-                }
-            }
-
-            // Sort by creation time (newest first)
-            appeals.sort((a1, a2) -> Long.compare(a2.getTimeCreated(), a1.getTimeCreated()));
-
-            return appeals;
-        });
+        return executor.supply(Lane.READ, () -> appeals.getByOwner(uuid));
     }
 
     @Override
     public CompletableFuture<Appeal> getAppeal(int id) {
-        return CompletableFuture.supplyAsync(() -> {
-            String path = "appeals." + id;
-
-            if (!appealData.contains(path)) {
-                return null;
-            }
-
-            ConfigurationSection section = appealData.getConfigurationSection(path);
-            if (section == null) {
-                return null;
-            }
-
-            Map<String, Object> data = new HashMap<>();
-            for (String key : section.getKeys(false)) {
-                data.put(key, section.get(key));
-            }
-            data.put("id", id);
-
-            return new Appeal(data);
-        });
+        return executor.supply(Lane.READ, () -> appeals.get(id));
     }
 
     @Override
     public CompletableFuture<Boolean> approveAppeal(int id, UUID reviewerUuid, String reviewerName, String comment) {
-        return CompletableFuture.supplyAsync(() -> {
-            String path = "appeals." + id;
-
-            if (!appealData.contains(path)) {
-                return false;
-            }
-
-            ConfigurationSection appealSection = appealData.getConfigurationSection(path);
-            if (appealSection == null || !appealSection.getString("status", "").equals(Appeal.AppealStatus.PENDING.name())) {
+        return executor.supply(Lane.WRITE, () -> {
+            Appeal current = appeals.get(id);
+            if (current == null || current.getStatus() != Appeal.AppealStatus.PENDING) {
                 return false;
             }
 
-            // Get appeal data
-            Map<String, Object> data = new HashMap<>();
-            for (String key : appealSection.getKeys(false)) {
-                data.put(key, appealSection.get(key));
-            }
-            data.put("id", id);
-
-            Appeal appeal = new Appeal(data);
+            Appeal appeal = new Appeal(current.serialize());
             appeal.approve(reviewerUuid, reviewerName, comment);
 
             // Update appeal data
-            appealData.set(path, appeal.serialize());
-
-            // Save data
-            try {
-                appealData.save(appealDataFile);
-            } catch (IOException e) {
-                LogUtil.severe("Failed to save appeal data", e);
-                return false;
-            }
+            journal.set(appealDataFile, "appeals." + id, appeal.serialize());
+            appeals.put(appeal);
 
             return true;
         });
@@ -712,131 +595,82 @@ public class YamlDataManager implements DataManager {
 
     @Override
     public CompletableFuture<Boolean> denyAppeal(int id, UUID reviewerUuid, String reviewerName, String comment) {
-        return CompletableFuture.supplyAsync(() -> {
-            String path = "appeals." + id;
-
-            if (!appealData.contains(path)) {
+        return executor.supply(Lane.WRITE, () -> {
+            Appeal current = appeals.get(id);
+            if (current == null || current.getStatus() != Appeal.AppealStatus.PENDING) {
                 return false;
             }
 
-            ConfigurationSection appealSection = appealData.getConfigurationSection(path);
-            if (appealSection == null || !appealSection.getString("status", "").equals(Appeal.AppealStatus.PENDING.name())) {
-                return false;
-            }
-
-            // Get appeal data
-            Map<String, Object> data = new HashMap<>();
-            for (String key : appealSection.getKeys(false)) {
-                data.put(key, appealSection.get(key));
-            }
-            data.put("id", id);
-
-            Appeal appeal = new Appeal(data);
+            Appeal appeal = new Appeal(current.serialize());
             appeal.deny(reviewerUuid, reviewerName, comment);
 
             // Update appeal data
-            appealData.set(path, appeal.serialize());
+            journal.set(appealDataFile, "appeals." + id, appeal.serialize());
+            appeals.put(appeal);
 
-            // Save data
-            try {
-                appealData.save(appealDataFile);
-            } catch (IOException e) {
-                LogUtil.severe("Failed to save appeal data", e);
+            return true;
+        });
+    }
+
+    @Override
+    public void applyRemoteChange(Punishment punishment) {
+        // YAML files belong to one server, so there is nothing written elsewhere to pick up
+    }
+
+    @Override
+    public CompletableFuture<Boolean> expirePunishment(Punishment punishment) {
+        return executor.supply(Lane.WRITE, () -> {
+            Punishment current = punishments.get(punishment.getId());
+            if (current == null || !current.isActive()) {
                 return false;
             }
 
+            markExpired(current);
             return true;
         });
     }
 
     @Override
     public void cleanupExpiredPunishments() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            boolean changes = false;
-
-            if (punishmentData.contains("punishments")) {
-                ConfigurationSection punishmentsSection = punishmentData.getConfigurationSection("punishments");
-                if (punishmentsSection != null) {
-                    long currentTime = System.currentTimeMillis();
-
-                    for (String key : punishmentsSection.getKeys(false)) {
-                        ConfigurationSection punishmentSection = punishmentsSection.getConfigurationSection(key);
-                        if (punishmentSection != null) {
-                            boolean active = punishmentSection.getBoolean("active");
-                            long expiry = punishmentSection.getLong("expiry");
-
-                            if (active && expiry != -1 && expiry < currentTime) {
-                                punishmentSection.set("active", false);
-                                punishmentSection.set("autoExpired", true);
-                                changes = true;
-
-                                LogUtil.info("Auto-expired punishment #" + key);
-
-                                // Remove from cache if present
-                                String targetUuidStr = punishmentSection.getString("targetUuid");
-                                if (targetUuidStr != null) {
-                                    try {
-                                        UUID targetUuid = UUID.fromString(targetUuidStr);
-                                        int id = Integer.parseInt(key);
-
-                                        if (activePlayerPunishments.containsKey(targetUuid)) {
-                                            activePlayerPunishments.get(targetUuid).removeIf(p -> p.getId() == id);
-                                        }
-                                    } catch (IllegalArgumentException ignored) {}
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+        executor.run(Lane.WRITE, () -> {
+            long currentTime = System.currentTimeMillis();
 
-            if (changes) {
-                try {
-                    punishmentData.save(punishmentDataFile);
-                } catch (IOException e) {
-                    LogUtil.severe("Failed to save punishment data during cleanup", e);
+            for (Punishment punishment : punishments.getOpen()) {
+                if (punishment.getExpiry() != -1 && punishment.getExpiry() < currentTime) {
+                    markExpired(punishment);
+                    LogUtil.info("Auto-expired punishment #" + punishment.getId());
                 }
             }
         });
     }
 
+    private void markExpired(Punishment punishment) {
+        String path = "punishments." + punishment.getId();
+        journal.set(punishmentDataFile, path + ".active", false);
+        journal.set(punishmentDataFile, path + ".autoExpired", true);
+
+        // Index a copy - indexed records are never modified
+        Map<String, Object> data = punishment.serialize();
+        data.put("active", false);
+        punishments.put(new Punishment(data));
+    }
+
     @Override
     public void cleanupOldReports() {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        executor.run(Lane.WRITE, () -> {
             int daysToKeep = plugin.getConfigManager().getMainConfig().getInt("storage.reports-days-to-keep", 30);
             if (daysToKeep <= 0) return; // Keep forever
 
-            boolean changes = false;
+            long cutoffTime = System.currentTimeMillis() - (daysToKeep * 24 * 60 * 60 * 1000L);
 
-            if (reportData.contains("reports")) {
-                ConfigurationSection reportsSection = reportData.getConfigurationSection("reports");
-                if (reportsSection != null) {
-                    long cutoffTime = System.currentTimeMillis() - (daysToKeep * 24 * 60 * 60 * 1000L);
-
-                    for (String key : reportsSection.getKeys(false)) {
-                        ConfigurationSection reportSection = reportsSection.getConfigurationSection(key);
-                        if (reportSection != null) {
-                            boolean processed = reportSection.getBoolean("processed", false);
-                            long timeCreated = reportSection.getLong("timeCreated", 0);
-
-                            if (processed && timeCreated < cutoffTime) {
-                                reportsSection.set(key, null);
-                                changes = true;
-
-                                LogUtil.info("Removed old report #" + key);
-                            }
-                        }
-                    }
-                }
-            }
+            for (Report report : reports.getAll()) {
+                if (report.isProcessed() && report.getTimeCreated() < cutoffTime) {
+                    journal.set(reportDataFile, "reports." + report.getId(), null);
+                    reports.remove(report.getId());
 
-            if (changes) {
-                try {
-                    reportData.save(reportDataFile);
-                } catch (IOException e) {
-                    LogUtil.severe("Failed to save report data during cleanup", e);
+                    LogUtil.info("Removed old report #" + report.getId());
                 }
             }
         });
     }
-}
\ No newline at end of file
+}
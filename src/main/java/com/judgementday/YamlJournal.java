@@ -0,0 +1,461 @@
+package com.judgementday.data;
+
+import com.judgementday.data.DataExecutor.Lane;
+import com.judgementday.util.LogUtil;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Write-behind layer for the YAML data files. Every change is applied to the in-memory
+ * configuration and appended to an operation journal; the changed files are only written
+ * out on the next flush, after which the journal is discarded. If the server dies between
+ * flushes, the journal is replayed on the next start.
+ *
+ * A flush snapshots the changed files under the journal lock, moves the journal aside so
+ * new changes go to a fresh one, and writes the snapshots without holding the lock. The
+ * old journal is only deleted once every snapshot is on disk. Replaying is idempotent, so
+ * a journal that overlaps a written snapshot is harmless.
+ *
+ * Journal lines have the form {@code <file>\t<base64 path>\t<base64 yaml value>}, where an
+ * empty value means the path was removed.
+ */
+public class YamlJournal {
+
+    private static final String SEPARATOR = "\t";
+    private static final String VALUE_KEY = "value";
+
+    private final File journalFile;
+    private final File flushingFile;
+    private final YamlSnapshotWriter snapshotWriter;
+    private final DataExecutor executor;
+    private final long flushThreshold;
+    private final boolean fsync;
+
+    private final Map<String, Store> stores = new LinkedHashMap<>();
+    private final Set<String> dirtyStores = new HashSet<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Object lock = new Object();
+    private final Object flushLock = new Object();
+
+    private FileOutputStream journalStream;
+    private long pendingBytes = 0;
+
+    private static final class Store {
+        private final File file;
+        private final FileConfiguration config;
+
+        private Store(File file, FileConfiguration config) {
+            this.file = file;
+            this.config = config;
+        }
+    }
+
+    /**
+     * Create a journal
+     *
+     * @param journalFile The journal file
+     * @param snapshotWriter Writer used to replace the data files
+     * @param executor Executor used for threshold-triggered flushes
+     * @param flushThreshold Journal size in bytes that triggers an early flush
+     * @param fsync Whether to force every journal append to disk
+     */
+    public YamlJournal(File journalFile, YamlSnapshotWriter snapshotWriter, DataExecutor executor,
+                       long flushThreshold, boolean fsync) {
+        this.journalFile = journalFile;
+        this.flushingFile = new File(journalFile.getParentFile(), journalFile.getName() + ".flushing");
+        this.snapshotWriter = snapshotWriter;
+        this.executor = executor;
+        this.flushThreshold = flushThreshold;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Register a data file whose changes go through the journal
+     *
+     * @param file The data file
+     * @param config The loaded contents of the file
+     */
+    public void register(File file, FileConfiguration config) {
+        synchronized (lock) {
+            stores.put(file.getName(), new Store(file, config));
+        }
+    }
+
+    /**
+     * Replay any operations left by an unclean shutdown, write them out and open the
+     * journal for appending. Must be called after every data file has been registered.
+     */
+    public void recover() {
+        int replayed;
+
+        synchronized (lock) {
+            // A journal left by an interrupted flush is older than the current one
+            replayed = replay(flushingFile) + replay(journalFile);
+            openJournal(true);
+        }
+
+        if (replayed > 0) {
+            LogUtil.warning("Recovered " + replayed + " unsaved changes from " + journalFile.getName());
+            flush();
+        }
+    }
+
+    /**
+     * Change a value in a data file. The change is visible immediately and written to disk
+     * on the next flush.
+     *
+     * @param file The data file
+     * @param path The configuration path
+     * @param value The new value, or null to remove the path
+     */
+    public void set(File file, String path, Object value) {
+        update(file, path, current -> value);
+    }
+
+    /**
+     * Change a value in a data file based on its current value, in one step. The function
+     * runs under the journal lock, so no other change or flush sees the value in between;
+     * it must return a new value rather than change the current one in place.
+     *
+     * @param file The data file
+     * @param path The configuration path
+     * @param function Gets the current value, or null, and returns the new value, or null to remove the path
+     */
+    public void update(File file, String path, UnaryOperator<Object> function) {
+        boolean flushNow;
+
+        synchronized (lock) {
+            Store store = getStore(file);
+
+            Object value = function.apply(store.config.get(path));
+            store.config.set(path, value);
+            dirtyStores.add(file.getName());
+
+            boolean appended = append(file.getName(), path, value);
+            flushNow = !appended || pendingBytes >= flushThreshold;
+        }
+
+        if (flushNow) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Change several values below a section based on its current contents, in one step.
+     * The function runs under the journal lock like {@link #update(File, String, UnaryOperator)}
+     * and must not change the section itself.
+     *
+     * @param file The data file
+     * @param path Path of the section
+     * @param function Gets the section, or null if there is none, and returns the new values by
+     *                 path relative to it (null removes a path); nothing is written if it is empty
+     */
+    public void updateSection(File file, String path, Function<ConfigurationSection, Map<String, Object>> function) {
+        boolean flushNow = false;
+
+        synchronized (lock) {
+            Store store = getStore(file);
+            Map<String, Object> changes = function.apply(store.config.getConfigurationSection(path));
+
+            for (Map.Entry<String, Object> change : changes.entrySet()) {
+                String changePath = path + "." + change.getKey();
+                store.config.set(changePath, change.getValue());
+                dirtyStores.add(file.getName());
+
+                boolean appended = append(file.getName(), changePath, change.getValue());
+                flushNow |= !appended || pendingBytes >= flushThreshold;
+            }
+        }
+
+        if (flushNow) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Read a data file under the journal lock, so no change is applied while it is read
+     *
+     * @param file The data file
+     * @param reader Reads what it needs from the file's contents, without keeping references to them
+     * @param <T> Result type
+     * @return What the reader returned
+     */
+    public <T> T read(File file, Function<ConfigurationSection, T> reader) {
+        synchronized (lock) {
+            return reader.apply(getStore(file).config);
+        }
+    }
+
+    /**
+     * Schedule a flush on the write lane, unless one is already waiting
+     */
+    public void requestFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        executor.run(Lane.WRITE, () -> {
+            flushScheduled.set(false);
+            flush();
+        }).exceptionally(e -> {
+            flushScheduled.set(false);
+            return null;
+        });
+    }
+
+    /**
+     * Write every changed data file and discard the journal. If a file fails to save, it
+     * stays dirty and the journal is kept so the change can be recovered.
+     */
+    public void flush() {
+        // Only one flush at a time, so snapshots of the same file are written in order
+        synchronized (flushLock) {
+            Map<Store, String> snapshots = new LinkedHashMap<>();
+
+            synchronized (lock) {
+                if (dirtyStores.isEmpty()) {
+                    return;
+                }
+
+                for (String name : dirtyStores) {
+                    Store store = stores.get(name);
+                    snapshots.put(store, store.config.saveToString());
+                }
+                dirtyStores.clear();
+
+                rotateJournal();
+            }
+
+            boolean failed = false;
+
+            for (Map.Entry<Store, String> entry : snapshots.entrySet()) {
+                Store store = entry.getKey();
+
+                try {
+                    snapshotWriter.write(store.file, entry.getValue());
+                } catch (IOException e) {
+                    LogUtil.severe("Failed to save " + store.file.getName(), e);
+                    failed = true;
+
+                    synchronized (lock) {
+                        dirtyStores.add(store.file.getName());
+                    }
+                }
+            }
+
+            if (!failed && flushingFile.exists() && !flushingFile.delete()) {
+                LogUtil.warning("Failed to delete " + flushingFile.getName());
+            }
+        }
+    }
+
+    /**
+     * Flush any pending changes and close the journal
+     */
+    public void close() {
+        flush();
+
+        synchronized (lock) {
+            closeJournal();
+        }
+    }
+
+    /**
+     * Get the number of bytes appended to the journal since the last flush
+     *
+     * @return Pending journal size
+     */
+    public long getPendingBytes() {
+        synchronized (lock) {
+            return pendingBytes;
+        }
+    }
+
+    private Store getStore(File file) {
+        Store store = stores.get(file.getName());
+        if (store == null) {
+            throw new IllegalArgumentException("Unregistered data file: " + file.getName());
+        }
+        return store;
+    }
+
+    private int replay(File file) {
+        if (!file.exists() || file.length() == 0) {
+            return 0;
+        }
+
+        int replayed = 0;
+
+        try {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+
+            // A write torn by the crash has no line end. Cut it off, so it is neither replayed
+            // half-written nor joined to the next entry appended after it.
+            int end = bytes.length;
+            while (end > 0 && bytes[end - 1] != '\n') {
+                end--;
+            }
+            if (end < bytes.length) {
+                LogUtil.warning("Discarding a torn entry at the end of " + file.getName());
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(end);
+                }
+            }
+
+            for (String line : new String(bytes, 0, end, StandardCharsets.UTF_8).split("\n")) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                String[] parts = line.split(SEPARATOR, -1);
+                if (parts.length != 3) {
+                    LogUtil.warning("Stopped replaying " + file.getName() + " at a malformed entry");
+                    break;
+                }
+
+                Store store = stores.get(parts[0]);
+                if (store == null) {
+                    LogUtil.warning("Skipping journal entry for unknown data file " + parts[0]);
+                    continue;
+                }
+
+                try {
+                    String path = decode(parts[1]);
+                    Object value = parts[2].isEmpty() ? null : decodeValue(decode(parts[2]));
+
+                    apply(store.config, path, value);
+                    dirtyStores.add(parts[0]);
+                    replayed++;
+                } catch (IllegalArgumentException | InvalidConfigurationException e) {
+                    LogUtil.warning("Stopped replaying " + file.getName() + " at a malformed entry");
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            LogUtil.severe("Failed to read " + file.getName(), e);
+        }
+
+        return replayed;
+    }
+
+    private boolean append(String storeName, String path, Object value) {
+        if (journalStream == null) {
+            return false;
+        }
+
+        String line = storeName + SEPARATOR + encode(path) + SEPARATOR +
+                (value == null ? "" : encode(encodeValue(value))) + "\n";
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+
+        try {
+            journalStream.write(bytes);
+            journalStream.flush();
+            if (fsync) {
+                journalStream.getFD().sync();
+            }
+            pendingBytes += bytes.length;
+            return true;
+        } catch (IOException e) {
+            LogUtil.severe("Failed to append to " + journalFile.getName() + ", flushing immediately", e);
+            return false;
+        }
+    }
+
+    private void rotateJournal() {
+        closeJournal();
+
+        try {
+            if (journalFile.exists()) {
+                if (flushingFile.exists()) {
+                    // The last flush failed - keep its entries ahead of the newer ones
+                    Files.write(flushingFile.toPath(), Files.readAllBytes(journalFile.toPath()), StandardOpenOption.APPEND);
+                    Files.delete(journalFile.toPath());
+                } else {
+                    Files.move(journalFile.toPath(), flushingFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            openJournal(false);
+        } catch (IOException e) {
+            // Keep appending to the same journal; replaying it over the new snapshots is harmless
+            LogUtil.severe("Failed to rotate " + journalFile.getName(), e);
+            openJournal(true);
+        }
+    }
+
+    private void openJournal(boolean append) {
+        closeJournal();
+
+        try {
+            journalStream = new FileOutputStream(journalFile, append);
+            pendingBytes = append ? journalFile.length() : 0;
+        } catch (IOException e) {
+            LogUtil.severe("Failed to open " + journalFile.getName() + ", changes will not survive a crash", e);
+        }
+    }
+
+    private void closeJournal() {
+        if (journalStream == null) {
+            return;
+        }
+
+        try {
+            journalStream.close();
+        } catch (IOException e) {
+            LogUtil.warning("Failed to close " + journalFile.getName() + ": " + e.getMessage());
+        }
+        journalStream = null;
+    }
+
+    private static void apply(FileConfiguration config, String path, Object value) {
+        // Maps come back from YAML as sections - rebuild them as plain maps
+        if (value instanceof ConfigurationSection) {
+            config.createSection(path, toMap((ConfigurationSection) value));
+        } else {
+            config.set(path, value);
+        }
+    }
+
+    private static Map<String, Object> toMap(ConfigurationSection section) {
+        Map<String, Object> map = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Object> entry : section.getValues(false).entrySet()) {
+            Object value = entry.getValue();
+            map.put(entry.getKey(), value instanceof ConfigurationSection ? toMap((ConfigurationSection) value) : value);
+        }
+
+        return map;
+    }
+
+    private static String encodeValue(Object value) {
+        YamlConfiguration document = new YamlConfiguration();
+        document.set(VALUE_KEY, value);
+        return document.saveToString();
+    }
+
+    private static Object decodeValue(String yaml) throws InvalidConfigurationException {
+        YamlConfiguration document = new YamlConfiguration();
+        document.loadFromString(yaml);
+        return document.get(VALUE_KEY);
+    }
+
+    private static String encode(String text) {
+        return Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String text) {
+        return new String(Base64.getDecoder().decode(text), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+package com.judgementday.data;
+
+import com.judgementday.util.LogUtil;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Crash-safe writer for the YAML data files. A snapshot is written to a temp file next to
+ * the target, forced to disk and renamed over the target in one step, so a file on disk is
+ * always either the old or the new version. Writes to the same file never overlap, and the
+ * previous versions are kept as numbered backups.
+ */
+public class YamlSnapshotWriter {
+
+    private final File backupFolder;
+    private final int backups;
+    private final Map<String, Object> fileLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Create a snapshot writer
+     *
+     * @param backupFolder Folder the rotated backups are kept in
+     * @param backups Number of previous versions to keep per file (0 to disable)
+     */
+    public YamlSnapshotWriter(File backupFolder, int backups) {
+        this.backupFolder = backupFolder;
+        this.backups = Math.max(0, backups);
+    }
+
+    /**
+     * Atomically replace a file with new contents
+     *
+     * @param target The file to replace
+     * @param content The serialized YAML
+     * @throws IOException If the snapshot could not be written; the target is left untouched
+     */
+    public void write(File target, String content) throws IOException {
+        Object fileLock = fileLocks.computeIfAbsent(target.getAbsolutePath(), k -> new Object());
+
+        synchronized (fileLock) {
+            File directory = target.getAbsoluteFile().getParentFile();
+            File temp = new File(directory, target.getName() + ".tmp");
+
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                out.write(content.getBytes(StandardCharsets.UTF_8));
+                out.getFD().sync();
+            }
+
+            if (backups > 0 && target.exists()) {
+                rotateBackups(target);
+            }
+
+            try {
+                Files.move(temp.toPath(), target.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            syncDirectory(directory);
+        }
+    }
+
+    private void rotateBackups(File target) {
+        try {
+            if (!backupFolder.exists()) {
+                backupFolder.mkdirs();
+            }
+
+            for (int i = backups; i > 1; i--) {
+                File older = backupFile(target, i - 1);
+                if (older.exists()) {
+                    Files.move(older.toPath(), backupFile(target, i).toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+
+            // A hard link keeps the current version without copying it; the rename that
+            // follows points the target at the new snapshot and leaves the link alone
+            File latest = backupFile(target, 1);
+            Files.deleteIfExists(latest.toPath());
+            try {
+                Files.createLink(latest.toPath(), target.toPath());
+            } catch (UnsupportedOperationException | IOException e) {
+                Files.copy(target.toPath(), latest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LogUtil.warning("Failed to back up " + target.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private File backupFile(File target, int index) {
+        return new File(backupFolder, target.getName() + "." + index);
+    }
+
+    private static void syncDirectory(File directory) {
+        // Makes the rename itself durable; not supported on every platform
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {}
+    }
+}
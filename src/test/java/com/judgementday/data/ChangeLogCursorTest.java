@@ -0,0 +1,86 @@
+package com.judgementday.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChangeLogCursorTest {
+
+    private static final long GAP_TIMEOUT = 5000L;
+    private static final long NOW = 1000000L;
+
+    @Test
+    public void deliversContiguousRowsAndAdvances() {
+        ChangeLogCursor cursor = new ChangeLogCursor(10L, GAP_TIMEOUT);
+
+        assertEquals(Arrays.asList(11L, 12L, 13L), read(cursor, NOW, 11L, 12L, 13L));
+        assertEquals(13L, cursor.getPosition());
+    }
+
+    @Test
+    public void rowCommittedOutOfOrderIsStillDelivered() {
+        ChangeLogCursor cursor = new ChangeLogCursor(10L, GAP_TIMEOUT);
+
+        // 12 commits before 11
+        assertEquals(Arrays.asList(12L), read(cursor, NOW, 12L));
+        assertEquals(10L, cursor.getPosition());
+
+        // 11 commits; 12 is not delivered twice
+        assertEquals(Arrays.asList(11L), read(cursor, NOW + 1000L, 11L, 12L));
+        assertEquals(12L, cursor.getPosition());
+    }
+
+    @Test
+    public void rowsAfterAGapAreNotRedeliveredWhileWaiting() {
+        ChangeLogCursor cursor = new ChangeLogCursor(10L, GAP_TIMEOUT);
+
+        assertEquals(Arrays.asList(12L, 13L), read(cursor, NOW, 12L, 13L));
+        assertEquals(Arrays.asList(14L), read(cursor, NOW + 1000L, 12L, 13L, 14L));
+        assertEquals(Arrays.asList(11L, 15L), read(cursor, NOW + 2000L, 11L, 12L, 13L, 14L, 15L));
+        assertEquals(15L, cursor.getPosition());
+    }
+
+    @Test
+    public void severalGapsFillInAnyOrder() {
+        ChangeLogCursor cursor = new ChangeLogCursor(10L, GAP_TIMEOUT);
+
+        assertEquals(Arrays.asList(12L, 14L), read(cursor, NOW, 12L, 14L));
+        assertEquals(Arrays.asList(13L), read(cursor, NOW + 100L, 12L, 13L, 14L));
+        assertEquals(10L, cursor.getPosition());
+
+        assertEquals(Arrays.asList(11L), read(cursor, NOW + 200L, 11L, 12L, 13L, 14L));
+        assertEquals(14L, cursor.getPosition());
+    }
+
+    @Test
+    public void movesPastARolledBackIdAfterTheTimeout() {
+        ChangeLogCursor cursor = new ChangeLogCursor(10L, GAP_TIMEOUT);
+
+        assertEquals(Arrays.asList(12L), read(cursor, NOW, 12L));
+        assertEquals(Arrays.asList(), read(cursor, NOW + GAP_TIMEOUT - 1, 12L));
+        assertEquals(10L, cursor.getPosition());
+
+        assertEquals(Arrays.asList(13L), read(cursor, NOW + GAP_TIMEOUT, 12L, 13L));
+        assertEquals(13L, cursor.getPosition());
+    }
+
+    /**
+     * Read the visible rows the way the transport does: those after the position, in id order
+     */
+    private static List<Long> read(ChangeLogCursor cursor, long now, Long... visible) {
+        long after = cursor.getPosition();
+        List<Long> delivered = new ArrayList<>();
+
+        cursor.beginRead();
+        for (long id : visible) {
+            if (id > after && cursor.advance(id, now)) {
+                delivered.add(id);
+            }
+        }
+        return delivered;
+    }
+}
@@ -0,0 +1,121 @@
+package com.judgementday.data;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IdAllocatorTest {
+
+    private static final int BLOCK_SIZE = 8;
+
+    private final List<CompletableFuture<Integer>> reservations = new ArrayList<>();
+    private final IdAllocator allocator = new IdAllocator(size -> {
+        assertEquals(BLOCK_SIZE, size);
+        CompletableFuture<Integer> block = new CompletableFuture<>();
+        reservations.add(block);
+        return block;
+    }, BLOCK_SIZE);
+
+    @Test
+    public void handsOutIdsFromTheReservedBlock() {
+        allocator.prefetch();
+        reservations.get(0).complete(100);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Integer.valueOf(100 + i), allocator.nextId().join());
+        }
+        assertEquals(1, reservations.size());
+    }
+
+    @Test
+    public void reservesTheNextBlockWhenThreeQuartersUsed() {
+        allocator.prefetch();
+        reservations.get(0).complete(100);
+
+        for (int i = 0; i < 6; i++) {
+            allocator.nextId().join();
+        }
+        assertEquals(2, reservations.size());
+
+        reservations.get(1).complete(500);
+        assertEquals(Integer.valueOf(106), allocator.nextId().join());
+        assertEquals(Integer.valueOf(107), allocator.nextId().join());
+        assertEquals(Integer.valueOf(500), allocator.nextId().join());
+    }
+
+    @Test
+    public void waitersShareOneReservation() {
+        CompletableFuture<Integer> first = allocator.nextId();
+        CompletableFuture<Integer> second = allocator.nextId();
+
+        assertFalse(first.isDone());
+        assertEquals(1, reservations.size());
+
+        reservations.get(0).complete(100);
+
+        assertEquals(new HashSet<>(Arrays.asList(100, 101)), new HashSet<>(Arrays.asList(first.join(), second.join())));
+    }
+
+    @Test
+    public void failedReservationFailsWithItsCauseAndIsRetried() {
+        SQLException cause = new SQLException("Database is down");
+
+        CompletableFuture<Integer> id = allocator.nextId();
+        reservations.get(0).completeExceptionally(cause);
+
+        try {
+            id.join();
+            fail("Expected the reservation failure");
+        } catch (CompletionException e) {
+            assertSame(cause, e.getCause());
+        }
+
+        CompletableFuture<Integer> retry = allocator.nextId();
+        assertEquals(2, reservations.size());
+        reservations.get(1).complete(100);
+        assertEquals(Integer.valueOf(100), retry.join());
+    }
+
+    @Test
+    public void failedBackgroundRefillIsRetried() {
+        allocator.prefetch();
+        reservations.get(0).complete(100);
+
+        for (int i = 0; i < 6; i++) {
+            allocator.nextId().join();
+        }
+        reservations.get(1).completeExceptionally(new SQLException("Database is down"));
+
+        // The current block is not affected, and the next id tries the refill again
+        assertEquals(Integer.valueOf(106), allocator.nextId().join());
+        assertEquals(3, reservations.size());
+
+        reservations.get(2).complete(500);
+        assertEquals(Integer.valueOf(107), allocator.nextId().join());
+        assertEquals(Integer.valueOf(500), allocator.nextId().join());
+    }
+
+    @Test
+    public void nextIdsSpansBlocks() {
+        CompletableFuture<List<Integer>> ids = allocator.nextIds(10);
+        reservations.get(0).complete(100);
+
+        assertFalse(ids.isDone());
+        reservations.get(1).complete(500);
+
+        assertTrue(ids.isDone());
+        assertEquals(Arrays.asList(100, 101, 102, 103, 104, 105, 106, 107, 500, 501), ids.join());
+    }
+}
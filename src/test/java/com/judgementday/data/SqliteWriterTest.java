@@ -0,0 +1,85 @@
+package com.judgementday.data;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class SqliteWriterTest {
+
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    private ExecutorService completions;
+    private SqliteWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        completions = Executors.newSingleThreadExecutor();
+        writer = new SqliteWriter(recordingConnection(), completions, 100, 64);
+        writer.start();
+    }
+
+    @After
+    public void tearDown() {
+        writer.shutdown(5);
+        completions.shutdownNow();
+    }
+
+    @Test(timeout = 10000L)
+    public void writeSubmittedFromCallbackIsCommittedBeforeItCompletes() throws Exception {
+        CompletableFuture<String> nested = writer.submit(connection -> record("first"))
+                .thenCompose(first -> writer.submit(connection -> record("second")));
+
+        assertEquals("second", nested.get(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("first", "commit", "second", "commit"), events);
+    }
+
+    @Test(timeout = 10000L)
+    public void writeSubmittedFromWorkGoesIntoTheNextTransaction() throws Exception {
+        List<CompletableFuture<String>> inner = new ArrayList<>();
+        writer.submit(connection -> {
+            inner.add(writer.submit(c -> record("inner")));
+            return record("outer");
+        }).get(5, TimeUnit.SECONDS);
+
+        assertEquals("inner", inner.get(0).get(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("outer", "commit", "inner", "commit"), events);
+    }
+
+    @Test(timeout = 10000L)
+    public void futuresAreNotCompletedOnTheWriterThread() throws Exception {
+        String writerThread = writer.submit(connection -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+        String callbackThread = writer.submit(connection -> "")
+                .thenApply(v -> Thread.currentThread().getName())
+                .get(5, TimeUnit.SECONDS);
+
+        assertNotEquals(writerThread, callbackThread);
+    }
+
+    private String record(String event) {
+        events.add(event);
+        return event;
+    }
+
+    private Connection recordingConnection() {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("commit")) {
+                        events.add("commit");
+                    }
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,207 @@
+package com.judgementday.data;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class YamlJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File dataFile;
+    private File journalFile;
+    private File flushingFile;
+    private FailingSnapshotWriter snapshotWriter;
+
+    @Before
+    public void setUp() throws IOException {
+        File root = folder.getRoot();
+        dataFile = new File(root, "players.yml");
+        journalFile = new File(root, "journal.log");
+        flushingFile = new File(root, "journal.log.flushing");
+        snapshotWriter = new FailingSnapshotWriter(new File(root, "backups"));
+    }
+
+    @Test
+    public void changesAreJournaledUntilFlushed() {
+        YamlJournal journal = open(new YamlConfiguration());
+        journal.set(dataFile, "players.a.name", "Alice");
+
+        assertFalse(dataFile.exists());
+        assertTrue(journalFile.length() > 0);
+
+        journal.flush();
+
+        assertEquals("Alice", load().getString("players.a.name"));
+        assertEquals(0L, journalFile.length());
+        assertEquals(0L, journal.getPendingBytes());
+    }
+
+    @Test
+    public void recoverReplaysUnflushedChanges() {
+        YamlJournal journal = open(new YamlConfiguration());
+        journal.set(dataFile, "players.a.name", "Alice");
+        journal.set(dataFile, "players.a.last-seen", 100L);
+        journal.set(dataFile, "players.b.name", "Bob");
+        journal.set(dataFile, "players.b", null);
+        // The server dies without flushing
+
+        YamlConfiguration recovered = new YamlConfiguration();
+        open(recovered);
+
+        assertEquals("Alice", recovered.getString("players.a.name"));
+        assertEquals(100L, recovered.getLong("players.a.last-seen"));
+        assertNull(recovered.get("players.b"));
+        assertEquals("Alice", load().getString("players.a.name"));
+    }
+
+    @Test
+    public void recoverDiscardsATornFinalLine() throws IOException {
+        YamlJournal journal = open(new YamlConfiguration());
+        journal.set(dataFile, "players.a.name", "Alice");
+        journal.set(dataFile, "players.b.name", "Bob");
+
+        // The last write stops part-way through its value
+        byte[] bytes = Files.readAllBytes(journalFile.toPath());
+        Files.write(journalFile.toPath(), Arrays.copyOf(bytes, bytes.length - 6));
+
+        YamlConfiguration recovered = new YamlConfiguration();
+        open(recovered);
+
+        assertEquals("Alice", recovered.getString("players.a.name"));
+        assertNull(recovered.get("players.b"));
+    }
+
+    @Test
+    public void entryAppendedAfterATornLineIsReplayed() throws IOException {
+        // Only a torn line, so nothing is replayed and the journal is reopened for appending
+        Files.write(journalFile.toPath(), "players.yml\tcGxheWVycw".getBytes(StandardCharsets.UTF_8));
+
+        YamlJournal journal = open(new YamlConfiguration());
+        journal.set(dataFile, "players.a.name", "Alice");
+
+        YamlConfiguration recovered = new YamlConfiguration();
+        open(recovered);
+
+        assertEquals("Alice", recovered.getString("players.a.name"));
+    }
+
+    @Test
+    public void failedFlushKeepsChangesForTheNextFlush() {
+        YamlJournal journal = open(new YamlConfiguration());
+        journal.set(dataFile, "players.a.name", "Alice");
+
+        snapshotWriter.failing = true;
+        journal.flush();
+
+        assertFalse(dataFile.exists());
+        assertTrue(flushingFile.exists());
+
+        snapshotWriter.failing = false;
+        journal.flush();
+
+        assertEquals("Alice", load().getString("players.a.name"));
+        assertFalse(flushingFile.exists());
+    }
+
+    @Test
+    public void rotateAfterAFailedFlushKeepsTheOlderEntriesFirst() {
+        YamlJournal journal = open(new YamlConfiguration());
+        journal.set(dataFile, "players.a.name", "Alice");
+
+        snapshotWriter.failing = true;
+        journal.flush();
+
+        journal.set(dataFile, "players.a.name", "Alicia");
+        journal.set(dataFile, "players.b.name", "Bob");
+        journal.flush();
+
+        // Both rotations failed to write; the flushing journal holds every entry, oldest first
+        assertTrue(flushingFile.exists());
+        YamlConfiguration recovered = new YamlConfiguration();
+        snapshotWriter.failing = false;
+        open(recovered);
+
+        assertEquals("Alicia", recovered.getString("players.a.name"));
+        assertEquals("Bob", recovered.getString("players.b.name"));
+        assertFalse(flushingFile.exists());
+    }
+
+    @Test
+    public void updateSeesTheCurrentValue() {
+        YamlJournal journal = open(new YamlConfiguration());
+        journal.set(dataFile, "count", 1);
+        journal.update(dataFile, "count", current -> (Integer) current + 1);
+
+        YamlConfiguration recovered = new YamlConfiguration();
+        open(recovered);
+
+        assertEquals(2, recovered.getInt("count"));
+    }
+
+    @Test
+    public void updateSectionWritesNothingForNoChanges() {
+        YamlJournal journal = open(new YamlConfiguration());
+        journal.updateSection(dataFile, "players.a", section -> Collections.emptyMap());
+
+        assertEquals(0L, journal.getPendingBytes());
+
+        journal.updateSection(dataFile, "players.a", section -> {
+            Map<String, Object> changes = new LinkedHashMap<>();
+            changes.put("name", section == null ? "Alice" : "unexpected");
+            changes.put("last-seen", 100L);
+            return changes;
+        });
+
+        YamlConfiguration recovered = new YamlConfiguration();
+        open(recovered);
+
+        assertEquals("Alice", recovered.getString("players.a.name"));
+        assertEquals(100L, recovered.getLong("players.a.last-seen"));
+    }
+
+    private YamlJournal open(YamlConfiguration config) {
+        // A threshold nothing reaches, so only the test flushes
+        YamlJournal journal = new YamlJournal(journalFile, snapshotWriter, null, Long.MAX_VALUE, false);
+        journal.register(dataFile, config);
+        journal.recover();
+        return journal;
+    }
+
+    private YamlConfiguration load() {
+        return YamlConfiguration.loadConfiguration(dataFile);
+    }
+
+    private static final class FailingSnapshotWriter extends YamlSnapshotWriter {
+        private volatile boolean failing;
+
+        private FailingSnapshotWriter(File backupFolder) {
+            super(backupFolder, 0);
+        }
+
+        @Override
+        public void write(File target, String content) throws IOException {
+            if (failing) {
+                throw new IOException("Disk full");
+            }
+            super.write(target, content);
+        }
+    }
+}
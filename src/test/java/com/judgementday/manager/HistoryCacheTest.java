@@ -0,0 +1,159 @@
+package com.judgementday.manager;
+
+import com.judgementday.data.PageCursor;
+import com.judgementday.model.Punishment;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+
+public class HistoryCacheTest {
+
+    private static final long TTL = 60000L;
+
+    private final UUID player = UUID.randomUUID();
+    private final UUID other = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void secondGetIsServedFromTheCache() {
+        HistoryCache cache = new HistoryCache(100L, TTL);
+        List<Punishment> history = Arrays.asList(punishment(2, player), punishment(1, player));
+
+        assertEquals(history, cache.get(player, loader(history)).join());
+        assertEquals(history, cache.get(player, loader(history)).join());
+
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+    }
+
+    @Test
+    public void callersGetTheirOwnCopies() {
+        HistoryCache cache = new HistoryCache(100L, TTL);
+        cache.get(player, loader(Arrays.asList(punishment(1, player)))).join();
+
+        cache.get(player, loader(Collections.emptyList())).join().clear();
+
+        assertEquals(1, cache.get(player, loader(Collections.emptyList())).join().size());
+    }
+
+    @Test
+    public void loadThatRacesAnAddIsNotCached() {
+        HistoryCache cache = new HistoryCache(100L, TTL);
+        CompletableFuture<List<Punishment>> pending = new CompletableFuture<>();
+
+        CompletableFuture<List<Punishment>> result = cache.get(player, uuid -> pending);
+
+        // A punishment is issued while the old history is still being read
+        cache.onPunishmentAdded(punishment(2, player));
+        pending.complete(Arrays.asList(punishment(1, player)));
+
+        assertEquals(1, result.join().size());
+        assertEquals(2, cache.get(player, loader(Arrays.asList(punishment(2, player), punishment(1, player))))
+                .join().size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void loadThatRacesAnInvalidationIsNotCached() {
+        HistoryCache cache = new HistoryCache(100L, TTL);
+        CompletableFuture<List<Punishment>> pending = new CompletableFuture<>();
+
+        cache.get(player, uuid -> pending);
+        cache.invalidate(player);
+        pending.complete(Arrays.asList(punishment(1, player)));
+
+        assertEquals(0L, cache.getWeight());
+        cache.get(player, loader(Collections.emptyList())).join();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void countThatRacesAnAddIsNotCached() {
+        HistoryCache cache = new HistoryCache(100L, TTL);
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+
+        cache.getCount(player, () -> pending);
+        cache.onPunishmentAdded(punishment(2, player));
+        pending.complete(1);
+
+        assertEquals(Integer.valueOf(2), cache.getCount(player, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(2);
+        }).join());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void addedPunishmentUpdatesTheCachedHistory() {
+        HistoryCache cache = new HistoryCache(100L, TTL);
+        Punishment older = punishment(1, player);
+        Punishment newer = punishment(2, player);
+        cache.get(player, loader(Arrays.asList(older))).join();
+
+        cache.onPunishmentAdded(newer);
+
+        assertEquals(Arrays.asList(newer, older), cache.get(player, loader(Collections.emptyList())).join());
+        assertEquals(Integer.valueOf(2), cache.getCount(player, () -> CompletableFuture.completedFuture(0)).join());
+        assertEquals(1, loads.get());
+        assertEquals(2L, cache.getWeight());
+    }
+
+    @Test
+    public void pagesAreCachedPerCursorAndPageSize() {
+        HistoryCache cache = new HistoryCache(100L, TTL);
+        List<Punishment> page = Arrays.asList(punishment(2, player));
+
+        cache.getPage(player, PageCursor.FIRST, 1, () -> loader(page).apply(player)).join();
+        cache.getPage(player, PageCursor.FIRST, 1, () -> loader(page).apply(player)).join();
+        assertEquals(1, loads.get());
+
+        cache.getPage(player, PageCursor.FIRST, 5, () -> loader(page).apply(player)).join();
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void leastRecentlyUsedHistoryIsEvicted() {
+        HistoryCache cache = new HistoryCache(3L, TTL);
+        cache.get(player, loader(Arrays.asList(punishment(1, player), punishment(2, player)))).join();
+        cache.get(other, loader(Arrays.asList(punishment(3, other), punishment(4, other)))).join();
+
+        assertEquals(2L, cache.getWeight());
+        assertEquals(1L, cache.getEvictionCount());
+
+        cache.get(other, loader(Collections.emptyList())).join();
+        assertEquals(2, loads.get());
+        cache.get(player, loader(Collections.emptyList())).join();
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void expiredEntryIsLoadedAgain() {
+        HistoryCache cache = new HistoryCache(100L, 0L);
+
+        cache.get(player, loader(Collections.emptyList())).join();
+        cache.get(player, loader(Collections.emptyList())).join();
+
+        assertEquals(2, loads.get());
+    }
+
+    private Function<UUID, CompletableFuture<List<Punishment>>> loader(List<Punishment> history) {
+        return uuid -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(new ArrayList<>(history));
+        };
+    }
+
+    private static Punishment punishment(int id, UUID target) {
+        return new Punishment(id, target, "Target", null, "Staff", null, "Testing", -1, null, 1);
+    }
+}
@@ -0,0 +1,112 @@
+package com.judgementday.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompletionTrieTest {
+
+    @Test
+    public void completesInAlphabeticalOrder() {
+        CompletionTrie trie = trie("Steve", "alex", "Stan", "st", "Sam");
+
+        assertEquals(Arrays.asList("st", "Stan", "Steve"), trie.complete("st", 10));
+        assertEquals(Arrays.asList("alex", "Sam", "st", "Stan", "Steve"), trie.complete("", 10));
+    }
+
+    @Test
+    public void matchesAnyCaseButKeepsTheAddedCase() {
+        CompletionTrie trie = trie("Notch");
+
+        assertEquals(Arrays.asList("Notch"), trie.complete("NOT", 10));
+        assertTrue(trie.contains("notch"));
+
+        trie.add("NOTCH");
+        assertEquals(Arrays.asList("NOTCH"), trie.complete("n", 10));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    public void stopsAtTheLimit() {
+        CompletionTrie trie = trie("a1", "a2", "a3", "a4");
+
+        assertEquals(Arrays.asList("a1", "a2"), trie.complete("a", 2));
+        assertEquals(Collections.emptyList(), trie.complete("a", 0));
+
+        List<String> words = new ArrayList<>(Arrays.asList("x"));
+        trie.complete("a", 3, words);
+        assertEquals(Arrays.asList("x", "a1", "a2"), words);
+    }
+
+    @Test
+    public void unknownPrefixCompletesNothing() {
+        CompletionTrie trie = trie("Steve");
+
+        assertEquals(Collections.emptyList(), trie.complete("Stevenson", 10));
+        assertEquals(Collections.emptyList(), trie.complete("x", 10));
+    }
+
+    @Test
+    public void removeKeepsLongerAndShorterWords() {
+        CompletionTrie trie = trie("st", "Stan", "Stanley");
+
+        assertTrue(trie.remove("STAN"));
+        assertFalse(trie.remove("Stan"));
+        assertFalse(trie.remove("Sta"));
+
+        assertEquals(Arrays.asList("st", "Stanley"), trie.complete("s", 10));
+        assertEquals(2, trie.size());
+
+        assertTrue(trie.remove("Stanley"));
+        assertEquals(Arrays.asList("st"), trie.complete("s", 10));
+        assertFalse(trie.contains("Stan"));
+    }
+
+    @Test
+    public void wordsCanBeAddedAgainAfterRemoval() {
+        CompletionTrie trie = trie("Steve");
+        trie.remove("Steve");
+
+        assertEquals(0, trie.size());
+        assertEquals(Collections.emptyList(), trie.complete("", 10));
+
+        trie.add("Steve");
+        assertEquals(Arrays.asList("Steve"), trie.complete("s", 10));
+    }
+
+    @Test
+    public void childrenStaySortedAsTheyGrow() {
+        CompletionTrie trie = trie("e", "b", "d", "a", "c", "f", "h", "g");
+
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h"), trie.complete("", 10));
+
+        trie.remove("d");
+        trie.remove("a");
+        assertEquals(Arrays.asList("b", "c", "e", "f", "g", "h"), trie.complete("", 10));
+    }
+
+    @Test
+    public void replaceAllDropsTheOldWords() {
+        CompletionTrie trie = trie("Steve", "Alex");
+
+        trie.replaceAll(Arrays.asList("Notch", "notch", "Jeb"));
+
+        assertEquals(Arrays.asList("Jeb", "notch"), trie.complete("", 10));
+        assertEquals(2, trie.size());
+    }
+
+    private static CompletionTrie trie(String... words) {
+        CompletionTrie trie = new CompletionTrie();
+        for (String word : words) {
+            trie.add(word);
+        }
+        return trie;
+    }
+}
@@ -0,0 +1,92 @@
+package com.judgementday.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class MessageTemplateTest {
+
+    @Test
+    public void replacesPlaceholders() {
+        MessageTemplate template = MessageTemplate.compile("{player} was banned by {staff} for {reason}");
+
+        assertEquals("Steve was banned by Alex for Hacking",
+                template.render(values("player", "Steve", "staff", "Alex", "reason", "Hacking")));
+    }
+
+    @Test
+    public void placeholderWithoutAValueIsRenderedAsWritten() {
+        MessageTemplate template = MessageTemplate.compile("Punishment #{id} for {player}");
+
+        assertEquals("Punishment #{id} for Steve", template.render(values("player", "Steve")));
+        assertEquals("Punishment #{id} for {player}", template.render(null));
+    }
+
+    @Test
+    public void strayBracesAreKeptAsText() {
+        assertEquals("} {x y} { Steve",
+                MessageTemplate.compile("} {x y} { {player}").render(values("player", "Steve")));
+        assertEquals("{Steve}", MessageTemplate.compile("{{player}}").render(values("player", "Steve")));
+        assertEquals("{a{Steve", MessageTemplate.compile("{a{{player}").render(values("player", "Steve")));
+        assertEquals("{} {", MessageTemplate.compile("{} {").render(values("player", "Steve")));
+        assertEquals("Steve {", MessageTemplate.compile("{player} {").render(values("player", "Steve")));
+    }
+
+    @Test
+    public void valuesAreNotParsedAgain() {
+        MessageTemplate template = MessageTemplate.compile("{player}: {reason}");
+
+        assertEquals("{reason}: &cSpam", template.render(values("player", "{reason}", "reason", "&cSpam")));
+    }
+
+    @Test
+    public void colorCodesOfTheMessageAreTranslated() {
+        MessageTemplate template = MessageTemplate.compile("&c{player} &7was muted");
+
+        assertEquals("§cSteve §7was muted", template.render(values("player", "Steve")));
+        assertEquals("&§cBanned &", MessageTemplate.compile("&&cBanned &").render(null));
+    }
+
+    @Test
+    public void bindingRendersStringsAndNumbers() {
+        MessageTemplate template = MessageTemplate.compile("#{id} {player} ({id})");
+
+        assertEquals("#42 Steve (42)", template.bind().with("id", 42L).with("player", "Steve").render());
+        assertEquals("#{id} Steve ({id})", template.bind().with("player", "Steve").with("unknown", 1L).render());
+        assertEquals("no placeholders", MessageTemplate.compile("no placeholders").bind().with("id", 1L).render());
+    }
+
+    @Test
+    public void formatHandlesStrayBraces() {
+        Map<String, String> values = values("player", "Steve");
+
+        assertEquals("{Steve} {x} {", MessageTemplate.format("{{player}} {x} {", values));
+        assertEquals("} Steve", MessageTemplate.format("} {player}", values));
+        assertEquals("§cSteve", MessageTemplate.format("&c{player}", values));
+        assertEquals("{player}", MessageTemplate.format("{player}", null));
+    }
+
+    @Test
+    public void formatTranslatesColorsInValues() {
+        assertEquals("§cSteve", MessageTemplate.format("{color}Steve", values("color", "&c")));
+    }
+
+    @Test
+    public void nullMessageCompilesToEmpty() {
+        MessageTemplate template = MessageTemplate.compile(null);
+
+        assertEquals("", template.render(null));
+        assertEquals("", template.getRaw());
+    }
+
+    private static Map<String, String> values(String... pairs) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            values.put(pairs[i], pairs[i + 1]);
+        }
+        return values;
+    }
+}
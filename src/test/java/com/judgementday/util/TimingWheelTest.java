@@ -0,0 +1,120 @@
+package com.judgementday.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TimingWheelTest {
+
+    private static final long TICK = 10L;
+    private static final int SIZE = 4;
+
+    @Test
+    public void itemAlreadyDueIsNotScheduled() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, 1000L);
+
+        assertFalse(wheel.schedule("past", 900L));
+        assertFalse(wheel.schedule("this tick", 1005L));
+        assertTrue(wheel.schedule("next tick", 1010L));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void firesOnceItsTickIsReached() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, 0L);
+        wheel.schedule("a", 25L);
+
+        assertEquals(Arrays.asList(), advance(wheel, 19L));
+        assertEquals(Arrays.asList("a"), advance(wheel, 20L));
+        assertEquals(Arrays.asList(), advance(wheel, 40L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void itemsCascadeThroughOverflowWheels() {
+        // Spans are 40, 160 and 640, so this one starts two overflow wheels out
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, 0L);
+        wheel.schedule("far", 1000L);
+        wheel.schedule("near", 30L);
+        assertEquals(2, wheel.size());
+
+        assertEquals(Arrays.asList("near"), advance(wheel, 30L));
+
+        for (long now = 40L; now < 1000L; now += 7L) {
+            assertEquals("fired at " + now, Arrays.asList(), advance(wheel, now));
+        }
+        assertEquals(1, wheel.size());
+
+        assertEquals(Arrays.asList("far"), advance(wheel, 1000L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void largeJumpFiresEverythingDue() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, 0L);
+        wheel.schedule("a", 50L);
+        wheel.schedule("b", 700L);
+        wheel.schedule("c", 5000L);
+
+        List<String> fired = advance(wheel, 4000L);
+
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), new HashSet<>(fired));
+        assertEquals(Arrays.asList("c"), advance(wheel, 5000L));
+    }
+
+    @Test
+    public void neverFiresLateOrMoreThanATickEarly() {
+        Random random = new Random(42L);
+        long start = 123457L;
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, SIZE, start);
+        Map<Integer, Long> pending = new HashMap<>();
+        Set<Integer> fired = new HashSet<>();
+
+        long now = start;
+        int next = 0;
+
+        while (now < start + 100000L) {
+            for (int i = random.nextInt(4); i > 0; i--) {
+                long dueTime = now + 1 + random.nextInt(random.nextBoolean() ? 100 : 20000);
+                if (wheel.schedule(next, dueTime)) {
+                    pending.put(next, dueTime);
+                }
+                next++;
+            }
+
+            now += 1 + random.nextInt(random.nextInt(10) == 0 ? 2000 : 15);
+            long tickStart = now - (now % TICK);
+
+            for (Integer item : advance(wheel, now)) {
+                if (!fired.add(item)) {
+                    fail("item " + item + " fired twice");
+                }
+                long dueTime = pending.remove(item);
+                assertTrue("item due at " + dueTime + " fired early at " + now, dueTime < tickStart + TICK);
+            }
+
+            for (Map.Entry<Integer, Long> entry : pending.entrySet()) {
+                assertTrue("item due at " + entry.getValue() + " not fired by " + now, entry.getValue() > now);
+            }
+            assertEquals(pending.size(), wheel.size());
+        }
+    }
+
+    private static <T> List<T> advance(TimingWheel<T> wheel, long now) {
+        List<T> fired = new ArrayList<>();
+        wheel.advance(now, fired::add);
+        return fired;
+    }
+}